@@ -0,0 +1,217 @@
+package org.tron.common.crypto;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Arrays;
+import org.spongycastle.asn1.x9.X9ECParameters;
+import org.spongycastle.crypto.ec.CustomNamedCurves;
+import org.spongycastle.math.ec.ECAlgorithms;
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECPoint;
+
+/**
+ * Public key recovery for secp256k1 signatures in their raw 65 bytes form
+ * <code>r(32) || s(32) || v(1)</code>, as stored in transactions and block headers.
+ *
+ * <p>It gives the same results as {@link ECKey#signatureToAddress(byte[], String)} on the base64
+ * encoding of the same bytes, but works on the dedicated secp256k1 curve implementation: field
+ * elements are fixed size limb arrays instead of {@link BigInteger}s, scalar multiplications
+ * use the GLV endomorphism, and the two multiplications of the recovery share one interleaved
+ * wNAF ladder (Shamir's trick) with the generator's precomputed table cached across calls. As the
+ * curve has cofactor 1, the <code>n * R == infinity</code> check of the generic recovery is
+ * skipped.</p>
+ */
+public class ECRecovery {
+
+  public static final int SIGNATURE_LENGTH = 65;
+
+  private static final X9ECParameters PARAMS = CustomNamedCurves.getByName("secp256k1");
+  private static final ECCurve CURVE = PARAMS.getCurve();
+  private static final ECPoint G = PARAMS.getG();
+  private static final BigInteger N = PARAMS.getN();
+  private static final BigInteger P = CURVE.getField().getCharacteristic();
+
+  private ECRecovery() {
+  }
+
+  /**
+   * Recovers the 20 bytes address (with prefix) of the key that produced <code>signature</code>
+   * over <code>messageHash</code>.
+   *
+   * @param messageHash 32-byte hash of message
+   * @param signature raw signature, r(32) || s(32) || v(1)
+   * @return 21-byte address
+   */
+  public static byte[] signatureToAddress(byte[] messageHash, byte[] signature)
+      throws SignatureException {
+    return ECKey.computeAddress(signatureToKeyBytes(messageHash, signature));
+  }
+
+  /**
+   * Recovers the uncompressed encoding of the key that produced <code>signature</code> over
+   * <code>messageHash</code>.
+   *
+   * @param messageHash 32-byte hash of message
+   * @param signature raw signature, r(32) || s(32) || v(1)
+   * @return 65-byte encoded public key
+   */
+  public static byte[] signatureToKeyBytes(byte[] messageHash, byte[] signature)
+      throws SignatureException {
+    if (messageHash == null || messageHash.length != 32) {
+      throw new IllegalArgumentException("messageHash argument has length "
+          + (messageHash == null ? 0 : messageHash.length));
+    }
+    if (signature == null || signature.length < SIGNATURE_LENGTH) {
+      throw new SignatureException("Signature truncated, expected 65 bytes and got "
+          + (signature == null ? 0 : signature.length));
+    }
+
+    int recId = recoveryId(signature);
+    BigInteger r = new BigInteger(1, Arrays.copyOfRange(signature, 0, 32));
+    BigInteger s = new BigInteger(1, Arrays.copyOfRange(signature, 32, 64));
+    byte[] key = recoverPubBytes(recId, r, s, messageHash);
+    if (key == null) {
+      throw new SignatureException("Could not recover public key from signature");
+    }
+    return key;
+  }
+
+  /**
+   * Batch form of {@link #signatureToAddress(byte[], byte[])}.
+   *
+   * <p>The inverses of all <code>r</code> values are taken with a single modular inversion
+   * (Montgomery's trick), and the recovered keys are brought back from Jacobian to affine
+   * coordinates with a single field inversion as well, instead of one of each per signature.</p>
+   *
+   * @param messageHashes 32-byte hashes of messages
+   * @param signatures raw signatures, r(32) || s(32) || v(1), one per hash
+   * @return 21-byte addresses in input order, null where {@link #signatureToAddress(byte[],
+   * byte[])} fails
+   */
+  public static byte[][] signaturesToAddresses(byte[][] messageHashes, byte[][] signatures) {
+    if (messageHashes.length != signatures.length) {
+      throw new IllegalArgumentException("Got " + messageHashes.length + " hashes and "
+          + signatures.length + " signatures");
+    }
+
+    int n = signatures.length;
+    BigInteger[] rInvs = new BigInteger[n];
+    BigInteger[] ss = new BigInteger[n];
+    ECPoint[] points = new ECPoint[n];
+    for (int i = 0; i < n; i++) {
+      byte[] signature = signatures[i];
+      if (messageHashes[i] == null || messageHashes[i].length != 32
+          || signature == null || signature.length < SIGNATURE_LENGTH) {
+        continue;
+      }
+      try {
+        int recId = recoveryId(signature);
+        BigInteger r = new BigInteger(1, Arrays.copyOfRange(signature, 0, 32));
+        BigInteger x = r.add(BigInteger.valueOf(recId / 2).multiply(N));
+        if (x.compareTo(P) >= 0 || r.mod(N).signum() == 0) {
+          continue;
+        }
+        points[i] = decompressKey(x, (recId & 1) == 1);
+        rInvs[i] = r; // inverted below
+        ss[i] = new BigInteger(1, Arrays.copyOfRange(signature, 32, 64));
+      } catch (SignatureException | IllegalArgumentException e) {
+        // no point for this signature, recovered one by one it fails as well
+      }
+    }
+
+    invertAll(rInvs);
+
+    ECPoint[] keys = new ECPoint[n];
+    for (int i = 0; i < n; i++) {
+      if (points[i] == null) {
+        continue;
+      }
+      BigInteger e = new BigInteger(1, messageHashes[i]);
+      BigInteger eInv = BigInteger.ZERO.subtract(e).mod(N);
+      BigInteger srInv = rInvs[i].multiply(ss[i]).mod(N);
+      BigInteger eInvrInv = rInvs[i].multiply(eInv).mod(N);
+      keys[i] = ECAlgorithms.sumOfTwoMultiplies(G, eInvrInv, points[i], srInv);
+    }
+
+    CURVE.normalizeAll(keys);
+
+    byte[][] addresses = new byte[n][];
+    for (int i = 0; i < n; i++) {
+      if (keys[i] != null) {
+        addresses[i] = ECKey.computeAddress(keys[i].getEncoded(/* compressed */ false));
+      }
+    }
+    return addresses;
+  }
+
+  /**
+   * Replaces every non null entry of <code>values</code> by its inverse modulo {@link #N}, with
+   * a single modular inversion for all of them. Entries must not be multiples of {@link #N}.
+   */
+  static void invertAll(BigInteger[] values) {
+    BigInteger[] prefixes = new BigInteger[values.length];
+    BigInteger product = BigInteger.ONE;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        prefixes[i] = product;
+        product = product.multiply(values[i]).mod(N);
+      }
+    }
+
+    BigInteger inverse = product.modInverse(N);
+    for (int i = values.length - 1; i >= 0; i--) {
+      if (values[i] != null) {
+        BigInteger value = values[i];
+        values[i] = inverse.multiply(prefixes[i]).mod(N);
+        inverse = inverse.multiply(value).mod(N);
+      }
+    }
+  }
+
+  // same header normalization as TransactionCapsule.getBase64FromByteString
+  private static int recoveryId(byte[] signature) throws SignatureException {
+    byte v = signature[64];
+    if (v < 27) {
+      v += 27;
+    }
+    int header = v;
+    if (header < 27 || header > 34) {
+      throw new SignatureException("Header byte out of range: " + header);
+    }
+    if (header >= 31) {
+      header -= 4;
+    }
+    return header - 27;
+  }
+
+  /**
+   * Computes <code>Q = r^-1 * (s * R - e * G)</code> for the candidate point <code>R</code>
+   * selected by <code>recId</code>.
+   *
+   * @return 65-byte encoded public key, or null if <code>recId</code> selects no point
+   */
+  static byte[] recoverPubBytes(int recId, BigInteger r, BigInteger s, byte[] messageHash) {
+    BigInteger x = r.add(BigInteger.valueOf(recId / 2).multiply(N));
+    if (x.compareTo(P) >= 0) {
+      return null;
+    }
+    ECPoint point = decompressKey(x, (recId & 1) == 1);
+
+    BigInteger e = new BigInteger(1, messageHash);
+    BigInteger eInv = BigInteger.ZERO.subtract(e).mod(N);
+    BigInteger rInv = r.modInverse(N);
+    BigInteger srInv = rInv.multiply(s).mod(N);
+    BigInteger eInvrInv = rInv.multiply(eInv).mod(N);
+    ECPoint q = ECAlgorithms.sumOfTwoMultiplies(G, eInvrInv, point, srInv);
+    return q.getEncoded(/* compressed */ false);
+  }
+
+  private static ECPoint decompressKey(BigInteger x, boolean yBit) {
+    byte[] encoded = new byte[33];
+    byte[] xBytes = x.toByteArray();
+    int length = Math.min(xBytes.length, 32);
+    System.arraycopy(xBytes, xBytes.length - length, encoded, 33 - length, length);
+    encoded[0] = (byte) (yBit ? 0x03 : 0x02);
+    return CURVE.decodePoint(encoded);
+  }
+}
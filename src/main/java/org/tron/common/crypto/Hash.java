@@ -20,55 +20,48 @@ package org.tron.common.crypto;
 
 import static java.util.Arrays.copyOfRange;
 
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.security.Provider;
 import java.security.Security;
 import lombok.extern.slf4j.Slf4j;
+import org.tron.common.crypto.cryptohash.Keccak256;
+import org.tron.common.crypto.cryptohash.Keccak512;
 import org.tron.common.crypto.jce.TronCastleProvider;
 import org.tron.core.Wallet;
 
 @Slf4j
 public class Hash {
 
-  private static final Provider CRYPTO_PROVIDER;
-
-  private static final String HASH_256_ALGORITHM_NAME;
-  private static final String HASH_512_ALGORITHM_NAME;
-
   static {
     Security.addProvider(TronCastleProvider.getInstance());
-    CRYPTO_PROVIDER = Security.getProvider("SC");
-    HASH_256_ALGORITHM_NAME = "TRON-KECCAK-256";
-    HASH_512_ALGORITHM_NAME = "TRON-KECCAK-512";
   }
 
-  public static byte[] sha3(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+  /**
+   * Keccak engines are not thread safe but cheap to keep, so every thread reuses its own instead
+   * of looking one up through the security provider for each hash.
+   */
+  private static final ThreadLocal<Keccak256> KECCAK_256 = ThreadLocal.withInitial(Keccak256::new);
+  private static final ThreadLocal<Keccak512> KECCAK_512 = ThreadLocal.withInitial(Keccak512::new);
+
+  private static final int BUFFER_CHUNK_SIZE = 1024;
+
+  private static MessageDigest keccak256() {
+    MessageDigest digest = KECCAK_256.get();
+    digest.reset();
+    return digest;
+  }
 
+  public static byte[] sha3(byte[] input) {
+    MessageDigest digest = keccak256();
+    digest.update(input);
+    return digest.digest();
   }
 
   public static byte[] sha3(byte[] input1, byte[] input2) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input1, 0, input1.length);
-      digest.update(input2, 0, input2.length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    MessageDigest digest = keccak256();
+    digest.update(input1, 0, input1.length);
+    digest.update(input2, 0, input2.length);
+    return digest.digest();
   }
 
   /**
@@ -80,29 +73,39 @@ public class Hash {
    * @return - keccak hash of the chunk
    */
   public static byte[] sha3(byte[] input, int start, int length) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input, start, length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
+    MessageDigest digest = keccak256();
+    digest.update(input, start, length);
+    return digest.digest();
+  }
+
+  /**
+   * hashing the remaining bytes of a buffer, without copying them when the buffer is backed by an
+   * array. The position of the buffer is moved to its limit.
+   *
+   * @param input - data for hash
+   * @return - keccak hash of the remaining bytes
+   */
+  public static byte[] sha3(ByteBuffer input) {
+    MessageDigest digest = keccak256();
+    if (input.hasArray()) {
+      digest.update(input.array(), input.arrayOffset() + input.position(), input.remaining());
+      input.position(input.limit());
+    } else {
+      byte[] chunk = new byte[Math.min(BUFFER_CHUNK_SIZE, input.remaining())];
+      while (input.hasRemaining()) {
+        int length = Math.min(chunk.length, input.remaining());
+        input.get(chunk, 0, length);
+        digest.update(chunk, 0, length);
+      }
     }
+    return digest.digest();
   }
 
   public static byte[] sha512(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_512_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    MessageDigest digest = KECCAK_512.get();
+    digest.reset();
+    digest.update(input);
+    return digest.digest();
   }
 
   /**
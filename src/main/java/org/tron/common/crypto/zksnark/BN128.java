@@ -18,6 +18,8 @@
 package org.tron.common.crypto.zksnark;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implementation of Barreto–Naehrig curve defined over abstract finite field. This curve is one of the keys to zkSNARKs. <br/>
@@ -176,6 +178,73 @@ public abstract class BN128<T extends Field<T>> {
         return res;
     }
 
+    /**
+     * Same product as {@link #mul(BigInteger)}, walking a width-4 NAF of the scalar with a table
+     * of the odd multiples P, 3P, 5P, 7P: about one addition per five doublings instead of one
+     * per two
+     */
+    protected BN128<T> mulNaf(BigInteger s) {
+
+        if (s.signum() == 0) // P * 0 = 0
+            return zero();
+
+        if (isZero()) return this; // 0 * s = 0
+
+        List<BN128<T>> table = new ArrayList<>(NAF_TABLE_SIZE);
+        table.add(this);
+        BN128<T> twice = dbl();
+        for (int i = 1; i < NAF_TABLE_SIZE; i++) {
+            table.add(table.get(i - 1).add(twice));
+        }
+
+        int[] naf = naf(s);
+        BN128<T> res = zero();
+
+        for (int i = naf.length - 1; i >= 0; i--) {
+
+            res = res.dbl();
+
+            if (naf[i] > 0) {
+                res = res.add(table.get(naf[i] >> 1));
+            } else if (naf[i] < 0) {
+                res = res.add(table.get(-naf[i] >> 1).negate());
+            }
+        }
+
+        return res;
+    }
+
+    private static final int NAF_WIDTH = 4;
+    private static final int NAF_TABLE_SIZE = 1 << (NAF_WIDTH - 2);
+
+    /**
+     * Width-4 non-adjacent form of a non negative scalar, least significant digit first, every
+     * non zero digit is odd and lays in (-8; 8)
+     */
+    private static int[] naf(BigInteger s) {
+
+        int[] naf = new int[s.bitLength() + 1];
+        BigInteger k = s;
+
+        for (int i = 0; k.signum() > 0; i++) {
+            if (k.testBit(0)) {
+                int digit = k.intValue() & ((1 << NAF_WIDTH) - 1);
+                if (digit >= 1 << (NAF_WIDTH - 1)) {
+                    digit -= 1 << NAF_WIDTH;
+                }
+                naf[i] = digit;
+                k = k.subtract(BigInteger.valueOf(digit));
+            }
+            k = k.shiftRight(1);
+        }
+
+        return naf;
+    }
+
+    protected BN128<T> negate() {
+        return instance(x, y.negate(), z);
+    }
+
     private BN128<T> dbl() {
 
         if (isZero()) return this;
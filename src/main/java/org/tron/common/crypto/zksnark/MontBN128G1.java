@@ -0,0 +1,80 @@
+package org.tron.common.crypto.zksnark;
+
+import static org.tron.common.crypto.zksnark.Params.B_Fp;
+import static org.tron.common.crypto.zksnark.Params.P;
+
+import java.math.BigInteger;
+
+/**
+ * {@link BN128Fp} over {@link MontFp}. The curve has a prime order, so every point on it is a
+ * member of G1 and can be used both in the addition/multiplication precompiles and as the first
+ * argument of {@link MontPairingCheck}.
+ */
+public class MontBN128G1 extends BN128<MontFp> {
+
+    // the point at infinity
+    static final MontBN128G1 ZERO = new MontBN128G1(MontFp.ZERO, MontFp.ZERO, MontFp.ZERO);
+
+    private static final MontFp B = MontFp.from(B_Fp);
+
+    MontBN128G1(MontFp x, MontFp y, MontFp z) {
+        super(x, y, z);
+    }
+
+    MontBN128G1(BN128<MontFp> p) {
+        super(p.x, p.y, p.z);
+    }
+
+    @Override
+    protected BN128<MontFp> zero() {
+        return ZERO;
+    }
+
+    @Override
+    protected BN128<MontFp> instance(MontFp x, MontFp y, MontFp z) {
+        return new MontBN128G1(x, y, z);
+    }
+
+    @Override
+    protected MontFp b() {
+        return B;
+    }
+
+    @Override
+    protected MontFp one() {
+        return MontFp._1;
+    }
+
+    @Override
+    public MontBN128G1 toAffine() {
+        return new MontBN128G1(super.toAffine());
+    }
+
+    @Override
+    public BN128<MontFp> mul(BigInteger s) {
+        return mulNaf(s);
+    }
+
+    /**
+     * Same checks as {@link BN128Fp#create(byte[], byte[])}: returns the point at infinity for
+     * (0; 0), null if a coordinate is out of F_p or the point is not on the curve
+     */
+    public static MontBN128G1 create(byte[] xx, byte[] yy) {
+
+        BigInteger x = new BigInteger(1, xx);
+        BigInteger y = new BigInteger(1, yy);
+
+        // check for point at infinity
+        if (x.signum() == 0 && y.signum() == 0) {
+            return ZERO;
+        }
+
+        if (x.compareTo(P) >= 0 || y.compareTo(P) >= 0) {
+            return null;
+        }
+
+        MontBN128G1 p = new MontBN128G1(MontFp.create(x), MontFp.create(y), MontFp._1);
+
+        return p.isOnCurve() ? p : null;
+    }
+}
@@ -0,0 +1,151 @@
+package org.tron.common.crypto.zksnark;
+
+import static org.tron.common.crypto.zksnark.Params.B_Fp2;
+import static org.tron.common.crypto.zksnark.Params.P;
+import static org.tron.common.crypto.zksnark.Params.R;
+import static org.tron.common.crypto.zksnark.Params.TWIST_MUL_BY_P_X;
+import static org.tron.common.crypto.zksnark.Params.TWIST_MUL_BY_P_Y;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import org.tron.common.crypto.zksnark.MontPairingCheck.EllCoeffs;
+
+/**
+ * {@link BN128G2} over {@link MontFp2} <br/>
+ * <br/>
+ *
+ * Verifying keys put the same G2 points into every pairing call, so validated points are cached
+ * by their encoding together with their Miller loop line coefficients, sparing both the subgroup
+ * check and the G2 half of the Miller loop on repeated calls.
+ */
+public class MontBN128G2 extends BN128<MontFp2> {
+
+    // the point at infinity
+    static final MontBN128G2 ZERO = new MontBN128G2(MontFp2.ZERO, MontFp2.ZERO, MontFp2.ZERO);
+
+    private static final MontFp2 B = MontFp2.from(B_Fp2);
+    private static final MontFp2 MUL_BY_P_X = MontFp2.from(TWIST_MUL_BY_P_X);
+    private static final MontFp2 MUL_BY_P_Y = MontFp2.from(TWIST_MUL_BY_P_Y);
+
+    private static final int CACHE_SIZE = 128;
+
+    private static final Cache<ByteBuffer, MontBN128G2> validPoints = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    // line coefficients of the Miller loop, computed on first use
+    private volatile EllCoeffs[] coeffs;
+
+    MontBN128G2(MontFp2 x, MontFp2 y, MontFp2 z) {
+        super(x, y, z);
+    }
+
+    MontBN128G2(BN128<MontFp2> p) {
+        super(p.x, p.y, p.z);
+    }
+
+    @Override
+    protected BN128<MontFp2> zero() {
+        return ZERO;
+    }
+
+    @Override
+    protected BN128<MontFp2> instance(MontFp2 x, MontFp2 y, MontFp2 z) {
+        return new MontBN128G2(x, y, z);
+    }
+
+    @Override
+    protected MontFp2 b() {
+        return B;
+    }
+
+    @Override
+    protected MontFp2 one() {
+        return MontFp2._1;
+    }
+
+    @Override
+    public MontBN128G2 toAffine() {
+        return new MontBN128G2(super.toAffine());
+    }
+
+    @Override
+    public BN128<MontFp2> mul(BigInteger s) {
+        return mulNaf(s);
+    }
+
+    /**
+     * Same checks as {@link BN128G2#create(byte[], byte[], byte[], byte[])}: returns null if a
+     * coordinate is out of F_p, the point is not on the twist or not in the subgroup of order
+     * {@link Params#R}
+     */
+    public static MontBN128G2 create(byte[] a, byte[] b, byte[] c, byte[] d) {
+
+        ByteBuffer key = ByteBuffer.allocate(a.length + b.length + c.length + d.length);
+        key.put(a).put(b).put(c).put(d).flip();
+
+        MontBN128G2 p = validPoints.getIfPresent(key);
+        if (p == null) {
+            p = validate(a, b, c, d);
+            if (p != null) {
+                validPoints.put(key, p);
+            }
+        }
+
+        return p;
+    }
+
+    private static MontBN128G2 validate(byte[] a, byte[] b, byte[] c, byte[] d) {
+
+        BigInteger[] coords = {
+                new BigInteger(1, a), new BigInteger(1, b), new BigInteger(1, c), new BigInteger(1, d)
+        };
+
+        // check for point at infinity
+        if (coords[0].signum() == 0 && coords[1].signum() == 0
+                && coords[2].signum() == 0 && coords[3].signum() == 0) {
+            return ZERO;
+        }
+
+        for (BigInteger coord : coords) {
+            if (coord.compareTo(P) >= 0) {
+                return null;
+            }
+        }
+
+        MontFp2 x = new MontFp2(MontFp.create(coords[0]), MontFp.create(coords[1]));
+        MontFp2 y = new MontFp2(MontFp.create(coords[2]), MontFp.create(coords[3]));
+        MontBN128G2 p = new MontBN128G2(x, y, MontFp2._1);
+
+        if (!p.isOnCurve()) {
+            return null;
+        }
+
+        // r * p == 0 is the same condition as -1 * p + p == 0 in BN128G2, -1 belonging to F_r
+        if (!p.mul(R).isZero()) {
+            return null;
+        }
+
+        return p;
+    }
+
+    MontBN128G2 mulByP() {
+
+        MontFp2 rx = MUL_BY_P_X.mul(x.frobeniusMap(1));
+        MontFp2 ry = MUL_BY_P_Y.mul(y.frobeniusMap(1));
+        MontFp2 rz = z.frobeniusMap(1);
+
+        return new MontBN128G2(rx, ry, rz);
+    }
+
+    EllCoeffs[] coeffs() {
+        EllCoeffs[] res = coeffs;
+        if (res == null) {
+            res = MontPairingCheck.calcEllCoeffs(toAffine());
+            coeffs = res;
+        }
+        return res;
+    }
+}
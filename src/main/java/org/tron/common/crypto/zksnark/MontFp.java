@@ -0,0 +1,255 @@
+package org.tron.common.crypto.zksnark;
+
+import static org.tron.common.crypto.zksnark.Params.P;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Arithmetic in F_p in Montgomery form, p = 21888242871839275222246405745257275088696311157297823662689037894645226208583 <br/>
+ * <br/>
+ *
+ * An element "x" is stored as x * 2^256 mod p in eight 32-bit limbs, least significant first, so
+ * a multiplication is one interleaved multiply-and-reduce pass (CIOS) over fixed size arrays
+ * instead of a {@link BigInteger} product followed by a division. Values are always fully
+ * reduced, which keeps the representation unique and {@link #equals(Object)} a plain limb
+ * comparison. <br/>
+ * <br/>
+ *
+ * Gives the same results as {@link Fp}, which is kept as the reference implementation.
+ */
+public final class MontFp implements Field<MontFp> {
+
+    private static final int LIMBS = 8;
+    private static final long MASK = 0xffffffffL;
+
+    private static final int[] MODULUS = toLimbs(P);
+
+    // -p^-1 mod 2^32
+    private static final long INV = BigInteger.ONE.shiftLeft(32)
+            .subtract(P.modInverse(BigInteger.ONE.shiftLeft(32))).longValue();
+
+    // 2^512 mod p, multiplying by it moves a value into Montgomery form
+    private static final int[] R2 = toLimbs(BigInteger.ONE.shiftLeft(512).mod(P));
+
+    private static final int[] ONE_LIMBS = toLimbs(BigInteger.ONE);
+
+    static final MontFp ZERO = new MontFp(new int[LIMBS]);
+    static final MontFp _1 = create(BigInteger.ONE);
+    static final MontFp _2_INV = create(BigInteger.valueOf(2).modInverse(P));
+
+    private final int[] v;
+
+    private MontFp(int[] v) {
+        this.v = v;
+    }
+
+    /**
+     * @param v value in [0, p)
+     */
+    static MontFp create(BigInteger v) {
+        return new MontFp(mulMont(toLimbs(v), R2));
+    }
+
+    static MontFp create(byte[] v) {
+        return create(new BigInteger(1, v));
+    }
+
+    static MontFp from(Fp fp) {
+        return create(fp.v);
+    }
+
+    @Override
+    public MontFp add(MontFp o) {
+        int[] r = new int[LIMBS];
+        long c = 0;
+        for (int i = 0; i < LIMBS; i++) {
+            long s = (v[i] & MASK) + (o.v[i] & MASK) + c;
+            r[i] = (int) s;
+            c = s >>> 32;
+        }
+        // p < 2^254, the sum never carries out of the top limb
+        if (!lessThanModulus(r)) {
+            subtractModulus(r);
+        }
+        return new MontFp(r);
+    }
+
+    @Override
+    public MontFp sub(MontFp o) {
+        int[] r = new int[LIMBS];
+        long borrow = 0;
+        for (int i = 0; i < LIMBS; i++) {
+            long s = (v[i] & MASK) - (o.v[i] & MASK) + borrow;
+            r[i] = (int) s;
+            borrow = s >> 32;
+        }
+        if (borrow != 0) {
+            addModulus(r);
+        }
+        return new MontFp(r);
+    }
+
+    @Override
+    public MontFp mul(MontFp o) {
+        return new MontFp(mulMont(v, o.v));
+    }
+
+    @Override
+    public MontFp squared() {
+        return new MontFp(mulMont(v, v));
+    }
+
+    @Override
+    public MontFp dbl() {
+        return add(this);
+    }
+
+    @Override
+    public MontFp inverse() {
+        return create(toBigInteger().modInverse(P));
+    }
+
+    @Override
+    public MontFp negate() {
+        return ZERO.sub(this);
+    }
+
+    @Override
+    public boolean isZero() {
+        for (int limb : v) {
+            if (limb != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Elements are reduced on construction, range checks of raw input belong to the callers.
+     */
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    MontFp2 mul(MontFp2 o) {
+        return new MontFp2(o.a.mul(this), o.b.mul(this));
+    }
+
+    BigInteger toBigInteger() {
+        int[] n = mulMont(v, ONE_LIMBS);
+        byte[] bytes = new byte[LIMBS * 4];
+        for (int i = 0; i < LIMBS; i++) {
+            int limb = n[LIMBS - 1 - i];
+            bytes[4 * i] = (byte) (limb >>> 24);
+            bytes[4 * i + 1] = (byte) (limb >>> 16);
+            bytes[4 * i + 2] = (byte) (limb >>> 8);
+            bytes[4 * i + 3] = (byte) limb;
+        }
+        return new BigInteger(1, bytes);
+    }
+
+    /**
+     * Same encoding as {@link Fp#bytes()}
+     */
+    public byte[] bytes() {
+        return toBigInteger().toByteArray();
+    }
+
+    /**
+     * Montgomery product a * b * 2^-256 mod p of two reduced values.
+     */
+    private static int[] mulMont(int[] a, int[] b) {
+        long[] t = new long[LIMBS + 2];
+        for (int i = 0; i < LIMBS; i++) {
+            long bi = b[i] & MASK;
+            long c = 0;
+            for (int j = 0; j < LIMBS; j++) {
+                long s = t[j] + (a[j] & MASK) * bi + c;
+                t[j] = s & MASK;
+                c = s >>> 32;
+            }
+            long s = t[LIMBS] + c;
+            t[LIMBS] = s & MASK;
+            t[LIMBS + 1] = s >>> 32;
+
+            long m = (t[0] * INV) & MASK;
+            s = t[0] + m * (MODULUS[0] & MASK);
+            c = s >>> 32;
+            for (int j = 1; j < LIMBS; j++) {
+                s = t[j] + m * (MODULUS[j] & MASK) + c;
+                t[j - 1] = s & MASK;
+                c = s >>> 32;
+            }
+            s = t[LIMBS] + c;
+            t[LIMBS - 1] = s & MASK;
+            t[LIMBS] = t[LIMBS + 1] + (s >>> 32);
+        }
+
+        // t < 2p < 2^255, so t[LIMBS] is zero here
+        int[] r = new int[LIMBS];
+        for (int i = 0; i < LIMBS; i++) {
+            r[i] = (int) t[i];
+        }
+        if (!lessThanModulus(r)) {
+            subtractModulus(r);
+        }
+        return r;
+    }
+
+    private static boolean lessThanModulus(int[] r) {
+        for (int i = LIMBS - 1; i >= 0; i--) {
+            long x = r[i] & MASK;
+            long m = MODULUS[i] & MASK;
+            if (x != m) {
+                return x < m;
+            }
+        }
+        return false;
+    }
+
+    private static void subtractModulus(int[] r) {
+        long borrow = 0;
+        for (int i = 0; i < LIMBS; i++) {
+            long s = (r[i] & MASK) - (MODULUS[i] & MASK) + borrow;
+            r[i] = (int) s;
+            borrow = s >> 32;
+        }
+    }
+
+    private static void addModulus(int[] r) {
+        long c = 0;
+        for (int i = 0; i < LIMBS; i++) {
+            long s = (r[i] & MASK) + (MODULUS[i] & MASK) + c;
+            r[i] = (int) s;
+            c = s >>> 32;
+        }
+    }
+
+    private static int[] toLimbs(BigInteger x) {
+        int[] limbs = new int[LIMBS];
+        for (int i = 0; i < LIMBS; i++) {
+            limbs[i] = x.shiftRight(32 * i).intValue();
+        }
+        return limbs;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return Arrays.equals(v, ((MontFp) o).v);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(v);
+    }
+
+    @Override
+    public String toString() {
+        return toBigInteger().toString();
+    }
+}
@@ -0,0 +1,265 @@
+package org.tron.common.crypto.zksnark;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic in F_p12 over {@link MontFp6}, same tower and formulas as {@link Fp12}
+ */
+final class MontFp12 implements Field<MontFp12> {
+
+    static final MontFp12 ZERO = new MontFp12(MontFp6.ZERO, MontFp6.ZERO);
+    static final MontFp12 _1 = new MontFp12(MontFp6._1, MontFp6.ZERO);
+
+    static final MontFp2[] FROBENIUS_COEFFS_B = MontFp2.from(Fp12.FROBENIUS_COEFFS_B);
+
+    final MontFp6 a;
+    final MontFp6 b;
+
+    MontFp12(MontFp6 a, MontFp6 b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    static MontFp12 from(Fp12 fp12) {
+        return new MontFp12(MontFp6.from(fp12.a), MontFp6.from(fp12.b));
+    }
+
+    @Override
+    public MontFp12 squared() {
+
+        MontFp6 ab = a.mul(b);
+
+        MontFp6 ra = a.add(b).mul(a.add(b.mulByNonResidue())).sub(ab).sub(ab.mulByNonResidue());
+        MontFp6 rb = ab.dbl();
+
+        return new MontFp12(ra, rb);
+    }
+
+    @Override
+    public MontFp12 dbl() {
+        return new MontFp12(a.dbl(), b.dbl());
+    }
+
+    /**
+     * Multiplication by the sparse line value "ell0 + ellVW * w + ellVV * w^3", see
+     * {@link Fp12#mulBy024(Fp2, Fp2, Fp2)}
+     */
+    MontFp12 mulBy024(MontFp2 ell0, MontFp2 ellVW, MontFp2 ellVV) {
+
+        MontFp2 z0 = a.a;
+        MontFp2 z1 = a.b;
+        MontFp2 z2 = a.c;
+        MontFp2 z3 = b.a;
+        MontFp2 z4 = b.b;
+        MontFp2 z5 = b.c;
+
+        MontFp2 x0 = ell0;
+        MontFp2 x2 = ellVV;
+        MontFp2 x4 = ellVW;
+
+        MontFp2 t0, t1, t2, s0, t3, t4, d0, d2, d4, s1;
+
+        d0 = z0.mul(x0);
+        d2 = z2.mul(x2);
+        d4 = z4.mul(x4);
+        t2 = z0.add(z4);
+        t1 = z0.add(z2);
+        s0 = z1.add(z3).add(z5);
+
+        // For z.a_.a_ = z0.
+        s1 = z1.mul(x2);
+        t3 = s1.add(d4);
+        t4 = t3.mulByNonResidue().add(d0);
+        z0 = t4;
+
+        // For z.a_.b_ = z1
+        t3 = z5.mul(x4);
+        s1 = s1.add(t3);
+        t3 = t3.add(d2);
+        t4 = t3.mulByNonResidue();
+        t3 = z1.mul(x0);
+        s1 = s1.add(t3);
+        t4 = t4.add(t3);
+        z1 = t4;
+
+        // For z.a_.c_ = z2
+        t0 = x0.add(x2);
+        t3 = t1.mul(t0).sub(d0).sub(d2);
+        t4 = z3.mul(x4);
+        s1 = s1.add(t4);
+        t3 = t3.add(t4);
+
+        // For z.b_.a_ = z3 (z3 needs z2)
+        t0 = z2.add(z4);
+        z2 = t3;
+        t1 = x2.add(x4);
+        t3 = t0.mul(t1).sub(d2).sub(d4);
+        t4 = t3.mulByNonResidue();
+        t3 = z3.mul(x0);
+        s1 = s1.add(t3);
+        t4 = t4.add(t3);
+        z3 = t4;
+
+        // For z.b_.b_ = z4
+        t3 = z5.mul(x2);
+        s1 = s1.add(t3);
+        t4 = t3.mulByNonResidue();
+        t0 = x0.add(x4);
+        t3 = t2.mul(t0).sub(d0).sub(d4);
+        t4 = t4.add(t3);
+        z4 = t4;
+
+        // For z.b_.c_ = z5.
+        t0 = x0.add(x2).add(x4);
+        t3 = s0.mul(t0).sub(s1);
+        z5 = t3;
+
+        return new MontFp12(new MontFp6(z0, z1, z2), new MontFp6(z3, z4, z5));
+    }
+
+    @Override
+    public MontFp12 add(MontFp12 o) {
+        return new MontFp12(a.add(o.a), b.add(o.b));
+    }
+
+    @Override
+    public MontFp12 mul(MontFp12 o) {
+
+        MontFp6 a2 = o.a, b2 = o.b;
+        MontFp6 a1 = a,   b1 = b;
+
+        MontFp6 a1a2 = a1.mul(a2);
+        MontFp6 b1b2 = b1.mul(b2);
+
+        MontFp6 ra = a1a2.add(b1b2.mulByNonResidue());
+        MontFp6 rb = a1.add(b1).mul(a2.add(b2)).sub(a1a2).sub(b1b2);
+
+        return new MontFp12(ra, rb);
+    }
+
+    @Override
+    public MontFp12 sub(MontFp12 o) {
+        return new MontFp12(a.sub(o.a), b.sub(o.b));
+    }
+
+    @Override
+    public MontFp12 inverse() {
+
+        MontFp6 t0 = a.squared();
+        MontFp6 t1 = b.squared();
+        MontFp6 t2 = t0.sub(t1.mulByNonResidue());
+        MontFp6 t3 = t2.inverse();
+
+        return new MontFp12(a.mul(t3), b.mul(t3).negate());
+    }
+
+    @Override
+    public MontFp12 negate() {
+        return new MontFp12(a.negate(), b.negate());
+    }
+
+    @Override
+    public boolean isZero() {
+        return a.isZero() && b.isZero();
+    }
+
+    @Override
+    public boolean isValid() {
+        return a.isValid() && b.isValid();
+    }
+
+    MontFp12 frobeniusMap(int power) {
+
+        MontFp6 ra = a.frobeniusMap(power);
+        MontFp6 rb = b.frobeniusMap(power).mul(FROBENIUS_COEFFS_B[power % 12]);
+
+        return new MontFp12(ra, rb);
+    }
+
+    MontFp12 cyclotomicSquared() {
+
+        MontFp2 z0 = a.a;
+        MontFp2 z4 = a.b;
+        MontFp2 z3 = a.c;
+        MontFp2 z2 = b.a;
+        MontFp2 z1 = b.b;
+        MontFp2 z5 = b.c;
+
+        MontFp2 t0, t1, t2, t3, t4, t5, tmp;
+
+        // t0 + t1*y = (z0 + z1*y)^2 = a^2
+        tmp = z0.mul(z1);
+        t0 = z0.add(z1).mul(z0.add(z1.mulByNonResidue())).sub(tmp).sub(tmp.mulByNonResidue());
+        t1 = tmp.dbl();
+        // t2 + t3*y = (z2 + z3*y)^2 = b^2
+        tmp = z2.mul(z3);
+        t2 = z2.add(z3).mul(z2.add(z3.mulByNonResidue())).sub(tmp).sub(tmp.mulByNonResidue());
+        t3 = tmp.dbl();
+        // t4 + t5*y = (z4 + z5*y)^2 = c^2
+        tmp = z4.mul(z5);
+        t4 = z4.add(z5).mul(z4.add(z5.mulByNonResidue())).sub(tmp).sub(tmp.mulByNonResidue());
+        t5 = tmp.dbl();
+
+        // for A
+
+        // z0 = 3 * t0 - 2 * z0
+        z0 = t0.sub(z0).dbl().add(t0);
+        // z1 = 3 * t1 + 2 * z1
+        z1 = t1.add(z1).dbl().add(t1);
+
+        // for B
+
+        // z2 = 3 * (xi * t5) + 2 * z2
+        tmp = t5.mulByNonResidue();
+        z2 = tmp.add(z2).dbl().add(tmp);
+        // z3 = 3 * t4 - 2 * z3
+        z3 = t4.sub(z3).dbl().add(t4);
+
+        // for C
+
+        // z4 = 3 * t2 - 2 * z4
+        z4 = t2.sub(z4).dbl().add(t2);
+        // z5 = 3 * t3 + 2 * z5
+        z5 = t3.add(z5).dbl().add(t3);
+
+        return new MontFp12(new MontFp6(z0, z4, z3), new MontFp6(z2, z1, z5));
+    }
+
+    MontFp12 cyclotomicExp(BigInteger pow) {
+
+        MontFp12 res = _1;
+
+        for (int i = pow.bitLength() - 1; i >= 0; i--) {
+            res = res.cyclotomicSquared();
+
+            if (pow.testBit(i)) {
+                res = res.mul(this);
+            }
+        }
+
+        return res;
+    }
+
+    MontFp12 unitaryInverse() {
+        return new MontFp12(a, b.negate());
+    }
+
+    MontFp12 negExp(BigInteger exp) {
+        return this.cyclotomicExp(exp).unitaryInverse();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        MontFp12 fp12 = (MontFp12) o;
+
+        return a.equals(fp12.a) && b.equals(fp12.b);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * a.hashCode() + b.hashCode();
+    }
+}
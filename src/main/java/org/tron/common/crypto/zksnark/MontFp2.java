@@ -0,0 +1,144 @@
+package org.tron.common.crypto.zksnark;
+
+/**
+ * Arithmetic in F_p2 over {@link MontFp}, elements are "a + b * i" modulo "i^2 + 1" as in
+ * {@link Fp2} <br/>
+ * <br/>
+ *
+ * As the non-residue of F_p is -1 and the non-residue of F_p2 is 9 + i, multiplications by
+ * either of them are done with additions only.
+ */
+final class MontFp2 implements Field<MontFp2> {
+
+    static final MontFp2 ZERO = new MontFp2(MontFp.ZERO, MontFp.ZERO);
+    static final MontFp2 _1 = new MontFp2(MontFp._1, MontFp.ZERO);
+
+    final MontFp a;
+    final MontFp b;
+
+    MontFp2(MontFp a, MontFp b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    static MontFp2 create(byte[] aa, byte[] bb) {
+        return new MontFp2(MontFp.create(aa), MontFp.create(bb));
+    }
+
+    static MontFp2 from(Fp2 fp2) {
+        return new MontFp2(MontFp.from(fp2.a), MontFp.from(fp2.b));
+    }
+
+    static MontFp2[] from(Fp2[] fp2) {
+        MontFp2[] res = new MontFp2[fp2.length];
+        for (int i = 0; i < fp2.length; i++) {
+            res[i] = from(fp2[i]);
+        }
+        return res;
+    }
+
+    @Override
+    public MontFp2 squared() {
+
+        // (a + b * i)^2 = (a + b)(a - b) + 2ab * i
+
+        MontFp ab = a.mul(b);
+
+        MontFp ra = a.add(b).mul(a.sub(b));
+        MontFp rb = ab.dbl();
+
+        return new MontFp2(ra, rb);
+    }
+
+    @Override
+    public MontFp2 mul(MontFp2 o) {
+
+        MontFp aa = a.mul(o.a);
+        MontFp bb = b.mul(o.b);
+
+        MontFp ra = aa.sub(bb);                                  // ra = a1 * a2 - b1 * b2
+        MontFp rb = a.add(b).mul(o.a.add(o.b)).sub(aa).sub(bb);  // rb = (a1 + b1)(a2 + b2) - a1 * a2 - b1 * b2
+
+        return new MontFp2(ra, rb);
+    }
+
+    MontFp2 mul(MontFp o) {
+        return new MontFp2(a.mul(o), b.mul(o));
+    }
+
+    @Override
+    public MontFp2 add(MontFp2 o) {
+        return new MontFp2(a.add(o.a), b.add(o.b));
+    }
+
+    @Override
+    public MontFp2 sub(MontFp2 o) {
+        return new MontFp2(a.sub(o.a), b.sub(o.b));
+    }
+
+    @Override
+    public MontFp2 dbl() {
+        return new MontFp2(a.dbl(), b.dbl());
+    }
+
+    @Override
+    public MontFp2 inverse() {
+
+        MontFp t = a.squared().add(b.squared()).inverse();  // t = 1 / (a^2 + b^2)
+
+        MontFp ra = a.mul(t);
+        MontFp rb = b.mul(t).negate();
+
+        return new MontFp2(ra, rb);
+    }
+
+    @Override
+    public MontFp2 negate() {
+        return new MontFp2(a.negate(), b.negate());
+    }
+
+    @Override
+    public boolean isZero() {
+        return a.isZero() && b.isZero();
+    }
+
+    @Override
+    public boolean isValid() {
+        return a.isValid() && b.isValid();
+    }
+
+    MontFp2 frobeniusMap(int power) {
+        return power % 2 == 0 ? this : new MontFp2(a, b.negate());
+    }
+
+    /**
+     * Multiplication by 9 + i
+     */
+    MontFp2 mulByNonResidue() {
+
+        MontFp a9 = a.dbl().dbl().dbl().add(a);
+        MontFp b9 = b.dbl().dbl().dbl().add(b);
+
+        return new MontFp2(a9.sub(b), b9.add(a));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        MontFp2 fp2 = (MontFp2) o;
+
+        return a.equals(fp2.a) && b.equals(fp2.b);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * a.hashCode() + b.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%si + %s", a.toString(), b.toString());
+    }
+}
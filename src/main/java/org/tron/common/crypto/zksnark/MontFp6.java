@@ -0,0 +1,143 @@
+package org.tron.common.crypto.zksnark;
+
+/**
+ * Arithmetic in F_p6 over {@link MontFp2}, same tower and formulas as {@link Fp6}
+ */
+final class MontFp6 implements Field<MontFp6> {
+
+    static final MontFp6 ZERO = new MontFp6(MontFp2.ZERO, MontFp2.ZERO, MontFp2.ZERO);
+    static final MontFp6 _1 = new MontFp6(MontFp2._1, MontFp2.ZERO, MontFp2.ZERO);
+
+    static final MontFp2[] FROBENIUS_COEFFS_B = MontFp2.from(Fp6.FROBENIUS_COEFFS_B);
+    static final MontFp2[] FROBENIUS_COEFFS_C = MontFp2.from(Fp6.FROBENIUS_COEFFS_C);
+
+    final MontFp2 a;
+    final MontFp2 b;
+    final MontFp2 c;
+
+    MontFp6(MontFp2 a, MontFp2 b, MontFp2 c) {
+        this.a = a;
+        this.b = b;
+        this.c = c;
+    }
+
+    static MontFp6 from(Fp6 fp6) {
+        return new MontFp6(MontFp2.from(fp6.a), MontFp2.from(fp6.b), MontFp2.from(fp6.c));
+    }
+
+    @Override
+    public MontFp6 squared() {
+
+        MontFp2 s0 = a.squared();
+        MontFp2 ab = a.mul(b);
+        MontFp2 s1 = ab.dbl();
+        MontFp2 s2 = a.sub(b).add(c).squared();
+        MontFp2 bc = b.mul(c);
+        MontFp2 s3 = bc.dbl();
+        MontFp2 s4 = c.squared();
+
+        MontFp2 ra = s0.add(s3.mulByNonResidue());
+        MontFp2 rb = s1.add(s4.mulByNonResidue());
+        MontFp2 rc = s1.add(s2).add(s3).sub(s0).sub(s4);
+
+        return new MontFp6(ra, rb, rc);
+    }
+
+    @Override
+    public MontFp6 dbl() {
+        return new MontFp6(a.dbl(), b.dbl(), c.dbl());
+    }
+
+    @Override
+    public MontFp6 mul(MontFp6 o) {
+
+        MontFp2 a1 = a,   b1 = b,   c1 = c;
+        MontFp2 a2 = o.a, b2 = o.b, c2 = o.c;
+
+        MontFp2 a1a2 = a1.mul(a2);
+        MontFp2 b1b2 = b1.mul(b2);
+        MontFp2 c1c2 = c1.mul(c2);
+
+        MontFp2 ra = a1a2.add(b1.add(c1).mul(b2.add(c2)).sub(b1b2).sub(c1c2).mulByNonResidue());
+        MontFp2 rb = a1.add(b1).mul(a2.add(b2)).sub(a1a2).sub(b1b2).add(c1c2.mulByNonResidue());
+        MontFp2 rc = a1.add(c1).mul(a2.add(c2)).sub(a1a2).add(b1b2).sub(c1c2);
+
+        return new MontFp6(ra, rb, rc);
+    }
+
+    MontFp6 mul(MontFp2 o) {
+        return new MontFp6(a.mul(o), b.mul(o), c.mul(o));
+    }
+
+    MontFp6 mulByNonResidue() {
+        return new MontFp6(c.mulByNonResidue(), a, b);
+    }
+
+    @Override
+    public MontFp6 add(MontFp6 o) {
+        return new MontFp6(a.add(o.a), b.add(o.b), c.add(o.c));
+    }
+
+    @Override
+    public MontFp6 sub(MontFp6 o) {
+        return new MontFp6(a.sub(o.a), b.sub(o.b), c.sub(o.c));
+    }
+
+    @Override
+    public MontFp6 inverse() {
+
+        /* From "High-Speed Software Implementation of the Optimal Ate Pairing over Barreto-Naehrig Curves"; Algorithm 17 */
+
+        MontFp2 t0 = a.squared();
+        MontFp2 t1 = b.squared();
+        MontFp2 t2 = c.squared();
+        MontFp2 t3 = a.mul(b);
+        MontFp2 t4 = a.mul(c);
+        MontFp2 t5 = b.mul(c);
+        MontFp2 c0 = t0.sub(t5.mulByNonResidue());
+        MontFp2 c1 = t2.mulByNonResidue().sub(t3);
+        MontFp2 c2 = t1.sub(t4);
+        MontFp2 t6 = a.mul(c0).add((c.mul(c1).add(b.mul(c2))).mulByNonResidue()).inverse();
+
+        return new MontFp6(t6.mul(c0), t6.mul(c1), t6.mul(c2));
+    }
+
+    @Override
+    public MontFp6 negate() {
+        return new MontFp6(a.negate(), b.negate(), c.negate());
+    }
+
+    @Override
+    public boolean isZero() {
+        return a.isZero() && b.isZero() && c.isZero();
+    }
+
+    @Override
+    public boolean isValid() {
+        return a.isValid() && b.isValid() && c.isValid();
+    }
+
+    MontFp6 frobeniusMap(int power) {
+
+        MontFp2 ra = a.frobeniusMap(power);
+        MontFp2 rb = FROBENIUS_COEFFS_B[power % 6].mul(b.frobeniusMap(power));
+        MontFp2 rc = FROBENIUS_COEFFS_C[power % 6].mul(c.frobeniusMap(power));
+
+        return new MontFp6(ra, rb, rc);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        MontFp6 fp6 = (MontFp6) o;
+
+        return a.equals(fp6.a) && b.equals(fp6.b) && c.equals(fp6.c);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * a.hashCode() + b.hashCode()) + c.hashCode();
+    }
+}
@@ -0,0 +1,222 @@
+package org.tron.common.crypto.zksnark;
+
+import static org.tron.common.crypto.zksnark.Params.B_Fp2;
+import static org.tron.common.crypto.zksnark.Params.PAIRING_FINAL_EXPONENT_Z;
+import static org.tron.common.crypto.zksnark.Params.TWIST;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link PairingCheck} over {@link MontFp12} <br/>
+ * <br/>
+ *
+ * The product of Miller loops is computed as one multi-Miller loop: the accumulator is squared
+ * once per loop bit for all pairs and the line of every pair is multiplied into it, then a single
+ * final exponentiation is done. Line coefficients come from {@link MontBN128G2#coeffs()}, so
+ * they are computed once per distinct G2 point. <br/>
+ * <br/>
+ *
+ * Usage is the same as {@link PairingCheck}: {@link #addPair(MontBN128G1, MontBN128G2)} for
+ * each pair, then {@link #run()} and {@link #result()}.
+ */
+public class MontPairingCheck {
+
+    private final List<MontBN128G1> g1s = new ArrayList<>();
+    private final List<MontBN128G2> g2s = new ArrayList<>();
+    MontFp12 product = MontFp12._1;
+
+    private static final MontFp2 TWIST_MONT = MontFp2.from(TWIST);
+    private static final MontFp2 B_MONT = MontFp2.from(B_Fp2);
+
+    private MontPairingCheck() {}
+
+    public static MontPairingCheck create() {
+        return new MontPairingCheck();
+    }
+
+    public void addPair(MontBN128G1 g1, MontBN128G2 g2) {
+
+        // miller loop result equals "1" if at least one of the points is zero
+        if (g1.isZero() || g2.isZero()) return;
+
+        g1s.add(g1.toAffine());
+        g2s.add(g2);
+    }
+
+    public void run() {
+        product = finalExponentiation(millerLoop());
+    }
+
+    public int result() {
+        return product.equals(MontFp12._1) ? 1 : 0;
+    }
+
+    private MontFp12 millerLoop() {
+
+        int n = g1s.size();
+        EllCoeffs[][] coeffs = new EllCoeffs[n][];
+        for (int k = 0; k < n; k++) {
+            coeffs[k] = g2s.get(k).coeffs();
+        }
+
+        MontFp12 f = MontFp12._1;
+        int idx = 0;
+
+        // for each bit except most significant one
+        for (int i = PairingCheck.LOOP_COUNT.bitLength() - 2; i >= 0; i--) {
+
+            f = f.squared();
+            f = mulByLines(f, coeffs, idx++);
+
+            if (PairingCheck.LOOP_COUNT.testBit(i)) {
+                f = mulByLines(f, coeffs, idx++);
+            }
+        }
+
+        f = mulByLines(f, coeffs, idx++);
+        f = mulByLines(f, coeffs, idx);
+
+        return f;
+    }
+
+    private MontFp12 mulByLines(MontFp12 f, EllCoeffs[][] coeffs, int idx) {
+        for (int k = 0; k < coeffs.length; k++) {
+            EllCoeffs c = coeffs[k][idx];
+            MontBN128G1 g1 = g1s.get(k);
+            f = f.mulBy024(c.ell0, c.ellVW.mul(g1.y), c.ellVV.mul(g1.x));
+        }
+        return f;
+    }
+
+    static EllCoeffs[] calcEllCoeffs(MontBN128G2 base) {
+
+        List<EllCoeffs> coeffs = new ArrayList<>();
+
+        MontBN128G2 addend = base;
+
+        // for each bit except most significant one
+        for (int i = PairingCheck.LOOP_COUNT.bitLength() - 2; i >= 0; i--) {
+
+            addend = flippedMillerLoopDoubling(addend, coeffs);
+
+            if (PairingCheck.LOOP_COUNT.testBit(i)) {
+                addend = flippedMillerLoopMixedAddition(base, addend, coeffs);
+            }
+        }
+
+        MontBN128G2 q1 = base.mulByP();
+        MontBN128G2 q2 = q1.mulByP();
+
+        q2 = new MontBN128G2(q2.x, q2.y.negate(), q2.z); // q2.y = -q2.y
+
+        addend = flippedMillerLoopMixedAddition(q1, addend, coeffs);
+        flippedMillerLoopMixedAddition(q2, addend, coeffs);
+
+        return coeffs.toArray(new EllCoeffs[0]);
+    }
+
+    private static MontBN128G2 flippedMillerLoopMixedAddition(MontBN128G2 base,
+            MontBN128G2 addend, List<EllCoeffs> coeffs) {
+
+        MontFp2 x1 = addend.x, y1 = addend.y, z1 = addend.z;
+        MontFp2 x2 = base.x, y2 = base.y;
+
+        MontFp2 d = x1.sub(x2.mul(z1));             // d = x1 - x2 * z1
+        MontFp2 e = y1.sub(y2.mul(z1));             // e = y1 - y2 * z1
+        MontFp2 f = d.squared();                    // f = d^2
+        MontFp2 g = e.squared();                    // g = e^2
+        MontFp2 h = d.mul(f);                       // h = d * f
+        MontFp2 i = x1.mul(f);                      // i = x1 * f
+        MontFp2 j = h.add(z1.mul(g)).sub(i.dbl());  // j = h + z1 * g - 2 * i
+
+        MontFp2 x3 = d.mul(j);                           // x3 = d * j
+        MontFp2 y3 = e.mul(i.sub(j)).sub(h.mul(y1));     // y3 = e * (i - j) - h * y1)
+        MontFp2 z3 = z1.mul(h);                          // z3 = Z1*H
+
+        MontFp2 ell0 = TWIST_MONT.mul(e.mul(x2).sub(d.mul(y2)));  // ell_0 = TWIST * (e * x2 - d * y2)
+        MontFp2 ellVV = e.negate();                               // ell_VV = -e
+        MontFp2 ellVW = d;                                        // ell_VW = d
+
+        coeffs.add(new EllCoeffs(ell0, ellVW, ellVV));
+
+        return new MontBN128G2(x3, y3, z3);
+    }
+
+    private static MontBN128G2 flippedMillerLoopDoubling(MontBN128G2 g2,
+            List<EllCoeffs> coeffs) {
+
+        MontFp2 x = g2.x, y = g2.y, z = g2.z;
+
+        MontFp2 a = x.mul(y).mul(MontFp._2_INV);        // a = x * y / 2
+        MontFp2 b = y.squared();                        // b = y^2
+        MontFp2 c = z.squared();                        // c = z^2
+        MontFp2 d = c.dbl().add(c);                     // d = 3 * c
+        MontFp2 e = B_MONT.mul(d);                      // e = twist_b * d
+        MontFp2 f = e.dbl().add(e);                     // f = 3 * e
+        MontFp2 g = b.add(f).mul(MontFp._2_INV);        // g = (b + f) / 2
+        MontFp2 h = y.add(z).squared().sub(b.add(c));   // h = (y + z)^2 - (b + c)
+        MontFp2 i = e.sub(b);                           // i = e - b
+        MontFp2 j = x.squared();                        // j = x^2
+        MontFp2 e2 = e.squared();                       // e2 = e^2
+
+        MontFp2 rx = a.mul(b.sub(f));                       // rx = a * (b - f)
+        MontFp2 ry = g.squared().sub(e2.dbl().add(e2));     // ry = g^2 - 3 * e^2
+        MontFp2 rz = b.mul(h);                              // rz = b * h
+
+        MontFp2 ell0 = TWIST_MONT.mul(i);       // ell_0 = twist * i
+        MontFp2 ellVW = h.negate();             // ell_VW = -h
+        MontFp2 ellVV = j.dbl().add(j);         // ell_VV = 3 * j
+
+        coeffs.add(new EllCoeffs(ell0, ellVW, ellVV));
+
+        return new MontBN128G2(rx, ry, rz);
+    }
+
+    static MontFp12 finalExponentiation(MontFp12 el) {
+
+        // first chunk
+        MontFp12 w = new MontFp12(el.a, el.b.negate()); // el.b = -el.b
+        MontFp12 x = el.inverse();
+        MontFp12 y = w.mul(x);
+        MontFp12 z = y.frobeniusMap(2);
+        MontFp12 pre = z.mul(y);
+
+        // last chunk
+        MontFp12 a = pre.negExp(PAIRING_FINAL_EXPONENT_Z);
+        MontFp12 b = a.cyclotomicSquared();
+        MontFp12 c = b.cyclotomicSquared();
+        MontFp12 d = c.mul(b);
+        MontFp12 e = d.negExp(PAIRING_FINAL_EXPONENT_Z);
+        MontFp12 f = e.cyclotomicSquared();
+        MontFp12 g = f.negExp(PAIRING_FINAL_EXPONENT_Z);
+        MontFp12 h = d.unitaryInverse();
+        MontFp12 i = g.unitaryInverse();
+        MontFp12 j = i.mul(e);
+        MontFp12 k = j.mul(h);
+        MontFp12 l = k.mul(b);
+        MontFp12 m = k.mul(e);
+        MontFp12 n = m.mul(pre);
+        MontFp12 o = l.frobeniusMap(1);
+        MontFp12 p = o.mul(n);
+        MontFp12 q = k.frobeniusMap(2);
+        MontFp12 r = q.mul(p);
+        MontFp12 s = pre.unitaryInverse();
+        MontFp12 t = s.mul(l);
+        MontFp12 u = t.frobeniusMap(3);
+
+        return u.mul(r);
+    }
+
+    static class EllCoeffs {
+        final MontFp2 ell0;
+        final MontFp2 ellVW;
+        final MontFp2 ellVV;
+
+        EllCoeffs(MontFp2 ell0, MontFp2 ellVW, MontFp2 ellVV) {
+            this.ell0 = ell0;
+            this.ellVW = ellVW;
+            this.ellVV = ellVV;
+        }
+    }
+}
@@ -41,16 +41,16 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.spongycastle.util.encoders.Hex;
 import org.tron.common.crypto.ECKey;
 import org.tron.common.crypto.zksnark.BN128;
-import org.tron.common.crypto.zksnark.BN128Fp;
-import org.tron.common.crypto.zksnark.BN128G1;
-import org.tron.common.crypto.zksnark.BN128G2;
-import org.tron.common.crypto.zksnark.Fp;
-import org.tron.common.crypto.zksnark.PairingCheck;
+import org.tron.common.crypto.zksnark.MontBN128G1;
+import org.tron.common.crypto.zksnark.MontBN128G2;
+import org.tron.common.crypto.zksnark.MontFp;
+import org.tron.common.crypto.zksnark.MontPairingCheck;
 import org.tron.common.runtime.vm.program.Program;
 import org.tron.common.runtime.vm.program.ProgramResult;
 import org.tron.common.storage.Deposit;
 import org.tron.common.utils.BIUtil;
 import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.ModExpUtil;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Wallet;
 import org.tron.core.actuator.Actuator;
@@ -457,19 +457,8 @@ public class PrecompiledContracts {
         return Pair.of(true, EMPTY_BYTE_ARRAY);
       }
 
-      byte[] res = stripLeadingZeroes(base.modPow(exp, mod).toByteArray());
-
-      // adjust result to the same length as the modulus has
-      if (res.length < modLen) {
-
-        byte[] adjRes = new byte[modLen];
-        System.arraycopy(res, 0, adjRes, modLen - res.length, res.length);
-
-        return Pair.of(true, adjRes);
-
-      } else {
-        return Pair.of(true, res);
-      }
+      // result has the same length as the modulus
+      return Pair.of(true, ModExpUtil.modExp(base, exp, mod, modLen));
     }
 
     private long getMultComplexity(long x) {
@@ -515,7 +504,7 @@ public class PrecompiledContracts {
   }
 
   /**
-   * Computes point addition on Barreto–Naehrig curve. See {@link BN128Fp} for details<br/> <br/>
+   * Computes point addition on Barreto–Naehrig curve. See {@link MontBN128G1} for details<br/> <br/>
    *
    * input data[]:<br/> two points encoded as (x, y), where x and y are 32-byte left-padded
    * integers,<br/> if input is shorter than expected, it's assumed to be right-padded with zero
@@ -544,17 +533,17 @@ public class PrecompiledContracts {
       byte[] x2 = parseWord(data, 2);
       byte[] y2 = parseWord(data, 3);
 
-      BN128<Fp> p1 = BN128Fp.create(x1, y1);
+      MontBN128G1 p1 = MontBN128G1.create(x1, y1);
       if (p1 == null) {
         return Pair.of(false, EMPTY_BYTE_ARRAY);
       }
 
-      BN128<Fp> p2 = BN128Fp.create(x2, y2);
+      MontBN128G1 p2 = MontBN128G1.create(x2, y2);
       if (p2 == null) {
         return Pair.of(false, EMPTY_BYTE_ARRAY);
       }
 
-      BN128<Fp> res = p1.add(p2).toEthNotation();
+      BN128<MontFp> res = p1.add(p2).toEthNotation();
 
       return Pair.of(true, encodeRes(res.x().bytes(), res.y().bytes()));
     }
@@ -562,7 +551,7 @@ public class PrecompiledContracts {
 
   /**
    * Computes multiplication of scalar value on a point belonging to Barreto–Naehrig curve. See
-   * {@link BN128Fp} for details<br/> <br/>
+   * {@link MontBN128G1} for details<br/> <br/>
    *
    * input data[]:<br/> point encoded as (x, y) is followed by scalar s, where x, y and s are
    * 32-byte left-padded integers,<br/> if input is shorter than expected, it's assumed to be
@@ -590,23 +579,23 @@ public class PrecompiledContracts {
 
       byte[] s = parseWord(data, 2);
 
-      BN128<Fp> p = BN128Fp.create(x, y);
+      MontBN128G1 p = MontBN128G1.create(x, y);
       if (p == null) {
         return Pair.of(false, EMPTY_BYTE_ARRAY);
       }
 
-      BN128<Fp> res = p.mul(BIUtil.toBI(s)).toEthNotation();
+      BN128<MontFp> res = p.mul(BIUtil.toBI(s)).toEthNotation();
 
       return Pair.of(true, encodeRes(res.x().bytes(), res.y().bytes()));
     }
   }
 
   /**
-   * Computes pairing check. <br/> See {@link PairingCheck} for details.<br/> <br/>
+   * Computes pairing check. <br/> See {@link MontPairingCheck} for details.<br/> <br/>
    *
    * Input data[]: <br/> an array of points (a1, b1, ... , ak, bk), <br/> where "ai" is a point of
-   * {@link BN128Fp} curve and encoded as two 32-byte left-padded integers (x; y) <br/> "bi" is a
-   * point of {@link BN128G2} curve and encoded as four 32-byte left-padded integers {@code (ai + b;
+   * {@link MontBN128G1} curve and encoded as two 32-byte left-padded integers (x; y) <br/> "bi" is a
+   * point of {@link MontBN128G2} curve and encoded as four 32-byte left-padded integers {@code (ai + b;
    * ci + d)}, each coordinate of the point is a big-endian {@link } number, so {@code b} precedes
    * {@code a} in the encoding: {@code (b, a; d, c)} <br/> thus each pair (ai, bi) has 192 bytes
    * length, if 192 is not a multiple of {@code data.length} then execution fails <br/> the number
@@ -641,12 +630,12 @@ public class PrecompiledContracts {
         return Pair.of(false, EMPTY_BYTE_ARRAY);
       }
 
-      PairingCheck check = PairingCheck.create();
+      MontPairingCheck check = MontPairingCheck.create();
 
       // iterating over all pairs
       for (int offset = 0; offset < data.length; offset += PAIR_SIZE) {
 
-        Pair<BN128G1, BN128G2> pair = decodePair(data, offset);
+        Pair<MontBN128G1, MontBN128G2> pair = decodePair(data, offset);
 
         // fail if decoding has failed
         if (pair == null) {
@@ -662,12 +651,12 @@ public class PrecompiledContracts {
       return Pair.of(true, new DataWord(result).getData());
     }
 
-    private Pair<BN128G1, BN128G2> decodePair(byte[] in, int offset) {
+    private Pair<MontBN128G1, MontBN128G2> decodePair(byte[] in, int offset) {
 
       byte[] x = parseWord(in, offset, 0);
       byte[] y = parseWord(in, offset, 1);
 
-      BN128G1 p1 = BN128G1.create(x, y);
+      MontBN128G1 p1 = MontBN128G1.create(x, y);
 
       // fail if point is invalid
       if (p1 == null) {
@@ -682,7 +671,7 @@ public class PrecompiledContracts {
       byte[] d = parseWord(in, offset, 4);
       byte[] c = parseWord(in, offset, 5);
 
-      BN128G2 p2 = BN128G2.create(a, b, c, d);
+      MontBN128G2 p2 = MontBN128G2.create(a, b, c, d);
 
       // fail if point is invalid
       if (p2 == null) {
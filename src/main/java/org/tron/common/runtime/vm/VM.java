@@ -29,6 +29,8 @@ public class VM {
   // 3MB
   private static final BigInteger MEM_LIMIT = BigInteger.valueOf(3L * 1024 * 1024);
 
+  private static final EnergyCost ENERGY_COSTS = EnergyCost.getInstance();
+
   private final VMConfig config;
 
   public VM() {
@@ -75,21 +77,22 @@ public class VM {
     }
 
     try {
-      OpCode op = OpCode.code(program.getCurrentOp());
+      OpCode op = program.getCurrentOpCode();
       if (op == null) {
         throw Program.Exception.invalidOpCode(program.getCurrentOp());
       }
 
       program.setLastOp(op.val());
-      program.verifyStackSize(op.require());
-      program.verifyStackOverflow(op.require(), op.ret()); //Check not exceeding stack limits
+      program.verifyStack(op.require(), op.ret());
 
       long oldMemSize = program.getMemSize();
       Stack stack = program.getStack();
 
+      // resolved once per step, the hints below are only built for debug logging
+      final boolean debug = logger.isDebugEnabled();
       String hint = "";
       long energyCost = op.getTier().asInt();
-      EnergyCost energyCosts = EnergyCost.getInstance();
+      EnergyCost energyCosts = ENERGY_COSTS;
       DataWord adjustedCallEnergy = null;
 
       // Calculate fees and spend energy
@@ -273,7 +276,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " + " + word2.value();
           }
 
@@ -287,7 +290,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " * " + word2.value();
           }
 
@@ -300,7 +303,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " - " + word2.value();
           }
 
@@ -313,7 +316,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " / " + word2.value();
           }
 
@@ -326,7 +329,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.sValue() + " / " + word2.sValue();
           }
 
@@ -339,7 +342,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " % " + word2.value();
           }
 
@@ -352,7 +355,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.sValue() + " #% " + word2.sValue();
           }
 
@@ -365,7 +368,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " ** " + word2.value();
           }
 
@@ -380,7 +383,7 @@ public class VM {
 
           if (k.compareTo(_32_) < 0) {
             DataWord word2 = program.stackPop();
-            if (logger.isDebugEnabled()) {
+            if (debug) {
               hint = word1 + "  " + word2.value();
             }
             word2.signExtend(k.byteValue());
@@ -393,7 +396,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           word1.bnot();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "" + word1.value();
           }
 
@@ -406,7 +409,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " < " + word2.value();
           }
 
@@ -425,7 +428,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.sValue() + " < " + word2.sValue();
           }
 
@@ -444,7 +447,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.sValue() + " > " + word2.sValue();
           }
 
@@ -463,7 +466,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " > " + word2.value();
           }
 
@@ -481,7 +484,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " == " + word2.value();
           }
 
@@ -503,7 +506,7 @@ public class VM {
             word1.and(DataWord.ZERO);
           }
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "" + word1.value();
           }
 
@@ -519,7 +522,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " && " + word2.value();
           }
 
@@ -532,7 +535,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " || " + word2.value();
           }
 
@@ -545,7 +548,7 @@ public class VM {
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word1.value() + " ^ " + word2.value();
           }
 
@@ -567,7 +570,7 @@ public class VM {
             result = new DataWord();
           }
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "" + result.value();
           }
 
@@ -606,7 +609,7 @@ public class VM {
           byte[] encoded = sha3(buffer);
           DataWord word = new DataWord(encoded);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = word.toString();
           }
 
@@ -621,7 +624,7 @@ public class VM {
         case ADDRESS: {
           DataWord address = program.getOwnerAddress();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "address: " + Hex.toHexString(address.getLast20Bytes());
           }
 
@@ -633,7 +636,7 @@ public class VM {
           DataWord address = program.stackPop();
           DataWord balance = program.getBalance(address);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "address: "
                 + Hex.toHexString(address.getLast20Bytes())
                 + " balance: " + balance.toString();
@@ -646,7 +649,7 @@ public class VM {
         case ORIGIN: {
           DataWord originAddress = program.getOriginAddress();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "address: " + Hex.toHexString(originAddress.getLast20Bytes());
           }
 
@@ -661,7 +664,7 @@ public class VM {
            the address length in vm is matching with 20
            */
           callerAddress = new DataWord(callerAddress.getLast20Bytes());
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "address: " + Hex.toHexString(callerAddress.getLast20Bytes());
           }
 
@@ -672,7 +675,7 @@ public class VM {
         case CALLVALUE: {
           DataWord callValue = program.getCallValue();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "value: " + callValue;
           }
 
@@ -684,7 +687,7 @@ public class VM {
           DataWord dataOffs = program.stackPop();
           DataWord value = program.getDataValue(dataOffs);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "data: " + value;
           }
 
@@ -695,7 +698,7 @@ public class VM {
         case CALLDATASIZE: {
           DataWord dataSize = program.getDataSize();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "size: " + dataSize.value();
           }
 
@@ -710,7 +713,7 @@ public class VM {
 
           byte[] msgData = program.getDataCopy(dataOffsetData, lengthData);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "data: " + Hex.toHexString(msgData);
           }
 
@@ -721,7 +724,7 @@ public class VM {
         case RETURNDATASIZE: {
           DataWord dataSize = program.getReturnDataBufferSize();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "size: " + dataSize.value();
           }
 
@@ -741,7 +744,7 @@ public class VM {
                 program.getReturnDataBufferSize().longValueSafe());
           }
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "data: " + Hex.toHexString(msgData);
           }
 
@@ -761,7 +764,7 @@ public class VM {
           }
           DataWord codeLength = new DataWord(length);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "size: " + length;
           }
 
@@ -797,7 +800,7 @@ public class VM {
             System.arraycopy(fullCode, codeOffset, codeCopy, 0, sizeToBeCopied);
           }
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "code: " + Hex.toHexString(codeCopy);
           }
 
@@ -808,7 +811,7 @@ public class VM {
         case GASPRICE: {
           DataWord energyPrice = new DataWord(0);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "price: " + energyPrice.toString();
           }
 
@@ -826,7 +829,7 @@ public class VM {
 
           DataWord blockHash = program.getBlockHash(blockIndex);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "blockHash: " + blockHash;
           }
 
@@ -837,7 +840,7 @@ public class VM {
         case COINBASE: {
           DataWord coinbase = program.getCoinbase();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "coinbase: " + Hex.toHexString(coinbase.getLast20Bytes());
           }
 
@@ -848,7 +851,7 @@ public class VM {
         case TIMESTAMP: {
           DataWord timestamp = program.getTimestamp();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "timestamp: " + timestamp.value();
           }
 
@@ -859,7 +862,7 @@ public class VM {
         case NUMBER: {
           DataWord number = program.getNumber();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "number: " + number.value();
           }
 
@@ -870,7 +873,7 @@ public class VM {
         case DIFFICULTY: {
           DataWord difficulty = program.getDifficulty();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "difficulty: " + difficulty;
           }
 
@@ -882,7 +885,7 @@ public class VM {
           // todo: this energylimit is the block's energy limit
           DataWord energyLimit = new DataWord(0);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "energylimit: " + energyLimit;
           }
 
@@ -913,8 +916,7 @@ public class VM {
         case DUP16: {
 
           int n = op.val() - OpCode.DUP1.val() + 1;
-          DataWord word_1 = stack.get(stack.size() - n);
-          program.stackPush(word_1.clone());
+          stack.dup(n);
           program.step();
 
         }
@@ -968,7 +970,7 @@ public class VM {
           LogInfo logInfo =
               new LogInfo(address.getLast20Bytes(), topics, data);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = logInfo.toString();
           }
 
@@ -980,7 +982,7 @@ public class VM {
           DataWord addr = program.stackPop();
           DataWord data = program.memoryLoad(addr);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "data: " + data;
           }
 
@@ -992,7 +994,7 @@ public class VM {
           DataWord addr = program.stackPop();
           DataWord value = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "addr: " + addr + " value: " + value;
           }
 
@@ -1012,7 +1014,7 @@ public class VM {
           DataWord key = program.stackPop();
           DataWord val = program.storageLoad(key);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "key: " + key + " value: " + val;
           }
 
@@ -1032,7 +1034,7 @@ public class VM {
           DataWord addr = program.stackPop();
           DataWord value = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "[" + program.getOwnerAddress().toPrefixString() + "] key: " + addr + " value: "
                 + value;
           }
@@ -1045,7 +1047,7 @@ public class VM {
           DataWord pos = program.stackPop();
           int nextPC = program.verifyJumpDest(pos);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "~> " + nextPC;
           }
 
@@ -1060,7 +1062,7 @@ public class VM {
           if (!cond.isZero()) {
             int nextPC = program.verifyJumpDest(pos);
 
-            if (logger.isDebugEnabled()) {
+            if (debug) {
               hint = "~> " + nextPC;
             }
 
@@ -1075,7 +1077,7 @@ public class VM {
           int pc = program.getPC();
           DataWord pcWord = new DataWord(pc);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = pcWord.toString();
           }
 
@@ -1087,7 +1089,7 @@ public class VM {
           int memSize = program.getMemSize();
           DataWord wordMemSize = new DataWord(memSize);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "" + memSize;
           }
 
@@ -1097,7 +1099,7 @@ public class VM {
         break;
         case GAS: {
           DataWord energy = program.getEnergyLimitLeft();
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "" + energy;
           }
 
@@ -1143,7 +1145,7 @@ public class VM {
 
           byte[] data = program.sweep(nPush);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "" + Hex.toHexString(data);
           }
 
@@ -1189,7 +1191,7 @@ public class VM {
           DataWord outDataOffs = program.stackPop();
           DataWord outDataSize = program.stackPop();
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "addr: " + Hex.toHexString(codeAddress.getLast20Bytes())
                 + " energy: " + adjustedCallEnergy.shortHex()
                 + " inOff: " + inDataOffs.shortHex()
@@ -1230,7 +1232,7 @@ public class VM {
           byte[] hReturn = program.memoryChunk(offset.intValueSafe(), size.intValueSafe());
           program.setHReturn(hReturn);
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "data: " + Hex.toHexString(hReturn)
                 + " offset: " + offset.value()
                 + " size: " + size.value();
@@ -1253,7 +1255,7 @@ public class VM {
           program.suicide(address);
           program.getResult().addTouchAccount(address.getLast20Bytes());
 
-          if (logger.isDebugEnabled()) {
+          if (debug) {
             hint = "address: " + Hex.toHexString(program.getOwnerAddress().getLast20Bytes());
           }
 
@@ -84,7 +84,7 @@ public class Program {
 
   private static final int MAX_DEPTH = 64;
   //Max size for stack checks
-  private static final int MAX_STACKSIZE = 1024;
+  private static final int MAX_STACKSIZE = Stack.MAX_SIZE;
 
   private BlockCapsule blockCap;
 
@@ -135,6 +135,7 @@ public class Program {
   private ProgramTrace trace = new ProgramTrace();
 
   private byte[] ops;
+  private byte[] codeAddress;
   private int pc;
   private byte lastOp;
   private byte previouslyExecutedOp;
@@ -157,17 +158,19 @@ public class Program {
     this(null, ops, programInvoke, transaction, config, blockCap);
   }
 
-  public Program(byte[] codeHash, byte[] ops, ProgramInvoke programInvoke,
+  public Program(byte[] codeAddress, byte[] ops, ProgramInvoke programInvoke,
       InternalTransaction transaction, VMConfig config, BlockCapsule blockCap) {
     this.config = config;
     this.invoke = programInvoke;
     this.transaction = transaction;
     this.blockCap = blockCap;
     this.ops = nullToEmpty(ops);
+    this.codeAddress = codeAddress;
 
     traceListener = new ProgramTraceListener(config.vmTrace());
     this.memory = setupProgramListener(new Memory());
-    this.stack = setupProgramListener(new Stack());
+    // stack events are only of interest to the trace listener
+    this.stack = config.vmTrace() ? setupProgramListener(new Stack()) : new Stack();
     this.contractState = setupProgramListener(new ContractState(programInvoke));
     this.trace = new ProgramTrace(config, programInvoke);
     this.nonce = transaction.getNonce();
@@ -175,7 +178,7 @@ public class Program {
 
   public ProgramPrecompile getProgramPrecompile() {
     if (programPrecompile == null) {
-      programPrecompile = ProgramPrecompile.compile(ops);
+      programPrecompile = ProgramPrecompile.getOrCompile(codeAddress, ops);
     }
     return programPrecompile;
   }
@@ -221,6 +224,14 @@ public class Program {
     return isEmpty(ops) ? 0 : ops[pc];
   }
 
+  /**
+   * Same as {@link #getCurrentOp()} but resolved through the pre-decoded code analysis, null when
+   * the current byte is not a valid opcode.
+   */
+  public OpCode getCurrentOpCode() {
+    return isEmpty(ops) ? OpCode.STOP : getProgramPrecompile().getOpCode(pc);
+  }
+
   /**
    * Last Op can only be set publicly (no getLastOp method), is used for logging.
    */
@@ -327,6 +338,21 @@ public class Program {
     }
   }
 
+  /**
+   * Combines {@link #verifyStackSize(int)} and {@link #verifyStackOverflow(int, int)} into a
+   * single check, reading the stack size only once.
+   */
+  public void verifyStack(int argsReqs, int returnReqs) {
+    int stackSize = stack.size();
+    if (stackSize < argsReqs) {
+      throw Exception.tooSmallStack(argsReqs, stackSize);
+    }
+    if ((stackSize - argsReqs + returnReqs) > MAX_STACKSIZE) {
+      throw new StackTooLargeException(
+          "Expected: overflow " + MAX_STACKSIZE + " elements stack limit");
+    }
+  }
+
   public void verifyStackOverflow(int argsReqs, int returnReqs) {
     if ((stack.size() - argsReqs + returnReqs) > MAX_STACKSIZE) {
       throw new StackTooLargeException(
@@ -654,8 +680,8 @@ public class Program {
           contextBalance, data, deposit, msg.getType().callIsStatic() || isStaticCall(),
           byTestingSuite(), vmStartInUs, getVmShouldEndInUs(), msg.getEnergy().longValueSafe());
       VM vm = new VM(config);
-      Program program = new Program(null, programCode, programInvoke, internalTx, config,
-          this.blockCap);
+      Program program = new Program(codeAddress, programCode, programInvoke, internalTx,
+          config, this.blockCap);
       program.setRootTransactionId(this.rootTransactionId);
       program.setRootCallConstant(this.isRootCallConstant);
       vm.play(program);
@@ -17,11 +17,14 @@
  */
 package org.tron.common.runtime.vm.program;
 
-import java.util.HashSet;
-import java.util.Set;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.runtime.vm.DataWord;
+import org.tron.common.runtime.vm.EnergyCost;
 import org.tron.common.runtime.vm.OpCode;
+import org.tron.core.db.ByteArrayWrapper;
 
 
 @Slf4j(topic = "ProgramPrecompile")
@@ -30,29 +33,159 @@ import org.tron.common.runtime.vm.OpCode;
  */
 public class ProgramPrecompile {
 
-  private Set<Integer> jumpdest = new HashSet<>();
+  /**
+   * Upper bound of the total code bytes whose analysis is kept in the cache.
+   */
+  private static final long MAX_CACHED_CODE_BYTES = 8L * 1024 * 1024;
+
+  private static final Cache<ByteArrayWrapper, ProgramPrecompile> analysisCache = CacheBuilder
+      .newBuilder()
+      .maximumWeight(MAX_CACHED_CODE_BYTES)
+      .weigher((ByteArrayWrapper key, ProgramPrecompile value) -> value.opCodes.length + 1)
+      .recordStats()
+      .build();
+
+  // one bit per pc, set when the pc holds a JUMPDEST which is not push data
+  private long[] jumpdest;
+
+  // decoded instruction for every pc, null for undefined opcodes
+  private OpCode[] opCodes;
+
+  // sorted start pcs of the basic blocks, and the static energy of each of them
+  private int[] blockStarts;
+  private long[] blockStaticEnergy;
+
+  /**
+   * Returns the analysis of the code deployed at <code>codeAddress</code>, computing and caching it
+   * on the first request. The code of a contract never changes once deployed, so the address and
+   * the code length identify it without hashing the code. When there's no address (e.g. init code
+   * of a CREATE) the analysis is computed but not cached.
+   */
+  public static ProgramPrecompile getOrCompile(byte[] codeAddress, byte[] ops) {
+    if (codeAddress == null) {
+      return compile(ops);
+    }
+    ByteArrayWrapper key = new ByteArrayWrapper(codeAddress);
+    ProgramPrecompile ret = analysisCache.getIfPresent(key);
+    // a different length is a different contract created at the address again
+    if (ret == null || ret.opCodes.length != ops.length) {
+      ret = compile(ops);
+      analysisCache.put(key, ret);
+    }
+    return ret;
+  }
 
   public static ProgramPrecompile compile(byte[] ops) {
     ProgramPrecompile ret = new ProgramPrecompile();
+    ret.jumpdest = new long[(ops.length >>> 6) + 1];
+    ret.opCodes = new OpCode[ops.length];
     for (int i = 0; i < ops.length; ++i) {
+      ret.opCodes[i] = OpCode.code(ops[i]);
+    }
 
-      OpCode op = OpCode.code(ops[i]);
-      if (op == null) {
-        continue;
-      }
+    int[] starts = new int[16];
+    long[] energies = new long[16];
+    int blocks = 0;
+    boolean newBlock = true;
+    for (int i = 0; i < ops.length; ++i) {
 
-      if (op.equals(OpCode.JUMPDEST)) {
+      OpCode op = ret.opCodes[i];
+      if (op == OpCode.JUMPDEST) {
         logger.debug("JUMPDEST:" + i);
-        ret.jumpdest.add(i);
+        ret.jumpdest[i >>> 6] |= 1L << (i & 63);
+        newBlock = true;
       }
 
-      if (op.asInt() >= OpCode.PUSH1.asInt() && op.asInt() <= OpCode.PUSH32.asInt()) {
+      if (newBlock) {
+        if (blocks == starts.length) {
+          starts = Arrays.copyOf(starts, blocks << 1);
+          energies = Arrays.copyOf(energies, blocks << 1);
+        }
+        starts[blocks++] = i;
+        newBlock = false;
+      }
+      energies[blocks - 1] += staticEnergy(op);
+
+      if (op == null || isBlockTerminator(op)) {
+        newBlock = true;
+      } else if (op.asInt() >= OpCode.PUSH1.asInt() && op.asInt() <= OpCode.PUSH32.asInt()) {
         i += op.asInt() - OpCode.PUSH1.asInt() + 1;
       }
     }
+    ret.blockStarts = Arrays.copyOf(starts, blocks);
+    ret.blockStaticEnergy = Arrays.copyOf(energies, blocks);
     return ret;
   }
 
+  private static boolean isBlockTerminator(OpCode op) {
+    switch (op) {
+      case STOP:
+      case JUMP:
+      case JUMPI:
+      case RETURN:
+      case REVERT:
+      case SUICIDE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * The part of the energy of <code>op</code> which does not depend on the stack, the memory or
+   * the state, i.e. a lower bound of what {@link org.tron.common.runtime.vm.VM#step} charges.
+   */
+  private static long staticEnergy(OpCode op) {
+    if (op == null) {
+      return 0;
+    }
+    EnergyCost energyCosts = EnergyCost.getInstance();
+    switch (op) {
+      case STOP:
+      case RETURN:
+      case REVERT:
+        return energyCosts.getSTOP();
+      case SUICIDE:
+        return energyCosts.getSUICIDE();
+      case SLOAD:
+        return energyCosts.getSLOAD();
+      case BALANCE:
+        return energyCosts.getBALANCE();
+      case EXTCODESIZE:
+        return energyCosts.getEXT_CODE_SIZE();
+      case EXTCODECOPY:
+        return energyCosts.getEXT_CODE_COPY();
+      case SHA3:
+        return energyCosts.getSHA3();
+      case CALL:
+      case CALLCODE:
+      case DELEGATECALL:
+      case STATICCALL:
+        return energyCosts.getCALL();
+      case CREATE:
+        return energyCosts.getCREATE();
+      case LOG0:
+      case LOG1:
+      case LOG2:
+      case LOG3:
+      case LOG4:
+        return energyCosts.getLOG_ENERGY()
+            + energyCosts.getLOG_TOPIC_ENERGY() * (op.val() - OpCode.LOG0.val());
+      case EXP:
+        return energyCosts.getEXP_ENERGY();
+      case SSTORE:
+      case MSTORE:
+      case MSTORE8:
+      case MLOAD:
+      case CALLDATACOPY:
+      case RETURNDATACOPY:
+      case CODECOPY:
+        return 0;
+      default:
+        return op.getTier().asInt();
+    }
+  }
+
   public static byte[] getCode(byte[] ops) {
     for (int i = 0; i < ops.length; ++i) {
 
@@ -83,6 +216,42 @@ public class ProgramPrecompile {
   }
 
   public boolean hasJumpDest(int pc) {
-    return jumpdest.contains(pc);
+    return pc >= 0 && pc < opCodes.length && (jumpdest[pc >>> 6] & (1L << (pc & 63))) != 0;
+  }
+
+  /**
+   * Returns the decoded instruction at <code>pc</code>, or null when the byte is not a valid
+   * opcode.
+   */
+  public OpCode getOpCode(int pc) {
+    return opCodes[pc];
+  }
+
+  public int getBlockCount() {
+    return blockStarts.length;
+  }
+
+  /**
+   * Returns the start pc of the basic block containing <code>pc</code>.
+   */
+  public int getBlockStart(int pc) {
+    return blockStarts[blockIndex(pc)];
+  }
+
+  /**
+   * Returns the static energy of the basic block containing <code>pc</code>, summed over all of
+   * its instructions.
+   */
+  public long getBlockStaticEnergy(int pc) {
+    return blockStaticEnergy[blockIndex(pc)];
+  }
+
+  private int blockIndex(int pc) {
+    int idx = Arrays.binarySearch(blockStarts, pc);
+    return idx >= 0 ? idx : -idx - 2;
+  }
+
+  public static long getCacheHitCount() {
+    return analysisCache.stats().hitCount();
   }
 }
@@ -17,11 +17,23 @@
  */
 package org.tron.common.runtime.vm.program;
 
+import java.util.EmptyStackException;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.common.runtime.vm.program.listener.ProgramListener;
 import org.tron.common.runtime.vm.program.listener.ProgramListenerAware;
 
-public class Stack extends java.util.Stack<DataWord> implements ProgramListenerAware {
+/**
+ * Operand stack of the VM, backed by a fixed array of {@link #MAX_SIZE} words and not
+ * synchronized: a stack is only ever used by the thread running its program. Index 0 is the
+ * bottom of the stack, as with {@link java.util.Stack}. Callers are expected to check the stack
+ * limits (see {@link Program#verifyStack(int, int)}) before pushing.
+ */
+public class Stack implements ProgramListenerAware {
+
+  public static final int MAX_SIZE = 1024;
+
+  private final DataWord[] words = new DataWord[MAX_SIZE];
+  private int size;
 
   private ProgramListener programListener;
 
@@ -30,20 +42,46 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
     this.programListener = listener;
   }
 
-  @Override
-  public synchronized DataWord pop() {
+  public DataWord pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
     if (programListener != null) {
       programListener.onStackPop();
     }
-    return super.pop();
+    DataWord item = words[--size];
+    words[size] = null;
+    return item;
   }
 
-  @Override
   public DataWord push(DataWord item) {
     if (programListener != null) {
       programListener.onStackPush(item);
     }
-    return super.push(item);
+    words[size++] = item;
+    return item;
+  }
+
+  public DataWord peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return words[size - 1];
+  }
+
+  public DataWord get(int index) {
+    if (index < 0 || index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return words[index];
+  }
+
+  /**
+   * Pushes a copy of the <code>n</code>-th word from the top, <code>dup(1)</code> duplicating the
+   * top of the stack.
+   */
+  public void dup(int n) {
+    push(get(size - n).clone());
   }
 
   public void swap(int from, int to) {
@@ -51,12 +89,21 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
       if (programListener != null) {
         programListener.onStackSwap(from, to);
       }
-      DataWord tmp = get(from);
-      set(from, set(to, tmp));
+      DataWord tmp = words[from];
+      words[from] = words[to];
+      words[to] = tmp;
     }
   }
 
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
   private boolean isAccessible(int from) {
-    return from >= 0 && from < size();
+    return from >= 0 && from < size;
   }
 }
@@ -1,18 +1,39 @@
 package org.tron.common.runtime.vm.program;
 
 import static java.lang.System.arraycopy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.tron.common.crypto.Hash;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.core.capsule.StorageRowCapsule;
 import org.tron.core.db.StorageRowStore;
+import org.tron.core.db.common.WrappedByteArray;
 
 public class Storage {
 
+  // slots read from the store by the last execution of a contract, keyed by address hash
+  private static final Cache<WrappedByteArray, Set<DataWord>> hotSlots = CacheBuilder
+      .newBuilder()
+      .maximumSize(10_000)
+      .build();
+
+  private static final int MAX_HOT_SLOTS = 128;
+
   private byte[] addrHash;  // contract address
   private StorageRowStore store;
   private final Map<DataWord, StorageRowCapsule> rowCache = new HashMap<>();
+  // keys known to have no row in the store
+  private final Set<DataWord> absentKeys = new HashSet<>();
+  // keys read from the store, the hot slots of the next execution
+  private final Set<DataWord> loadedKeys = new LinkedHashSet<>();
+  private boolean prefetched;
 
   private static final int PREFIX_BYTES = 16;
 
@@ -22,16 +43,47 @@ public class Storage {
   }
 
   public DataWord getValue(DataWord key) {
-    if (rowCache.containsKey(key)) {
-      return rowCache.get(key).getValue();
-    } else {
-      StorageRowCapsule row = store.get(compose(key.getData(), addrHash));
-      if (row == null || row.getInstance() == null) {
-        return null;
-      }
-      rowCache.put(key, row);
+    StorageRowCapsule row = rowCache.get(key);
+    if (row != null) {
       return row.getValue();
     }
+    if (absentKeys.contains(key)) {
+      return null;
+    }
+
+    Set<DataWord> keys = new HashSet<>();
+    keys.add(key);
+    if (!prefetched) {
+      // the first read also fetches the slots the last execution read
+      prefetched = true;
+      Set<DataWord> hot = hotSlots.getIfPresent(WrappedByteArray.of(addrHash));
+      if (hot != null) {
+        hot.stream()
+            .filter(k -> !rowCache.containsKey(k) && !absentKeys.contains(k))
+            .forEach(keys::add);
+      }
+    }
+    load(keys);
+
+    row = rowCache.get(key);
+    return row == null ? null : row.getValue();
+  }
+
+  private void load(Set<DataWord> keys) {
+    Map<WrappedByteArray, DataWord> rowKeys = new HashMap<>();
+    keys.forEach(key -> rowKeys.put(WrappedByteArray.of(compose(key.getData(), addrHash)), key));
+    Map<WrappedByteArray, StorageRowCapsule> rows = store.getAll(rowKeys.keySet().stream()
+        .map(WrappedByteArray::getBytes)
+        .collect(Collectors.toList()));
+    rowKeys.forEach((rowKey, key) -> {
+      StorageRowCapsule row = rows.get(rowKey);
+      if (row == null || row.getInstance() == null) {
+        absentKeys.add(key);
+      } else {
+        rowCache.put(key, row);
+      }
+    });
+    loadedKeys.addAll(keys);
   }
 
   public void put(DataWord key, DataWord value) {
@@ -41,6 +93,7 @@ public class Storage {
       byte[] rowKey = compose(key.getData(), addrHash);
       StorageRowCapsule row = new StorageRowCapsule(rowKey, value.getData());
       rowCache.put(key, row);
+      absentKeys.remove(key);
     }
   }
 
@@ -57,14 +110,23 @@ public class Storage {
   }
 
   public void commit() {
+    Map<byte[], StorageRowCapsule> batch = new HashMap<>();
     rowCache.forEach((key, value) -> {
       if (value.isDirty()) {
-        if (value.getValue().isZero()) {
-          this.store.delete(value.getRowKey());
-        } else {
-          this.store.put(value.getRowKey(), value);
-        }
+        batch.put(value.getRowKey(), value.getValue().isZero() ? null : value);
       }
     });
+    this.store.updateByBatch(batch);
+
+    if (!loadedKeys.isEmpty()) {
+      Set<DataWord> hot = new HashSet<>();
+      for (DataWord key : loadedKeys) {
+        if (hot.size() == MAX_HOT_SLOTS) {
+          break;
+        }
+        hot.add(key.clone());
+      }
+      hotSlots.put(WrappedByteArray.of(addrHash), hot);
+    }
   }
 }
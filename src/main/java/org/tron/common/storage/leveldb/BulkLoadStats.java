@@ -0,0 +1,34 @@
+package org.tron.common.storage.leveldb;
+
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Throughput of a {@link LevelDbDataSourceImpl#bulkLoad} call.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkLoadStats {
+
+  private final long rows;
+  private final long bytes;
+  private final int batches;
+  private final long elapsedNanos;
+
+  public long getRowsPerSecond() {
+    return elapsedNanos == 0 ? 0 : rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  public double getMegabytesPerSecond() {
+    return elapsedNanos == 0 ? 0
+        : bytes / (1024.0 * 1024.0) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d rows, %d bytes in %d batches, %d ms, %d rows/s, %.1f MB/s",
+        rows, bytes, batches, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getRowsPerSecond(),
+        getMegabytesPerSecond());
+  }
+}
@@ -18,17 +18,27 @@ package org.tron.common.storage.leveldb;
 import static org.fusesource.leveldbjni.JniDBFactory.factory;
 
 import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedBytes;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
@@ -45,6 +55,7 @@ import org.iq80.leveldb.WriteOptions;
 import org.tron.common.storage.DbSourceInter;
 import org.tron.common.utils.FileUtil;
 import org.tron.core.config.args.Args;
+import org.tron.core.db.common.WrappedByteArray;
 import org.tron.core.db.common.iterator.StoreIterator;
 
 @Slf4j
@@ -52,6 +63,8 @@ import org.tron.core.db.common.iterator.StoreIterator;
 public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     Iterable<Map.Entry<byte[], byte[]>> {
 
+  public static final int DEFAULT_BULK_LOAD_BATCH_SIZE = 4 * 1024 * 1024;
+
   String dataBaseName;
   DB database;
   boolean alive;
@@ -186,6 +199,38 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     return null;
   }
 
+  /**
+   * The values of the keys found, by key. The keys are sought in key order with one iterator, so
+   * neighbouring keys are read from the same blocks.
+   */
+  public Map<WrappedByteArray, byte[]> getAll(Collection<byte[]> keys) {
+    Map<WrappedByteArray, byte[]> result = new HashMap<>();
+    if (keys.isEmpty()) {
+      return result;
+    }
+    Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+    List<byte[]> sorted = new ArrayList<>(keys);
+    sorted.sort(comparator);
+    resetDbLock.readLock().lock();
+    try (DBIterator iterator = database.iterator()) {
+      for (byte[] key : sorted) {
+        iterator.seek(key);
+        if (!iterator.hasNext()) {
+          break;
+        }
+        Entry<byte[], byte[]> entry = iterator.peekNext();
+        if (comparator.compare(entry.getKey(), key) == 0) {
+          result.put(WrappedByteArray.of(key), entry.getValue());
+        }
+      }
+      return result;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
   @Override
   public void putData(byte[] key, byte[] value) {
     resetDbLock.readLock().lock();
@@ -347,6 +392,58 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  /**
+   * Up to <code>limit</code> rows with keys from <code>from</code> (inclusive) to <code>to</code>
+   * (exclusive) in key order, or from the last of them down when <code>reverse</code>.
+   */
+  public List<Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, boolean reverse,
+      long limit) {
+    if (limit <= 0) {
+      return Collections.emptyList();
+    }
+    Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+    resetDbLock.readLock().lock();
+    try (DBIterator iterator = database.iterator()) {
+      List<Entry<byte[], byte[]>> result = new ArrayList<>();
+      if (!reverse) {
+        for (iterator.seek(from); iterator.hasNext() && result.size() < limit; iterator.next()) {
+          Entry<byte[], byte[]> entry = iterator.peekNext();
+          if (comparator.compare(entry.getKey(), to) >= 0) {
+            break;
+          }
+          result.add(entry);
+        }
+        return result;
+      }
+
+      iterator.seek(to);
+      if (!iterator.hasNext()) {
+        // every key is below to, start from the last one
+        iterator.seekToLast();
+        if (!iterator.hasNext()) {
+          return result;
+        }
+        Entry<byte[], byte[]> entry = iterator.peekNext();
+        if (comparator.compare(entry.getKey(), from) < 0) {
+          return result;
+        }
+        result.add(entry);
+      }
+      for (; iterator.hasPrev() && result.size() < limit; iterator.prev()) {
+        Entry<byte[], byte[]> entry = iterator.peekPrev();
+        if (comparator.compare(entry.getKey(), from) < 0) {
+          break;
+        }
+        result.add(entry);
+      }
+      return result;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
   @Override
   public long getTotal() throws RuntimeException {
     resetDbLock.readLock().lock();
@@ -421,6 +518,123 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  /**
+   * Bulk load in batches of 4 MB, see {@link #bulkLoad(Iterator, int, boolean)}.
+   */
+  public BulkLoadStats bulkLoad(Iterator<? extends Entry<byte[], byte[]>> rows) {
+    return bulkLoad(rows, DEFAULT_BULK_LOAD_BATCH_SIZE, false);
+  }
+
+  /**
+   * Bulk load with a writer thread of its own, see
+   * {@link #bulkLoad(Iterator, int, boolean, ExecutorService)}.
+   */
+  public BulkLoadStats bulkLoad(Iterator<? extends Entry<byte[], byte[]>> rows, int batchSize,
+      boolean syncEachBatch) {
+    ExecutorService writer = Executors.newSingleThreadExecutor(
+        r -> new Thread(r, "bulk-load-" + dataBaseName));
+    try {
+      return bulkLoad(rows, batchSize, syncEachBatch, writer);
+    } finally {
+      writer.shutdown();
+    }
+  }
+
+  /**
+   * Writes the rows in batches of about <code>batchSize</code> bytes: the calling thread reads
+   * the rows into the next batch while the <code>writer</code> writes the previous one. Rows
+   * sorted by key load the fastest. A null value deletes the key.
+   *
+   * <p>Unless <code>syncEachBatch</code>, only the last batch is synced. A crash may then lose the
+   * batches written since the last sync, which suits loads that start over after a crash, such as
+   * a snapshot import. LevelDB has no way to skip its log.
+   */
+  public BulkLoadStats bulkLoad(Iterator<? extends Entry<byte[], byte[]>> rows, int batchSize,
+      boolean syncEachBatch, ExecutorService writer) {
+    long start = System.nanoTime();
+    long count = 0;
+    long bytes = 0;
+    int batches = 0;
+    Future<?> pending = null;
+    resetDbLock.readLock().lock();
+    try {
+      while (rows.hasNext()) {
+        WriteBatch batch = database.createWriteBatch();
+        int size = 0;
+        try {
+          while (size < batchSize && rows.hasNext()) {
+            Entry<byte[], byte[]> row = rows.next();
+            if (row.getValue() == null) {
+              batch.delete(row.getKey());
+              size += row.getKey().length;
+            } else {
+              batch.put(row.getKey(), row.getValue());
+              size += row.getKey().length + row.getValue().length;
+            }
+            count++;
+          }
+        } catch (RuntimeException e) {
+          closeQuietly(batch);
+          throw e;
+        }
+        bytes += size;
+        batches++;
+
+        WriteOptions options = new WriteOptions().sync(syncEachBatch || !rows.hasNext());
+        try {
+          waitFor(pending);
+        } catch (RuntimeException e) {
+          closeQuietly(batch);
+          throw e;
+        }
+        pending = writer.submit(() -> {
+          try (WriteBatch written = batch) {
+            database.write(written, options);
+          }
+          return null;
+        });
+      }
+      waitFor(pending);
+      pending = null;
+    } finally {
+      // the database stays open until the last batch is written
+      if (pending != null) {
+        try {
+          waitFor(pending);
+        } catch (RuntimeException e) {
+          logger.warn("failed to write a batch of " + dataBaseName, e);
+        }
+      }
+      resetDbLock.readLock().unlock();
+    }
+
+    BulkLoadStats stats = new BulkLoadStats(count, bytes, batches, System.nanoTime() - start);
+    logger.debug("bulk loaded {}: {}", dataBaseName, stats);
+    return stats;
+  }
+
+  private static void waitFor(Future<?> future) {
+    if (future == null) {
+      return;
+    }
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private static void closeQuietly(WriteBatch batch) {
+    try {
+      batch.close();
+    } catch (IOException e) {
+      logger.warn("failed to close a write batch", e);
+    }
+  }
+
   @Override
   public boolean flush() {
     return false;
@@ -0,0 +1,65 @@
+package org.tron.common.utils;
+
+import java.util.Arrays;
+import org.tron.common.crypto.Hash;
+
+/**
+ * A 2048 bit bloom filter with 3 bits per item, taken from the sha3 of the item as in the logs
+ * bloom of an Ethereum block header. May report an item that was never added, never misses one
+ * that was.
+ */
+public class Bloom {
+
+  public static final int SIZE = 256;
+
+  private final byte[] data;
+
+  public Bloom() {
+    this.data = new byte[SIZE];
+  }
+
+  public Bloom(byte[] data) {
+    if (data.length != SIZE) {
+      throw new IllegalArgumentException("a bloom is " + SIZE + " bytes, not " + data.length);
+    }
+    this.data = data;
+  }
+
+  public void add(byte[] item) {
+    byte[] hash = Hash.sha3(item);
+    for (int i = 0; i < 6; i += 2) {
+      int bit = bit(hash, i);
+      data[SIZE - 1 - bit / 8] |= 1 << (bit % 8);
+    }
+  }
+
+  public boolean mayContain(byte[] item) {
+    byte[] hash = Hash.sha3(item);
+    for (int i = 0; i < 6; i += 2) {
+      int bit = bit(hash, i);
+      if ((data[SIZE - 1 - bit / 8] & (1 << (bit % 8))) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public byte[] getData() {
+    return data;
+  }
+
+  // the low 11 bits of the 2 bytes of the hash at the index
+  private static int bit(byte[] hash, int index) {
+    return ((hash[index] & 0x07) << 8) | (hash[index + 1] & 0xff);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || o instanceof Bloom && Arrays.equals(data, ((Bloom) o).data);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(data);
+  }
+}
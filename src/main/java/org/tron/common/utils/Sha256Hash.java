@@ -22,14 +22,19 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.io.ByteStreams;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteOutput;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
 import java.util.Arrays;
 
 
@@ -43,6 +48,22 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
   public static final int LENGTH = 32; // bytes
   public static final Sha256Hash ZERO_HASH = wrap(new byte[LENGTH]);
 
+  private static final String ALGORITHM = "SHA-256";
+
+  /**
+   * The JDK's own provider, its SHA-256 compression function is compiled by HotSpot to the SHA
+   * extensions of the CPU where there are some (-XX:+UseSHA256Intrinsics), while other providers
+   * registered in front of it would stay in plain Java.
+   */
+  private static final Provider INTRINSIC_PROVIDER = Security.getProvider("SUN");
+
+  /**
+   * Digests are not thread safe but cheap to keep, so every thread reuses its own instead of
+   * looking one up through the security providers for each hash.
+   */
+  private static final ThreadLocal<MessageDigest> DIGEST =
+      ThreadLocal.withInitial(Sha256Hash::newDigest);
+
   private final byte[] bytes;
 
   private byte[] generateBlockId(long blockNum, Sha256Hash blockHash) {
@@ -116,6 +137,17 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
     return wrap(hash(contents));
   }
 
+  /**
+   * Creates a new instance containing the calculated (one-time) hash of the given bytes, without
+   * copying them out of the byte string.
+   *
+   * @param contents the bytes on which the hash value is calculated
+   * @return a new instance containing the calculated (one-time) hash
+   */
+  public static Sha256Hash of(ByteString contents) {
+    return wrap(hash(contents));
+  }
+
   /**
    * Creates a new instance containing the calculated (one-time) hash of the given file's contents.
    * The file contents are read fully into memory, so this method should only be used with small
@@ -158,12 +190,26 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    */
   public static MessageDigest newDigest() {
     try {
-      return MessageDigest.getInstance("SHA-256");
+      if (INTRINSIC_PROVIDER != null
+          && INTRINSIC_PROVIDER.getService("MessageDigest", ALGORITHM) != null) {
+        return MessageDigest.getInstance(ALGORITHM, INTRINSIC_PROVIDER);
+      }
+      return MessageDigest.getInstance(ALGORITHM);
     } catch (NoSuchAlgorithmException e) {
       throw new RuntimeException(e);  // Can't happen.
     }
   }
 
+  /**
+   * Returns the SHA-256 MessageDigest of the calling thread, reset. It must not escape the
+   * calling method.
+   */
+  private static MessageDigest digest() {
+    MessageDigest digest = DIGEST.get();
+    digest.reset();
+    return digest;
+  }
+
   /**
    * Calculates the SHA-256 hash of the given bytes.
    *
@@ -183,11 +229,55 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    * @return the hash (in big-endian order)
    */
   public static byte[] hash(byte[] input, int offset, int length) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = digest();
     digest.update(input, offset, length);
     return digest.digest();
   }
 
+  /**
+   * Calculates the SHA-256 hash of the two given byte arrays one after the other, such as the two
+   * children of a merkle node. This is equivalent to concatenating them and then passing the
+   * result to {@link #hash(byte[])}.
+   *
+   * @return the hash (in big-endian order)
+   */
+  public static byte[] hash(byte[] input1, byte[] input2) {
+    MessageDigest digest = digest();
+    digest.update(input1);
+    digest.update(input2);
+    return digest.digest();
+  }
+
+  /**
+   * Calculates the SHA-256 hash of the remaining bytes of the given buffer, reading an array
+   * backed buffer in place. The position of the buffer is moved to its limit.
+   *
+   * @param input the buffer containing the bytes to hash
+   * @return the hash (in big-endian order)
+   */
+  public static byte[] hash(ByteBuffer input) {
+    MessageDigest digest = digest();
+    digest.update(input);
+    return digest.digest();
+  }
+
+  /**
+   * Calculates the SHA-256 hash of the given bytes, reading every chunk of the byte string in
+   * place.
+   *
+   * @param input the bytes to hash
+   * @return the hash (in big-endian order)
+   */
+  public static byte[] hash(ByteString input) {
+    MessageDigest digest = digest();
+    try {
+      UnsafeByteOperations.unsafeWriteTo(input, new DigestOutput(digest));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);  // Can't happen, digests don't do I/O.
+    }
+    return digest.digest();
+  }
+
   /**
    * Calculates the SHA-256 hash of the given bytes, and then hashes the resulting hash again.
    *
@@ -207,7 +297,7 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    * @return the double-hash (in big-endian order)
    */
   public static byte[] hashTwice(byte[] input, int offset, int length) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = digest();
     digest.update(input, offset, length);
     return digest.digest(digest.digest());
   }
@@ -218,7 +308,7 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    */
   public static byte[] hashTwice(byte[] input1, int offset1, int length1,
       byte[] input2, int offset2, int length2) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = digest();
     digest.update(input1, offset1, length1);
     digest.update(input2, offset2, length2);
     return digest.digest(digest.digest());
@@ -288,4 +378,42 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
     }
     return 0;
   }
+
+  /**
+   * Feeds the chunks of a byte string to a digest. The digest only reads them, so the lazy
+   * writes can hand over the backing arrays of the byte string as they are.
+   */
+  private static final class DigestOutput extends ByteOutput {
+
+    private final MessageDigest digest;
+
+    private DigestOutput(MessageDigest digest) {
+      this.digest = digest;
+    }
+
+    @Override
+    public void write(byte value) {
+      digest.update(value);
+    }
+
+    @Override
+    public void write(byte[] value, int offset, int length) {
+      digest.update(value, offset, length);
+    }
+
+    @Override
+    public void writeLazy(byte[] value, int offset, int length) {
+      digest.update(value, offset, length);
+    }
+
+    @Override
+    public void write(ByteBuffer value) {
+      digest.update(value);
+    }
+
+    @Override
+    public void writeLazy(ByteBuffer value) {
+      digest.update(value);
+    }
+  }
 }
@@ -47,6 +47,9 @@ import org.tron.api.GrpcAPI.Address;
 import org.tron.api.GrpcAPI.AssetIssueList;
 import org.tron.api.GrpcAPI.BlockList;
 import org.tron.api.GrpcAPI.ExchangeList;
+import org.tron.api.GrpcAPI.LogEntry;
+import org.tron.api.GrpcAPI.LogFilter;
+import org.tron.api.GrpcAPI.LogList;
 import org.tron.api.GrpcAPI.Node;
 import org.tron.api.GrpcAPI.NodeList;
 import org.tron.api.GrpcAPI.NumberMessage;
@@ -88,8 +91,11 @@ import org.tron.core.db.BandwidthProcessor;
 import org.tron.core.db.ContractStore;
 import org.tron.core.db.DynamicPropertiesStore;
 import org.tron.core.db.EnergyProcessor;
+import org.tron.core.db.LogIndexStore;
 import org.tron.core.db.Manager;
 import org.tron.core.db.PendingManager;
+import org.tron.core.db.ResponseCache;
+import org.tron.core.db.ResponseCache.Key;
 import org.tron.core.exception.AccountResourceInsufficientException;
 import org.tron.core.exception.ContractExeException;
 import org.tron.core.exception.ContractValidateException;
@@ -132,8 +138,12 @@ public class Wallet {
   private Manager dbManager;
   @Autowired
   private NodeManager nodeManager;
+  @Autowired
+  private ResponseCache responseCache;
   private static String addressPreFixString = Constant.ADD_PRE_FIX_STRING_TESTNET;  //default testnet
   private static byte addressPreFixByte = Constant.ADD_PRE_FIX_BYTE_TESTNET;
+  private static final int LOG_LIMIT_NUM = 1000;
+  private static final long LOG_BLOCK_RANGE_MAX = 5000;
 
   /**
    * Creates a new Wallet with a random ECKey.
@@ -489,12 +499,14 @@ public class Wallet {
   }
 
   public Block getNowBlock() {
-    List<BlockCapsule> blockList = dbManager.getBlockStore().getBlockByLatestNum(1);
-    if (CollectionUtils.isEmpty(blockList)) {
-      return null;
-    } else {
-      return blockList.get(0).getInstance();
-    }
+    return responseCache.get(Key.NOW_BLOCK, () -> {
+      List<BlockCapsule> blockList = dbManager.getBlockStore().getBlockByLatestNum(1);
+      if (CollectionUtils.isEmpty(blockList)) {
+        return null;
+      } else {
+        return blockList.get(0).getInstance();
+      }
+    });
   }
 
   public Block getBlockByNum(long blockNum) {
@@ -507,30 +519,40 @@ public class Wallet {
   }
 
   public WitnessList getWitnessList() {
-    WitnessList.Builder builder = WitnessList.newBuilder();
-    List<WitnessCapsule> witnessCapsuleList = dbManager.getWitnessStore().getAllWitnesses();
-    witnessCapsuleList
-        .forEach(witnessCapsule -> builder.addWitnesses(witnessCapsule.getInstance()));
-    return builder.build();
+    return responseCache.get(Key.WITNESSES, () -> {
+      WitnessList.Builder builder = WitnessList.newBuilder();
+      List<WitnessCapsule> witnessCapsuleList = dbManager.getWitnessStore().getAllWitnesses();
+      witnessCapsuleList
+          .forEach(witnessCapsule -> builder.addWitnesses(witnessCapsule.getInstance()));
+      return builder.build();
+    });
   }
 
   public ProposalList getProposalList() {
-    ProposalList.Builder builder = ProposalList.newBuilder();
-    List<ProposalCapsule> proposalCapsuleList = dbManager.getProposalStore().getAllProposals();
-    proposalCapsuleList
-        .forEach(proposalCapsule -> builder.addProposals(proposalCapsule.getInstance()));
-    return builder.build();
+    return responseCache.get(Key.PROPOSALS, () -> {
+      ProposalList.Builder builder = ProposalList.newBuilder();
+      List<ProposalCapsule> proposalCapsuleList = dbManager.getProposalStore().getAllProposals();
+      proposalCapsuleList
+          .forEach(proposalCapsule -> builder.addProposals(proposalCapsule.getInstance()));
+      return builder.build();
+    });
   }
 
   public ExchangeList getExchangeList() {
-    ExchangeList.Builder builder = ExchangeList.newBuilder();
-    List<ExchangeCapsule> exchangeCapsuleList = dbManager.getExchangeStore().getAllExchanges();
-    exchangeCapsuleList
-        .forEach(exchangeCapsule -> builder.addExchanges(exchangeCapsule.getInstance()));
-    return builder.build();
+    return responseCache.get(Key.EXCHANGES, () -> {
+      ExchangeList.Builder builder = ExchangeList.newBuilder();
+      List<ExchangeCapsule> exchangeCapsuleList = dbManager.getExchangeStore().getAllExchanges();
+      exchangeCapsuleList
+          .forEach(exchangeCapsule -> builder.addExchanges(exchangeCapsule.getInstance()));
+      return builder.build();
+    });
   }
 
   public Protocol.ChainParameters getChainParameters() {
+    return responseCache.get(Key.CHAIN_PARAMETERS, this::buildChainParameters);
+  }
+
+  private Protocol.ChainParameters buildChainParameters() {
     Protocol.ChainParameters.Builder builder = Protocol.ChainParameters.newBuilder();
 
     Arrays.stream(ChainParameters.values()).forEach(parameters -> {
@@ -556,10 +578,12 @@ public class Wallet {
   }
 
   public AssetIssueList getAssetIssueList() {
-    AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-    dbManager.getAssetIssueStore().getAllAssetIssues()
-        .forEach(issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
-    return builder.build();
+    return responseCache.get(Key.ASSET_ISSUES, () -> {
+      AssetIssueList.Builder builder = AssetIssueList.newBuilder();
+      dbManager.getAssetIssueStore().getAllAssetIssues()
+          .forEach(issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
+      return builder.build();
+    });
   }
 
 
@@ -576,18 +600,64 @@ public class Wallet {
     return builder.build();
   }
 
+  public AssetIssueList getAssetIssueListAfter(ByteString cursor, long limit) {
+    if (cursor == null || limit < 0) {
+      return null;
+    }
+    AssetIssueList.Builder builder = AssetIssueList.newBuilder();
+    dbManager.getAssetIssueStore().getAssetIssuesAfter(cursor.toByteArray(), limit)
+        .forEach(issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
+    return builder.build();
+  }
+
+  /**
+   * Logs of the block range of the filter, up to the head, null when the filter is invalid or
+   * the logs are not indexed. The range searched starts at the first indexed block and spans at
+   * most LOG_BLOCK_RANGE_MAX blocks, it's returned with the logs. A page of limit logs comes
+   * with the cursor to start the next one after.
+   */
+  public LogList getLogs(LogFilter filter) {
+    LogIndexStore logIndexStore = dbManager.getLogIndexStore();
+    ByteString cursor = filter.getCursor();
+    if (!logIndexStore.isEnabled() || filter.getFromBlock() < 0 || filter.getToBlock() < 0
+        || filter.getLimit() < 0
+        || (!cursor.isEmpty() && cursor.size() != LogIndexStore.CURSOR_LENGTH)) {
+      return null;
+    }
+    long headNum = dbManager.getHeadBlockNum();
+    long toNum = filter.getToBlock() > 0 ? Math.min(filter.getToBlock(), headNum) : headNum;
+    int limit = filter.getLimit() > 0 ? (int) Math.min(filter.getLimit(), LOG_LIMIT_NUM)
+        : LOG_LIMIT_NUM;
+    LogList.Builder builder = LogList.newBuilder();
+    long fromNum = Math.max(filter.getFromBlock(), logIndexStore.getFirstBlockNum());
+    if (!cursor.isEmpty()) {
+      // the cursor starts with the number of its block
+      fromNum = Math.max(fromNum, cursor.asReadOnlyByteBuffer().getLong());
+    }
+    if (fromNum <= toNum) {
+      toNum = Math.min(toNum, fromNum + LOG_BLOCK_RANGE_MAX - 1);
+      List<LogEntry> logs = logIndexStore.getLogs(fromNum, toNum, filter.getAddressList(),
+          filter.getTopicsList(), cursor.toByteArray(), limit);
+      builder.setFromBlock(fromNum)
+          .setToBlock(toNum)
+          .addAllLog(logs);
+      if (logs.size() >= limit) {
+        builder.setCursor(ByteString.copyFrom(LogIndexStore.getCursor(logs.get(logs.size() - 1))));
+      }
+    }
+    return builder.build();
+  }
+
   public AssetIssueList getAssetIssueByAccount(ByteString accountAddress) {
     if (accountAddress == null || accountAddress.isEmpty()) {
       return null;
     }
     List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueStore()
-        .getAllAssetIssues();
+        .getAssetIssuesByOwner(accountAddress.toByteArray());
     AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-    assetIssueCapsuleList.stream()
-        .filter(assetIssueCapsule -> assetIssueCapsule.getOwnerAddress().equals(accountAddress))
-        .forEach(issueCapsule -> {
-          builder.addAssetIssue(issueCapsule.getInstance());
-        });
+    assetIssueCapsuleList.forEach(issueCapsule -> {
+      builder.addAssetIssue(issueCapsule.getInstance());
+    });
     return builder.build();
   }
 
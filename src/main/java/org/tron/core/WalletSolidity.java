@@ -1,5 +1,7 @@
 package org.tron.core;
 
+import static org.tron.core.config.Parameter.DatabaseConstants.TRANSACTIONS_COUNT_LIMIT_MAX;
+
 import com.google.protobuf.ByteString;
 import java.util.List;
 import java.util.Objects;
@@ -7,8 +9,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.api.GrpcAPI.TransactionList;
+import org.tron.api.GrpcAPI.TransactionPage;
 import org.tron.common.utils.ByteArray;
+import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.capsule.TransactionInfoCapsule;
+import org.tron.core.db.AddressTransactionStore;
+import org.tron.core.db.AddressTransactionStore.Page;
 import org.tron.core.db.Manager;
 import org.tron.core.db.api.StoreAPI;
 import org.tron.core.exception.BadItemException;
@@ -24,6 +30,8 @@ public class WalletSolidity {
   private StoreAPI storeAPI;
   @Autowired
   private Manager dbManager;
+  @Autowired
+  private AddressTransactionStore addressTransactionStore;
 
   public Transaction getTransactionById(ByteString id) {
     try {
@@ -53,6 +61,9 @@ public class WalletSolidity {
   }
 
   public TransactionList getTransactionsFromThis(ByteString thisAddress, long offset, long limit) {
+    if (addressTransactionStore.isComplete()) {
+      return getTransactionsByAddress(thisAddress, false, offset, limit);
+    }
     List<Transaction> transactionsFromThis = storeAPI
         .getTransactionsFromThis(ByteArray.toHexString(thisAddress.toByteArray()), offset, limit);
     TransactionList transactionList = TransactionList.newBuilder()
@@ -61,10 +72,41 @@ public class WalletSolidity {
   }
 
   public TransactionList getTransactionsToThis(ByteString toAddress, long offset, long limit) {
+    if (addressTransactionStore.isComplete()) {
+      return getTransactionsByAddress(toAddress, true, offset, limit);
+    }
     List<Transaction> transactionsToThis = storeAPI
         .getTransactionsToThis(ByteArray.toHexString(toAddress.toByteArray()), offset, limit);
     TransactionList transactionList = TransactionList.newBuilder()
         .addAllTransaction(transactionsToThis).build();
     return transactionList;
   }
+
+  private TransactionList getTransactionsByAddress(ByteString address, boolean to, long offset,
+      long limit) {
+    TransactionList.Builder builder = TransactionList.newBuilder();
+    if (address.isEmpty()) {
+      return builder.build();
+    }
+    List<TransactionCapsule> transactions = addressTransactionStore.getTransactions(
+        address.toByteArray(), to, offset, Math.min(limit, TRANSACTIONS_COUNT_LIMIT_MAX));
+    transactions.forEach(transaction -> builder.addTransaction(transaction.getInstance()));
+    return builder.build();
+  }
+
+  /**
+   * A page of the transactions from or to the address, the next one starts after the cursor of
+   * this one. Empty while the index doesn't hold every block.
+   */
+  public TransactionPage getTransactionsByAddress(ByteString address, boolean to,
+      boolean reverse, ByteString cursor, long limit) {
+    TransactionPage.Builder builder = TransactionPage.newBuilder();
+    if (!addressTransactionStore.isComplete() || address.isEmpty() || limit <= 0) {
+      return builder.build();
+    }
+    Page page = addressTransactionStore.getTransactions(address.toByteArray(), to, reverse,
+        cursor.toByteArray(), (int) Math.min(limit, TRANSACTIONS_COUNT_LIMIT_MAX));
+    page.getTransactions().forEach(transaction -> builder.addTransaction(transaction.getInstance()));
+    return builder.setCursor(ByteString.copyFrom(page.getCursor())).build();
+  }
 }
@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.ECRecovery;
 import org.tron.common.crypto.ECKey.ECDSASignature;
 import org.tron.common.utils.ByteUtil;
 import org.tron.common.utils.Sha256Hash;
@@ -213,18 +214,35 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   public boolean validateSignature() throws ValidateSignatureException {
     try {
       return Arrays
-          .equals(ECKey.signatureToAddress(getRawHash().getBytes(),
-              TransactionCapsule
-                  .getBase64FromByteString(block.getBlockHeader().getWitnessSignature())),
+          .equals(ECRecovery.signatureToAddress(getRawHash().getBytes(),
+              block.getBlockHeader().getWitnessSignature().toByteArray()),
               block.getBlockHeader().getRawData().getWitnessAddress().toByteArray());
     } catch (SignatureException e) {
       throw new ValidateSignatureException(e.getMessage());
     }
   }
 
+  /**
+   * Validates the signatures of all transactions in the block as one batch, see {@link
+   * TransactionCapsule#validateSignatures(List)}.
+   */
+  public void validateTransactionSignatures() throws ValidateSignatureException {
+    validateTransactionSignatures(0, getTransactions().size());
+  }
+
+  /**
+   * Same as {@link #validateTransactionSignatures()} for the transactions from
+   * <code>fromIndex</code>, inclusive, to <code>toIndex</code>, exclusive, so that a block can be
+   * split into batches validated in parallel.
+   */
+  public void validateTransactionSignatures(int fromIndex, int toIndex)
+      throws ValidateSignatureException {
+    TransactionCapsule.validateSignatures(getTransactions().subList(fromIndex, toIndex));
+  }
+
   public BlockId getBlockId() {
     if (blockId.equals(Sha256Hash.ZERO_HASH)) {
-      blockId = new BlockId(Sha256Hash.of(this.block.getBlockHeader().getRawData().toByteArray()), getNum());
+      blockId = new BlockId(getRawHash(), getNum());
     }
     return blockId;
   }
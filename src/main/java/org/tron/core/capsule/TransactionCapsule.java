@@ -21,10 +21,14 @@ import static org.tron.protos.Contract.VoteWitnessContract;
 import static org.tron.protos.Contract.WitnessCreateContract;
 import static org.tron.protos.Contract.WitnessUpdateContract;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.primitives.Bytes;
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.security.SignatureException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -34,6 +38,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.ECRecovery;
 import org.tron.common.crypto.ECKey.ECDSASignature;
 import org.tron.common.runtime.Runtime;
 import org.tron.common.runtime.vm.program.Program.BadJumpDestinationException;
@@ -49,6 +54,7 @@ import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Wallet;
 import org.tron.core.db.AccountStore;
+import org.tron.core.db.ByteArrayWrapper;
 import org.tron.core.db.TransactionTrace;
 import org.tron.core.exception.BadItemException;
 import org.tron.core.exception.ValidateSignatureException;
@@ -83,10 +89,21 @@ import org.tron.protos.Protocol.Transaction.raw;
 @Slf4j
 public class TransactionCapsule implements ProtoCapsule<Transaction> {
 
+  // signer recovered from each (raw hash, signature) pair, shared by the p2p, repush and block
+  // paths so that a transaction already seen is not recovered again
+  private static final Cache<ByteArrayWrapper, byte[]> verifiedSigners = CacheBuilder
+      .newBuilder()
+      .maximumSize(100_000)
+      .build();
+
   private Transaction transaction;
   @Setter
   private boolean isVerified = false;
 
+  // hash of the raw data it was computed from, raw data being immutable the pair stays valid
+  // until the transaction is rebuilt with other raw data
+  private volatile RawHash rawHash;
+
   @Getter
   @Setter
   private TransactionTrace trxTrace;
@@ -241,7 +258,24 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   }
 
   private Sha256Hash getRawHash() {
-    return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+    raw rawData = this.transaction.getRawData();
+    RawHash cached = rawHash;
+    if (cached == null || cached.rawData != rawData) {
+      cached = new RawHash(rawData, Sha256Hash.of(rawData.toByteArray()));
+      rawHash = cached;
+    }
+    return cached.hash;
+  }
+
+  private static class RawHash {
+
+    private final raw rawData;
+    private final Sha256Hash hash;
+
+    private RawHash(raw rawData, Sha256Hash hash) {
+      this.rawData = rawData;
+      this.hash = hash;
+    }
   }
 
   /**
@@ -458,12 +492,12 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     }
 
     List<Transaction.Contract> listContract = this.transaction.getRawData().getContractList();
+    byte[] hash = getRawHash().getBytes();
     for (int i = 0; i < this.transaction.getSignatureCount(); ++i) {
       try {
         Transaction.Contract contract = listContract.get(i);
         byte[] owner = getOwner(contract);
-        byte[] address = ECKey.signatureToAddress(getRawHash().getBytes(),
-            getBase64FromByteString(this.transaction.getSignature(i)));
+        byte[] address = recoverSigner(hash, this.transaction.getSignature(i).toByteArray());
         if (!Arrays.equals(owner, address)) {
           isVerified = false;
           throw new ValidateSignatureException("sig error");
@@ -478,6 +512,89 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     return true;
   }
 
+  /**
+   * Validates the signatures of <code>transactions</code> as one batch, see {@link
+   * ECRecovery#signaturesToAddresses(byte[][], byte[][])}. When the batch does not check out, the
+   * transactions are validated one by one with {@link #validateSignature()}, so that the first bad
+   * one throws the same exception as it would on its own.
+   */
+  public static void validateSignatures(List<TransactionCapsule> transactions)
+      throws ValidateSignatureException {
+    List<byte[]> hashes = new ArrayList<>();
+    List<byte[]> signatures = new ArrayList<>();
+    List<byte[]> owners = new ArrayList<>();
+    boolean failed = false;
+
+    for (TransactionCapsule trx : transactions) {
+      if (trx.isVerified) {
+        continue;
+      }
+      Transaction transaction = trx.getInstance();
+      if (transaction.getSignatureCount() != transaction.getRawData().getContractCount()) {
+        failed = true;
+        break;
+      }
+
+      byte[] hash = trx.getRawHash().getBytes();
+      for (int i = 0; i < transaction.getSignatureCount(); ++i) {
+        byte[] signature = transaction.getSignature(i).toByteArray();
+        byte[] owner = getOwner(transaction.getRawData().getContract(i));
+        byte[] address = verifiedSigners.getIfPresent(signerKey(hash, signature));
+        if (address == null) {
+          hashes.add(hash);
+          signatures.add(signature);
+          owners.add(owner);
+        } else if (!Arrays.equals(owner, address)) {
+          failed = true;
+        }
+      }
+      if (failed) {
+        break;
+      }
+    }
+
+    if (!failed) {
+      byte[][] addresses = ECRecovery.signaturesToAddresses(hashes.toArray(new byte[0][]),
+          signatures.toArray(new byte[0][]));
+      for (int i = 0; i < addresses.length; i++) {
+        if (addresses[i] == null) {
+          failed = true;
+          continue;
+        }
+        verifiedSigners.put(signerKey(hashes.get(i), signatures.get(i)), addresses[i]);
+        if (!Arrays.equals(owners.get(i), addresses[i])) {
+          failed = true;
+        }
+      }
+    }
+
+    if (failed) {
+      // the signers recovered above are cached, only the bad ones are recovered again
+      for (TransactionCapsule trx : transactions) {
+        trx.validateSignature();
+      }
+      return;
+    }
+
+    for (TransactionCapsule trx : transactions) {
+      trx.isVerified = true;
+    }
+  }
+
+  private static byte[] recoverSigner(byte[] hash, byte[] signature) throws SignatureException {
+    ByteArrayWrapper key = signerKey(hash, signature);
+    byte[] address = verifiedSigners.getIfPresent(key);
+    if (address == null) {
+      address = ECRecovery.signatureToAddress(hash, signature);
+      verifiedSigners.put(key, address);
+    }
+    return address;
+  }
+
+  private static ByteArrayWrapper signerKey(byte[] hash, byte[] signature) {
+    return new ByteArrayWrapper(Bytes.concat(hash, signature));
+  }
+
   public Sha256Hash getTransactionId() {
     return getRawHash();
   }
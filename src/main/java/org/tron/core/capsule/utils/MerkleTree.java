@@ -79,7 +79,7 @@ public class MerkleTree {
     }
 
     private Sha256Hash computeHash(Sha256Hash leftHash, Sha256Hash rightHash) {
-        return Sha256Hash.of(leftHash.getByteString().concat(rightHash.getByteString()).toByteArray());
+        return Sha256Hash.wrap(Sha256Hash.hash(leftHash.getBytes(), rightHash.getBytes()));
     }
 
     @Getter
@@ -113,6 +113,18 @@ public class Args {
   @Parameter(names = {"--storage-index-directory"}, description = "Storage index directory")
   private String storageIndexDirectory = "";
 
+  @Getter
+  @Parameter(names = {"--snapshot-export"}, description = "Export the state to a snapshot file")
+  private String snapshotExport = "";
+
+  @Getter
+  @Parameter(names = {"--snapshot-import"}, description = "Import the state from a snapshot file")
+  private String snapshotImport = "";
+
+  @Getter
+  @Parameter(names = {"--snapshot-hash"}, description = "Expected manifest hash of the snapshot")
+  private String snapshotHash = "";
+
   @Getter
   private Storage storage;
 
@@ -222,6 +234,26 @@ public class Args {
   @Setter
   private int solidityHttpPort;
 
+  @Getter
+  @Setter
+  private int httpMaxThreads;
+
+  @Getter
+  @Setter
+  private int httpMaxQueuedRequests;
+
+  @Getter
+  @Setter
+  private int httpMaxRequestSize;
+
+  @Getter
+  @Setter
+  private long httpIdleTimeout;
+
+  @Getter
+  @Setter
+  private int httpMinGzipSize;
+
   @Getter
   @Setter
   @Parameter(names = {"--rpc-thread"}, description = "Num of gRPC thread")
@@ -231,6 +263,26 @@ public class Args {
   @Setter
   private int maxConcurrentCallsPerConnection;
 
+  @Getter
+  @Setter
+  private int rpcMaxLightCalls;
+
+  @Getter
+  @Setter
+  private int rpcMaxHeavyCalls;
+
+  @Getter
+  @Setter
+  private int rpcCallQueueSize;
+
+  @Getter
+  @Setter
+  private double rpcMaxCallsPerSecondPerClient;
+
+  @Getter
+  @Setter
+  private int rpcMaxBlockStreams;
+
   @Getter
   @Setter
   private int flowControlWindow;
@@ -341,6 +393,9 @@ public class Args {
     INSTANCE.privateKey = "";
     INSTANCE.storageDbDirectory = "";
     INSTANCE.storageIndexDirectory = "";
+    INSTANCE.snapshotExport = "";
+    INSTANCE.snapshotImport = "";
+    INSTANCE.snapshotHash = "";
 
     // FIXME: INSTANCE.storage maybe null ?
     if (INSTANCE.storage != null) {
@@ -485,6 +540,20 @@ public class Args {
         .filter(StringUtils::isNotEmpty)
         .orElse(Storage.getIndexDirectoryFromConfig(config)));
 
+    INSTANCE.storage.setTransactionCompact(Storage.getTransactionCompactFromConfig(config));
+
+    INSTANCE.storage.setIndexTransactionAddress(
+        Storage.getIndexTransactionAddressFromConfig(config));
+    INSTANCE.storage.setIndexLog(Storage.getIndexLogFromConfig(config));
+
+    INSTANCE.storage.setPruneBlockRetain(Storage.getPruneBlockRetainFromConfig(config));
+    INSTANCE.storage.setPruneTransactionHistoryRetain(
+        Storage.getPruneTransactionHistoryRetainFromConfig(config));
+    INSTANCE.storage.setPruneTransactionExpired(
+        Storage.getPruneTransactionExpiredFromConfig(config));
+    INSTANCE.storage.setPruneBatchSize(Storage.getPruneBatchSizeFromConfig(config));
+    INSTANCE.storage.setPruneInterval(Storage.getPruneIntervalFromConfig(config));
+
     INSTANCE.storage.setPropertyMapFromConfig(config);
 
     INSTANCE.seedNode = new SeedNode();
@@ -576,6 +645,21 @@ public class Args {
     INSTANCE.solidityHttpPort =
         config.hasPath("node.http.solidityPort") ? config.getInt("node.http.solidityPort") : 8091;
 
+    INSTANCE.httpMaxThreads =
+        config.hasPath("node.http.maxThreads") ? config.getInt("node.http.maxThreads") : 200;
+
+    INSTANCE.httpMaxQueuedRequests = config.hasPath("node.http.maxQueuedRequests") ?
+        config.getInt("node.http.maxQueuedRequests") : 1000;
+
+    INSTANCE.httpMaxRequestSize = config.hasPath("node.http.maxRequestSize") ?
+        config.getInt("node.http.maxRequestSize") : 4 * 1024 * 1024;
+
+    INSTANCE.httpIdleTimeout = config.hasPath("node.http.idleTimeout") ?
+        config.getLong("node.http.idleTimeout") : 30000L;
+
+    INSTANCE.httpMinGzipSize = config.hasPath("node.http.minGzipSize") ?
+        config.getInt("node.http.minGzipSize") : 2048;
+
     INSTANCE.rpcThreadNum =
         config.hasPath("node.rpc.thread") ? config.getInt("node.rpc.thread")
             : Runtime.getRuntime().availableProcessors() / 2;
@@ -584,6 +668,23 @@ public class Args {
         config.hasPath("node.rpc.maxConcurrentCallsPerConnection") ?
             config.getInt("node.rpc.maxConcurrentCallsPerConnection") : Integer.MAX_VALUE;
 
+    int rpcThreads = Math.max(1, INSTANCE.rpcThreadNum);
+    INSTANCE.rpcMaxLightCalls = config.hasPath("node.rpc.maxLightCalls") ?
+        config.getInt("node.rpc.maxLightCalls") : rpcThreads * 4;
+
+    INSTANCE.rpcMaxHeavyCalls = config.hasPath("node.rpc.maxHeavyCalls") ?
+        config.getInt("node.rpc.maxHeavyCalls") : Math.max(1, rpcThreads / 2);
+
+    INSTANCE.rpcCallQueueSize = config.hasPath("node.rpc.callQueueSize") ?
+        config.getInt("node.rpc.callQueueSize") : 100;
+
+    INSTANCE.rpcMaxCallsPerSecondPerClient =
+        config.hasPath("node.rpc.maxCallsPerSecondPerClient") ?
+            config.getDouble("node.rpc.maxCallsPerSecondPerClient") : 0;
+
+    INSTANCE.rpcMaxBlockStreams = config.hasPath("node.rpc.maxBlockStreams") ?
+        config.getInt("node.rpc.maxBlockStreams") : 100;
+
     INSTANCE.flowControlWindow = config.hasPath("node.rpc.flowControlWindow") ?
         config.getInt("node.rpc.flowControlWindow")
         : NettyServerBuilder.DEFAULT_FLOW_CONTROL_WINDOW;
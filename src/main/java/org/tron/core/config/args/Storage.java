@@ -46,6 +46,17 @@ public class Storage {
   private static final String DB_DIRECTORY_CONFIG_KEY = "storage.db.directory";
   private static final String DB_VERSION_CONFIG_KEY = "storage.db.version";
   private static final String INDEX_DIRECTORY_CONFIG_KEY = "storage.index.directory";
+  private static final String TRANSACTION_COMPACT_CONFIG_KEY = "storage.transaction.compact";
+  private static final String INDEX_TRANSACTION_ADDRESS_CONFIG_KEY =
+      "storage.index.transactionAddress";
+  private static final String INDEX_LOG_CONFIG_KEY = "storage.index.log";
+  private static final String PRUNE_BLOCK_RETAIN_CONFIG_KEY = "storage.prune.block.retain";
+  private static final String PRUNE_TRANSACTION_HISTORY_RETAIN_CONFIG_KEY =
+      "storage.prune.transactionHistory.retain";
+  private static final String PRUNE_TRANSACTION_EXPIRED_CONFIG_KEY =
+      "storage.prune.transaction.expired";
+  private static final String PRUNE_BATCH_SIZE_CONFIG_KEY = "storage.prune.batchSize";
+  private static final String PRUNE_INTERVAL_CONFIG_KEY = "storage.prune.interval";
   private static final String PROPERTIES_CONFIG_KEY = "storage.properties";
 
   private static final String NAME_CONFIG_KEY = "name";
@@ -65,6 +76,18 @@ public class Storage {
   private static final int DEFAULT_DB_VERSION = 1;
   private static final String DEFAULT_DB_DIRECTORY = "database";
   private static final String DEFAULT_INDEX_DIRECTORY = "index";
+  private static final boolean DEFAULT_TRANSACTION_COMPACT = false;
+  private static final boolean DEFAULT_INDEX_TRANSACTION_ADDRESS = false;
+  private static final boolean DEFAULT_INDEX_LOG = false;
+
+  /**
+   * Default values of pruning, nothing is pruned
+   */
+  private static final long DEFAULT_PRUNE_BLOCK_RETAIN = 0;
+  private static final long DEFAULT_PRUNE_TRANSACTION_HISTORY_RETAIN = 0;
+  private static final boolean DEFAULT_PRUNE_TRANSACTION_EXPIRED = false;
+  private static final int DEFAULT_PRUNE_BATCH_SIZE = 100;
+  private static final long DEFAULT_PRUNE_INTERVAL = 1000;
 
   /**
    * Default values of db options:
@@ -99,6 +122,65 @@ public class Storage {
   @Setter
   private String indexDirectory;
 
+  /**
+   * Whether the transaction store keeps only the location of block transactions in the block
+   * store instead of a second copy of their bodies
+   */
+  @Getter
+  @Setter
+  private boolean transactionCompact;
+
+  /**
+   * Whether the transactions of every address are indexed by block, solidity nodes always do
+   */
+  @Getter
+  @Setter
+  private boolean indexTransactionAddress;
+
+  /**
+   * Whether the contract logs of every block are indexed by address and topic, solidity nodes
+   * always do
+   */
+  @Getter
+  @Setter
+  private boolean indexLog;
+
+  /**
+   * Number of blocks behind the solidified block kept in the block stores, 0 keeps them all
+   */
+  @Getter
+  @Setter
+  private long pruneBlockRetain;
+
+  /**
+   * Number of blocks behind the solidified block whose transaction infos are kept, 0 keeps them all
+   */
+  @Getter
+  @Setter
+  private long pruneTransactionHistoryRetain;
+
+  /**
+   * Whether the transaction store only keeps the ids that can still be replayed, the ones of
+   * blocks within the expiration window of the solidified block
+   */
+  @Getter
+  @Setter
+  private boolean pruneTransactionExpired;
+
+  /**
+   * Maximum number of blocks pruned per store and round
+   */
+  @Getter
+  @Setter
+  private int pruneBatchSize;
+
+  /**
+   * Pause between two pruning rounds in milliseconds
+   */
+  @Getter
+  @Setter
+  private long pruneInterval;
+
   /**
    * Other custom database configurations
    */
@@ -130,6 +212,48 @@ public class Storage {
         config.getString(INDEX_DIRECTORY_CONFIG_KEY) : DEFAULT_INDEX_DIRECTORY;
   }
 
+  public static boolean getTransactionCompactFromConfig(final Config config) {
+    return config.hasPath(TRANSACTION_COMPACT_CONFIG_KEY) ?
+        config.getBoolean(TRANSACTION_COMPACT_CONFIG_KEY) : DEFAULT_TRANSACTION_COMPACT;
+  }
+
+  public static boolean getIndexTransactionAddressFromConfig(final Config config) {
+    return config.hasPath(INDEX_TRANSACTION_ADDRESS_CONFIG_KEY) ?
+        config.getBoolean(INDEX_TRANSACTION_ADDRESS_CONFIG_KEY)
+        : DEFAULT_INDEX_TRANSACTION_ADDRESS;
+  }
+
+  public static boolean getIndexLogFromConfig(final Config config) {
+    return config.hasPath(INDEX_LOG_CONFIG_KEY) ?
+        config.getBoolean(INDEX_LOG_CONFIG_KEY) : DEFAULT_INDEX_LOG;
+  }
+
+  public static long getPruneBlockRetainFromConfig(final Config config) {
+    return config.hasPath(PRUNE_BLOCK_RETAIN_CONFIG_KEY) ?
+        config.getLong(PRUNE_BLOCK_RETAIN_CONFIG_KEY) : DEFAULT_PRUNE_BLOCK_RETAIN;
+  }
+
+  public static long getPruneTransactionHistoryRetainFromConfig(final Config config) {
+    return config.hasPath(PRUNE_TRANSACTION_HISTORY_RETAIN_CONFIG_KEY) ?
+        config.getLong(PRUNE_TRANSACTION_HISTORY_RETAIN_CONFIG_KEY)
+        : DEFAULT_PRUNE_TRANSACTION_HISTORY_RETAIN;
+  }
+
+  public static boolean getPruneTransactionExpiredFromConfig(final Config config) {
+    return config.hasPath(PRUNE_TRANSACTION_EXPIRED_CONFIG_KEY) ?
+        config.getBoolean(PRUNE_TRANSACTION_EXPIRED_CONFIG_KEY) : DEFAULT_PRUNE_TRANSACTION_EXPIRED;
+  }
+
+  public static int getPruneBatchSizeFromConfig(final Config config) {
+    return config.hasPath(PRUNE_BATCH_SIZE_CONFIG_KEY) ?
+        config.getInt(PRUNE_BATCH_SIZE_CONFIG_KEY) : DEFAULT_PRUNE_BATCH_SIZE;
+  }
+
+  public static long getPruneIntervalFromConfig(final Config config) {
+    return config.hasPath(PRUNE_INTERVAL_CONFIG_KEY) ?
+        config.getLong(PRUNE_INTERVAL_CONFIG_KEY) : DEFAULT_PRUNE_INTERVAL;
+  }
+
   /**
    * Set propertyMap of Storage object from Config
    *
@@ -0,0 +1,253 @@
+package org.tron.core.db;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import javax.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BytesCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
+import org.tron.protos.Protocol.Transaction.Contract;
+
+/**
+ * Ids of the transactions from and to every address, keyed by address, direction, block number
+ * and position in the block, so the history of an address is a range scan in chain order. The
+ * index is written in the session of the block, entries of blocks revoked on a fork switch are
+ * revoked with them. The blocks applied before the index was enabled are indexed once at startup,
+ * from the first block still in the block store.
+ */
+@Slf4j
+@Component
+public class AddressTransactionStore extends TronStoreWithRevoking<BytesCapsule> {
+
+  // block number || index in the block
+  private static final int POSITION_LENGTH = Long.BYTES + Integer.BYTES;
+
+  private static final byte FROM = 0;
+  private static final byte TO = 1;
+
+  // number of the first indexed block, no address key is that short
+  private static final byte[] FIRST_BLOCK_KEY = {0};
+
+  @Autowired
+  private TransactionStore transactionStore;
+
+  @Autowired
+  private BlockStore blockStore;
+
+  @Autowired
+  private BlockIndexStore blockIndexStore;
+
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  @Getter
+  @Setter
+  private boolean enabled;
+
+  /**
+   * A page of the transactions of an address.
+   */
+  @Getter
+  public static class Page {
+
+    private final List<TransactionCapsule> transactions;
+
+    // position of the last transaction of the page, empty on the last page
+    private final byte[] cursor;
+
+    Page(List<TransactionCapsule> transactions, byte[] cursor) {
+      this.transactions = transactions;
+      this.cursor = cursor;
+    }
+  }
+
+  @Autowired
+  public AddressTransactionStore(@Value("address-transaction") String dbName) {
+    super(dbName);
+    this.enabled = Args.getInstance().getStorage().isIndexTransactionAddress()
+        || Args.getInstance().isSolidityNode();
+  }
+
+  @PostConstruct
+  private void initIndex() {
+    if (!enabled) {
+      // blocks applied meanwhile are not indexed, they are once the index is enabled again
+      if (revokingDB.has(FIRST_BLOCK_KEY)) {
+        revokingDB.delete(FIRST_BLOCK_KEY);
+      }
+      return;
+    }
+    if (!revokingDB.has(FIRST_BLOCK_KEY)) {
+      indexBlocks();
+    }
+  }
+
+  /**
+   * Indexes the blocks up to the head. The index starts after the last block missing from the
+   * block store, if any was pruned.
+   */
+  void indexBlocks() {
+    long headNum = dynamicPropertiesStore.getLatestBlockHeaderNumber();
+    long first = 1;
+    for (long num = 1; num <= headNum; num++) {
+      try {
+        put(blockStore.get(blockIndexStore.get(num).getBytes()));
+      } catch (ItemNotFoundException | BadItemException e) {
+        first = num + 1;
+      }
+      if (num % 100_000 == 0) {
+        logger.info("indexed the transactions of {} of {} blocks by address", num, headNum);
+      }
+    }
+    revokingDB.put(FIRST_BLOCK_KEY, ByteArray.fromLong(first));
+    logger.info("indexed the transactions of blocks {} to {} by address", first, headNum);
+  }
+
+  /**
+   * Whether the transactions of every block are indexed.
+   */
+  public boolean isComplete() {
+    if (!enabled) {
+      return false;
+    }
+    byte[] first = revokingDB.getUnchecked(FIRST_BLOCK_KEY);
+    return ArrayUtils.isNotEmpty(first) && ByteArray.toLong(first) <= 1;
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) {
+    byte[] value = revokingDB.getUnchecked(key);
+    return ArrayUtils.isEmpty(value) ? null : new BytesCapsule(value);
+  }
+
+  /**
+   * Indexes the transactions of the block under their owner and receiver addresses.
+   */
+  public void put(BlockCapsule block) {
+    if (!enabled) {
+      return;
+    }
+    List<TransactionCapsule> transactions = block.getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      TransactionCapsule transaction = transactions.get(i);
+      byte[] id = transaction.getTransactionId().getBytes();
+      for (Contract contract : transaction.getInstance().getRawData().getContractList()) {
+        byte[] owner = TransactionCapsule.getOwner(contract);
+        if (ArrayUtils.isNotEmpty(owner)) {
+          revokingDB.put(key(owner, FROM, block.getNum(), i), id);
+        }
+        byte[] to = TransactionCapsule.getToAddress(contract);
+        if (ArrayUtils.isNotEmpty(to)) {
+          revokingDB.put(key(to, TO, block.getNum(), i), id);
+        }
+      }
+    }
+  }
+
+  /**
+   * Up to <code>limit</code> transactions from (or <code>to</code>) the address in chain order,
+   * newest first when <code>reverse</code>. A page starts after <code>cursor</code>, the one of the
+   * previous page, or at the first transaction when it's empty.
+   */
+  public Page getTransactions(byte[] address, boolean to, boolean reverse, byte[] cursor,
+      int limit) {
+    if (ArrayUtils.isNotEmpty(cursor) && cursor.length != POSITION_LENGTH) {
+      throw new IllegalArgumentException("invalid cursor");
+    }
+    byte[] prefix = prefix(address, to ? TO : FROM);
+    byte[] from = prefix;
+    byte[] end = prefix(address, (byte) ((to ? TO : FROM) + 1));
+    if (ArrayUtils.isNotEmpty(cursor)) {
+      if (reverse) {
+        end = ArrayUtils.addAll(prefix, cursor);
+      } else {
+        // the smallest key after the one of the cursor
+        from = ArrayUtils.addAll(ArrayUtils.addAll(prefix, cursor), (byte) 0);
+      }
+    }
+
+    List<Entry<byte[], byte[]>> entries = revokingDB.getRange(from, end, reverse, limit);
+    byte[] next = new byte[0];
+    if (!entries.isEmpty() && entries.size() == limit) {
+      byte[] last = entries.get(entries.size() - 1).getKey();
+      next = Arrays.copyOfRange(last, last.length - POSITION_LENGTH, last.length);
+    }
+    return new Page(getTransactions(entries), next);
+  }
+
+  /**
+   * Transactions from (or <code>to</code>) the address in chain order, for the offset based
+   * queries. Only the keys of the skipped transactions are read.
+   */
+  public List<TransactionCapsule> getTransactions(byte[] address, boolean to, long offset,
+      long limit) {
+    byte[] from = prefix(address, to ? TO : FROM);
+    byte[] end = prefix(address, (byte) ((to ? TO : FROM) + 1));
+    List<Entry<byte[], byte[]>> entries = revokingDB.getRange(from, end, false, offset + limit);
+    if (entries.size() <= offset) {
+      return new ArrayList<>();
+    }
+    return getTransactions(entries.subList((int) offset, entries.size()));
+  }
+
+  private List<TransactionCapsule> getTransactions(List<Entry<byte[], byte[]>> entries) {
+    List<TransactionCapsule> transactions = new ArrayList<>(entries.size());
+    for (Entry<byte[], byte[]> entry : entries) {
+      TransactionCapsule transaction = getTransaction(entry.getKey(), entry.getValue());
+      if (transaction != null) {
+        transactions.add(transaction);
+      }
+    }
+    return transactions;
+  }
+
+  private TransactionCapsule getTransaction(byte[] key, byte[] id) {
+    try {
+      TransactionCapsule transaction = transactionStore.get(id);
+      if (transaction != null) {
+        return transaction;
+      }
+      // the id may be pruned, the block keeps the transaction
+      ByteBuffer position = ByteBuffer.wrap(key, key.length - POSITION_LENGTH, POSITION_LENGTH);
+      long blockNum = position.getLong();
+      int index = position.getInt();
+      BlockCapsule block = blockStore.get(blockIndexStore.get(blockNum).getBytes());
+      return block.getTransactions().get(index);
+    } catch (BadItemException | ItemNotFoundException | IndexOutOfBoundsException e) {
+      logger.debug("transaction {} is not found", ByteArray.toHexString(id));
+      return null;
+    }
+  }
+
+  private static byte[] prefix(byte[] address, byte direction) {
+    return ByteBuffer.allocate(1 + address.length + 1)
+        .put((byte) address.length)
+        .put(address)
+        .put(direction)
+        .array();
+  }
+
+  private static byte[] key(byte[] address, byte direction, long blockNum, int index) {
+    return ByteBuffer.allocate(1 + address.length + 1 + POSITION_LENGTH)
+        .put((byte) address.length)
+        .put(address)
+        .put(direction)
+        .putLong(blockNum)
+        .putInt(index)
+        .array();
+  }
+}
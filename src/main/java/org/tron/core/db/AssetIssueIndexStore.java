@@ -0,0 +1,102 @@
+package org.tron.core.db;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tron.core.capsule.AssetIssueCapsule;
+import org.tron.core.capsule.BytesCapsule;
+
+/**
+ * Keys of the asset issues by name and order, the order of the paginated asset issue list, and
+ * by owner address. Written with the asset issues, so entries are revoked with them.
+ */
+@Component
+public class AssetIssueIndexStore extends TronStoreWithRevoking<BytesCapsule> {
+
+  // NAME || name || 0x00 || order (8 bytes), asset names have no 0x00 byte so a name sorts
+  // before the longer names it prefixes, like in the sort by name then order
+  private static final byte NAME = 0;
+  // OWNER || address length || address || asset issue key
+  private static final byte OWNER = 1;
+
+  @Autowired
+  public AssetIssueIndexStore(@Value("asset-issue-index") String dbName) {
+    super(dbName);
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) {
+    byte[] value = revokingDB.getUnchecked(key);
+    return ArrayUtils.isEmpty(value) ? null : new BytesCapsule(value);
+  }
+
+  public void put(AssetIssueCapsule assetIssue) {
+    byte[] key = assetIssue.createDbKey();
+    revokingDB.put(nameKey(assetIssue), key);
+    revokingDB.put(ArrayUtils.addAll(ownerPrefix(assetIssue.getOwnerAddress().toByteArray()), key),
+        key);
+  }
+
+  public void delete(AssetIssueCapsule assetIssue) {
+    revokingDB.delete(nameKey(assetIssue));
+    revokingDB.delete(ArrayUtils.addAll(
+        ownerPrefix(assetIssue.getOwnerAddress().toByteArray()), assetIssue.createDbKey()));
+  }
+
+  public boolean isEmpty() {
+    return !revokingDB.iterator().hasNext();
+  }
+
+  /**
+   * Up to <code>limit</code> asset issue keys in name order, after the asset issue
+   * <code>after</code> or from the first one when it's null.
+   */
+  public List<byte[]> getKeysByName(AssetIssueCapsule after, long limit) {
+    byte[] from = after == null ? new byte[]{NAME} : ArrayUtils.add(nameKey(after), (byte) 0);
+    return values(revokingDB.getRange(from, new byte[]{NAME + 1}, false, limit));
+  }
+
+  public List<byte[]> getKeysByOwner(byte[] owner) {
+    byte[] prefix = ownerPrefix(owner);
+    return values(revokingDB.getRange(prefix, successor(prefix), false, Long.MAX_VALUE));
+  }
+
+  private static List<byte[]> values(List<Entry<byte[], byte[]>> entries) {
+    return entries.stream().map(Entry::getValue).collect(Collectors.toList());
+  }
+
+  private static byte[] nameKey(AssetIssueCapsule assetIssue) {
+    byte[] name = assetIssue.getName().toByteArray();
+    return ByteBuffer.allocate(1 + name.length + 1 + Long.BYTES)
+        .put(NAME)
+        .put(name)
+        .put((byte) 0)
+        .putLong(assetIssue.getOrder())
+        .array();
+  }
+
+  private static byte[] ownerPrefix(byte[] owner) {
+    return ByteBuffer.allocate(1 + 1 + owner.length)
+        .put(OWNER)
+        .put((byte) owner.length)
+        .put(owner)
+        .array();
+  }
+
+  // the smallest key greater than all keys starting with the prefix
+  private static byte[] successor(byte[] prefix) {
+    int i = prefix.length - 1;
+    while (i >= 0 && prefix[i] == (byte) 0xff) {
+      i--;
+    }
+    byte[] next = Arrays.copyOf(prefix, i + 1);
+    next[i]++;
+    return next;
+  }
+}
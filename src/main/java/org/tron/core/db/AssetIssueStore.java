@@ -4,10 +4,13 @@ import static org.tron.core.config.Parameter.DatabaseConstants.ASSET_ISSUE_COUNT
 
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Streams;
+import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -18,17 +21,49 @@ import org.tron.core.capsule.AssetIssueCapsule;
 @Component
 public class AssetIssueStore extends TronStoreWithRevoking<AssetIssueCapsule> {
 
+  @Autowired
+  private AssetIssueIndexStore assetIssueIndexStore;
+
   @Autowired
   private AssetIssueStore(@Value("asset-issue") String dbName) {
     super(dbName);
   }
 
+  /**
+   * Indexes the asset issues of a database from before the index.
+   */
+  @PostConstruct
+  private void initIndex() {
+    if (assetIssueIndexStore.isEmpty() && iterator().hasNext()) {
+      List<AssetIssueCapsule> assetIssues = getAllAssetIssues();
+      assetIssues.forEach(assetIssueIndexStore::put);
+      logger.info("indexed {} asset issues", assetIssues.size());
+    }
+  }
 
   @Override
   public AssetIssueCapsule get(byte[] key) {
     return super.getUnchecked(key);
   }
 
+  @Override
+  public void put(byte[] key, AssetIssueCapsule item) {
+    // names and owners don't change, only new asset issues are indexed
+    if (Objects.nonNull(key) && Objects.nonNull(item) && !has(key)) {
+      assetIssueIndexStore.put(item);
+    }
+    super.put(key, item);
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    AssetIssueCapsule assetIssue = get(key);
+    if (Objects.nonNull(assetIssue)) {
+      assetIssueIndexStore.delete(assetIssue);
+    }
+    super.delete(key);
+  }
+
   /**
    * get all asset issues.
    */
@@ -38,32 +73,53 @@ public class AssetIssueStore extends TronStoreWithRevoking<AssetIssueCapsule> {
         .collect(Collectors.toList());
   }
 
+  /**
+   * get the asset issues of the owner.
+   */
+  public List<AssetIssueCapsule> getAssetIssuesByOwner(byte[] owner) {
+    return getAll(assetIssueIndexStore.getKeysByOwner(owner));
+  }
+
+  /**
+   * get a page of the asset issues sorted by name then order, only the keys of the skipped ones
+   * are read.
+   */
   public List<AssetIssueCapsule> getAssetIssuesPaginated(long offset, long limit) {
     if (limit < 0 || offset < 0) {
       return null;
     }
 
-//    return Streams.stream(iterator())
-//        .map(Entry::getValue)
-//        .sorted(Comparator.comparing(a -> a.getName().toStringUtf8(), String::compareTo))
-//        .skip(offset)
-//        .limit(Math.min(limit, ASSET_ISSUE_COUNT_LIMIT_MAX))
-//        .collect(Collectors.toList());
-
-    List<AssetIssueCapsule> assetIssueList = getAllAssetIssues();
-    if (assetIssueList.size() <= offset) {
+    limit = limit > ASSET_ISSUE_COUNT_LIMIT_MAX ? ASSET_ISSUE_COUNT_LIMIT_MAX : limit;
+    List<byte[]> keys = assetIssueIndexStore.getKeysByName(null, offset + Math.max(limit, 1));
+    if (keys.size() <= offset) {
       return null;
     }
-    assetIssueList.sort((o1, o2) -> {
-      if (o1.getName() != o2.getName()) {
-        return o1.getName().toStringUtf8().compareTo(o2.getName().toStringUtf8());
+    long end = offset + limit;
+    end = end > keys.size() ? keys.size() : end;
+    return getAll(keys.subList((int) offset, (int) end));
+  }
+
+  /**
+   * get the asset issues sorted by name then order after the one of key <code>cursor</code>, or
+   * from the first one when it's empty.
+   */
+  public List<AssetIssueCapsule> getAssetIssuesAfter(byte[] cursor, long limit) {
+    AssetIssueCapsule after = null;
+    if (ArrayUtils.isNotEmpty(cursor)) {
+      after = get(cursor);
+      if (after == null) {
+        throw new IllegalArgumentException("asset issue " + new String(cursor) + " not found");
       }
-      return Long.compare(o1.getOrder(), o2.getOrder());
-    });
+    }
     limit = limit > ASSET_ISSUE_COUNT_LIMIT_MAX ? ASSET_ISSUE_COUNT_LIMIT_MAX : limit;
-    long end = offset + limit;
-    end = end > assetIssueList.size() ? assetIssueList.size() : end ;
-    return assetIssueList.subList((int)offset,(int)end);
+    return getAll(assetIssueIndexStore.getKeysByName(after, limit));
+  }
+
+  private List<AssetIssueCapsule> getAll(List<byte[]> keys) {
+    return keys.stream()
+        .map(this::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
   }
 
 }
@@ -18,6 +18,7 @@ package org.tron.core.db;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -31,11 +32,19 @@ import org.tron.core.exception.BadItemException;
 @Component
 public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
 
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
   @Autowired
   private BlockStore(@Value("block") String dbName) {
     super(dbName);
   }
 
+  @PostConstruct
+  private void initRowCount() {
+    countRows(dynamicPropertiesStore);
+  }
+
   public List<BlockCapsule> getLimitNumber(long startNumber, long limit) {
     BlockId startBlockId = new BlockId(Sha256Hash.ZERO_HASH, startNumber);
     return revokingDB.getValuesNext(startBlockId.getBytes(), limit).stream()
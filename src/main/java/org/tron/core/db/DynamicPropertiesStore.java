@@ -31,6 +31,9 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   private static final byte[] LATEST_PROPOSAL_NUM = "LATEST_PROPOSAL_NUM".getBytes();
 
+  // ROW_COUNT_ || db name, see TronStoreWithRevoking#countRows
+  private static final String ROW_COUNT = "ROW_COUNT_";
+
   private static final byte[] LATEST_EXCHANGE_NUM = "LATEST_EXCHANGE_NUM".getBytes();
 
   private static final byte[] BLOCK_FILLED_SLOTS = "BLOCK_FILLED_SLOTS".getBytes();
@@ -1189,6 +1192,20 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
     saveTotalTransactionCost(newValue);
   }
 
+  public void saveRowCount(String dbName, long count) {
+    this.put((ROW_COUNT + dbName).getBytes(), new BytesCapsule(ByteArray.fromLong(count)));
+  }
+
+  /**
+   * The row count of the store, -1 when it's not counted yet.
+   */
+  public long getRowCount(String dbName) {
+    return Optional.ofNullable(getUnchecked((ROW_COUNT + dbName).getBytes()))
+        .map(BytesCapsule::getData)
+        .map(ByteArray::toLong)
+        .orElse(-1L);
+  }
+
   public void forked() {
     put(FORK_CONTROLLER, new BytesCapsule(Boolean.toString(true).getBytes()));
   }
@@ -0,0 +1,379 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.UnsignedBytes;
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tron.api.GrpcAPI.LogEntry;
+import org.tron.common.utils.Bloom;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BytesCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransactionInfoCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.Protocol.TransactionInfo;
+import org.tron.protos.Protocol.TransactionInfo.Log;
+
+/**
+ * A bloom of the log addresses and topics of every block with logs, and the positions of the
+ * logs by contract address and first topic. Written in the session of the block, entries of
+ * blocks revoked on a fork switch are revoked with them. Queries for the first topic of given
+ * contracts read the positions, the others only read the blocks whose bloom may match. The blocks
+ * applied before the index was enabled are not indexed, the first indexed one is recorded.
+ */
+@Slf4j
+@Component
+public class LogIndexStore extends TronStoreWithRevoking<BytesCapsule> {
+
+  // BLOOM || block number
+  private static final byte BLOOM = 0;
+  // TOPIC || address length || address || topic length || topic || position
+  private static final byte TOPIC = 1;
+
+  // number of the first indexed block, no bloom or topic key is that short
+  private static final byte[] FIRST_BLOCK_KEY = {2};
+
+  // block number || transaction index || log index
+  private static final int POSITION_LENGTH = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+  // a cursor is the position of a log
+  public static final int CURSOR_LENGTH = POSITION_LENGTH;
+
+  private static final Comparator<byte[]> POSITION_ORDER =
+      UnsignedBytes.lexicographicalComparator();
+
+  // logs carry the 20 bytes of the VM address, without the prefix of the chain
+  private static final int VM_ADDRESS_LENGTH = 20;
+
+  // entries read at once by a query
+  private static final int PAGE_SIZE = 1000;
+
+  @Autowired
+  private TransactionHistoryStore transactionHistoryStore;
+
+  @Autowired
+  private BlockStore blockStore;
+
+  @Autowired
+  private BlockIndexStore blockIndexStore;
+
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  @Getter
+  @Setter
+  private boolean enabled;
+
+  @Autowired
+  public LogIndexStore(@Value("log-index") String dbName) {
+    super(dbName);
+    this.enabled = Args.getInstance().getStorage().isIndexLog()
+        || Args.getInstance().isSolidityNode();
+  }
+
+  @PostConstruct
+  private void initIndex() {
+    if (!enabled) {
+      // blocks applied meanwhile are not indexed
+      if (revokingDB.has(FIRST_BLOCK_KEY)) {
+        revokingDB.delete(FIRST_BLOCK_KEY);
+      }
+      return;
+    }
+    if (!revokingDB.has(FIRST_BLOCK_KEY)) {
+      long first = dynamicPropertiesStore.getLatestBlockHeaderNumber() + 1;
+      revokingDB.put(FIRST_BLOCK_KEY, ByteArray.fromLong(first));
+      logger.info("logs are indexed from block {}", first);
+    }
+  }
+
+  /**
+   * Number of the first block whose logs are indexed, <code>Long.MAX_VALUE</code> when none is.
+   */
+  public long getFirstBlockNum() {
+    byte[] first = enabled ? revokingDB.getUnchecked(FIRST_BLOCK_KEY) : null;
+    return ArrayUtils.isEmpty(first) ? Long.MAX_VALUE : ByteArray.toLong(first);
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) {
+    byte[] value = revokingDB.getUnchecked(key);
+    return ArrayUtils.isEmpty(value) ? null : new BytesCapsule(value);
+  }
+
+  /**
+   * Indexes the logs of the processed block, from the infos of its transactions.
+   */
+  public void put(BlockCapsule block) {
+    if (!enabled) {
+      return;
+    }
+    Bloom bloom = new Bloom();
+    boolean logged = false;
+    List<TransactionCapsule> transactions = block.getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      TransactionInfo info = getTransactionInfo(transactions.get(i));
+      if (info == null) {
+        continue;
+      }
+      byte[] id = transactions.get(i).getTransactionId().getBytes();
+      for (int j = 0; j < info.getLogCount(); j++) {
+        Log log = info.getLog(j);
+        byte[] address = vmAddress(log.getAddress()).toByteArray();
+        bloom.add(address);
+        log.getTopicsList().forEach(topic -> bloom.add(topic.toByteArray()));
+        if (log.getTopicsCount() > 0) {
+          revokingDB.put(ArrayUtils.addAll(
+              topicPrefix(address, log.getTopics(0).toByteArray()),
+              position(block.getNum(), i, j)), id);
+        }
+        logged = true;
+      }
+    }
+    if (logged) {
+      revokingDB.put(bloomKey(block.getNum()), bloom.getData());
+    }
+  }
+
+  /**
+   * Up to <code>limit</code> logs of the blocks <code>fromNum</code> to <code>toNum</code>
+   * (inclusive) in chain order, see {@link #getLogs(long, long, List, List, byte[], int)}.
+   */
+  public List<LogEntry> getLogs(long fromNum, long toNum, List<ByteString> addresses,
+      List<ByteString> topics, int limit) {
+    return getLogs(fromNum, toNum, addresses, topics, null, limit);
+  }
+
+  /**
+   * Up to <code>limit</code> logs of the blocks <code>fromNum</code> to <code>toNum</code>
+   * (inclusive) in chain order, after <code>cursor</code> unless it's empty. Logs of any of the
+   * <code>addresses</code>, or of any contract when there are none, whose topics are the
+   * non-empty <code>topics</code> at their positions.
+   */
+  public List<LogEntry> getLogs(long fromNum, long toNum, List<ByteString> addresses,
+      List<ByteString> topics, byte[] cursor, int limit) {
+    if (ArrayUtils.isNotEmpty(cursor) && cursor.length != CURSOR_LENGTH) {
+      throw new IllegalArgumentException("invalid cursor");
+    }
+    // the position of the first log to return
+    byte[] from = position(fromNum, 0, 0);
+    if (ArrayUtils.isNotEmpty(cursor) && POSITION_ORDER.compare(cursor, from) >= 0) {
+      from = ArrayUtils.add(cursor, (byte) 0);
+    }
+    Set<ByteString> vmAddresses = addresses.stream()
+        .map(LogIndexStore::vmAddress)
+        .collect(Collectors.toSet());
+    if (!vmAddresses.isEmpty() && !topics.isEmpty() && !topics.get(0).isEmpty()) {
+      return getLogsByTopic(from, toNum, vmAddresses, topics, limit);
+    }
+    return getLogsByBloom(from, toNum, vmAddresses, topics, limit);
+  }
+
+  /**
+   * The cursor to pass on to find the logs after <code>log</code>.
+   */
+  public static byte[] getCursor(LogEntry log) {
+    return position(log.getBlockNumber(), log.getTransactionIndex(), log.getLogIndex());
+  }
+
+  private List<LogEntry> getLogsByTopic(byte[] fromPosition, long toNum,
+      Set<ByteString> addresses, List<ByteString> topics, int limit) {
+    List<LogEntry> logs = new ArrayList<>();
+    for (ByteString address : addresses) {
+      byte[] prefix = topicPrefix(address.toByteArray(), topics.get(0).toByteArray());
+      byte[] from = ArrayUtils.addAll(prefix, fromPosition);
+      byte[] end = ArrayUtils.addAll(prefix, ByteArray.fromLong(toNum + 1));
+      int count = 0;
+      while (count < limit) {
+        List<Entry<byte[], byte[]>> entries = revokingDB.getRange(from, end, false, PAGE_SIZE);
+        for (Entry<byte[], byte[]> entry : entries) {
+          byte[] key = entry.getKey();
+          ByteBuffer position = ByteBuffer.wrap(key, key.length - POSITION_LENGTH,
+              POSITION_LENGTH);
+          LogEntry log = getLog(position.getLong(), position.getInt(), position.getInt(),
+              entry.getValue());
+          if (log != null && matches(log.getLog(), addresses, topics)) {
+            logs.add(log);
+            if (++count >= limit) {
+              break;
+            }
+          }
+        }
+        if (entries.size() < PAGE_SIZE) {
+          break;
+        }
+        from = ArrayUtils.add(entries.get(entries.size() - 1).getKey(), (byte) 0);
+      }
+    }
+    logs.sort(Comparator.comparingLong(LogEntry::getBlockNumber)
+        .thenComparingInt(LogEntry::getTransactionIndex)
+        .thenComparingInt(LogEntry::getLogIndex));
+    return logs.size() > limit ? new ArrayList<>(logs.subList(0, limit)) : logs;
+  }
+
+  private List<LogEntry> getLogsByBloom(byte[] fromPosition, long toNum,
+      Set<ByteString> addresses, List<ByteString> topics, int limit) {
+    List<LogEntry> logs = new ArrayList<>();
+    byte[] from = bloomKey(ByteBuffer.wrap(fromPosition).getLong());
+    byte[] end = bloomKey(toNum + 1);
+    while (true) {
+      List<Entry<byte[], byte[]>> entries = revokingDB.getRange(from, end, false, PAGE_SIZE);
+      for (Entry<byte[], byte[]> entry : entries) {
+        if (mayMatch(new Bloom(entry.getValue()), addresses, topics)) {
+          byte[] key = entry.getKey();
+          addLogs(ByteBuffer.wrap(key, 1, Long.BYTES).getLong(), fromPosition, addresses, topics,
+              logs, limit);
+          if (logs.size() >= limit) {
+            return logs;
+          }
+        }
+      }
+      if (entries.size() < PAGE_SIZE) {
+        return logs;
+      }
+      from = ArrayUtils.add(entries.get(entries.size() - 1).getKey(), (byte) 0);
+    }
+  }
+
+  // adds the matching logs of the block from the position on until there are limit logs
+  private void addLogs(long num, byte[] fromPosition, Set<ByteString> addresses,
+      List<ByteString> topics, List<LogEntry> logs, int limit) {
+    BlockCapsule block;
+    try {
+      block = blockStore.get(blockIndexStore.get(num).getBytes());
+    } catch (BadItemException | ItemNotFoundException e) {
+      logger.debug("block {} is not found", num);
+      return;
+    }
+    List<TransactionCapsule> transactions = block.getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      TransactionInfo info = getTransactionInfo(transactions.get(i));
+      if (info == null) {
+        continue;
+      }
+      for (int j = 0; j < info.getLogCount(); j++) {
+        if (POSITION_ORDER.compare(position(num, i, j), fromPosition) < 0) {
+          continue;
+        }
+        if (matches(info.getLog(j), addresses, topics)) {
+          logs.add(LogEntry.newBuilder()
+              .setBlockNumber(num)
+              .setTransactionId(ByteString.copyFrom(
+                  transactions.get(i).getTransactionId().getBytes()))
+              .setTransactionIndex(i)
+              .setLogIndex(j)
+              .setLog(info.getLog(j))
+              .build());
+          if (logs.size() >= limit) {
+            return;
+          }
+        }
+      }
+    }
+  }
+
+  private LogEntry getLog(long num, int transactionIndex, int logIndex, byte[] id) {
+    try {
+      TransactionInfoCapsule info = transactionHistoryStore.get(id);
+      if (info != null && logIndex < info.getInstance().getLogCount()) {
+        return LogEntry.newBuilder()
+            .setBlockNumber(num)
+            .setTransactionId(ByteString.copyFrom(id))
+            .setTransactionIndex(transactionIndex)
+            .setLogIndex(logIndex)
+            .setLog(info.getInstance().getLog(logIndex))
+            .build();
+      }
+    } catch (BadItemException e) {
+      logger.debug(e.getMessage(), e);
+    }
+    // the info may be pruned
+    logger.debug("log {} of transaction {} is not found", logIndex, ByteArray.toHexString(id));
+    return null;
+  }
+
+  // the info of a transaction run by the VM, null for the others
+  private TransactionInfo getTransactionInfo(TransactionCapsule transaction) {
+    boolean vm = transaction.getInstance().getRawData().getContractList().stream()
+        .anyMatch(contract -> contract.getType() == ContractType.TriggerSmartContract
+            || contract.getType() == ContractType.CreateSmartContract);
+    if (!vm) {
+      return null;
+    }
+    try {
+      TransactionInfoCapsule info = transactionHistoryStore
+          .get(transaction.getTransactionId().getBytes());
+      return info == null ? null : info.getInstance();
+    } catch (BadItemException e) {
+      logger.debug(e.getMessage(), e);
+      return null;
+    }
+  }
+
+  private static boolean mayMatch(Bloom bloom, Set<ByteString> addresses,
+      List<ByteString> topics) {
+    if (!addresses.isEmpty()
+        && addresses.stream().noneMatch(address -> bloom.mayContain(address.toByteArray()))) {
+      return false;
+    }
+    return topics.stream()
+        .allMatch(topic -> topic.isEmpty() || bloom.mayContain(topic.toByteArray()));
+  }
+
+  private static boolean matches(Log log, Set<ByteString> addresses, List<ByteString> topics) {
+    if (!addresses.isEmpty() && !addresses.contains(vmAddress(log.getAddress()))) {
+      return false;
+    }
+    for (int i = 0; i < topics.size(); i++) {
+      if (!topics.get(i).isEmpty()
+          && (i >= log.getTopicsCount() || !topics.get(i).equals(log.getTopics(i)))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static ByteString vmAddress(ByteString address) {
+    return address.size() > VM_ADDRESS_LENGTH
+        ? address.substring(address.size() - VM_ADDRESS_LENGTH) : address;
+  }
+
+  private static byte[] bloomKey(long num) {
+    return ByteBuffer.allocate(1 + Long.BYTES).put(BLOOM).putLong(num).array();
+  }
+
+  private static byte[] topicPrefix(byte[] address, byte[] topic) {
+    return ByteBuffer.allocate(1 + 1 + address.length + 1 + topic.length)
+        .put(TOPIC)
+        .put((byte) address.length)
+        .put(address)
+        .put((byte) topic.length)
+        .put(topic)
+        .array();
+  }
+
+  private static byte[] position(long num, int transactionIndex, int logIndex) {
+    return ByteBuffer.allocate(POSITION_LENGTH)
+        .putLong(num)
+        .putInt(transactionIndex)
+        .putInt(logIndex)
+        .array();
+  }
+}
@@ -60,6 +60,7 @@ import org.tron.core.config.args.GenesisBlock;
 import org.tron.core.db.KhaosDatabase.KhaosBlock;
 import org.tron.core.db2.core.ISession;
 import org.tron.core.db2.core.ITronChainBase;
+import org.tron.core.event.BlockEventBus;
 import org.tron.core.exception.AccountResourceInsufficientException;
 import org.tron.core.exception.BadBlockException;
 import org.tron.core.exception.BadItemException;
@@ -128,15 +129,35 @@ public class Manager {
   @Autowired
   @Getter
   private StorageRowStore storageRowStore;
+  @Autowired
+  @Getter
+  private AddressTransactionStore addressTransactionStore;
+  @Autowired
+  @Getter
+  private LogIndexStore logIndexStore;
 
   // for network
   @Autowired
   private PeersStore peersStore;
 
+  @Autowired
+  private PruneStore pruneStore;
+
 
   @Autowired
   private KhaosDatabase khaosDb;
 
+  @Autowired
+  private StorePruner storePruner;
+
+  @Getter
+  @Autowired
+  private BlockEventBus blockEventBus;
+
+  @Getter
+  @Autowired
+  private ResponseCache responseCache;
+
 
   private BlockCapsule genesisBlock;
   @Getter
@@ -315,6 +336,11 @@ public class Manager {
 
   @PostConstruct
   public void init() {
+    if (StateSnapshot.isImportIncomplete()) {
+      logger.error("Import of a state snapshot did not complete, please delete database "
+          + "directory({}) and import again", Args.getInstance().getOutputDirectory());
+      System.exit(1);
+    }
     revokingStore.disable();
     revokingStore.check();
     this.setWitnessController(WitnessController.createInstance(this));
@@ -348,6 +374,7 @@ public class Manager {
         .newFixedThreadPool(Args.getInstance().getValidateSignThreadNum());
     repushThread = new Thread(repushLoop);
     repushThread.start();
+    storePruner.start();
   }
 
   public BlockId getGenesisBlockId() {
@@ -538,8 +565,7 @@ public class Manager {
   }
 
   void validateDup(TransactionCapsule transactionCapsule) throws DupTransactionException {
-    if (getTransactionStore().getUnchecked(transactionCapsule.getTransactionId().getBytes())
-        != null) {
+    if (getTransactionStore().has(transactionCapsule.getTransactionId().getBytes())) {
       logger.debug(ByteArray.toHexString(transactionCapsule.getTransactionId().getBytes()));
       throw new DupTransactionException("dup trans");
     }
@@ -589,6 +615,12 @@ public class Manager {
       BlockCapsule oldHeadBlock = getBlockById(
           getDynamicPropertiesStore().getLatestBlockHeaderHash());
       logger.info("begin to erase block:" + oldHeadBlock);
+      // the erase goes on whatever happens to the notification
+      try {
+        blockEventBus.blockRemoved(oldHeadBlock);
+      } catch (RuntimeException e) {
+        logger.error("failed to publish erased block " + oldHeadBlock.getNum(), e);
+      }
       khaosDb.pop();
       revokingStore.fastPop();
       logger.info("end to erase block:" + oldHeadBlock);
@@ -596,6 +628,8 @@ public class Manager {
 
     } catch (ItemNotFoundException | BadItemException e) {
       logger.warn(e.getMessage(), e);
+    } finally {
+      responseCache.invalidate();
     }
   }
 
@@ -620,6 +654,27 @@ public class Manager {
     updateFork();
   }
 
+  /**
+   * notify the subscribers of a block committed at the head, and of the solidified block it
+   * moved. The block is committed, a failure to notify is only logged.
+   */
+  private void publishBlock(BlockCapsule block) {
+    if (blockEventBus.getSubscriptionCount() == 0) {
+      return;
+    }
+    try {
+      blockEventBus.blockApplied(block);
+      long solidifiedNum = dynamicPropertiesStore.getLatestSolidifiedBlockNum();
+      try {
+        blockEventBus.blockSolidified(getBlockIdByNum(solidifiedNum));
+      } catch (ItemNotFoundException e) {
+        logger.debug("solidified block {} not found", solidifiedNum);
+      }
+    } catch (RuntimeException e) {
+      logger.error("failed to publish block " + block.getNum(), e);
+    }
+  }
+
   private void switchFork(BlockCapsule newHead)
       throws ValidateSignatureException, ContractValidateException, ContractExeException,
       ValidateScheduleException, AccountResourceInsufficientException, TaposException,
@@ -659,6 +714,7 @@ public class Manager {
         try (ISession tmpSession = revokingStore.buildSession()) {
           applyBlock(item.getBlk());
           tmpSession.commit();
+          publishBlock(item.getBlk());
         } catch (AccountResourceInsufficientException
             | ValidateSignatureException
             | ContractValidateException
@@ -695,6 +751,7 @@ public class Manager {
               try (ISession tmpSession = revokingStore.buildSession()) {
                 applyBlock(khaosBlock.getBlk());
                 tmpSession.commit();
+                publishBlock(khaosBlock.getBlk());
               } catch (AccountResourceInsufficientException
                   | ValidateSignatureException
                   | ContractValidateException
@@ -811,8 +868,12 @@ public class Manager {
           khaosDb.removeBlk(block.getBlockId());
           throw throwable;
         }
+        publishBlock(newBlock);
       }
       logger.info("save block: " + newBlock);
+    } finally {
+      // also when the block failed, the state was rolled back and the pending transactions redone
+      responseCache.invalidate();
     }
   }
 
@@ -936,6 +997,18 @@ public class Manager {
       throws ValidateSignatureException, ContractValidateException, ContractExeException,
       AccountResourceInsufficientException, TransactionExpirationException, TooBigTransactionException, TooBigTransactionResultException,
       DupTransactionException, TaposException, ReceiptCheckErrException, VMIllegalException {
+    return processTransaction(trxCap, blockCap, -1);
+  }
+
+  /**
+   * Process transaction at <code>index</code> in <code>blockCap</code>, <code>index</code> being
+   * negative when the transaction is not part of the block yet.
+   */
+  private boolean processTransaction(final TransactionCapsule trxCap, BlockCapsule blockCap,
+      int index)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      AccountResourceInsufficientException, TransactionExpirationException, TooBigTransactionException, TooBigTransactionResultException,
+      DupTransactionException, TaposException, ReceiptCheckErrException, VMIllegalException {
     if (trxCap == null) {
       return false;
     }
@@ -992,7 +1065,7 @@ public class Manager {
         trxCap.setResult(runtime);
       }
     }
-    transactionStore.put(trxCap.getTransactionId().getBytes(), trxCap);
+    transactionStore.put(trxCap.getTransactionId().getBytes(), trxCap, blockCap, index);
 
     ReceiptCapsule traceReceipt = trace.getReceipt();
 
@@ -1184,11 +1257,13 @@ public class Manager {
       throw new ValidateScheduleException("validateWitnessSchedule error");
     }
 
-    for (TransactionCapsule transactionCapsule : block.getTransactions()) {
+    List<TransactionCapsule> transactions = block.getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      TransactionCapsule transactionCapsule = transactions.get(i);
       if (block.generatedByMyself) {
         transactionCapsule.setVerified(true);
       }
-      processTransaction(transactionCapsule, block);
+      processTransaction(transactionCapsule, block, i);
     }
 
     boolean needMaint = needMaintenance(block.getTimeStamp());
@@ -1205,6 +1280,8 @@ public class Manager {
     this.updateTransHashCache(block);
     updateMaintenanceState(needMaint);
     updateRecentBlock(block);
+    addressTransactionStore.put(block);
+    logIndexStore.put(block);
 
   }
 
@@ -1384,6 +1461,7 @@ public class Manager {
 
   public void closeAllStore() {
     logger.info("******** begin to close db ********");
+    storePruner.stop();
     closeOneStore(accountStore);
     closeOneStore(blockStore);
     closeOneStore(blockIndexStore);
@@ -1403,6 +1481,9 @@ public class Manager {
     closeOneStore(recentBlockStore);
     closeOneStore(transactionHistoryStore);
     closeOneStore(votesStore);
+    closeOneStore(pruneStore);
+    closeOneStore(addressTransactionStore);
+    closeOneStore(logIndexStore);
     logger.info("******** end to close db ********");
   }
 
@@ -1434,18 +1515,23 @@ public class Manager {
 
   private static class ValidateSignTask implements Callable<Boolean> {
 
-    private TransactionCapsule trx;
+    private BlockCapsule block;
+    private int fromIndex;
+    private int toIndex;
     private CountDownLatch countDownLatch;
 
-    ValidateSignTask(TransactionCapsule trx, CountDownLatch countDownLatch) {
-      this.trx = trx;
+    ValidateSignTask(BlockCapsule block, int fromIndex, int toIndex,
+        CountDownLatch countDownLatch) {
+      this.block = block;
+      this.fromIndex = fromIndex;
+      this.toIndex = toIndex;
       this.countDownLatch = countDownLatch;
     }
 
     @Override
     public Boolean call() throws ValidateSignatureException {
       try {
-        trx.validateSignature();
+        block.validateTransactionSignatures(fromIndex, toIndex);
       } catch (ValidateSignatureException e) {
         throw e;
       } finally {
@@ -1460,12 +1546,17 @@ public class Manager {
     logger.info("PreValidate Transaction Sign, size:" + block.getTransactions().size()
         + ",block num:" + block.getNum());
     int transSize = block.getTransactions().size();
-    CountDownLatch countDownLatch = new CountDownLatch(transSize);
-    List<Future<Boolean>> futures = new ArrayList<>(transSize);
-
-    for (TransactionCapsule transaction : block.getTransactions()) {
+    // one batch per thread, each batch shares its inversions
+    int threadNum = Math.max(1, Args.getInstance().getValidateSignThreadNum());
+    int batchSize = Math.max(1, (transSize + threadNum - 1) / threadNum);
+    int batchNum = (transSize + batchSize - 1) / batchSize;
+    CountDownLatch countDownLatch = new CountDownLatch(batchNum);
+    List<Future<Boolean>> futures = new ArrayList<>(batchNum);
+
+    for (int fromIndex = 0; fromIndex < transSize; fromIndex += batchSize) {
+      int toIndex = Math.min(fromIndex + batchSize, transSize);
       Future<Boolean> future = validateSignService
-          .submit(new ValidateSignTask(transaction, countDownLatch));
+          .submit(new ValidateSignTask(block, fromIndex, toIndex, countDownLatch));
       futures.add(future);
     }
     countDownLatch.await();
@@ -1481,12 +1572,8 @@ public class Manager {
 
   public void rePush(TransactionCapsule tx) {
 
-    try {
-      if (transactionStore.get(tx.getTransactionId().getBytes()) != null) {
-        return;
-      }
-    } catch (BadItemException e) {
-      // do nothing
+    if (transactionStore.has(tx.getTransactionId().getBytes())) {
+      return;
     }
 
     try {
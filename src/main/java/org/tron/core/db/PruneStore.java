@@ -0,0 +1,39 @@
+package org.tron.core.db;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.tron.common.utils.ByteArray;
+
+/**
+ * Progress of the {@link StorePruner}, the next block number to prune per store. Not revoked
+ * with the chain, pruning only happens behind the solidified block.
+ */
+@Component
+public class PruneStore extends TronDatabase<Long> {
+
+  @Autowired
+  public PruneStore() {
+    super("prune");
+  }
+
+  @Override
+  public void put(byte[] key, Long num) {
+    dbSource.putData(key, ByteArray.fromLong(num));
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    dbSource.deleteData(key);
+  }
+
+  @Override
+  public Long get(byte[] key) {
+    byte[] value = dbSource.getData(key);
+    return value == null ? null : ByteArray.toLong(value);
+  }
+
+  @Override
+  public boolean has(byte[] key) {
+    return dbSource.getData(key) != null;
+  }
+}
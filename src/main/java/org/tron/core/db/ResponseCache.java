@@ -0,0 +1,88 @@
+package org.tron.core.db;
+
+import com.google.protobuf.Message;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Responses of the read-only API calls that only change with the head block, built once per
+ * head instead of once per call. Entries are tagged with the generation they were built in, the
+ * manager starts a new one whenever it pushes or erases a block, applied or not. The JSON of the
+ * HTTP API is kept with the response the first time it's printed.
+ */
+@Component
+public class ResponseCache {
+
+  public enum Key {
+    NOW_BLOCK,
+    WITNESSES,
+    PROPOSALS,
+    EXCHANGES,
+    CHAIN_PARAMETERS,
+    ASSET_ISSUES
+  }
+
+  private static class Entry {
+
+    private final long generation;
+    private final Message message;
+    private volatile byte[] json;
+
+    private Entry(long generation, Message message) {
+      this.generation = generation;
+      this.message = message;
+    }
+  }
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * The response of the key for the current head, built by the builder when there's none. Null
+   * responses are not kept.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Message> T get(Key key, Supplier<T> builder) {
+    // read before building, a response built across a new block is never current
+    long current = generation.get();
+    Entry entry = entries.get(key);
+    if (entry != null && entry.generation == current) {
+      return (T) entry.message;
+    }
+    T message = builder.get();
+    if (message != null) {
+      entries.merge(key, new Entry(current, message),
+          (old, built) -> old.generation > built.generation ? old : built);
+    }
+    return message;
+  }
+
+  /**
+   * The UTF-8 bytes of the printed message, printed once when it's the cached response of the
+   * key.
+   */
+  public byte[] getJson(Key key, Message message, Function<Message, String> printer) {
+    Entry entry = entries.get(key);
+    if (entry == null || entry.message != message) {
+      return printer.apply(message).getBytes(StandardCharsets.UTF_8);
+    }
+    byte[] json = entry.json;
+    if (json == null) {
+      json = printer.apply(message).getBytes(StandardCharsets.UTF_8);
+      entry.json = json;
+    }
+    return json;
+  }
+
+  /**
+   * Starts a new generation, the responses built before are rebuilt on their next call.
+   */
+  public void invalidate() {
+    generation.incrementAndGet();
+  }
+}
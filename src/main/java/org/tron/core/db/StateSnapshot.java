@@ -0,0 +1,564 @@
+package org.tron.core.db;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.UnsignedBytes;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.tron.common.storage.leveldb.BulkLoadStats;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.common.iterator.DBIterator;
+import org.tron.core.exception.BadItemException;
+
+/**
+ * Export and import of the chain state, to start a node from a recent height instead of
+ * replaying the chain from genesis. Both work on the databases of a stopped node.
+ *
+ * <p>The file holds every state database as chunks of sorted rows, each chunk deflated and
+ * followed by the SHA-256 of its compressed bytes. Of the blocks, only the genesis block and
+ * the ones from the solidified block or the start of the last expiration window to the head are
+ * kept, the node resumes syncing from the head. Of the transactions, only the ones of these
+ * blocks are kept: the duplicate check needs every transaction that has not expired, and
+ * transactions stored as locators are read from their block. Transaction infos are history and
+ * left out, and so are the row counts, the node counts the rows again. The manifest at the end
+ * lists the height and the rows per database, its hash covers every chunk and is the one to
+ * compare with a trusted source.
+ *
+ * <p>Chunks are written as they are read, before the manifest is checked. A marker file is kept
+ * in the output directory until the whole import is verified, the node refuses to start on the
+ * databases while it's there.
+ */
+@Slf4j
+public class StateSnapshot {
+
+  private static final byte[] MAGIC = "TRONSNAP".getBytes();
+  private static final int VERSION = 2;
+
+  private static final byte CHUNK = 1;
+  private static final byte MANIFEST = 2;
+
+  private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+  // a chunk is closed after the row that takes it over CHUNK_SIZE
+  private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+  private static final String BLOCK = "block";
+  private static final String BLOCK_INDEX = "block-index";
+  private static final String PROPERTIES = "properties";
+  private static final String TRANSACTION = "trans";
+
+  private static final List<String> STATE_DBS = Arrays.asList(
+      "account", "account-index", "accountid-index", "asset-issue", "code", "contract",
+      "exchange", PROPERTIES, "proposal", "recent-block", "storage-row", "votes", "witness",
+      "witness_schedule", BLOCK, BLOCK_INDEX, TRANSACTION);
+
+  private static final String IMPORT_MARKER = "state-import.incomplete";
+
+  private static final byte[] LATEST_BLOCK_HEADER_NUMBER = "latest_block_header_number".getBytes();
+  private static final byte[] LATEST_SOLIDIFIED_BLOCK_NUM = "LATEST_SOLIDIFIED_BLOCK_NUM"
+      .getBytes();
+  // see DynamicPropertiesStore#saveRowCount
+  private static final byte[] ROW_COUNT = "ROW_COUNT_".getBytes();
+
+  private StateSnapshot() {
+  }
+
+  /**
+   * Writes the state of the databases to <code>file</code>, returns the manifest hash.
+   */
+  public static Sha256Hash exportTo(File file) throws IOException {
+    checkNoCheckpoint();
+    Map<String, LevelDbDataSourceImpl> dbs = open();
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file), CHUNK_SIZE))) {
+      LevelDbDataSourceImpl properties = dbs.get(PROPERTIES);
+      long headNum = getLong(properties, LATEST_BLOCK_HEADER_NUMBER);
+      long solidifiedNum = Math.min(headNum, getLong(properties, LATEST_SOLIDIFIED_BLOCK_NUM));
+      Map<String, List<byte[]>> keys = new HashMap<>();
+      keys.put(BLOCK_INDEX, new ArrayList<>());
+      keys.put(BLOCK, new ArrayList<>());
+      keys.put(TRANSACTION, new ArrayList<>());
+      addBlock(dbs, 0, keys, false);
+      long headTime = 0;
+      for (long num = headNum; num > 0; num--) {
+        BlockCapsule block = addBlock(dbs, num, keys, true);
+        if (num == headNum) {
+          headTime = block.getTimeStamp();
+        }
+        // a transaction expires at most this long after its block
+        if (num <= solidifiedNum
+            && block.getTimeStamp() + Constant.MAXIMUM_TIME_UNTIL_EXPIRATION < headTime) {
+          break;
+        }
+      }
+
+      out.write(MAGIC);
+      out.writeInt(VERSION);
+      MessageDigest manifestDigest = Sha256Hash.newDigest();
+      Map<String, Long> rows = new LinkedHashMap<>();
+      for (String name : STATE_DBS) {
+        LevelDbDataSourceImpl db = dbs.get(name);
+        if (keys.containsKey(name)) {
+          rows.put(name, exportDb(name, read(db, keys.get(name)), out, manifestDigest));
+          continue;
+        }
+        try (DBIterator iterator = db.iterator()) {
+          Iterator<Entry<byte[], byte[]>> rowIterator = !PROPERTIES.equals(name) ? iterator
+              : Iterators.filter(iterator, e -> !startsWith(e.getKey(), ROW_COUNT));
+          rows.put(name, exportDb(name, rowIterator, out, manifestDigest));
+        }
+      }
+
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      DataOutputStream manifest = new DataOutputStream(body);
+      manifest.writeLong(headNum);
+      manifest.writeInt(rows.size());
+      for (Entry<String, Long> entry : rows.entrySet()) {
+        manifest.writeUTF(entry.getKey());
+        manifest.writeLong(entry.getValue());
+      }
+      manifestDigest.update(body.toByteArray());
+      Sha256Hash hash = Sha256Hash.wrap(manifestDigest.digest());
+
+      out.writeByte(MANIFEST);
+      out.writeInt(body.size());
+      body.writeTo(out);
+      out.write(hash.getBytes());
+      logger.info("exported state of block {} to {}, manifest hash {}", headNum, file, hash);
+      return hash;
+    } finally {
+      dbs.values().forEach(LevelDbDataSourceImpl::closeDB);
+    }
+  }
+
+  /**
+   * Adds the keys of block <code>num</code> to export, and the ids of its transactions when
+   * <code>withTransactions</code>.
+   */
+  private static BlockCapsule addBlock(Map<String, LevelDbDataSourceImpl> dbs, long num,
+      Map<String, List<byte[]>> keys, boolean withTransactions) throws IOException {
+    byte[] id = dbs.get(BLOCK_INDEX).getData(ByteArray.fromLong(num));
+    byte[] data = id == null ? null : dbs.get(BLOCK).getData(id);
+    if (data == null) {
+      throw new IOException("block " + num + " is not found");
+    }
+    BlockCapsule block;
+    try {
+      block = new BlockCapsule(data);
+    } catch (BadItemException e) {
+      throw new IOException("block " + num + " is corrupted", e);
+    }
+    keys.get(BLOCK_INDEX).add(ByteArray.fromLong(num));
+    keys.get(BLOCK).add(id);
+    if (withTransactions) {
+      block.getTransactions().forEach(transaction ->
+          keys.get(TRANSACTION).add(transaction.getTransactionId().getBytes()));
+    }
+    return block;
+  }
+
+  /**
+   * The rows of the keys found, in key order.
+   */
+  private static Iterator<Entry<byte[], byte[]>> read(LevelDbDataSourceImpl db,
+      List<byte[]> keys) {
+    keys.sort(UnsignedBytes.lexicographicalComparator());
+    return keys.stream()
+        .map(key -> Maps.immutableEntry(key, db.getData(key)))
+        .filter(entry -> entry.getValue() != null)
+        .iterator();
+  }
+
+  private static boolean startsWith(byte[] bytes, byte[] prefix) {
+    return bytes.length >= prefix.length
+        && Arrays.equals(Arrays.copyOf(bytes, prefix.length), prefix);
+  }
+
+  private static long exportDb(String name, Iterator<Entry<byte[], byte[]>> iterator,
+      DataOutputStream out, MessageDigest manifestDigest) throws IOException {
+    long count = 0;
+    ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_SIZE);
+    DataOutputStream rows = new DataOutputStream(chunk);
+    while (iterator.hasNext()) {
+      Entry<byte[], byte[]> entry = iterator.next();
+      rows.writeInt(entry.getKey().length);
+      rows.write(entry.getKey());
+      rows.writeInt(entry.getValue().length);
+      rows.write(entry.getValue());
+      count++;
+      if (chunk.size() > MAX_CHUNK_SIZE) {
+        throw new IOException("row of " + name + " is too large");
+      }
+      if (chunk.size() >= CHUNK_SIZE) {
+        writeChunk(name, chunk.toByteArray(), out, manifestDigest);
+        chunk.reset();
+      }
+    }
+    if (chunk.size() > 0) {
+      writeChunk(name, chunk.toByteArray(), out, manifestDigest);
+    }
+    logger.info("exported {} rows of {}", count, name);
+    return count;
+  }
+
+  private static void writeChunk(String name, byte[] raw, DataOutputStream out,
+      MessageDigest manifestDigest) throws IOException {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    deflater.setInput(raw);
+    deflater.finish();
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2);
+    byte[] buffer = new byte[64 * 1024];
+    while (!deflater.finished()) {
+      compressed.write(buffer, 0, deflater.deflate(buffer));
+    }
+    deflater.end();
+    byte[] data = compressed.toByteArray();
+    byte[] hash = Sha256Hash.hash(data);
+    manifestDigest.update(name.getBytes());
+    manifestDigest.update(hash);
+
+    out.writeByte(CHUNK);
+    out.writeUTF(name);
+    out.writeInt(raw.length);
+    out.writeInt(data.length);
+    out.write(hash);
+    out.write(data);
+  }
+
+  /**
+   * Loads <code>file</code> into empty databases. Chunks are verified and inflated in parallel,
+   * each database is written by one bulk load over all its chunks, synced once at the end.
+   * If <code>expectedHash</code> is not blank, the manifest hash must be the same. Returns the
+   * number of the head block of the state.
+   */
+  public static long importFrom(File file, String expectedHash) throws IOException {
+    checkNoCheckpoint();
+    Map<String, LevelDbDataSourceImpl> dbs = open();
+    int threads = Runtime.getRuntime().availableProcessors();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    // the bulk loads and their writers, one each per database
+    ExecutorService loaders = Executors.newCachedThreadPool();
+    ExecutorService writers = Executors.newCachedThreadPool();
+    // bounds the chunks held in memory
+    Semaphore inFlight = new Semaphore(2 * threads);
+    Map<String, ChunkQueue> queues = new HashMap<>();
+    Map<String, Future<BulkLoadStats>> loads = new LinkedHashMap<>();
+    long start = System.nanoTime();
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(file), CHUNK_SIZE))) {
+      for (Entry<String, LevelDbDataSourceImpl> entry : dbs.entrySet()) {
+        try (DBIterator iterator = entry.getValue().iterator()) {
+          if (iterator.hasNext()) {
+            throw new IOException("database " + entry.getKey() + " is not empty");
+          }
+        }
+      }
+      File marker = getImportMarker();
+      marker.getParentFile().mkdirs();
+      marker.createNewFile();
+
+      byte[] magic = new byte[MAGIC.length];
+      in.readFully(magic);
+      if (!Arrays.equals(MAGIC, magic) || in.readInt() != VERSION) {
+        throw new IOException(file + " is not a state snapshot");
+      }
+
+      MessageDigest manifestDigest = Sha256Hash.newDigest();
+      while (true) {
+        byte tag = in.readByte();
+        if (tag == MANIFEST) {
+          break;
+        }
+        if (tag != CHUNK) {
+          throw new IOException("unknown section " + tag);
+        }
+        String name = in.readUTF();
+        LevelDbDataSourceImpl db = dbs.get(name);
+        if (db == null) {
+          throw new IOException("unknown database " + name);
+        }
+        int rawLength = in.readInt();
+        int length = in.readInt();
+        if (rawLength < 0 || rawLength > MAX_CHUNK_SIZE
+            || length < 0 || length > rawLength + (rawLength >> 10) + 64) {
+          throw new IOException("chunk of " + name + " is corrupted");
+        }
+        byte[] hash = new byte[Sha256Hash.LENGTH];
+        byte[] data = new byte[length];
+        in.readFully(hash);
+        in.readFully(data);
+        if (!Arrays.equals(hash, Sha256Hash.hash(data))) {
+          throw new IOException("chunk of " + name + " is corrupted");
+        }
+        manifestDigest.update(name.getBytes());
+        manifestDigest.update(hash);
+
+        ChunkQueue queue = queues.get(name);
+        if (queue == null) {
+          ChunkQueue chunks = new ChunkQueue(inFlight);
+          loads.put(name, loaders.submit(() -> chunks.load(db, writers)));
+          queues.put(name, chunks);
+          queue = chunks;
+        }
+        inFlight.acquire();
+        queue.add(executor.submit(() -> inflate(name, data, rawLength)));
+      }
+      queues.values().forEach(ChunkQueue::finish);
+
+      int length = in.readInt();
+      if (length < 0 || length > CHUNK_SIZE) {
+        throw new IOException("manifest is corrupted");
+      }
+      byte[] body = new byte[length];
+      in.readFully(body);
+      byte[] hash = new byte[Sha256Hash.LENGTH];
+      in.readFully(hash);
+      manifestDigest.update(body);
+      Sha256Hash manifestHash = Sha256Hash.wrap(manifestDigest.digest());
+      if (!Arrays.equals(hash, manifestHash.getBytes())) {
+        throw new IOException("manifest is corrupted");
+      }
+      if (StringUtils.isNotBlank(expectedHash)
+          && !manifestHash.toString().equalsIgnoreCase(expectedHash.trim())) {
+        throw new IOException("manifest hash " + manifestHash + " is not " + expectedHash);
+      }
+
+      Map<String, Long> rows = new HashMap<>();
+      long bytes = 0;
+      int batches = 0;
+      for (Entry<String, Future<BulkLoadStats>> load : loads.entrySet()) {
+        BulkLoadStats stats = load.getValue().get();
+        rows.put(load.getKey(), stats.getRows());
+        bytes += stats.getBytes();
+        batches += stats.getBatches();
+      }
+
+      DataInputStream manifest = new DataInputStream(new ByteArrayInputStream(body));
+      long headNum = manifest.readLong();
+      int count = manifest.readInt();
+      for (int i = 0; i < count; i++) {
+        String name = manifest.readUTF();
+        long expected = manifest.readLong();
+        long actual = rows.getOrDefault(name, 0L);
+        if (expected != actual) {
+          throw new IOException(name + " has " + actual + " rows instead of " + expected);
+        }
+      }
+      Files.delete(marker.toPath());
+      logger.info("imported state of block {} from {}, manifest hash {}", headNum, file,
+          manifestHash);
+      logger.info("imported {}", new BulkLoadStats(
+          rows.values().stream().mapToLong(Long::longValue).sum(), bytes, batches,
+          System.nanoTime() - start));
+      return headNum;
+    } catch (EOFException e) {
+      throw new IOException(file + " is truncated", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("import of " + file + " is interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IOException("import of " + file + " failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+      loaders.shutdownNow();
+      writers.shutdown();
+      dbs.values().forEach(LevelDbDataSourceImpl::closeDB);
+    }
+  }
+
+  /**
+   * Whether an import was started on the databases and not verified to the end.
+   */
+  public static boolean isImportIncomplete() {
+    return getImportMarker().exists();
+  }
+
+  private static File getImportMarker() {
+    return Paths.get(Args.getInstance().getOutputDirectory(), IMPORT_MARKER).toAbsolutePath()
+        .toFile();
+  }
+
+  private static ByteBuffer inflate(String name, byte[] data, int rawLength)
+      throws DataFormatException {
+    Inflater inflater = new Inflater();
+    inflater.setInput(data);
+    byte[] raw = new byte[rawLength];
+    int length = 0;
+    while (length < rawLength && !inflater.finished()) {
+      int n = inflater.inflate(raw, length, rawLength - length);
+      if (n == 0 && inflater.needsInput()) {
+        break;
+      }
+      length += n;
+    }
+    inflater.end();
+    if (length != rawLength) {
+      throw new DataFormatException("chunk of " + name + " is truncated");
+    }
+    return ByteBuffer.wrap(raw);
+  }
+
+  /**
+   * The rows of the chunks of one database, in the order of the file. The chunks are inflated by
+   * other threads while the rows of the previous ones are loaded.
+   */
+  private static class ChunkQueue implements Iterator<Entry<byte[], byte[]>> {
+
+    private static final Future<ByteBuffer> END = CompletableFuture.completedFuture(null);
+
+    private final BlockingQueue<Future<ByteBuffer>> chunks = new LinkedBlockingQueue<>();
+    private final Semaphore inFlight;
+    private ByteBuffer rows;
+    private boolean ended;
+    // set once the load stopped, chunks added after it are dropped
+    private boolean closed;
+
+    private ChunkQueue(Semaphore inFlight) {
+      this.inFlight = inFlight;
+    }
+
+    /**
+     * Adds a chunk, its permit of <code>inFlight</code> is released once it's taken.
+     */
+    private synchronized void add(Future<ByteBuffer> chunk) {
+      if (closed) {
+        chunk.cancel(true);
+        inFlight.release();
+      } else {
+        chunks.add(chunk);
+      }
+    }
+
+    private void finish() {
+      chunks.add(END);
+    }
+
+    private BulkLoadStats load(LevelDbDataSourceImpl db, ExecutorService writer) {
+      try {
+        return db.bulkLoad(this, LevelDbDataSourceImpl.DEFAULT_BULK_LOAD_BATCH_SIZE, false,
+            writer);
+      } finally {
+        close();
+      }
+    }
+
+    // releases the chunks a failed load won't take
+    private synchronized void close() {
+      closed = true;
+      Future<ByteBuffer> chunk;
+      while ((chunk = chunks.poll()) != null) {
+        if (chunk != END) {
+          chunk.cancel(true);
+          inFlight.release();
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!ended && (rows == null || !rows.hasRemaining())) {
+        Future<ByteBuffer> chunk;
+        try {
+          chunk = chunks.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException(e);
+        }
+        if (chunk == END) {
+          ended = true;
+          break;
+        }
+        try {
+          rows = chunk.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+          throw new RuntimeException(e.getCause());
+        } finally {
+          inFlight.release();
+        }
+      }
+      return !ended;
+    }
+
+    @Override
+    public Entry<byte[], byte[]> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      byte[] key = new byte[rows.getInt()];
+      rows.get(key);
+      byte[] value = new byte[rows.getInt()];
+      rows.get(value);
+      return Maps.immutableEntry(key, value);
+    }
+  }
+
+  private static Map<String, LevelDbDataSourceImpl> open() {
+    Map<String, LevelDbDataSourceImpl> dbs = new LinkedHashMap<>();
+    for (String name : STATE_DBS) {
+      LevelDbDataSourceImpl db = new LevelDbDataSourceImpl(
+          Args.getInstance().getOutputDirectoryByDbName(name), name);
+      db.initDB();
+      dbs.put(name, db);
+    }
+    return dbs;
+  }
+
+  // a checkpoint left by a crash is only replayed when the node starts
+  private static void checkNoCheckpoint() throws IOException {
+    LevelDbDataSourceImpl checkpoint = new LevelDbDataSourceImpl(
+        Args.getInstance().getOutputDirectoryByDbName("tmp"), "tmp");
+    if (checkpoint.getDbPath().toFile().exists()) {
+      throw new IOException("database has a pending checkpoint, start the node once first");
+    }
+  }
+
+  private static long getLong(LevelDbDataSourceImpl db, byte[] key) throws IOException {
+    byte[] value = db.getData(key);
+    if (value == null) {
+      throw new IOException("property " + new String(key) + " is not found");
+    }
+    return ByteArray.toLong(value);
+  }
+}
@@ -1,10 +1,13 @@
 package org.tron.core.db;
 
+import java.util.Collection;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.tron.core.capsule.StorageRowCapsule;
+import org.tron.core.db.common.WrappedByteArray;
 
 @Slf4j
 @Component
@@ -24,6 +27,13 @@ public class StorageRowStore extends TronStoreWithRevoking<StorageRowCapsule> {
     return row;
   }
 
+  @Override
+  public Map<WrappedByteArray, StorageRowCapsule> getAll(Collection<byte[]> keys) {
+    Map<WrappedByteArray, StorageRowCapsule> rows = super.getAll(keys);
+    rows.forEach((key, row) -> row.setRowKey(key.getBytes()));
+    return rows;
+  }
+
   void destory() {
     instance = null;
   }
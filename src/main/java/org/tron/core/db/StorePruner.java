@@ -0,0 +1,254 @@
+package org.tron.core.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.config.args.Storage;
+import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
+
+/**
+ * Deletes the history a node doesn't need to keep, block by block from the oldest, in small
+ * rounds in the background:
+ * <ul>
+ * <li>blocks and their index more than <code>blockRetain</code> blocks behind the solidified
+ * block,</li>
+ * <li>transaction infos more than <code>transactionHistoryRetain</code> blocks behind it,</li>
+ * <li>ids of transactions that expired before the solidified block, they can't be replayed
+ * any more so the duplicate check doesn't need them.</li>
+ * </ul>
+ * Blocks are pruned last, the other stores find the ids to delete in them. The genesis block is
+ * never pruned. Transactions stored as locators are read back from their block, so when blocks
+ * are pruned from a compact transaction store the expired transactions are pruned too, and no
+ * block is pruned before its transactions expired.
+ *
+ * <p>Rows are deleted from the persisted data directly, so no block is pruned before the revoking
+ * layers have flushed it: every limit stays below the head minus the revoking depth. A row still
+ * in an unflushed snapshot would be written back by the flush after its cursor moved on.
+ */
+@Slf4j
+@Component
+public class StorePruner {
+
+  private static final byte[] BLOCK_CURSOR = "block".getBytes();
+  private static final byte[] TRANSACTION_HISTORY_CURSOR = "transactionHistory".getBytes();
+  private static final byte[] TRANSACTION_CURSOR = "transaction".getBytes();
+
+  @Autowired
+  private BlockStore blockStore;
+
+  @Autowired
+  private BlockIndexStore blockIndexStore;
+
+  @Autowired
+  private TransactionStore transactionStore;
+
+  @Autowired
+  private TransactionHistoryStore transactionHistoryStore;
+
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  @Autowired
+  private PruneStore pruneStore;
+
+  @Autowired
+  private RevokingDatabase revokingStore;
+
+  @Getter
+  @Setter
+  private long blockRetain;
+
+  @Getter
+  @Setter
+  private long transactionHistoryRetain;
+
+  @Getter
+  @Setter
+  private boolean transactionExpired;
+
+  private int batchSize;
+
+  private long interval;
+
+  private Thread pruneThread;
+
+  private volatile boolean isRunPruneThread;
+
+  public StorePruner() {
+    Storage storage = Args.getInstance().getStorage();
+    this.blockRetain = storage.getPruneBlockRetain();
+    this.transactionHistoryRetain = storage.getPruneTransactionHistoryRetain();
+    this.transactionExpired = storage.isPruneTransactionExpired();
+    this.batchSize = Math.max(1, storage.getPruneBatchSize());
+    this.interval = storage.getPruneInterval();
+  }
+
+  private Runnable pruneLoop =
+      () -> {
+        while (isRunPruneThread) {
+          try {
+            prune();
+            TimeUnit.MILLISECONDS.sleep(interval);
+          } catch (InterruptedException ex) {
+            logger.info(ex.getMessage());
+            Thread.currentThread().interrupt();
+            return;
+          } catch (Exception ex) {
+            logger.error("unknown exception happened in prune loop", ex);
+          }
+        }
+      };
+
+  public boolean isEnabled() {
+    return blockRetain > 0 || transactionHistoryRetain > 0 || transactionExpired;
+  }
+
+  /**
+   * Starts the pruning thread if any store is to be pruned.
+   */
+  public void start() {
+    if (!isEnabled() || pruneThread != null) {
+      return;
+    }
+    isRunPruneThread = true;
+    pruneThread = new Thread(pruneLoop, "prune");
+    pruneThread.setDaemon(true);
+    pruneThread.start();
+  }
+
+  /**
+   * Stops the pruning thread and waits for the current round, before the stores are closed.
+   */
+  public void stop() {
+    isRunPruneThread = false;
+    if (pruneThread == null) {
+      return;
+    }
+    pruneThread.interrupt();
+    try {
+      pruneThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    pruneThread = null;
+  }
+
+  /**
+   * One round, prunes at most <code>batchSize</code> blocks per store.
+   */
+  public void prune() {
+    long solidifiedNum = dynamicPropertiesStore.getLatestSolidifiedBlockNum();
+    long flushedLimit = getFlushedLimit();
+    long blockLimit = Math.min(solidifiedNum - blockRetain, flushedLimit);
+
+    // locators of pruned blocks would point to nothing
+    if (transactionExpired || blockRetain > 0 && transactionStore.isCompact()) {
+      BlockCapsule solidified = getBlock(solidifiedNum);
+      if (solidified != null) {
+        long solidifiedTime = solidified.getTimeStamp();
+        long next = prune(TRANSACTION_CURSOR, Math.min(solidifiedNum, flushedLimit),
+            block -> block.getTimeStamp() + Constant.MAXIMUM_TIME_UNTIL_EXPIRATION
+                < solidifiedTime,
+            blocks -> transactionStore.prune(getTransactionIds(blocks)));
+        blockLimit = Math.min(blockLimit, next);
+      } else {
+        blockLimit = Math.min(blockLimit, getCursor(TRANSACTION_CURSOR));
+      }
+    }
+
+    if (transactionHistoryRetain > 0) {
+      long next = prune(TRANSACTION_HISTORY_CURSOR,
+          Math.min(solidifiedNum - transactionHistoryRetain, flushedLimit),
+          block -> true,
+          blocks -> transactionHistoryStore.prune(getTransactionIds(blocks)));
+      blockLimit = Math.min(blockLimit, next);
+    }
+
+    if (blockRetain > 0) {
+      prune(BLOCK_CURSOR, blockLimit, block -> true, blocks -> {
+        List<byte[]> ids = new ArrayList<>();
+        List<byte[]> nums = new ArrayList<>();
+        blocks.forEach(block -> {
+          ids.add(block.getBlockId().getBytes());
+          nums.add(ByteArray.fromLong(block.getNum()));
+        });
+        blockStore.prune(ids);
+        blockIndexStore.prune(nums);
+      });
+    }
+  }
+
+  /**
+   * Prunes the blocks from the cursor of a store on while they are below <code>limit</code> and
+   * <code>expired</code>, returns the new cursor.
+   */
+  private long prune(byte[] cursorKey, long limit, Predicate<BlockCapsule> expired,
+      Consumer<List<BlockCapsule>> pruner) {
+    long cursor = getCursor(cursorKey);
+    long end = Math.min(limit, cursor + batchSize);
+    List<BlockCapsule> blocks = new ArrayList<>();
+    long num = cursor;
+    for (; num < end; num++) {
+      BlockCapsule block = getBlock(num);
+      if (block == null) {
+        continue;
+      }
+      if (!expired.test(block)) {
+        break;
+      }
+      blocks.add(block);
+    }
+
+    if (num > cursor) {
+      pruner.accept(blocks);
+      pruneStore.put(cursorKey, num);
+      logger.debug("pruned {} up to block {}", new String(cursorKey), num - 1);
+    }
+    return num;
+  }
+
+  /**
+   * One past the last block whose rows the revoking layers have flushed to the persisted data.
+   * The head is read before the depth: a block pushed in between only makes the limit lower.
+   */
+  private long getFlushedLimit() {
+    long headNum = dynamicPropertiesStore.getLatestBlockHeaderNumber();
+    return headNum - revokingStore.size() + 1;
+  }
+
+  private long getCursor(byte[] cursorKey) {
+    Long cursor = pruneStore.get(cursorKey);
+    return cursor == null ? 1 : cursor;
+  }
+
+  private BlockCapsule getBlock(long num) {
+    try {
+      return blockStore.get(blockIndexStore.get(num).getBytes());
+    } catch (ItemNotFoundException | BadItemException e) {
+      return null;
+    }
+  }
+
+  private static List<byte[]> getTransactionIds(List<BlockCapsule> blocks) {
+    List<byte[]> ids = new ArrayList<>();
+    for (BlockCapsule block : blocks) {
+      for (TransactionCapsule transaction : block.getTransactions()) {
+        ids.add(transaction.getTransactionId().getBytes());
+      }
+    }
+    return ids;
+  }
+}
@@ -1,24 +1,84 @@
 package org.tron.core.db;
 
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Objects;
+import javax.annotation.PostConstruct;
 
-import com.google.common.collect.Streams;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.args.Args;
 import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
 import org.tron.core.exception.StoreException;
+import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.Transaction;
 
+/**
+ * Transactions by id. In compact mode, transactions of a block are stored as a locator, the
+ * number of the block and the position of the transaction in it, and their bodies are read back
+ * from the {@link BlockStore}. The locator still marks the id as known for the dup check. Both
+ * forms are read in either mode, so the mode can be switched on an existing database. Pruning the
+ * blocks of a compact store prunes the expired transactions with them, see {@link StorePruner}.
+ */
 @Slf4j
 @Component
 public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule> {
 
+  // LOCATOR_PREFIX || block number (8 bytes) || index in the block (4 bytes), field number 0 is
+  // not valid in protobuf so no serialized transaction starts with this prefix
+  private static final byte LOCATOR_PREFIX = 0;
+  private static final int LOCATOR_LENGTH = 1 + Long.BYTES + Integer.BYTES;
+
+  static final int RECENT_TRANSACTIONS_SIZE = 10_000;
+
+  // blocks being applied at once, more than one only while switching forks
+  private static final int PENDING_BLOCKS_SIZE = 16;
+
+  @Autowired
+  private BlockStore blockStore;
+
+  @Autowired
+  private BlockIndexStore blockIndexStore;
+
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  @Getter
+  @Setter
+  private boolean compact;
+
+  // bodies of recently located transactions by locator
+  private final Cache<ByteArrayWrapper, Transaction> recentTransactions = CacheBuilder
+      .newBuilder()
+      .maximumSize(RECENT_TRANSACTIONS_SIZE)
+      .build();
+
+  // blocks by number whose transactions are stored as locators, a block being applied is only
+  // stored once all its transactions are
+  private final Cache<Long, Block> pendingBlocks = CacheBuilder
+      .newBuilder()
+      .maximumSize(PENDING_BLOCKS_SIZE)
+      .build();
+
   @Autowired
   private TransactionStore(@Value("trans") String dbName) {
     super(dbName);
+    this.compact = Args.getInstance().getStorage().isTransactionCompact();
+  }
+
+  @PostConstruct
+  private void initRowCount() {
+    countRows(dynamicPropertiesStore);
   }
 
   @Override
@@ -29,17 +89,82 @@ public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule>
     }
   }
 
+  /**
+   * Stores the transaction at <code>index</code> in <code>block</code>: as a locator in compact
+   * mode, in full otherwise or when the transaction has no position in the block yet
+   * (<code>index</code> negative).
+   */
+  public void put(byte[] key, TransactionCapsule item, BlockCapsule block, int index) {
+    if (!compact || index < 0 || Objects.isNull(key) || Objects.isNull(item)) {
+      put(key, item);
+      return;
+    }
+
+    byte[] locator = ByteBuffer.allocate(LOCATOR_LENGTH)
+        .put(LOCATOR_PREFIX)
+        .putLong(block.getNum())
+        .putInt(index)
+        .array();
+    putData(key, locator);
+    pendingBlocks.put(block.getNum(), block.getInstance());
+    // a block of another fork may have had the same number
+    recentTransactions.invalidate(new ByteArrayWrapper(locator));
+    if (Objects.nonNull(indexHelper)) {
+      indexHelper.update(item.getInstance());
+    }
+  }
+
   @Override
   public TransactionCapsule get(byte[] key) throws BadItemException {
-    byte[] value = revokingDB.getUnchecked(key);
-    return ArrayUtils.isEmpty(value) ? null : new TransactionCapsule(value);
+    return of(revokingDB.getUnchecked(key));
+  }
+
+  @Override
+  public TransactionCapsule of(byte[] value) throws BadItemException {
+    if (ArrayUtils.isEmpty(value)) {
+      return null;
+    }
+    if (value.length == LOCATOR_LENGTH && value[0] == LOCATOR_PREFIX) {
+      return locate(value);
+    }
+    return new TransactionCapsule(value);
+  }
+
+  private TransactionCapsule locate(byte[] locator) throws BadItemException {
+    ByteArrayWrapper key = new ByteArrayWrapper(locator);
+    Transaction transaction = recentTransactions.getIfPresent(key);
+    if (transaction == null) {
+      ByteBuffer buffer = ByteBuffer.wrap(locator, 1, LOCATOR_LENGTH - 1);
+      long blockNum = buffer.getLong();
+      int index = buffer.getInt();
+      try {
+        transaction = getBlock(blockNum).getTransactions(index);
+      } catch (ItemNotFoundException | IndexOutOfBoundsException e) {
+        throw new BadItemException(
+            "transaction " + index + " of block " + blockNum + " is not found");
+      }
+      recentTransactions.put(key, transaction);
+    }
+    return new TransactionCapsule(transaction);
+  }
+
+  private Block getBlock(long blockNum) throws ItemNotFoundException, BadItemException {
+    try {
+      return blockStore.get(blockIndexStore.get(blockNum).getBytes()).getInstance();
+    } catch (ItemNotFoundException e) {
+      Block block = pendingBlocks.getIfPresent(blockNum);
+      if (block == null) {
+        throw e;
+      }
+      return block;
+    }
   }
 
   /**
-   * get total transaction.
+   * get total transaction, read from the row count of the store.
    */
   public long getTotalTransactions() {
-    return Streams.stream(iterator()).count();
+    return size();
   }
 
   @Override
@@ -48,6 +173,12 @@ public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule>
     super.delete(key);
   }
 
+  @Override
+  public void prune(Collection<byte[]> keys) {
+    keys.forEach(this::deleteIndex);
+    super.prune(keys);
+  }
+
   private void deleteIndex(byte[] key) {
     if (Objects.nonNull(indexHelper)) {
       TransactionCapsule item;
@@ -6,7 +6,10 @@ import com.google.common.collect.Streams;
 import com.google.common.reflect.TypeToken;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import javax.annotation.PostConstruct;
@@ -16,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.tron.core.capsule.ProtoCapsule;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.api.IndexHelper;
+import org.tron.core.db.common.WrappedByteArray;
 import org.tron.core.db2.common.IRevokingDB;
 import org.tron.core.db2.core.ITronChainBase;
 import org.tron.core.db2.core.RevokingDBWithCachingNewValue;
@@ -34,6 +38,8 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
   protected IndexHelper indexHelper;
   @Getter
   private String dbName;
+  // keeps the row count of the store, null when size() scans it
+  private DynamicPropertiesStore rowCountStore;
 
   protected TronStoreWithRevoking(String dbName) {
     this.dbName = dbName;
@@ -57,17 +63,47 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
       this.revokingDB = new RevokingDBWithCachingOldValue(dbName, (AbstractRevokingStore) revokingDatabase);
   }
 
+  /**
+   * Keeps the row count of the store in the dynamic properties, so {@link #size()} doesn't scan
+   * it. The count is written with the rows and revoked with them, the rows of an existing
+   * database are scanned once. Pruned rows are not counted off.
+   */
+  protected void countRows(DynamicPropertiesStore store) {
+    if (store.getRowCount(dbName) < 0) {
+      long count = Streams.stream(revokingDB.iterator()).count();
+      logger.info("counted {} rows of {}", count, dbName);
+      store.saveRowCount(dbName, count);
+    }
+    this.rowCountStore = store;
+  }
+
+  private void addRowCount(long delta) {
+    if (delta != 0) {
+      rowCountStore.saveRowCount(dbName, rowCountStore.getRowCount(dbName) + delta);
+    }
+  }
+
   @Override
   public void put(byte[] key, T item) {
     if (Objects.isNull(key) || Objects.isNull(item)) {
       return;
     }
 
-    revokingDB.put(key, item.getData());
+    putData(key, item.getData());
+  }
+
+  protected void putData(byte[] key, byte[] data) {
+    if (Objects.nonNull(rowCountStore) && !revokingDB.has(key)) {
+      addRowCount(1);
+    }
+    revokingDB.put(key, data);
   }
 
   @Override
   public void delete(byte[] key) {
+    if (Objects.nonNull(rowCountStore) && revokingDB.has(key)) {
+      addRowCount(-1);
+    }
     revokingDB.delete(key);
   }
 
@@ -87,6 +123,45 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
     }
   }
 
+  /**
+   * The items of the keys found, by key, read with one pass over the revoking layers. Items that
+   * can't be decoded are left out, as {@link #getUnchecked} returns null for them.
+   */
+  public Map<WrappedByteArray, T> getAll(Collection<byte[]> keys) {
+    Map<WrappedByteArray, T> items = new HashMap<>();
+    revokingDB.getAll(keys).forEach((key, value) -> {
+      try {
+        items.put(key, of(value));
+      } catch (BadItemException e) {
+        logger.warn("bad item of {}: {}", dbName, e.getMessage());
+      }
+    });
+    return items;
+  }
+
+  /**
+   * Writes the items as one change of the current session, a null item deletes the key.
+   */
+  public void updateByBatch(Map<byte[], T> items) {
+    if (items.isEmpty()) {
+      return;
+    }
+    Map<byte[], byte[]> rows = new LinkedHashMap<>();
+    items.forEach((key, item) -> rows.put(key, Objects.isNull(item) ? null : item.getData()));
+    long delta = revokingDB.updateByBatch(rows);
+    if (Objects.nonNull(rowCountStore)) {
+      addRowCount(delta);
+    }
+  }
+
+  /**
+   * The stored bytes of the item, for callers passing them on without decoding, null when it's
+   * not found.
+   */
+  public byte[] getRaw(byte[] key) {
+    return revokingDB.getUnchecked(key);
+  }
+
   public T of(byte[] value) throws BadItemException {
     try {
       Constructor constructor = token.getRawType().getConstructor(byte[].class);
@@ -98,6 +173,13 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
     }
   }
 
+  /**
+   * Deletes the keys behind the back of the revoking layer, see {@link IRevokingDB#prune}.
+   */
+  public void prune(Collection<byte[]> keys) {
+    revokingDB.prune(keys);
+  }
+
   @Override
   public boolean has(byte[] key) {
     return revokingDB.has(key);
@@ -130,6 +212,9 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
   }
 
   public long size() {
+    if (Objects.nonNull(rowCountStore)) {
+      return rowCountStore.getRowCount(dbName);
+    }
     return Streams.stream(revokingDB.iterator()).count();
   }
 
@@ -1,7 +1,10 @@
 package org.tron.core.db2.common;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.tron.core.db.common.WrappedByteArray;
 import org.tron.core.exception.ItemNotFoundException;
 
 public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
@@ -9,12 +12,30 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
 
   void delete(byte[] key);
 
+  /**
+   * Deletes the keys straight from the persisted data, outside of any revoking session. Only for
+   * keys that no session can touch any more and that every snapshot has flushed, such as data of
+   * blocks below the revoking stack: a snapshot still holding a key writes it back on flush.
+   */
+  void prune(Collection<byte[]> keys);
+
   boolean has(byte[] key);
 
   byte[] get(byte[] key) throws ItemNotFoundException;
 
   byte[] getUnchecked(byte[] key);
 
+  /**
+   * The values of the keys found, by key. Each layer is read once for all the keys.
+   */
+  Map<WrappedByteArray, byte[]> getAll(Collection<byte[]> keys);
+
+  /**
+   * Writes the rows as one change of the current session, a null value deletes the key. Returns
+   * the number of rows created less the number of rows deleted.
+   */
+  long updateByBatch(Map<byte[], byte[]> rows);
+
   void close();
 
   void reset();
@@ -25,4 +46,11 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
   // for blockstore
   Set<byte[]> getValuesNext(byte[] key, long limit);
 
+  /**
+   * Up to <code>limit</code> entries with keys from <code>from</code> (inclusive) to
+   * <code>to</code> (exclusive) in key order, or from the last of them down when
+   * <code>reverse</code>.
+   */
+  List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, boolean reverse, long limit);
+
 }
@@ -2,12 +2,17 @@ package org.tron.core.db2.core;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import com.google.common.primitives.UnsignedBytes;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
@@ -15,7 +20,9 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.utils.ByteUtil;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.common.WrappedByteArray;
+import org.tron.core.db2.common.DB;
 import org.tron.core.db2.common.IRevokingDB;
+import org.tron.core.db2.common.Key;
 import org.tron.core.db2.common.LevelDB;
 import org.tron.core.db2.common.Value;
 import org.tron.core.exception.ItemNotFoundException;
@@ -75,6 +82,85 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     }
   }
 
+  @Override
+  public Map<WrappedByteArray, byte[]> getAll(Collection<byte[]> keys) {
+    Map<WrappedByteArray, byte[]> result = new HashMap<>();
+    Set<WrappedByteArray> pending = new HashSet<>();
+    keys.forEach(key -> pending.add(WrappedByteArray.of(key)));
+
+    Snapshot snapshot = head;
+    for (; snapshot.getPrevious() != null && !pending.isEmpty();
+        snapshot = snapshot.getPrevious()) {
+      DB<Key, Value> db = ((SnapshotImpl) snapshot).db;
+      Iterator<WrappedByteArray> iterator = pending.iterator();
+      while (iterator.hasNext()) {
+        WrappedByteArray key = iterator.next();
+        Value value = db.get(Key.of(key.getBytes()));
+        if (value != null) {
+          // a deleted key is found too, it hides the rows of the layers below
+          iterator.remove();
+          if (ArrayUtils.isNotEmpty(value.getBytes())) {
+            result.put(key, value.getBytes());
+          }
+        }
+      }
+    }
+
+    if (!pending.isEmpty()) {
+      ((LevelDB) ((SnapshotRoot) snapshot).db).getDb()
+          .getAll(pending.stream().map(WrappedByteArray::getBytes).collect(Collectors.toList()))
+          .forEach((key, value) -> {
+            if (ArrayUtils.isNotEmpty(value)) {
+              result.put(key, value);
+            }
+          });
+    }
+    return result;
+  }
+
+  @Override
+  public long updateByBatch(Map<byte[], byte[]> rows) {
+    Map<WrappedByteArray, byte[]> values = getAll(rows.keySet());
+    long created = 0;
+    long deleted = 0;
+    for (Map.Entry<byte[], byte[]> row : rows.entrySet()) {
+      boolean exists = values.containsKey(WrappedByteArray.of(row.getKey()));
+      if (row.getValue() == null) {
+        deleted += exists ? 1 : 0;
+      } else {
+        created += exists ? 0 : 1;
+      }
+    }
+
+    if (head.getPrevious() == null) {
+      // no session is open, the rows go straight to the root
+      ((LevelDB) ((SnapshotRoot) head).db).getDb().updateByBatch(rows);
+      return created - deleted;
+    }
+
+    // the operators SnapshotImpl.put and remove would choose, from the values read above
+    DB<Key, Value> db = ((SnapshotImpl) head).db;
+    rows.forEach((key, value) -> {
+      boolean exists = values.containsKey(WrappedByteArray.of(key));
+      if (value == null) {
+        if (exists) {
+          db.put(Key.of(key), Value.of(Value.Operator.DELETE, null));
+        }
+      } else {
+        Value.Operator operator = exists ? Value.Operator.MODIFY : Value.Operator.CREATE;
+        db.put(Key.of(key), Value.of(operator, value));
+      }
+    });
+    return created - deleted;
+  }
+
+  @Override
+  public void prune(Collection<byte[]> keys) {
+    Map<byte[], byte[]> rows = new HashMap<>();
+    keys.forEach(key -> rows.put(key, null));
+    ((LevelDB) ((SnapshotRoot) head.getRoot()).db).getDb().updateByBatch(rows);
+  }
+
   @Override
   public boolean has(byte[] key) {
     return head.get(key) != null;
@@ -137,4 +223,43 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 
   }
 
+  @Override
+  public List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, boolean reverse,
+      long limit) {
+    if (limit <= 0) {
+      return Collections.emptyList();
+    }
+
+    Snapshot snapshot = head;
+    Map<WrappedByteArray, WrappedByteArray> collection = new HashMap<>();
+    if (snapshot.getPrevious() != null) {
+      ((SnapshotImpl) snapshot).collect(collection);
+    }
+
+    // keys of the range changed since the root, a null value for the deleted ones
+    Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+    TreeMap<byte[], byte[]> rows = new TreeMap<>(comparator);
+    collection.forEach((key, value) -> {
+      if (comparator.compare(key.getBytes(), from) >= 0
+          && comparator.compare(key.getBytes(), to) < 0) {
+        rows.put(key.getBytes(), value.getBytes());
+      }
+    });
+
+    // each changed key hides at most one row of the root
+    ((LevelDB) ((SnapshotRoot) snapshot.getRoot()).db).getDb()
+        .getRange(from, to, reverse, Math.max(limit + rows.size(), limit))
+        .forEach(e -> {
+          if (!rows.containsKey(e.getKey())) {
+            rows.put(e.getKey(), e.getValue());
+          }
+        });
+
+    return (reverse ? rows.descendingMap() : rows).entrySet().stream()
+        .filter(e -> e.getValue() != null)
+        .limit(limit)
+        .map(e -> Maps.immutableEntry(e.getKey(), e.getValue()))
+        .collect(Collectors.toList());
+  }
+
 }
@@ -1,6 +1,9 @@
 package org.tron.core.db2.core;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -10,6 +13,7 @@ import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.AbstractRevokingStore;
 import org.tron.core.db.RevokingStore;
+import org.tron.core.db.common.WrappedByteArray;
 import org.tron.core.db2.common.IRevokingDB;
 import org.tron.core.exception.ItemNotFoundException;
 
@@ -53,6 +57,50 @@ public class RevokingDBWithCachingOldValue implements IRevokingDB {
     dbSource.deleteData(key);
   }
 
+  @Override
+  public Map<WrappedByteArray, byte[]> getAll(Collection<byte[]> keys) {
+    Map<WrappedByteArray, byte[]> result = dbSource.getAll(keys);
+    result.values().removeIf(ArrayUtils::isEmpty);
+    return result;
+  }
+
+  @Override
+  public long updateByBatch(Map<byte[], byte[]> rows) {
+    Map<WrappedByteArray, byte[]> values = getAll(rows.keySet());
+    long delta = 0;
+    for (Map.Entry<byte[], byte[]> row : rows.entrySet()) {
+      byte[] value = values.get(WrappedByteArray.of(row.getKey()));
+      AbstractRevokingStore.RevokingTuple tuple =
+          new AbstractRevokingStore.RevokingTuple(dbSource, row.getKey());
+      if (row.getValue() == null) {
+        if (value != null) {
+          revokingDatabase.onRemove(tuple, value);
+          delta--;
+        }
+      } else if (value != null) {
+        revokingDatabase.onModify(tuple, value);
+      } else {
+        revokingDatabase.onCreate(tuple, null);
+        delta++;
+      }
+    }
+    dbSource.updateByBatch(rows);
+    return delta;
+  }
+
+  @Override
+  public void prune(Collection<byte[]> keys) {
+    Map<byte[], byte[]> rows = new HashMap<>();
+    keys.forEach(key -> rows.put(key, null));
+    dbSource.updateByBatch(rows);
+  }
+
+  @Override
+  public List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, boolean reverse,
+      long limit) {
+    return dbSource.getRange(from, to, reverse, limit);
+  }
+
   @Override
   public boolean has(byte[] key) {
     return dbSource.getData(key) != null;
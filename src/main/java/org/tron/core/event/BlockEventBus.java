@@ -0,0 +1,348 @@
+package org.tron.core.event;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.tron.api.GrpcAPI.BlockEvent;
+import org.tron.api.GrpcAPI.BlockEvent.Type;
+import org.tron.api.GrpcAPI.BlockEventFilter;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransactionInfoCapsule;
+import org.tron.core.db.TransactionHistoryStore;
+import org.tron.core.exception.BadItemException;
+import org.tron.protos.Contract.TriggerSmartContract;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.Protocol.TransactionInfo;
+import org.tron.protos.Protocol.TransactionInfo.Log;
+
+/**
+ * Pushes the blocks applied to the head, the blocks erased from it on a fork switch and the
+ * blocks becoming solidified to the subscribers. Blocks are matched against the filter of every
+ * subscription on a single dispatch thread and buffered until the sink of the subscription is
+ * ready for them. A subscription whose buffer is full is closed, its client catches up with the
+ * block stream and subscribes again.
+ */
+@Slf4j
+@Component
+public class BlockEventBus {
+
+  private static final int BUFFER_SIZE = 256;
+  private static final int MAX_SUBSCRIPTIONS = 10_000;
+
+  // logs carry the 20 bytes of the VM address, without the prefix of the chain
+  private static final int VM_ADDRESS_LENGTH = 20;
+
+  @Autowired
+  private TransactionHistoryStore transactionHistoryStore;
+
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+  private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+      new ThreadFactoryBuilder().setNameFormat("block-event-bus").setDaemon(true).build());
+
+  // only written by the thread holding the manager
+  private long solidifiedNum = -1;
+
+  /**
+   * Where the events of a subscription go. Calls are serialized by the subscription.
+   */
+  public interface Sink {
+
+    /**
+     * Whether an event can be sent, when it can't the sink drains the subscription once it can.
+     */
+    boolean isReady();
+
+    void send(BlockEvent event) throws IOException;
+
+    /**
+     * Sends the events the sink buffers, called when the subscription has no more of them.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Ends the events, with the reason of the error or null.
+     */
+    void close(String error);
+  }
+
+  /**
+   * A filter and the events it matched that the sink has not taken yet.
+   */
+  public class Subscription {
+
+    private final Set<ByteString> addresses;
+    private final Set<ByteString> contractAddresses;
+    private final Set<ByteString> topics;
+    private final boolean matchedOnly;
+    private final boolean solidified;
+    private final Sink sink;
+
+    private final Queue<BlockEvent> buffer = new ArrayDeque<>();
+    private boolean closed;
+
+    private Subscription(BlockEventFilter filter, Sink sink) {
+      this.addresses = filter.getAddressList().stream().collect(Collectors.toSet());
+      this.contractAddresses = filter.getContractAddressList().stream()
+          .map(BlockEventBus::vmAddress).collect(Collectors.toSet());
+      this.topics = filter.getTopicList().stream().collect(Collectors.toSet());
+      this.matchedOnly = filter.getMatchedOnly();
+      this.solidified = filter.getSolidified();
+      this.sink = sink;
+    }
+
+    private void offer(BlockEvent header, List<Transaction> transactions,
+        List<TransactionInfo> infos) {
+      if (header.getType() == Type.SOLIDIFIED) {
+        if (solidified) {
+          enqueue(header);
+        }
+        return;
+      }
+      BlockEvent.Builder event = header.toBuilder();
+      for (int i = 0; i < transactions.size(); i++) {
+        if (matches(transactions.get(i), infos.get(i))) {
+          event.addTransactions(transactions.get(i)).addTransactionInfo(infos.get(i));
+        }
+      }
+      if (!matchedOnly || event.getTransactionsCount() > 0) {
+        enqueue(event.build());
+      }
+    }
+
+    private boolean matches(Transaction transaction, TransactionInfo info) {
+      for (Contract contract : transaction.getRawData().getContractList()) {
+        if (contains(addresses, TransactionCapsule.getOwner(contract))
+            || contains(addresses, TransactionCapsule.getToAddress(contract))) {
+          return true;
+        }
+        if (topics.isEmpty() && contains(contractAddresses, getContractAddress(contract))) {
+          return true;
+        }
+      }
+      if (contractAddresses.isEmpty() && topics.isEmpty()) {
+        return false;
+      }
+      if (topics.isEmpty() && !info.getContractAddress().isEmpty()
+          && contractAddresses.contains(vmAddress(info.getContractAddress()))) {
+        return true;
+      }
+      for (Log log : info.getLogList()) {
+        if ((contractAddresses.isEmpty() || contractAddresses.contains(vmAddress(log.getAddress())))
+            && (topics.isEmpty() || log.getTopicsList().stream().anyMatch(topics::contains))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private synchronized void enqueue(BlockEvent event) {
+      if (closed) {
+        return;
+      }
+      if (buffer.size() >= BUFFER_SIZE) {
+        close("more than " + BUFFER_SIZE + " events are waiting, resubscribe");
+        return;
+      }
+      buffer.add(event);
+      drain();
+    }
+
+    /**
+     * Sends the buffered events while the sink is ready.
+     */
+    public synchronized void drain() {
+      try {
+        while (!closed && sink.isReady()) {
+          BlockEvent event = buffer.poll();
+          if (event == null) {
+            sink.flush();
+            return;
+          }
+          sink.send(event);
+        }
+      } catch (IOException | RuntimeException e) {
+        logger.debug(e.getMessage(), e);
+        close(e.getMessage());
+      }
+    }
+
+    /**
+     * Unsubscribes and closes the sink.
+     */
+    public synchronized void close(String error) {
+      if (cancel()) {
+        sink.close(error);
+      }
+    }
+
+    /**
+     * Unsubscribes without closing the sink, when its client is gone.
+     */
+    public synchronized boolean cancel() {
+      if (closed) {
+        return false;
+      }
+      closed = true;
+      buffer.clear();
+      subscriptions.remove(this);
+      return true;
+    }
+  }
+
+  /**
+   * Subscribes the sink to the events matching the filter, null when there are too many
+   * subscriptions.
+   */
+  public Subscription subscribe(BlockEventFilter filter, Sink sink) {
+    if (subscriptions.size() >= MAX_SUBSCRIPTIONS) {
+      return null;
+    }
+    Subscription subscription = new Subscription(filter, sink);
+    subscriptions.add(subscription);
+    return subscription;
+  }
+
+  public int getSubscriptionCount() {
+    return subscriptions.size();
+  }
+
+  /**
+   * Called once the block is committed at the head. The infos of its transactions are read on the
+   * dispatch thread.
+   */
+  public void blockApplied(BlockCapsule block) {
+    if (subscriptions.isEmpty()) {
+      return;
+    }
+    execute(() -> publish(Type.APPLIED, block, getTransactionInfos(block)));
+  }
+
+  /**
+   * Called before the block is erased from the head, while its transaction infos are stored. They
+   * are read at once, the erase revokes them.
+   */
+  public void blockRemoved(BlockCapsule block) {
+    if (subscriptions.isEmpty()) {
+      return;
+    }
+    List<TransactionInfo> infos = getTransactionInfos(block);
+    execute(() -> publish(Type.REMOVED, block, infos));
+  }
+
+  public void blockSolidified(BlockId blockId) {
+    if (blockId.getNum() <= solidifiedNum) {
+      return;
+    }
+    solidifiedNum = blockId.getNum();
+    if (subscriptions.isEmpty()) {
+      return;
+    }
+    BlockEvent event = BlockEvent.newBuilder()
+        .setType(Type.SOLIDIFIED)
+        .setNum(blockId.getNum())
+        .setBlockId(blockId.getByteString())
+        .build();
+    execute(() -> offer(event, new ArrayList<>(), new ArrayList<>()));
+  }
+
+  private void publish(Type type, BlockCapsule block, List<TransactionInfo> infos) {
+    List<Transaction> transactions = new ArrayList<>();
+    for (TransactionCapsule transaction : block.getTransactions()) {
+      transactions.add(transaction.getInstance());
+    }
+    BlockEvent header = BlockEvent.newBuilder()
+        .setType(type)
+        .setNum(block.getNum())
+        .setBlockId(block.getBlockId().getByteString())
+        .setTimestamp(block.getTimeStamp())
+        .build();
+    offer(header, transactions, infos);
+  }
+
+  private void offer(BlockEvent header, List<Transaction> transactions,
+      List<TransactionInfo> infos) {
+    subscriptions.forEach(subscription -> subscription.offer(header, transactions, infos));
+  }
+
+  private void execute(Runnable task) {
+    if (dispatcher.isShutdown()) {
+      return;
+    }
+    try {
+      dispatcher.execute(task);
+    } catch (RejectedExecutionException e) {
+      // closed meanwhile
+      logger.debug("block event dropped, the bus is closed");
+    }
+  }
+
+  private List<TransactionInfo> getTransactionInfos(BlockCapsule block) {
+    List<TransactionInfo> infos = new ArrayList<>();
+    for (TransactionCapsule transaction : block.getTransactions()) {
+      infos.add(getTransactionInfo(transaction));
+    }
+    return infos;
+  }
+
+  private TransactionInfo getTransactionInfo(TransactionCapsule transaction) {
+    try {
+      TransactionInfoCapsule info = transactionHistoryStore
+          .get(transaction.getTransactionId().getBytes());
+      if (info != null) {
+        return info.getInstance();
+      }
+    } catch (BadItemException e) {
+      logger.debug(e.getMessage(), e);
+    }
+    return TransactionInfo.getDefaultInstance();
+  }
+
+  @PreDestroy
+  public void close() {
+    dispatcher.shutdownNow();
+    subscriptions.forEach(subscription -> subscription.close(null));
+  }
+
+  private static boolean contains(Set<ByteString> addresses, byte[] address) {
+    return ArrayUtils.isNotEmpty(address) && addresses.contains(ByteString.copyFrom(address));
+  }
+
+  private static byte[] getContractAddress(Contract contract) {
+    if (contract.getType() != ContractType.TriggerSmartContract) {
+      return null;
+    }
+    try {
+      return vmAddress(contract.getParameter().unpack(TriggerSmartContract.class)
+          .getContractAddress()).toByteArray();
+    } catch (InvalidProtocolBufferException e) {
+      logger.debug(e.getMessage(), e);
+      return null;
+    }
+  }
+
+  private static ByteString vmAddress(ByteString address) {
+    return address.size() > VM_ADDRESS_LENGTH
+        ? address.substring(address.size() - VM_ADDRESS_LENGTH) : address;
+  }
+}
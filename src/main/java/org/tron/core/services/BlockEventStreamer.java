@@ -0,0 +1,78 @@
+package org.tron.core.services;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.tron.api.GrpcAPI.BlockEvent;
+import org.tron.api.GrpcAPI.BlockEventFilter;
+import org.tron.core.event.BlockEventBus;
+import org.tron.core.event.BlockEventBus.Subscription;
+
+/**
+ * Streams the block events matching a filter to a gRPC client, at the pace of its transport. The
+ * stream ends with RESOURCE_EXHAUSTED when the client falls too far behind.
+ */
+public class BlockEventStreamer implements BlockEventBus.Sink {
+
+  private final ServerCallStreamObserver<BlockEvent> observer;
+
+  // set once subscribed, the handlers of the call are set before
+  private volatile Subscription subscription;
+
+  private BlockEventStreamer(ServerCallStreamObserver<BlockEvent> observer) {
+    this.observer = observer;
+  }
+
+  /**
+   * Subscribes the client to the events of the filter until it cancels the call.
+   */
+  public static void start(BlockEventBus blockEventBus, BlockEventFilter filter,
+      StreamObserver<BlockEvent> responseObserver) {
+    BlockEventStreamer streamer = new BlockEventStreamer(
+        (ServerCallStreamObserver<BlockEvent>) responseObserver);
+    streamer.observer.setOnCancelHandler(streamer::cancel);
+    streamer.observer.setOnReadyHandler(streamer::drain);
+    streamer.subscription = blockEventBus.subscribe(filter, streamer);
+    if (streamer.subscription == null) {
+      streamer.observer.onError(Status.UNAVAILABLE
+          .withDescription("too many subscriptions").asRuntimeException());
+    }
+  }
+
+  private void cancel() {
+    Subscription current = subscription;
+    if (current != null) {
+      current.cancel();
+    }
+  }
+
+  private void drain() {
+    Subscription current = subscription;
+    if (current != null) {
+      current.drain();
+    }
+  }
+
+  @Override
+  public boolean isReady() {
+    return observer.isReady() && !observer.isCancelled();
+  }
+
+  @Override
+  public void send(BlockEvent event) {
+    observer.onNext(event);
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public void close(String error) {
+    if (error == null) {
+      observer.onCompleted();
+    } else {
+      observer.onError(Status.RESOURCE_EXHAUSTED.withDescription(error).asRuntimeException());
+    }
+  }
+}
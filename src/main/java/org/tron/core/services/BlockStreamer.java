@@ -0,0 +1,204 @@
+package org.tron.core.services;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.api.GrpcAPI.BlockStreamRequest;
+import org.tron.api.GrpcAPI.RawBlock;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.Manager;
+import org.tron.core.exception.ItemNotFoundException;
+import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Streams stored blocks, and the infos of their transactions, from a block number to a gRPC
+ * client. Blocks are sent while the transport is ready to take them and the stream resumes when
+ * it's ready again, so a slow client holds no more than the flow control window. Blocks are sent
+ * as stored, they are only decoded to find the infos of their transactions.
+ *
+ * <p>Blocks past the solidified one may be switched to another fork. The stream then ends with
+ * ABORTED as soon as a block it sent is no longer on the chain, the client resumes from the
+ * number of the last solidified block it has.
+ *
+ * <p>Streams following the head never end on their own, so at most
+ * <code>node.rpc.maxBlockStreams</code> run at once, calls past it fail with RESOURCE_EXHAUSTED.
+ */
+@Slf4j
+public class BlockStreamer {
+
+  // how often a stream following the head looks for new blocks
+  private static final long FOLLOW_INTERVAL_MS = 500;
+
+  private static final AtomicInteger streamCount = new AtomicInteger();
+
+  private final Manager dbManager;
+  private final ServerCallStreamObserver<RawBlock> observer;
+  private final ScheduledExecutorService scheduler;
+
+  // exclusive, Long.MAX_VALUE for no end
+  private final long endNum;
+  private final boolean follow;
+  private final boolean solidified;
+  private final boolean transactionInfo;
+
+  private long nextNum;
+  // id of the block nextNum - 1 once sent
+  private BlockId lastId;
+  private boolean done;
+  private boolean scheduled;
+
+  private BlockStreamer(Manager dbManager, BlockStreamRequest request,
+      ServerCallStreamObserver<RawBlock> observer, ScheduledExecutorService scheduler) {
+    this.dbManager = dbManager;
+    this.observer = observer;
+    this.scheduler = scheduler;
+    this.nextNum = request.getStartNum();
+    this.endNum = request.getEndNum() > 0 ? request.getEndNum() : Long.MAX_VALUE;
+    this.follow = request.getFollow();
+    this.solidified = request.getSolidified();
+    this.transactionInfo = request.getTransactionInfo();
+  }
+
+  /**
+   * Starts streaming the blocks of the request, the stream ends at its end number, or at the head
+   * unless it follows it.
+   */
+  public static void start(Manager dbManager, BlockStreamRequest request,
+      StreamObserver<RawBlock> responseObserver, ScheduledExecutorService scheduler) {
+    if (request.getStartNum() < 0) {
+      responseObserver.onError(Status.INVALID_ARGUMENT
+          .withDescription("start number is negative").asRuntimeException());
+      return;
+    }
+    if (streamCount.incrementAndGet() > Args.getInstance().getRpcMaxBlockStreams()) {
+      streamCount.decrementAndGet();
+      responseObserver.onError(Status.RESOURCE_EXHAUSTED
+          .withDescription("too many block streams").asRuntimeException());
+      return;
+    }
+    BlockStreamer streamer = new BlockStreamer(dbManager, request,
+        (ServerCallStreamObserver<RawBlock>) responseObserver, scheduler);
+    streamer.observer.setOnCancelHandler(streamer::cancel);
+    streamer.observer.setOnReadyHandler(streamer::drain);
+    streamer.drain();
+  }
+
+  public static int getStreamCount() {
+    return streamCount.get();
+  }
+
+  private synchronized void cancel() {
+    end();
+  }
+
+  // counts the stream off once, however it ends
+  private void end() {
+    if (!done) {
+      done = true;
+      streamCount.decrementAndGet();
+    }
+  }
+
+  private synchronized void drain() {
+    scheduled = false;
+    if (done || observer.isCancelled()) {
+      return;
+    }
+    try {
+      while (observer.isReady()) {
+        if (nextNum >= endNum) {
+          complete();
+          return;
+        }
+        long lastNum = solidified
+            ? dbManager.getDynamicPropertiesStore().getLatestSolidifiedBlockNum()
+            : dbManager.getHeadBlockNum();
+        if (nextNum > lastNum) {
+          if (follow) {
+            scheduleDrain();
+          } else {
+            complete();
+          }
+          return;
+        }
+        BlockId blockId = dbManager.getBlockIdByNum(nextNum);
+        RawBlock block = getBlock(blockId);
+        // checked once the block is read, a switch after this is found with the next block
+        if (!solidified && lastId != null && !isOnChain(lastId)) {
+          fail(Status.ABORTED.withDescription(
+              "block " + (nextNum - 1) + " was switched to another fork"));
+          return;
+        }
+        observer.onNext(block);
+        lastId = blockId;
+        nextNum++;
+      }
+    } catch (ItemNotFoundException e) {
+      fail(Status.NOT_FOUND.withDescription(e.getMessage()));
+    } catch (InvalidProtocolBufferException e) {
+      fail(Status.DATA_LOSS.withDescription(e.getMessage()));
+    } catch (RuntimeException e) {
+      logger.debug(e.getMessage(), e);
+      fail(Status.INTERNAL.withDescription(e.getMessage()));
+    }
+  }
+
+  private void scheduleDrain() {
+    if (!scheduled) {
+      scheduled = true;
+      scheduler.schedule(this::drain, FOLLOW_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void complete() {
+    end();
+    observer.onCompleted();
+  }
+
+  private void fail(Status status) {
+    end();
+    observer.onError(status.asRuntimeException());
+  }
+
+  private boolean isOnChain(BlockId blockId) {
+    try {
+      return blockId.equals(dbManager.getBlockIdByNum(blockId.getNum()));
+    } catch (ItemNotFoundException e) {
+      // revoked while switching forks
+      return false;
+    }
+  }
+
+  private RawBlock getBlock(BlockId blockId)
+      throws ItemNotFoundException, InvalidProtocolBufferException {
+    long num = blockId.getNum();
+    byte[] block = dbManager.getBlockStore().getRaw(blockId.getBytes());
+    if (block == null) {
+      throw new ItemNotFoundException("block " + num + " is not found");
+    }
+
+    // the stored bytes are not modified, no need to copy them
+    RawBlock.Builder builder = RawBlock.newBuilder()
+        .setNum(num)
+        .setBlock(UnsafeByteOperations.unsafeWrap(block));
+    if (transactionInfo) {
+      for (Transaction transaction : Block.parseFrom(block).getTransactionsList()) {
+        byte[] info = dbManager.getTransactionHistoryStore()
+            .getRaw(Sha256Hash.hash(transaction.getRawData().toByteArray()));
+        builder.addTransactionInfo(info == null ? ByteString.EMPTY
+            : UnsafeByteOperations.unsafeWrap(info));
+      }
+    }
+    return builder.build();
+  }
+}
@@ -1,9 +1,11 @@
 package org.tron.core.services;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
 import io.grpc.Server;
+import io.grpc.ServerInterceptors;
 import io.grpc.netty.NettyServerBuilder;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
@@ -11,7 +13,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.Hex;
@@ -23,29 +28,38 @@ import org.tron.api.GrpcAPI.AccountNetMessage;
 import org.tron.api.GrpcAPI.AccountPaginated;
 import org.tron.api.GrpcAPI.AccountResourceMessage;
 import org.tron.api.GrpcAPI.Address;
+import org.tron.api.GrpcAPI.AddressPaginated;
 import org.tron.api.GrpcAPI.AddressPrKeyPairMessage;
 import org.tron.api.GrpcAPI.AssetIssueList;
+import org.tron.api.GrpcAPI.AssetIssuePaginated;
+import org.tron.api.GrpcAPI.BlockEvent;
+import org.tron.api.GrpcAPI.BlockEventFilter;
 import org.tron.api.GrpcAPI.BlockExtention;
 import org.tron.api.GrpcAPI.BlockLimit;
 import org.tron.api.GrpcAPI.BlockList;
 import org.tron.api.GrpcAPI.BlockListExtention;
 import org.tron.api.GrpcAPI.BlockReference;
+import org.tron.api.GrpcAPI.BlockStreamRequest;
 import org.tron.api.GrpcAPI.BytesMessage;
 import org.tron.api.GrpcAPI.EasyTransferByPrivateMessage;
 import org.tron.api.GrpcAPI.EasyTransferMessage;
 import org.tron.api.GrpcAPI.EasyTransferResponse;
 import org.tron.api.GrpcAPI.EmptyMessage;
 import org.tron.api.GrpcAPI.ExchangeList;
+import org.tron.api.GrpcAPI.LogFilter;
+import org.tron.api.GrpcAPI.LogList;
 import org.tron.api.GrpcAPI.Node;
 import org.tron.api.GrpcAPI.NodeList;
 import org.tron.api.GrpcAPI.NumberMessage;
 import org.tron.api.GrpcAPI.PaginatedMessage;
+import org.tron.api.GrpcAPI.RawBlock;
 import org.tron.api.GrpcAPI.ProposalList;
 import org.tron.api.GrpcAPI.Return;
 import org.tron.api.GrpcAPI.Return.response_code;
 import org.tron.api.GrpcAPI.TransactionExtention;
 import org.tron.api.GrpcAPI.TransactionList;
 import org.tron.api.GrpcAPI.TransactionListExtention;
+import org.tron.api.GrpcAPI.TransactionPage;
 import org.tron.api.GrpcAPI.WitnessList;
 import org.tron.api.WalletExtensionGrpc;
 import org.tron.api.WalletGrpc.WalletImplBase;
@@ -110,6 +124,11 @@ public class RpcApiService implements Service {
   private static final long BLOCK_LIMIT_NUM = 100;
   private static final long TRANSACTION_LIMIT_NUM = 1000;
 
+  // resumes the block streams following the head
+  private ScheduledExecutorService streamScheduler;
+
+  private ExecutorService rpcExecutor;
+
   @Override
   public void init() {
   }
@@ -120,24 +139,33 @@ public class RpcApiService implements Service {
 
   @Override
   public void start() {
+    streamScheduler = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("rpc-block-stream").setDaemon(true).build());
     try {
-      NettyServerBuilder serverBuilder = NettyServerBuilder.forPort(port)
-          .addService(new DatabaseApi());
-
       Args args = Args.getInstance();
 
-      if (args.getRpcThreadNum() > 0) {
-        serverBuilder = serverBuilder
-            .executor(Executors.newFixedThreadPool(args.getRpcThreadNum()));
-      }
+      ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("rpc-%d").build();
+      rpcExecutor = args.getRpcThreadNum() > 0
+          ? Executors.newFixedThreadPool(args.getRpcThreadNum(), threadFactory)
+          : Executors.newCachedThreadPool(threadFactory);
+      RpcCallScheduler scheduler = new RpcCallScheduler(rpcExecutor, args.getRpcMaxLightCalls(),
+          args.getRpcMaxHeavyCalls(), args.getRpcCallQueueSize(),
+          args.getRpcMaxCallsPerSecondPerClient());
+
+      NettyServerBuilder serverBuilder = NettyServerBuilder.forPort(port)
+          .executor(rpcExecutor)
+          .addService(ServerInterceptors.intercept(new DatabaseApi(), scheduler));
 
       if (args.isSolidityNode()) {
-        serverBuilder = serverBuilder.addService(new WalletSolidityApi());
+        serverBuilder = serverBuilder
+            .addService(ServerInterceptors.intercept(new WalletSolidityApi(), scheduler));
         if (args.isWalletExtensionApi()) {
-          serverBuilder = serverBuilder.addService(new WalletExtensionApi());
+          serverBuilder = serverBuilder
+              .addService(ServerInterceptors.intercept(new WalletExtensionApi(), scheduler));
         }
       } else {
-        serverBuilder = serverBuilder.addService(new WalletApi());
+        serverBuilder = serverBuilder
+            .addService(ServerInterceptors.intercept(new WalletApi(), scheduler));
       }
 
       // Set configs from config.conf or default value
@@ -310,6 +338,18 @@ public class RpcApiService implements Service {
       responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamBlocks(BlockStreamRequest request,
+        StreamObserver<RawBlock> responseObserver) {
+      BlockStreamer.start(dbManager, request, responseObserver, streamScheduler);
+    }
+
+    @Override
+    public void getLogs(LogFilter request, StreamObserver<LogList> responseObserver) {
+      responseObserver.onNext(wallet.getLogs(request));
+      responseObserver.onCompleted();
+    }
+
     @Override
     public void getNowBlock(EmptyMessage request, StreamObserver<Block> responseObserver) {
       responseObserver.onNext(wallet.getNowBlock());
@@ -486,6 +526,19 @@ public class RpcApiService implements Service {
       }
       responseObserver.onCompleted();
     }
+
+    @Override
+    public void getTransactionsByAddress(AddressPaginated request,
+        StreamObserver<TransactionPage> responseObserver) {
+      try {
+        responseObserver.onNext(walletSolidity.getTransactionsByAddress(request.getAddress(),
+            request.getTo(), request.getReverse(), request.getCursor(), request.getLimit()));
+      } catch (IllegalArgumentException e) {
+        logger.debug(e.getMessage(), e);
+        responseObserver.onNext(null);
+      }
+      responseObserver.onCompleted();
+    }
   }
 
   /**
@@ -1221,6 +1274,24 @@ public class RpcApiService implements Service {
       responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamBlocks(BlockStreamRequest request,
+        StreamObserver<RawBlock> responseObserver) {
+      BlockStreamer.start(dbManager, request, responseObserver, streamScheduler);
+    }
+
+    @Override
+    public void subscribeBlockEvents(BlockEventFilter request,
+        StreamObserver<BlockEvent> responseObserver) {
+      BlockEventStreamer.start(dbManager.getBlockEventBus(), request, responseObserver);
+    }
+
+    @Override
+    public void getLogs(LogFilter request, StreamObserver<LogList> responseObserver) {
+      responseObserver.onNext(wallet.getLogs(request));
+      responseObserver.onCompleted();
+    }
+
     @Override
     public void getBlockByLimitNext2(BlockLimit request,
         StreamObserver<BlockListExtention> responseObserver) {
@@ -1341,6 +1412,19 @@ public class RpcApiService implements Service {
       responseObserver.onCompleted();
     }
 
+    @Override
+    public void getAssetIssueListAfter(AssetIssuePaginated request,
+        StreamObserver<AssetIssueList> responseObserver) {
+      try {
+        responseObserver.onNext(
+            wallet.getAssetIssueListAfter(request.getCursor(), request.getLimit()));
+      } catch (IllegalArgumentException e) {
+        logger.debug(e.getMessage(), e);
+        responseObserver.onNext(null);
+      }
+      responseObserver.onCompleted();
+    }
+
     @Override
     public void getContract(BytesMessage request,
         StreamObserver<Protocol.SmartContract> responseObserver) {
@@ -1430,6 +1514,12 @@ public class RpcApiService implements Service {
     if (apiServer != null) {
       apiServer.shutdown();
     }
+    if (streamScheduler != null) {
+      streamScheduler.shutdownNow();
+    }
+    if (rpcExecutor != null) {
+      rpcExecutor.shutdown();
+    }
   }
 
   /**
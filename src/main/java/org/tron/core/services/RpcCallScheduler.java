@@ -0,0 +1,377 @@
+package org.tron.core.services;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.RateLimiter;
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.ServerCall;
+import io.grpc.ServerCall.Listener;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admits the unary calls of the gRPC API by cost class, so that a burst of heavy calls can't take
+ * the threads of the cheap ones. Each class runs up to a concurrency limit, lowered when the
+ * latency of its calls grows and raised back while it holds, and parks the calls beyond in a
+ * bounded queue. Calls that find the queue full, or whose client made too many calls in the last
+ * second, are rejected at once with RESOURCE_EXHAUSTED.
+ */
+@Slf4j
+public class RpcCallScheduler implements ServerInterceptor {
+
+  public enum CostClass {
+    LIGHT,
+    HEAVY
+  }
+
+  // calls running the VM, reading many blocks or transactions, or walking a whole store
+  private static final Set<String> HEAVY_METHODS = ImmutableSet.of(
+      "TriggerContract",
+      "DeployContract",
+      "GetBlockByLimitNext",
+      "GetBlockByLimitNext2",
+      "GetBlockByLatestNum",
+      "GetBlockByLatestNum2",
+      "TotalTransaction",
+      "GetTransactionsFromThis",
+      "GetTransactionsFromThis2",
+      "GetTransactionsToThis",
+      "GetTransactionsToThis2",
+      "GetTransactionsByAddress",
+      "GetAssetIssueList",
+      "GetPaginatedAssetIssueList",
+      "GetLogs",
+      "ListNodes");
+
+  // calls completed between two adjustments of a limit
+  private static final int WINDOW = 100;
+  // how much slower than its usual latency a class may get before its limit is lowered
+  private static final double LATENCY_TOLERANCE = 2.0;
+
+  private final Executor executor;
+  private final Map<CostClass, Bulkhead> bulkheads = new EnumMap<>(CostClass.class);
+  private final double callsPerSecondPerClient;
+  private final Cache<String, RateLimiter> clients = CacheBuilder.newBuilder()
+      .maximumSize(100000)
+      .expireAfterAccess(10, TimeUnit.MINUTES)
+      .build();
+
+  /**
+   * Starts the parked calls on the executor. No client limit when
+   * <code>callsPerSecondPerClient</code> isn't positive.
+   */
+  public RpcCallScheduler(Executor executor, int maxLightCalls, int maxHeavyCalls, int queueSize,
+      double callsPerSecondPerClient) {
+    this.executor = executor;
+    this.callsPerSecondPerClient = callsPerSecondPerClient;
+    bulkheads.put(CostClass.LIGHT, new Bulkhead(maxLightCalls, queueSize));
+    bulkheads.put(CostClass.HEAVY, new Bulkhead(maxHeavyCalls, queueSize));
+  }
+
+  public static CostClass getCostClass(String fullMethodName) {
+    String method = fullMethodName.substring(fullMethodName.lastIndexOf('/') + 1);
+    return HEAVY_METHODS.contains(method) ? CostClass.HEAVY : CostClass.LIGHT;
+  }
+
+  public int getLimit(CostClass costClass) {
+    return bulkheads.get(costClass).limit;
+  }
+
+  @VisibleForTesting
+  Bulkhead getBulkhead(CostClass costClass) {
+    return bulkheads.get(costClass);
+  }
+
+  @Override
+  public <ReqT, RespT> Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+      Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    if (!tryAcquireClient(call)) {
+      return reject(call, "too many calls from the client");
+    }
+    if (call.getMethodDescriptor().getType() != MethodType.UNARY) {
+      // streams live long, their services limit them
+      return next.startCall(call, headers);
+    }
+    Bulkhead bulkhead = bulkheads
+        .get(getCostClass(call.getMethodDescriptor().getFullMethodName()));
+    if (bulkhead.tryAcquire()) {
+      return bulkhead.start(call, headers, next);
+    }
+    ParkedCall<ReqT, RespT> parked = new ParkedCall<>(bulkhead, call, headers, next);
+    if (!bulkhead.park(parked)) {
+      return reject(call, "too many calls of the method");
+    }
+    return parked;
+  }
+
+  private boolean tryAcquireClient(ServerCall<?, ?> call) {
+    if (callsPerSecondPerClient <= 0) {
+      return true;
+    }
+    SocketAddress address = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+    // one limit for all the ports of a host
+    String client = address instanceof InetSocketAddress
+        ? ((InetSocketAddress) address).getAddress().getHostAddress() : String.valueOf(address);
+    return clients.asMap()
+        .computeIfAbsent(client, key -> RateLimiter.create(callsPerSecondPerClient))
+        .tryAcquire();
+  }
+
+  private static <ReqT> Listener<ReqT> reject(ServerCall<ReqT, ?> call, String description) {
+    call.close(Status.RESOURCE_EXHAUSTED.withDescription(description), new Metadata());
+    return new Listener<ReqT>() {
+    };
+  }
+
+  /**
+   * The calls of a cost class. Counts the running ones against the limit and parks the others.
+   */
+  @VisibleForTesting
+  class Bulkhead {
+
+    private final int maxLimit;
+    private final int queueSize;
+    private final AtomicInteger running = new AtomicInteger();
+    private final Queue<ParkedCall<?, ?>> parked = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger parkedCount = new AtomicInteger();
+    private volatile int limit;
+
+    // guarded by this
+    private long windowLatency;
+    private int windowCalls;
+    private int windowMaxRunning;
+    private double usualLatency;
+
+    private Bulkhead(int maxLimit, int queueSize) {
+      this.maxLimit = Math.max(1, maxLimit);
+      this.queueSize = queueSize;
+      this.limit = this.maxLimit;
+    }
+
+    private boolean tryAcquire() {
+      while (true) {
+        int current = running.get();
+        if (current >= limit) {
+          return false;
+        }
+        if (running.compareAndSet(current, current + 1)) {
+          return true;
+        }
+      }
+    }
+
+    private boolean park(ParkedCall<?, ?> call) {
+      if (parkedCount.incrementAndGet() > queueSize) {
+        parkedCount.decrementAndGet();
+        return false;
+      }
+      parked.add(call);
+      // a call may have completed between the failed acquire and the park
+      dispatch();
+      return true;
+    }
+
+    private void unpark(ParkedCall<?, ?> call) {
+      if (parked.remove(call)) {
+        parkedCount.decrementAndGet();
+      }
+    }
+
+    // starts parked calls while the limit allows
+    private void dispatch() {
+      while (!parked.isEmpty() && tryAcquire()) {
+        ParkedCall<?, ?> call = parked.poll();
+        if (call == null) {
+          running.decrementAndGet();
+          continue;
+        }
+        parkedCount.decrementAndGet();
+        executor.execute(call::start);
+      }
+    }
+
+    /**
+     * Starts the call holding a permit, given back with a latency sample when the call is closed
+     * or cancelled.
+     */
+    private <ReqT, RespT> Listener<ReqT> start(ServerCall<ReqT, RespT> call, Metadata headers,
+        ServerCallHandler<ReqT, RespT> next) {
+      long start = System.nanoTime();
+      AtomicBoolean released = new AtomicBoolean();
+      Runnable release = () -> {
+        if (released.compareAndSet(false, true)) {
+          release(System.nanoTime() - start);
+        }
+      };
+      Listener<ReqT> listener;
+      try {
+        listener = next.startCall(new SimpleForwardingServerCall<ReqT, RespT>(call) {
+          @Override
+          public void close(Status status, Metadata trailers) {
+            try {
+              super.close(status, trailers);
+            } finally {
+              release.run();
+            }
+          }
+        }, headers);
+      } catch (RuntimeException e) {
+        release.run();
+        throw e;
+      }
+      return new SimpleForwardingServerCallListener<ReqT>(listener) {
+        @Override
+        public void onCancel() {
+          try {
+            super.onCancel();
+          } finally {
+            release.run();
+          }
+        }
+      };
+    }
+
+    private void release(long latency) {
+      int before = running.getAndDecrement();
+      adapt(latency, before);
+      dispatch();
+    }
+
+    // gives back a permit taken for a call that was cancelled while parked
+    private void discard() {
+      running.decrementAndGet();
+      dispatch();
+    }
+
+    /**
+     * Once per window, lowers the limit by a quarter when the mean latency of the window went
+     * over the tolerance of the usual one, raises it by a tenth when it held and the limit was
+     * reached. The usual latency follows the lower means at once and the higher ones slowly.
+     */
+    @VisibleForTesting
+    synchronized void adapt(long latency, int running) {
+      windowLatency += latency;
+      windowMaxRunning = Math.max(windowMaxRunning, running);
+      if (++windowCalls < WINDOW) {
+        return;
+      }
+      double mean = (double) windowLatency / windowCalls;
+      if (usualLatency == 0) {
+        usualLatency = mean;
+      }
+      if (mean > usualLatency * LATENCY_TOLERANCE) {
+        limit = Math.max(1, limit - Math.max(1, limit / 4));
+      } else if (windowMaxRunning >= limit) {
+        limit = Math.min(maxLimit, limit + Math.max(1, limit / 10));
+      }
+      usualLatency = mean < usualLatency ? mean : usualLatency + (mean - usualLatency) / 10;
+      windowLatency = 0;
+      windowCalls = 0;
+      windowMaxRunning = 0;
+    }
+  }
+
+  /**
+   * A call waiting in a queue of its cost class. Keeps the events of the call until it's started,
+   * then hands them to the listener of the call in order.
+   */
+  private static class ParkedCall<ReqT, RespT> extends Listener<ReqT> {
+
+    private final Bulkhead bulkhead;
+    private final ServerCall<ReqT, RespT> call;
+    private final Metadata headers;
+    private final ServerCallHandler<ReqT, RespT> next;
+
+    // guarded by this
+    private Listener<ReqT> listener;
+    private List<Consumer<Listener<ReqT>>> events = new ArrayList<>();
+    private boolean cancelled;
+
+    private ParkedCall(Bulkhead bulkhead, ServerCall<ReqT, RespT> call, Metadata headers,
+        ServerCallHandler<ReqT, RespT> next) {
+      this.bulkhead = bulkhead;
+      this.call = call;
+      this.headers = headers;
+      this.next = next;
+    }
+
+    private synchronized void start() {
+      if (cancelled) {
+        bulkhead.discard();
+        return;
+      }
+      try {
+        listener = bulkhead.start(call, headers, next);
+      } catch (RuntimeException e) {
+        logger.warn("failed to start {}", call.getMethodDescriptor().getFullMethodName(), e);
+        call.close(Status.fromThrowable(e), new Metadata());
+        events = null;
+        cancelled = true;
+        return;
+      }
+      events.forEach(event -> event.accept(listener));
+      events = null;
+    }
+
+    private synchronized void event(Consumer<Listener<ReqT>> event) {
+      if (listener != null) {
+        event.accept(listener);
+      } else if (!cancelled) {
+        events.add(event);
+      }
+    }
+
+    @Override
+    public void onMessage(ReqT message) {
+      event(listener -> listener.onMessage(message));
+    }
+
+    @Override
+    public void onHalfClose() {
+      event(Listener::onHalfClose);
+    }
+
+    @Override
+    public void onReady() {
+      event(Listener::onReady);
+    }
+
+    @Override
+    public void onComplete() {
+      event(Listener::onComplete);
+    }
+
+    @Override
+    public synchronized void onCancel() {
+      if (listener != null) {
+        listener.onCancel();
+      } else if (!cancelled) {
+        cancelled = true;
+        events = null;
+        bulkhead.unpark(this);
+      }
+    }
+  }
+}
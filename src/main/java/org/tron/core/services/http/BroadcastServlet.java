@@ -1,7 +1,6 @@
 package org.tron.core.services.http;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -21,8 +20,7 @@ public class BroadcastServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String input = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String input = Util.getRequestBody(request);
       Transaction transaction = Util.packTransaction(input);
       GrpcAPI.Return retur = wallet.broadcastTransaction(transaction);
       response.getWriter().println(JsonFormat.printToString(retur));
@@ -1,7 +1,6 @@
 package org.tron.core.services.http;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -23,8 +22,7 @@ public class CreateAccountServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String contract = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String contract = Util.getRequestBody(request);
       AccountCreateContract.Builder build = AccountCreateContract.newBuilder();
       JsonFormat.merge(contract, build);
       Transaction tx = wallet
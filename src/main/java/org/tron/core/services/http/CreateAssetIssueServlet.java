@@ -1,7 +1,6 @@
 package org.tron.core.services.http;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -27,8 +26,7 @@ public class CreateAssetIssueServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String contract = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String contract = Util.getRequestBody(request);
       AssetIssueContract.Builder build = AssetIssueContract.newBuilder();
       JsonFormat.merge(contract, build);
       Transaction tx = wallet
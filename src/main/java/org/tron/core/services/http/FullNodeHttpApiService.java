@@ -78,6 +78,8 @@ public class FullNodeHttpApiService implements Service {
   @Autowired
   private GetPaginatedAssetIssueListServlet getPaginatedAssetIssueListServlet;
   @Autowired
+  private GetAssetIssueListAfterServlet getAssetIssueListAfterServlet;
+  @Autowired
   private GetPaginatedProposalListServlet getPaginatedProposalListServlet;
   @Autowired
   private GetPaginatedExchangeListServlet getPaginatedExchangeListServlet;
@@ -127,6 +129,10 @@ public class FullNodeHttpApiService implements Service {
   private GetChainParametersServlet getChainParametersServlet;
   @Autowired
   private GetAccountResourceServlet getAccountResourceServlet;
+  @Autowired
+  private SubscribeBlockEventsServlet subscribeBlockEventsServlet;
+  @Autowired
+  private GetLogsServlet getLogsServlet;
 
   @Override
   public void init() {
@@ -141,10 +147,8 @@ public class FullNodeHttpApiService implements Service {
   @Override
   public void start() {
     try {
-      server = new Server(port);
       ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
       context.setContextPath("/wallet/");
-      server.setHandler(context);
       context.addServlet(new ServletHolder(accountServlet), "/getaccount");
       context.addServlet(new ServletHolder(transferServlet), "/createtransaction");
       context.addServlet(new ServletHolder(broadcastServlet), "/broadcasttransaction");
@@ -177,6 +181,8 @@ public class FullNodeHttpApiService implements Service {
       context.addServlet(new ServletHolder(getAssetIssueListServlet), "/getassetissuelist");
       context.addServlet(new ServletHolder(getPaginatedAssetIssueListServlet),
           "/getpaginatedassetissuelist");
+      context.addServlet(new ServletHolder(getAssetIssueListAfterServlet),
+          "/getassetissuelistafter");
       context.addServlet(new ServletHolder(getPaginatedProposalListServlet),
           "/getpaginatedproposalist");
       context.addServlet(new ServletHolder(getPaginatedExchangeListServlet),
@@ -205,6 +211,11 @@ public class FullNodeHttpApiService implements Service {
       context.addServlet(new ServletHolder(listExchangesServlet), "/listexchanges");
       context.addServlet(new ServletHolder(getChainParametersServlet), "/getchainparameters");
       context.addServlet(new ServletHolder(getAccountResourceServlet), "/getaccountresource");
+      ServletHolder subscribeBlockEventsHolder = new ServletHolder(subscribeBlockEventsServlet);
+      subscribeBlockEventsHolder.setAsyncSupported(true);
+      context.addServlet(subscribeBlockEventsHolder, "/subscribeblockevents");
+      context.addServlet(new ServletHolder(getLogsServlet), "/getlogs");
+      server = HttpServerFactory.create(port, context);
       server.start();
     } catch (Exception e) {
       logger.debug("IOException: {}", e.getMessage());
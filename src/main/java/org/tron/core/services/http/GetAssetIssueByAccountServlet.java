@@ -2,7 +2,6 @@ package org.tron.core.services.http;
 
 import com.google.protobuf.ByteString;
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -44,8 +43,7 @@ public class GetAssetIssueByAccountServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String account = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String account = Util.getRequestBody(request);
       Account.Builder build = Account.newBuilder();
       JsonFormat.merge(account, build);
       AssetIssueList reply = wallet.getAssetIssueByAccount(build.getAddress());
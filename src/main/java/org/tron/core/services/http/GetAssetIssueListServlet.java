@@ -9,6 +9,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.api.GrpcAPI.AssetIssueList;
 import org.tron.core.Wallet;
+import org.tron.core.db.ResponseCache;
+import org.tron.core.db.ResponseCache.Key;
 
 
 @Component
@@ -17,12 +19,14 @@ public class GetAssetIssueListServlet extends HttpServlet {
 
   @Autowired
   private Wallet wallet;
+  @Autowired
+  private ResponseCache responseCache;
 
   protected void doGet(HttpServletRequest request, HttpServletResponse response) {
     try {
       AssetIssueList reply = wallet.getAssetIssueList();
       if (reply != null) {
-        response.getWriter().println(JsonFormat.printToString(reply));
+        Util.print(responseCache, Key.ASSET_ISSUES, reply, JsonFormat::printToString, response);
       } else {
         response.getWriter().println("{}");
       }
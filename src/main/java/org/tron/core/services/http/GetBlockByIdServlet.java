@@ -2,7 +2,6 @@ package org.tron.core.services.http;
 
 import com.google.protobuf.ByteString;
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -26,7 +25,7 @@ public class GetBlockByIdServlet extends HttpServlet {
       String input = request.getParameter("value");
       Block reply = wallet.getBlockById(ByteString.copyFrom(ByteArray.fromHexString(input)));
       if (reply != null) {
-        response.getWriter().println(Util.printBlock(reply));
+        Util.print(reply, response);
       } else {
         response.getWriter().println("{}");
       }
@@ -42,13 +41,12 @@ public class GetBlockByIdServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String input = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String input = Util.getRequestBody(request);
       BytesMessage.Builder build = BytesMessage.newBuilder();
       JsonFormat.merge(input, build);
       Block reply = wallet.getBlockById(build.getValue());
       if (reply != null) {
-        response.getWriter().println(Util.printBlock(reply));
+        Util.print(reply, response);
       } else {
         response.getWriter().println("{}");
       }
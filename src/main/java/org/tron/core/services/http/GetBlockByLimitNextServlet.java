@@ -1,7 +1,6 @@
 package org.tron.core.services.http;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -27,7 +26,7 @@ public class GetBlockByLimitNextServlet extends HttpServlet {
       if (endNum > 0 && endNum > startNum && endNum - startNum <= BLOCK_LIMIT_NUM) {
         BlockList reply = wallet.getBlocksByLimitNext(startNum, endNum - startNum);
         if (reply != null) {
-          response.getWriter().println(Util.printBlockList(reply));
+          Util.print(reply, response);
           return;
         }
       }
@@ -44,8 +43,7 @@ public class GetBlockByLimitNextServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String input = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String input = Util.getRequestBody(request);
       BlockLimit.Builder build = BlockLimit.newBuilder();
       JsonFormat.merge(input, build);
       long startNum = build.getStartNum();
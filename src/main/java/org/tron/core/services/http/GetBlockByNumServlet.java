@@ -1,7 +1,6 @@
 package org.tron.core.services.http;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -24,7 +23,7 @@ public class GetBlockByNumServlet extends HttpServlet {
       long num = Long.parseLong(request.getParameter("num"));
       Block reply = wallet.getBlockByNum(num);
       if (reply != null) {
-        response.getWriter().println(Util.printBlock(reply));
+        Util.print(reply, response);
       } else {
         response.getWriter().println("{}");
       }
@@ -40,13 +39,12 @@ public class GetBlockByNumServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String input = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String input = Util.getRequestBody(request);
       NumberMessage.Builder build = NumberMessage.newBuilder();
       JsonFormat.merge(input, build);
       Block reply = wallet.getBlockByNum(build.getNum());
       if (reply != null) {
-        response.getWriter().println(Util.printBlock(reply));
+        Util.print(reply, response);
       } else {
         response.getWriter().println("{}");
       }
@@ -8,6 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.core.Wallet;
+import org.tron.core.db.ResponseCache;
+import org.tron.core.db.ResponseCache.Key;
 
 
 @Component
@@ -16,10 +18,13 @@ public class GetChainParametersServlet extends HttpServlet {
 
   @Autowired
   private Wallet wallet;
+  @Autowired
+  private ResponseCache responseCache;
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      response.getWriter().println(JsonFormat.printToString(wallet.getChainParameters()));
+      Util.print(responseCache, Key.CHAIN_PARAMETERS, wallet.getChainParameters(),
+          JsonFormat::printToString, response);
     } catch (Exception e) {
       logger.debug("Exception: {}", e.getMessage());
       try {
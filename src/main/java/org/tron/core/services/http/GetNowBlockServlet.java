@@ -8,6 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.core.Wallet;
+import org.tron.core.db.ResponseCache;
+import org.tron.core.db.ResponseCache.Key;
 import org.tron.protos.Protocol.Block;
 
 
@@ -17,12 +19,14 @@ public class GetNowBlockServlet extends HttpServlet {
 
   @Autowired
   private Wallet wallet;
+  @Autowired
+  private ResponseCache responseCache;
 
   protected void doGet(HttpServletRequest request, HttpServletResponse response) {
     try {
       Block reply = wallet.getNowBlock();
       if (reply != null) {
-        response.getWriter().println(Util.printBlock(reply));
+        Util.print(responseCache, Key.NOW_BLOCK, reply, Util::printToString, response);
       } else {
         response.getWriter().println("{}");
       }
@@ -2,7 +2,6 @@ package org.tron.core.services.http;
 
 import com.google.protobuf.ByteString;
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -27,7 +26,7 @@ public class GetTransactionByIdServlet extends HttpServlet {
       Transaction reply = wallet
           .getTransactionById(ByteString.copyFrom(ByteArray.fromHexString(input)));
       if (reply != null) {
-        response.getWriter().println(Util.printTransaction(reply));
+        Util.print(reply, response);
       } else {
         response.getWriter().println("{}");
       }
@@ -43,13 +42,12 @@ public class GetTransactionByIdServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String input = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String input = Util.getRequestBody(request);
       BytesMessage.Builder build = BytesMessage.newBuilder();
       JsonFormat.merge(input, build);
       Transaction reply = wallet.getTransactionById(build.getValue());
       if (reply != null) {
-        response.getWriter().println(Util.printTransaction(reply));
+        Util.print(reply, response);
       } else {
         response.getWriter().println("{}");
       }
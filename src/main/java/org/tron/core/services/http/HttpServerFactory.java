@@ -0,0 +1,64 @@
+package org.tron.core.services.http;
+
+import java.util.EnumSet;
+import javax.servlet.DispatcherType;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.tron.core.config.args.Args;
+
+/**
+ * Builds the servers of the HTTP APIs. Requests run on a bounded pool with a bounded queue, their
+ * bodies are read without holding a thread, idle connections are closed and large responses are
+ * gzipped for the clients accepting it.
+ */
+public class HttpServerFactory {
+
+  private static final int MIN_THREADS = 8;
+  private static final int THREAD_IDLE_TIMEOUT = 60000;
+
+  private HttpServerFactory() {
+  }
+
+  /**
+   * A server on the port for the context, once its servlets are added.
+   */
+  public static Server create(int port, ServletContextHandler context) {
+    Args args = Args.getInstance();
+
+    int maxThreads = args.getHttpMaxThreads();
+    int minThreads = Math.min(MIN_THREADS, maxThreads);
+    QueuedThreadPool threadPool = new QueuedThreadPool(maxThreads, minThreads, THREAD_IDLE_TIMEOUT,
+        new BlockingArrayQueue<>(minThreads, minThreads, args.getHttpMaxQueuedRequests()));
+    threadPool.setName("http-" + port);
+
+    Server server = new Server(threadPool);
+    ServerConnector connector = new ServerConnector(server);
+    connector.setPort(port);
+    connector.setIdleTimeout(args.getHttpIdleTimeout());
+    server.addConnector(connector);
+
+    // the servlets are dispatched to once the filter read the body
+    for (ServletHolder holder : context.getServletHandler().getServlets()) {
+      holder.setAsyncSupported(true);
+    }
+    FilterHolder bodyFilter = new FilterHolder(
+        new RequestBodyFilter(args.getHttpMaxRequestSize(), args.getHttpIdleTimeout()));
+    bodyFilter.setAsyncSupported(true);
+    context.addFilter(bodyFilter, "/*", EnumSet.of(DispatcherType.REQUEST));
+
+    GzipHandler gzip = new GzipHandler();
+    gzip.setMinGzipSize(args.getHttpMinGzipSize());
+    gzip.setIncludedMethods("GET", "POST");
+    // events are flushed one by one
+    gzip.addExcludedMimeTypes("text/event-stream");
+    gzip.setHandler(context);
+    server.setHandler(gzip);
+    return server;
+  }
+}
@@ -77,9 +77,18 @@ public class JsonFormat {
    * original Protocol Buffer system)
    */
   public static void print(Message message, Appendable output) throws IOException {
+    print(message, output, null);
+  }
+
+  /**
+   * Like {@code print()}, with the customizations of {@code hook} applied while the message is
+   * written, so the output needs no second pass.
+   */
+  public static void print(Message message, Appendable output, PrintHook hook)
+      throws IOException {
     JsonGenerator generator = new JsonGenerator(output);
     generator.print("{");
-    print(message, generator);
+    print(message, generator, hook);
     generator.print("}");
   }
 
@@ -94,13 +103,30 @@ public class JsonFormat {
   }
 
   protected static void print(Message message, JsonGenerator generator) throws IOException {
-    for (Iterator<Map.Entry<FieldDescriptor, Object>> iter = message.getAllFields().entrySet()
-        .iterator(); iter.hasNext(); ) {
-      Map.Entry<FieldDescriptor, Object> field = iter.next();
-      printField(field.getKey(), field.getValue(), generator);
-      if (iter.hasNext()) {
+    print(message, generator, null);
+  }
+
+  protected static void print(Message message, JsonGenerator generator, PrintHook hook)
+      throws IOException {
+    boolean firstField = true;
+    for (Map.Entry<FieldDescriptor, Object> field : message.getAllFields().entrySet()) {
+      if (!firstField) {
         generator.print(",");
       }
+      printSingleField(field.getKey(), field.getValue(), generator, hook);
+      firstField = false;
+    }
+    if (hook != null) {
+      for (Map.Entry<String, String> field : hook.getExtraFields(message).entrySet()) {
+        if (!firstField) {
+          generator.print(",");
+        }
+        generator.print("\"");
+        generator.print(field.getKey());
+        generator.print("\": ");
+        generator.print(field.getValue());
+        firstField = false;
+      }
     }
     if (message.getUnknownFields().asMap().size() > 0) {
       generator.print(", ");
@@ -152,12 +178,12 @@ public class JsonFormat {
   public static void printField(FieldDescriptor field, Object value, JsonGenerator generator)
       throws IOException {
 
-    printSingleField(field, value, generator);
+    printSingleField(field, value, generator, null);
   }
 
   private static void printSingleField(FieldDescriptor field,
       Object value,
-      JsonGenerator generator) throws IOException {
+      JsonGenerator generator, PrintHook hook) throws IOException {
     if (field.isExtension()) {
       generator.print("\"");
       // We special-case MessageSet elements for compatibility with proto1.
@@ -194,22 +220,25 @@ public class JsonFormat {
       // Repeated field. Print each element.
       generator.print("[");
       for (Iterator<?> iter = ((List<?>) value).iterator(); iter.hasNext(); ) {
-        printFieldValue(field, iter.next(), generator);
+        printFieldValue(field, iter.next(), generator, hook);
         if (iter.hasNext()) {
           generator.print(",");
         }
       }
       generator.print("]");
     } else {
-      printFieldValue(field, value, generator);
+      printFieldValue(field, value, generator, hook);
       if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
         generator.outdent();
       }
     }
   }
 
-  private static void printFieldValue(FieldDescriptor field, Object value, JsonGenerator generator)
-      throws IOException {
+  private static void printFieldValue(FieldDescriptor field, Object value, JsonGenerator generator,
+      PrintHook hook) throws IOException {
+    if (hook != null && hook.printFieldValue(field, value, generator)) {
+      return;
+    }
     switch (field.getType()) {
       case INT32:
       case INT64:
@@ -257,13 +286,32 @@ public class JsonFormat {
       case MESSAGE:
       case GROUP:
         generator.print("{");
-        print((Message) value, generator);
+        print((Message) value, generator, hook);
         generator.print("}");
         break;
       default:
     }
   }
 
+  /**
+   * Customizes the output of {@link #print(Message, Appendable, PrintHook)}, for all messages of
+   * the printed tree.
+   */
+  public interface PrintHook {
+
+    /**
+     * Prints one value of the field, after its name, and returns true, or returns false to print
+     * it as usual.
+     */
+    boolean printFieldValue(FieldDescriptor field, Object value, JsonGenerator generator)
+        throws IOException;
+
+    /**
+     * Fields printed after the ones of the message, by name, the values are JSON.
+     */
+    Map<String, String> getExtraFields(Message message);
+  }
+
   protected static void printUnknownFields(UnknownFieldSet unknownFields, JsonGenerator generator)
       throws IOException {
     boolean firstField = true;
@@ -0,0 +1,215 @@
+package org.tron.core.services.http;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the body of a request as it arrives, without holding a thread, then dispatches the
+ * request to its servlet with the body in memory. Bodies over the size limit are refused with 413,
+ * bodies not read in full within the timeout with 408.
+ */
+@Slf4j
+public class RequestBodyFilter implements Filter {
+
+  private final int maxSize;
+  private final long timeout;
+
+  public RequestBodyFilter(int maxSize, long timeout) {
+    this.maxSize = maxSize;
+    this.timeout = timeout;
+  }
+
+  @Override
+  public void init(FilterConfig filterConfig) {
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain chain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    HttpServletResponse response = (HttpServletResponse) servletResponse;
+    long length = request.getContentLengthLong();
+    if (length > maxSize) {
+      response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+      return;
+    }
+    // neither a length nor chunks, there's no body
+    if (length == 0 || length < 0 && request.getHeader("Transfer-Encoding") == null) {
+      chain.doFilter(request, response);
+      return;
+    }
+    BufferedRequest buffered = new BufferedRequest(request);
+    AsyncContext async = request.startAsync(buffered, response);
+    async.setTimeout(timeout);
+    ServletInputStream input = request.getInputStream();
+    BodyReader reader = new BodyReader(async, input, buffered,
+        length > 0 ? (int) length : 1024);
+    async.addListener(reader);
+    input.setReadListener(reader);
+  }
+
+  @Override
+  public void destroy() {
+  }
+
+  /**
+   * Keeps the bytes read until the body ends, then hands them to the request.
+   */
+  private class BodyReader implements ReadListener, AsyncListener {
+
+    private final AsyncContext async;
+    private final ServletInputStream input;
+    private final BufferedRequest request;
+    private final ByteArrayOutputStream body;
+    private final byte[] buffer = new byte[8192];
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private BodyReader(AsyncContext async, ServletInputStream input, BufferedRequest request,
+        int size) {
+      this.async = async;
+      this.input = input;
+      this.request = request;
+      this.body = new ByteArrayOutputStream(size);
+    }
+
+    @Override
+    public void onDataAvailable() throws IOException {
+      while (input.isReady()) {
+        int read = input.read(buffer);
+        if (read < 0) {
+          return;
+        }
+        if (body.size() + read > maxSize) {
+          fail(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+          return;
+        }
+        body.write(buffer, 0, read);
+      }
+    }
+
+    @Override
+    public void onAllDataRead() {
+      if (done.compareAndSet(false, true)) {
+        request.body = body.toByteArray();
+        async.dispatch();
+      }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      logger.debug("failed to read the body of {}: {}", request.getRequestURI(), t.getMessage());
+      fail(HttpServletResponse.SC_BAD_REQUEST);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      fail(HttpServletResponse.SC_REQUEST_TIMEOUT);
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void fail(int status) {
+      if (done.compareAndSet(false, true)) {
+        ((HttpServletResponse) async.getResponse()).setStatus(status);
+        async.complete();
+      }
+    }
+  }
+
+  /**
+   * A request reading its body from memory.
+   */
+  private static class BufferedRequest extends HttpServletRequestWrapper {
+
+    private volatile byte[] body;
+
+    private BufferedRequest(HttpServletRequest request) {
+      super(request);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream input = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public boolean isFinished() {
+          return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+          try {
+            listener.onDataAvailable();
+            listener.onAllDataRead();
+          } catch (IOException e) {
+            listener.onError(e);
+          }
+        }
+
+        @Override
+        public int read() {
+          return input.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return input.read(b, off, len);
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      // ISO-8859-1 without an encoding, as the container reads it
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+      return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), charset));
+    }
+
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body.length;
+    }
+  }
+}
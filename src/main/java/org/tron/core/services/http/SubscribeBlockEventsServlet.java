@@ -0,0 +1,177 @@
+package org.tron.core.services.http;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.tron.api.GrpcAPI.BlockEvent;
+import org.tron.api.GrpcAPI.BlockEventFilter;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.db.Manager;
+import org.tron.core.event.BlockEventBus;
+import org.tron.core.event.BlockEventBus.Subscription;
+
+/**
+ * Server-sent events of the blocks applied, removed and solidified, for the filter of the query:
+ * hex <code>address</code>, <code>contract_address</code> and <code>topic</code> parameters,
+ * repeated or comma separated, and the <code>matched_only</code> and <code>solidified</code>
+ * flags. Events are written without blocking a thread while the client reads them, the servlet
+ * must be async supported.
+ */
+@Component
+@Slf4j
+public class SubscribeBlockEventsServlet extends HttpServlet {
+
+  @Autowired
+  private Manager dbManager;
+
+  protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+    BlockEventFilter filter;
+    try {
+      filter = getFilter(request);
+    } catch (Exception e) {
+      logger.debug("Exception: {}", e.getMessage());
+      try {
+        response.getWriter().println(Util.printErrorMsg(e));
+      } catch (IOException ioe) {
+        logger.debug("IOException: {}", ioe.getMessage());
+      }
+      return;
+    }
+
+    response.setContentType("text/event-stream");
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader("Cache-Control", "no-cache");
+    AsyncContext async = request.startAsync();
+    async.setTimeout(0);
+    try {
+      EventSink sink = new EventSink(async, response.getOutputStream());
+      Subscription subscription = dbManager.getBlockEventBus().subscribe(filter, sink);
+      if (subscription == null) {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        async.complete();
+        return;
+      }
+      async.addListener(new AsyncListener() {
+        @Override
+        public void onComplete(AsyncEvent event) {
+          subscription.cancel();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+          subscription.cancel();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+          subscription.cancel();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+      });
+      sink.out.setWriteListener(new WriteListener() {
+        @Override
+        public void onWritePossible() {
+          sink.started = true;
+          subscription.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+          logger.debug("Exception: {}", t.getMessage());
+          subscription.close(null);
+        }
+      });
+    } catch (IOException e) {
+      logger.debug("IOException: {}", e.getMessage());
+      async.complete();
+    }
+  }
+
+  private static BlockEventFilter getFilter(HttpServletRequest request) {
+    return BlockEventFilter.newBuilder()
+        .addAllAddress(getBytes(request, "address"))
+        .addAllContractAddress(getBytes(request, "contract_address"))
+        .addAllTopic(getBytes(request, "topic"))
+        .setMatchedOnly(Boolean.parseBoolean(request.getParameter("matched_only")))
+        .setSolidified(Boolean.parseBoolean(request.getParameter("solidified")))
+        .build();
+  }
+
+  private static List<ByteString> getBytes(HttpServletRequest request, String name) {
+    String[] values = request.getParameterValues(name);
+    if (values == null) {
+      return Collections.emptyList();
+    }
+    return Arrays.stream(values)
+        .flatMap(value -> Arrays.stream(value.split(",")))
+        .filter(StringUtils::isNotBlank)
+        .map(value -> ByteString.copyFrom(ByteArray.fromHexString(value.trim())))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Writes the events to the response in non-blocking mode, once the container called the write
+   * listener.
+   */
+  private static class EventSink implements BlockEventBus.Sink {
+
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private volatile boolean started;
+
+    private EventSink(AsyncContext async, ServletOutputStream out) {
+      this.async = async;
+      this.out = out;
+    }
+
+    @Override
+    public boolean isReady() {
+      return started && out.isReady();
+    }
+
+    @Override
+    public void send(BlockEvent event) throws IOException {
+      String data = Util.printToString(event).replace("\n", "\ndata: ");
+      out.write(("event: " + event.getType().name().toLowerCase() + "\n"
+          + "id: " + event.getNum() + "\n"
+          + "data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+
+    @Override
+    public void close(String error) {
+      try {
+        if (error != null && isReady()) {
+          out.write(("event: error\ndata: " + error.replace("\n", " ") + "\n\n")
+              .getBytes(StandardCharsets.UTF_8));
+        }
+      } catch (IOException e) {
+        logger.debug("IOException: {}", e.getMessage());
+      }
+      async.complete();
+    }
+  }
+}
@@ -2,9 +2,22 @@ package org.tron.core.services.http;
 
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
+import com.google.common.io.CharStreams;
 import com.google.protobuf.Any;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
-import java.util.List;
+import com.google.protobuf.Message;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.api.GrpcAPI.BlockList;
 import org.tron.api.GrpcAPI.EasyTransferResponse;
@@ -13,9 +26,13 @@ import org.tron.api.GrpcAPI.TransactionList;
 import org.tron.common.crypto.Hash;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.Sha256Hash;
-import org.tron.core.capsule.BlockCapsule;
-import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.db.ResponseCache;
+import org.tron.core.db.ResponseCache.Key;
+import org.tron.core.services.http.JsonFormat.JsonGenerator;
 import org.tron.core.services.http.JsonFormat.ParseException;
+import org.tron.core.services.http.JsonFormat.PrintHook;
+import org.tron.protos.Contract;
 import org.tron.protos.Contract.AccountCreateContract;
 import org.tron.protos.Contract.AccountUpdateContract;
 import org.tron.protos.Contract.AssetIssueContract;
@@ -41,8 +58,10 @@ import org.tron.protos.Contract.WithdrawBalanceContract;
 import org.tron.protos.Contract.WitnessCreateContract;
 import org.tron.protos.Contract.WitnessUpdateContract;
 import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.BlockHeader;
 import org.tron.protos.Protocol.SmartContract;
 import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
 
 
 @Slf4j
@@ -54,70 +73,151 @@ public class Util {
     return jsonObject.toJSONString();
   }
 
-  public static String printBlockList(BlockList list) {
-    List<Block> blocks = list.getBlockList();
-    JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(list));
-    JSONArray jsonArray = new JSONArray();
-    blocks.stream().forEach(block -> {
-      jsonArray.add(printBlockToJSON(block));
-    });
-    jsonObject.put("block", jsonArray);
+  /**
+   * Prints blocks with their ids and transactions with their ids and their contracts unpacked,
+   * in the same pass as the rest of the message.
+   */
+  private static final PrintHook PRINT_HOOK = new PrintHook() {
 
-    return jsonObject.toJSONString();
+    private final FieldDescriptor contractParameter = Transaction.Contract.getDescriptor()
+        .findFieldByNumber(Transaction.Contract.PARAMETER_FIELD_NUMBER);
+
+    @Override
+    public boolean printFieldValue(FieldDescriptor field, Object value,
+        JsonGenerator generator) throws IOException {
+      if (field != contractParameter) {
+        return false;
+      }
+      Any parameter = (Any) value;
+      generator.print("{\"value\": ");
+      Message contract = unpack(parameter);
+      if (contract != null) {
+        generator.print("{");
+        JsonFormat.print(contract, generator, this);
+        generator.print("}");
+      } else {
+        generator.print("null");
+      }
+      generator.print(",\"type_url\": \"");
+      generator.print(parameter.getTypeUrl());
+      generator.print("\"}");
+      return true;
+    }
+
+    @Override
+    public Map<String, String> getExtraFields(Message message) {
+      if (message instanceof Block) {
+        BlockHeader.raw header = ((Block) message).getBlockHeader().getRawData();
+        BlockId blockId = new BlockId(Sha256Hash.of(header.toByteArray()), header.getNumber());
+        return Collections.singletonMap("blockID",
+            "\"" + ByteArray.toHexString(blockId.getBytes()) + "\"");
+      }
+      if (message instanceof Transaction) {
+        Transaction transaction = (Transaction) message;
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (Transaction.Contract contract : transaction.getRawData().getContractList()) {
+          if (contract.getType() == ContractType.CreateSmartContract) {
+            try {
+              byte[] ownerAddress = contract.getParameter().unpack(CreateSmartContract.class)
+                  .getOwnerAddress().toByteArray();
+              fields.put("contract_address", "\""
+                  + ByteArray.toHexString(generateContractAddress(transaction, ownerAddress))
+                  + "\"");
+            } catch (InvalidProtocolBufferException e) {
+              logger.debug("InvalidProtocolBufferException: {}", e.getMessage());
+            }
+          }
+        }
+        fields.put("txID", "\""
+            + ByteArray.toHexString(Sha256Hash.hash(transaction.getRawData().toByteArray()))
+            + "\"");
+        return fields;
+      }
+      return Collections.emptyMap();
+    }
+  };
+
+  // contract messages by full name, to unpack contracts by their type url
+  private static final Map<String, Descriptor> CONTRACT_TYPES = Contract.getDescriptor()
+      .getMessageTypes().stream()
+      .collect(Collectors.toMap(Descriptor::getFullName, Function.identity()));
+
+  private static Message unpack(Any any) {
+    String typeUrl = any.getTypeUrl();
+    Descriptor descriptor = CONTRACT_TYPES.get(typeUrl.substring(typeUrl.lastIndexOf('/') + 1));
+    if (descriptor == null) {
+      return null;
+    }
+    try {
+      return DynamicMessage.parseFrom(descriptor, any.getValue());
+    } catch (InvalidProtocolBufferException e) {
+      logger.debug("InvalidProtocolBufferException: {}", e.getMessage());
+      return null;
+    }
   }
 
-  public static String printBlock(Block block) {
-    return printBlockToJSON(block).toJSONString();
+  /**
+   * Prints the message as the HTTP API does, straight to the response, followed by a line
+   * separator.
+   */
+  public static void print(Message message, HttpServletResponse response) throws IOException {
+    PrintWriter writer = response.getWriter();
+    JsonFormat.print(message, writer, PRINT_HOOK);
+    writer.println();
   }
 
-  public static JSONObject printBlockToJSON(Block block) {
-    BlockCapsule blockCapsule = new BlockCapsule(block);
-    String blockID = ByteArray.toHexString(blockCapsule.getBlockId().getBytes());
-    JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(block));
-    jsonObject.put("blockID", blockID);
-    if (!blockCapsule.getTransactions().isEmpty()) {
-      jsonObject.put("transactions", printTransactionListToJSON(blockCapsule.getTransactions()));
+  /**
+   * Prints the message with the printer, followed by a line separator, from the bytes cached
+   * with it when it's the cached response of the key.
+   */
+  public static void print(ResponseCache cache, Key key, Message message,
+      Function<Message, String> printer, HttpServletResponse response) throws IOException {
+    byte[] json = cache.getJson(key, message,
+        cached -> printer.apply(cached) + System.lineSeparator());
+    response.setCharacterEncoding("UTF-8");
+    response.getOutputStream().write(json);
+  }
+
+  /**
+   * The body of the request as it was sent, decoded with the encoding of the request.
+   */
+  public static String getRequestBody(HttpServletRequest request) throws IOException {
+    return CharStreams.toString(request.getReader());
+  }
+
+  static String printToString(Message message) {
+    try {
+      StringBuilder text = new StringBuilder();
+      JsonFormat.print(message, text, PRINT_HOOK);
+      return text.toString();
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Writing to a StringBuilder threw an IOException (should never happen).", e);
     }
-    return jsonObject;
   }
 
-  public static String printTransactionList(TransactionList list) {
-    List<Transaction> transactions = list.getTransactionList();
-    JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(list));
-    JSONArray jsonArray = new JSONArray();
-    transactions.stream().forEach(transaction -> {
-      jsonArray.add(printTransactionToJSON(transaction));
-    });
-    jsonObject.put("transaction", jsonArray);
+  public static String printBlockList(BlockList list) {
+    return printToString(list);
+  }
 
-    return jsonObject.toJSONString();
+  public static String printBlock(Block block) {
+    return printToString(block);
   }
 
-  public static JSONArray printTransactionListToJSON(List<TransactionCapsule> list) {
-    JSONArray transactions = new JSONArray();
-    list.stream().forEach(transactionCapsule -> {
-      transactions.add(printTransactionToJSON(transactionCapsule.getInstance()));
-    });
-    return transactions;
+  public static String printTransactionList(TransactionList list) {
+    return printToString(list);
   }
 
   public static String printEasyTransferResponse(EasyTransferResponse response) {
-    JSONObject jsonResponse = JSONObject.parseObject(JsonFormat.printToString(response));
-    jsonResponse.put("transaction", printTransactionToJSON(response.getTransaction()));
-    return jsonResponse.toJSONString();
+    return printToString(response);
   }
 
   public static String printTransaction(Transaction transaction) {
-    return printTransactionToJSON(transaction).toJSONString();
+    return printToString(transaction);
   }
 
   public static String printTransactionExtention(TransactionExtention transactionExtention) {
-    String string = JsonFormat.printToString(transactionExtention);
-    JSONObject jsonObject = JSONObject.parseObject(string);
-    if (transactionExtention.getResult().getResult()) {
-      jsonObject.put("transaction", printTransactionToJSON(transactionExtention.getTransaction()));
-    }
-    return jsonObject.toJSONString();
+    return printToString(transactionExtention);
   }
 
   public static byte[] generateContractAddress(Transaction trx, byte[] ownerAddress) {
@@ -132,164 +232,6 @@ public class Util {
     return Hash.sha3omit12(combined);
   }
 
-  public static JSONObject printTransactionToJSON(Transaction transaction) {
-    JSONObject jsonTransaction = JSONObject.parseObject(JsonFormat.printToString(transaction));
-    JSONArray contracts = new JSONArray();
-    transaction.getRawData().getContractList().stream().forEach(contract -> {
-      try {
-        JSONObject contractJson = null;
-        Any contractParameter = contract.getParameter();
-        switch (contract.getType()) {
-          case AccountCreateContract:
-            AccountCreateContract accountCreateContract = contractParameter
-                .unpack(AccountCreateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(accountCreateContract));
-            break;
-          case TransferContract:
-            TransferContract transferContract = contractParameter.unpack(TransferContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(transferContract));
-            break;
-          case TransferAssetContract:
-            TransferAssetContract transferAssetContract = contractParameter
-                .unpack(TransferAssetContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(transferAssetContract));
-            break;
-          case VoteAssetContract:
-            VoteAssetContract voteAssetContract = contractParameter.unpack(VoteAssetContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(voteAssetContract));
-            break;
-          case VoteWitnessContract:
-            VoteWitnessContract voteWitnessContract = contractParameter
-                .unpack(VoteWitnessContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(voteWitnessContract));
-            break;
-          case WitnessCreateContract:
-            WitnessCreateContract witnessCreateContract = contractParameter
-                .unpack(WitnessCreateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(witnessCreateContract));
-            break;
-          case AssetIssueContract:
-            AssetIssueContract assetIssueContract = contractParameter
-                .unpack(AssetIssueContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(assetIssueContract));
-            break;
-          case WitnessUpdateContract:
-            WitnessUpdateContract witnessUpdateContract = contractParameter
-                .unpack(WitnessUpdateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(witnessUpdateContract));
-            break;
-          case ParticipateAssetIssueContract:
-            ParticipateAssetIssueContract participateAssetIssueContract = contractParameter
-                .unpack(ParticipateAssetIssueContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(participateAssetIssueContract));
-            break;
-          case AccountUpdateContract:
-            AccountUpdateContract accountUpdateContract = contractParameter
-                .unpack(AccountUpdateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(accountUpdateContract));
-            break;
-          case FreezeBalanceContract:
-            FreezeBalanceContract freezeBalanceContract = contractParameter
-                .unpack(FreezeBalanceContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(freezeBalanceContract));
-            break;
-          case UnfreezeBalanceContract:
-            UnfreezeBalanceContract unfreezeBalanceContract = contractParameter
-                .unpack(UnfreezeBalanceContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(unfreezeBalanceContract));
-            break;
-          case UnfreezeAssetContract:
-            UnfreezeAssetContract unfreezeAssetContract = contractParameter
-                .unpack(UnfreezeAssetContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(unfreezeAssetContract));
-            break;
-          case WithdrawBalanceContract:
-            WithdrawBalanceContract withdrawBalanceContract = contractParameter
-                .unpack(WithdrawBalanceContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(withdrawBalanceContract));
-            break;
-          case UpdateAssetContract:
-            UpdateAssetContract updateAssetContract = contractParameter
-                .unpack(UpdateAssetContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(updateAssetContract));
-            break;
-          case CreateSmartContract:
-            CreateSmartContract deployContract = contractParameter
-                .unpack(CreateSmartContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(deployContract));
-            byte[] ownerAddress = deployContract.getOwnerAddress().toByteArray();
-            byte[] contractAddress = generateContractAddress(transaction, ownerAddress);
-            jsonTransaction.put("contract_address", ByteArray.toHexString(contractAddress));
-            break;
-          case TriggerSmartContract:
-            TriggerSmartContract triggerSmartContract = contractParameter
-                .unpack(TriggerSmartContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(triggerSmartContract));
-            break;
-          case ProposalCreateContract:
-            ProposalCreateContract proposalCreateContract = contractParameter
-                .unpack(ProposalCreateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(proposalCreateContract));
-            break;
-          case ProposalApproveContract:
-            ProposalApproveContract proposalApproveContract = contractParameter
-                .unpack(ProposalApproveContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(proposalApproveContract));
-            break;
-          case ProposalDeleteContract:
-            ProposalDeleteContract proposalDeleteContract = contractParameter
-                .unpack(ProposalDeleteContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(proposalDeleteContract));
-            break;
-          case ExchangeCreateContract:
-            ExchangeCreateContract exchangeCreateContract = contractParameter
-                .unpack(ExchangeCreateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(exchangeCreateContract));
-            break;
-          case ExchangeInjectContract:
-            ExchangeInjectContract exchangeInjectContract = contractParameter
-                .unpack(ExchangeInjectContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(exchangeInjectContract));
-            break;
-          case ExchangeWithdrawContract:
-            ExchangeWithdrawContract exchangeWithdrawContract = contractParameter
-                .unpack(ExchangeWithdrawContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(exchangeWithdrawContract));
-            break;
-          case ExchangeTransactionContract:
-            ExchangeTransactionContract exchangeTransactionContract = contractParameter
-                .unpack(ExchangeTransactionContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(exchangeTransactionContract));
-            break;
-          // todo add other contract
-          default:
-        }
-        JSONObject parameter = new JSONObject();
-        parameter.put("value", contractJson);
-        parameter.put("type_url", contract.getParameterOrBuilder().getTypeUrl());
-        JSONObject jsonContract = new JSONObject();
-        jsonContract.put("parameter", parameter);
-        jsonContract.put("type", contract.getType());
-        contracts.add(jsonContract);
-      } catch (InvalidProtocolBufferException e) {
-        logger.debug("InvalidProtocolBufferException: {}", e.getMessage());
-      }
-    });
-
-    JSONObject rawData = JSONObject.parseObject(jsonTransaction.get("raw_data").toString());
-    rawData.put("contract", contracts);
-    jsonTransaction.put("raw_data", rawData);
-    String txID = ByteArray.toHexString(Sha256Hash.hash(transaction.getRawData().toByteArray()));
-    jsonTransaction.put("txID", txID);
-    return jsonTransaction;
-  }
-
   public static Transaction packTransaction(String strTransaction) {
     JSONObject jsonTransaction = JSONObject.parseObject(strTransaction);
     JSONObject rawData = jsonTransaction.getJSONObject("raw_data");
@@ -2,7 +2,6 @@ package org.tron.core.services.http.solidity;
 
 import com.google.protobuf.ByteString;
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -29,7 +28,7 @@ public class GetTransactionByIdSolidityServlet extends HttpServlet {
       Transaction reply = walletSolidity
           .getTransactionById(ByteString.copyFrom(ByteArray.fromHexString(input)));
       if (reply != null) {
-        response.getWriter().println(Util.printTransaction(reply));
+        Util.print(reply, response);
       } else {
         response.getWriter().println("{}");
       }
@@ -45,13 +44,12 @@ public class GetTransactionByIdSolidityServlet extends HttpServlet {
 
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String input = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String input = Util.getRequestBody(request);
       BytesMessage.Builder build = BytesMessage.newBuilder();
       JsonFormat.merge(input, build);
       Transaction reply = walletSolidity.getTransactionById(build.build().getValue());
       if (reply != null) {
-        response.getWriter().println(Util.printTransaction(reply));
+        Util.print(reply, response);
       } else {
         response.getWriter().println("{}");
       }
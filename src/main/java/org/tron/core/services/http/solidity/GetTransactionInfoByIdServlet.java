@@ -2,7 +2,6 @@ package org.tron.core.services.http.solidity;
 
 import com.google.protobuf.ByteString;
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -13,6 +12,7 @@ import org.tron.api.GrpcAPI.BytesMessage;
 import org.tron.common.utils.ByteArray;
 import org.tron.core.WalletSolidity;
 import org.tron.core.services.http.JsonFormat;
+import org.tron.core.services.http.Util;
 import org.tron.protos.Protocol.TransactionInfo;
 
 
@@ -47,8 +47,7 @@ public class GetTransactionInfoByIdServlet extends HttpServlet {
   @Override
   protected void doPost(HttpServletRequest request, HttpServletResponse response) {
     try {
-      String input = request.getReader().lines()
-          .collect(Collectors.joining(System.lineSeparator()));
+      String input = Util.getRequestBody(request);
       BytesMessage.Builder build = BytesMessage.newBuilder();
       JsonFormat.merge(input, build);
       TransactionInfo transInfo = walletSolidity.getTransactionInfoById(build.build().getValue());
@@ -2,7 +2,6 @@ package org.tron.core.services.http.solidity;
 
 import com.google.protobuf.ByteString;
 import java.io.IOException;
-import java.util.stream.Collectors;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -25,7 +24,7 @@ public class GetTransactionsFromThisServlet extends HttpServlet {
   @Override
   protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
     try {
-      String input = req.getReader().lines().collect(Collectors.joining(System.lineSeparator()));
+      String input = Util.getRequestBody(req);
       AccountPaginated.Builder builder = AccountPaginated.newBuilder();
       JsonFormat.merge(input, builder);
       AccountPaginated accountPaginated = builder.build();
@@ -34,7 +33,7 @@ public class GetTransactionsFromThisServlet extends HttpServlet {
       long limit = accountPaginated.getLimit();
       if (thisAddress != null && offset >= 0 && limit >= 0) {
         TransactionList list = walletSolidity.getTransactionsFromThis(thisAddress, offset, limit);
-        resp.getWriter().println(Util.printTransactionList(list));
+        Util.print(list, resp);
       } else {
         resp.getWriter().print("{}");
       }
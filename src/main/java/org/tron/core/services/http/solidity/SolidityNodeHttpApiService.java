@@ -11,8 +11,10 @@ import org.tron.core.config.args.Args;
 import org.tron.core.services.http.GetAccountServlet;
 import org.tron.core.services.http.GetAssetIssueListServlet;
 import org.tron.core.services.http.GetBlockByNumServlet;
+import org.tron.core.services.http.GetLogsServlet;
 import org.tron.core.services.http.GetNowBlockServlet;
 import org.tron.core.services.http.GetPaginatedAssetIssueListServlet;
+import org.tron.core.services.http.HttpServerFactory;
 import org.tron.core.services.http.ListWitnessesServlet;
 
 @Component
@@ -46,6 +48,8 @@ public class SolidityNodeHttpApiService implements Service {
   private GetNowBlockServlet getNowBlockServlet;
   @Autowired
   private GetBlockByNumServlet getBlockByNumServlet;
+  @Autowired
+  private GetLogsServlet getLogsServlet;
 
 
   @Override
@@ -62,10 +66,8 @@ public class SolidityNodeHttpApiService implements Service {
   public void start() {
     Args args = Args.getInstance();
     try {
-      server = new Server(port);
       ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
       context.setContextPath("/");
-      server.setHandler(context);
 
       // same as FullNode
       context.addServlet(new ServletHolder(accountServlet), "/walletsolidity/getaccount");
@@ -76,6 +78,7 @@ public class SolidityNodeHttpApiService implements Service {
           "/walletsolidity/getpaginatedassetissuelist");
       context.addServlet(new ServletHolder(getNowBlockServlet), "/walletsolidity/getnowblock");
       context.addServlet(new ServletHolder(getBlockByNumServlet), "/walletsolidity/getblockbynum");
+      context.addServlet(new ServletHolder(getLogsServlet), "/walletsolidity/getlogs");
 
       // only for SolidityNode
       context.addServlet(new ServletHolder(getTransactionByIdServlet),
@@ -93,6 +96,7 @@ public class SolidityNodeHttpApiService implements Service {
                 "/walletextension/gettransactionstothis");
       }
 
+      server = HttpServerFactory.create(port, context);
       server.start();
     } catch (Exception e) {
       logger.debug("IOException: {}", e.getMessage());
@@ -1,7 +1,10 @@
 package org.tron.program;
 
 import ch.qos.logback.classic.Level;
+import java.io.File;
+import java.io.IOException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
@@ -11,6 +14,7 @@ import org.tron.common.application.TronApplicationContext;
 import org.tron.core.Constant;
 import org.tron.core.config.DefaultConfig;
 import org.tron.core.config.args.Args;
+import org.tron.core.db.StateSnapshot;
 import org.tron.core.services.RpcApiService;
 import org.tron.core.services.WitnessService;
 import org.tron.core.services.http.FullNodeHttpApiService;
@@ -40,6 +44,27 @@ public class FullNode {
       logger.info("not in debug mode, it will check energy time");
     }
 
+    if (StringUtils.isNotEmpty(cfgArgs.getSnapshotExport())) {
+      try {
+        StateSnapshot.exportTo(new File(cfgArgs.getSnapshotExport()));
+      } catch (IOException e) {
+        logger.error("Export of the state snapshot failed", e);
+        System.exit(1);
+      }
+      return;
+    }
+
+    if (StringUtils.isNotEmpty(cfgArgs.getSnapshotImport())) {
+      try {
+        StateSnapshot.importFrom(new File(cfgArgs.getSnapshotImport()), cfgArgs.getSnapshotHash());
+      } catch (IOException e) {
+        logger.error("Import of the state snapshot failed", e);
+        logger.error("Please delete database directory({}) before retrying",
+            cfgArgs.getOutputDirectory());
+        System.exit(1);
+      }
+    }
+
     DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
     beanFactory.setAllowCircularReferences(false);
     TronApplicationContext context =
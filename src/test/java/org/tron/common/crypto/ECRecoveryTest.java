@@ -0,0 +1,116 @@
+package org.tron.common.crypto;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.protobuf.ByteString;
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Random;
+import org.junit.Test;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.core.capsule.TransactionCapsule;
+
+public class ECRecoveryTest {
+
+  @Test
+  public void testSameAsECKey() throws Exception {
+    Random random = new Random(0);
+    for (int i = 0; i < 50; i++) {
+      byte[] priv = new byte[32];
+      random.nextBytes(priv);
+      ECKey key = ECKey.fromPrivate(priv);
+      byte[] hash = new byte[32];
+      random.nextBytes(hash);
+      byte[] sig = key.sign(hash).toByteArray();
+
+      String base64 = TransactionCapsule.getBase64FromByteString(ByteString.copyFrom(sig));
+      assertArrayEquals(ECKey.signatureToAddress(hash, base64),
+          ECRecovery.signatureToAddress(hash, sig));
+      assertArrayEquals(key.getAddress(), ECRecovery.signatureToAddress(hash, sig));
+    }
+  }
+
+  @Test
+  public void testHeaderWithOffset() throws Exception {
+    ECKey key = new ECKey();
+    byte[] hash = Hash.sha3("header".getBytes());
+    ECDSASignature signature = key.sign(hash);
+    byte[] sig = signature.toByteArray();
+    // v stored as 27/28 instead of the recovery id
+    sig[64] += 27;
+    assertArrayEquals(key.getAddress(), ECRecovery.signatureToAddress(hash, sig));
+  }
+
+  @Test
+  public void testBatchSameAsSingle() throws Exception {
+    Random random = new Random(1);
+    int n = 40;
+    byte[][] hashes = new byte[n][32];
+    byte[][] sigs = new byte[n][];
+    for (int i = 0; i < n; i++) {
+      random.nextBytes(hashes[i]);
+      sigs[i] = new ECKey().sign(hashes[i]).toByteArray();
+    }
+    // truncated, header out of range, x not on the curve, r == 0
+    sigs[3] = new byte[64];
+    sigs[7][64] = 40;
+    sigs[11] = new byte[65];
+    sigs[11][31] = 5;
+    sigs[13] = new byte[65];
+    sigs[13][63] = 1;
+
+    byte[][] addresses = ECRecovery.signaturesToAddresses(hashes, sigs);
+    assertEquals(n, addresses.length);
+    for (int i = 0; i < n; i++) {
+      byte[] expected;
+      try {
+        expected = ECRecovery.signatureToAddress(hashes[i], sigs[i]);
+      } catch (SignatureException | IllegalArgumentException | ArithmeticException e) {
+        expected = null;
+      }
+      if (expected == null) {
+        assertNull(addresses[i]);
+      } else {
+        assertArrayEquals(expected, addresses[i]);
+      }
+    }
+    assertNull(addresses[3]);
+    assertNull(addresses[7]);
+    assertNull(addresses[11]);
+    assertNull(addresses[13]);
+    assertEquals(0, ECRecovery.signaturesToAddresses(new byte[0][], new byte[0][]).length);
+  }
+
+  @Test
+  public void testInvertAll() {
+    Random random = new Random(2);
+    BigInteger n = ECKey.CURVE.getN();
+    BigInteger[] values = new BigInteger[20];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i % 5 == 0 ? null : new BigInteger(255, random).add(BigInteger.ONE);
+    }
+    BigInteger[] inverses = values.clone();
+    ECRecovery.invertAll(inverses);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        assertNull(inverses[i]);
+      } else {
+        assertEquals(values[i].modInverse(n), inverses[i]);
+      }
+    }
+  }
+
+  @Test(expected = SignatureException.class)
+  public void testTruncatedSignature() throws Exception {
+    ECRecovery.signatureToAddress(new byte[32], new byte[64]);
+  }
+
+  @Test(expected = SignatureException.class)
+  public void testHeaderOutOfRange() throws Exception {
+    byte[] sig = new byte[65];
+    sig[64] = 40;
+    ECRecovery.signatureToAddress(new byte[32], sig);
+  }
+}
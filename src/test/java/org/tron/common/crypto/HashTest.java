@@ -0,0 +1,116 @@
+package org.tron.common.crypto;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+import org.tron.common.crypto.jce.TronCastleProvider;
+
+@Slf4j
+public class HashTest {
+
+  private static final String EMPTY_HASH =
+      "c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470";
+
+  private static byte[] providerSha3(byte[] input) throws Exception {
+    MessageDigest digest = MessageDigest.getInstance("TRON-KECCAK-256",
+        TronCastleProvider.getInstance());
+    digest.update(input);
+    return digest.digest();
+  }
+
+  @Test
+  public void testEmptyInput() {
+    assertArrayEquals(Hex.decode(EMPTY_HASH), Hash.sha3(new byte[0]));
+  }
+
+  // Keccak-256 of the bytes 0, 1, 2, ... wrapping at 256, around the 136 byte block size
+  private static final String[][] KNOWN_ANSWERS = {
+      {"135", "cbdfd9dee5faad3818d6b06f95a219fd290b0e1706f6a82e5a595b9ce9faca62"},
+      {"136", "7ce759f1ab7f9ce437719970c26b0a66ff11fe3e38e17df89cf5d29c7d7f807e"},
+      {"137", "ac73d4fae68b8453f764007c1a20ce95994187861f0c3227a3a8e99a73a3b1db"},
+      {"1000", "aca79e4146e30eb1c733f6d6060d72471c36ea4e01ebf45d7f4916249c2bbd82"},
+      {"1048576", "5be37e9825e31d606c38ab4b039fb4e3d11a41fed33562eaed711b5fd8af728f"}
+  };
+
+  private static byte[] sequence(int length) {
+    byte[] input = new byte[length];
+    for (int i = 0; i < length; i++) {
+      input[i] = (byte) i;
+    }
+    return input;
+  }
+
+  @Test
+  public void testKnownAnswers() {
+    assertArrayEquals(
+        Hex.decode("4e03657aea45a94fc7d47ba826c8d667c0d1e6e33a64a036ec44f58fa12d6c45"),
+        Hash.sha3("abc".getBytes()));
+    for (String[] answer : KNOWN_ANSWERS) {
+      byte[] input = sequence(Integer.parseInt(answer[0]));
+      byte[] expected = Hex.decode(answer[1]);
+      assertArrayEquals(answer[0], expected, Hash.sha3(input));
+
+      // direct buffers are hashed by chunks
+      ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+      direct.put(input);
+      direct.flip();
+      assertArrayEquals(answer[0], expected, Hash.sha3(direct));
+    }
+  }
+
+  @Test
+  public void testRangesAndBuffers() {
+    byte[] input = new byte[300];
+    new Random(1).nextBytes(input);
+    byte[] expected = Hash.sha3(Arrays.copyOfRange(input, 10, 290));
+
+    assertArrayEquals(expected, Hash.sha3(input, 10, 280));
+    assertArrayEquals(expected, Hash.sha3(ByteBuffer.wrap(input, 10, 280)));
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+    direct.put(input);
+    direct.position(10);
+    direct.limit(290);
+    assertArrayEquals(expected, Hash.sha3(direct));
+  }
+
+  @Test
+  public void testTwoInputs() {
+    byte[] first = Hex.decode("0102030405");
+    byte[] second = Hex.decode("060708");
+    assertArrayEquals(Hash.sha3(Hex.decode("0102030405060708")), Hash.sha3(first, second));
+  }
+
+  @Ignore
+  @Test
+  public void benchmark() throws Exception {
+    byte[] input = new byte[64];
+    int rounds = 1_000_000;
+    for (int i = 0; i < rounds; i++) {
+      providerSha3(input);
+      Hash.sha3(input);
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      providerSha3(input);
+    }
+    long provider = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      Hash.sha3(input);
+    }
+    long pooled = System.nanoTime() - start;
+
+    logger.info("keccak-256 of 64 bytes, provider: {} ns/op, pooled: {} ns/op",
+        provider / rounds, pooled / rounds);
+  }
+}
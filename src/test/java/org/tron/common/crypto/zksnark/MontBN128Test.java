@@ -0,0 +1,247 @@
+package org.tron.common.crypto.zksnark;
+
+import static org.tron.common.crypto.zksnark.Params.P;
+import static org.tron.common.crypto.zksnark.Params.R;
+
+import java.math.BigInteger;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Cross-checks the Montgomery backend against the {@link java.math.BigInteger} based reference.
+ */
+@Slf4j
+public class MontBN128Test {
+
+  private static final BigInteger G2_XA = new BigInteger(
+      "10857046999023057135944570762232829481370756359578518086990519993285655852781");
+  private static final BigInteger G2_XB = new BigInteger(
+      "11559732032986387107991004021392285783925812861821192530917403151452391805634");
+  private static final BigInteger G2_YA = new BigInteger(
+      "8495653923123431417604973247489272438418190587263600148770280649306958101930");
+  private static final BigInteger G2_YB = new BigInteger(
+      "4082367875863433681332203403145435568316851327593401208105741076214120093531");
+
+  private final Random random = new Random(0);
+
+  private BigInteger randomFp() {
+    return new BigInteger(260, random).mod(P);
+  }
+
+  private Fp2 randomFp2() {
+    return Fp2.create(randomFp(), randomFp());
+  }
+
+  private Fp6 randomFp6() {
+    return new Fp6(randomFp2(), randomFp2(), randomFp2());
+  }
+
+  private Fp12 randomFp12() {
+    return new Fp12(randomFp6(), randomFp6());
+  }
+
+  private static byte[] word(BigInteger v) {
+    byte[] res = new byte[32];
+    byte[] bytes = v.toByteArray();
+    int length = Math.min(32, bytes.length);
+    System.arraycopy(bytes, bytes.length - length, res, 32 - length, length);
+    return res;
+  }
+
+  private static BN128<Fp> g1() {
+    return BN128Fp.create(word(BigInteger.ONE), word(BigInteger.valueOf(2)));
+  }
+
+  private static BN128G2 g2() {
+    return BN128G2.create(word(G2_XA), word(G2_XB), word(G2_YA), word(G2_YB));
+  }
+
+  private static void assertSamePoint(BN128<Fp> expected, BN128<MontFp> actual) {
+    BN128<Fp> e = expected.toEthNotation();
+    BN128<MontFp> a = actual.toEthNotation();
+    Assert.assertArrayEquals(e.x().bytes(), a.x().bytes());
+    Assert.assertArrayEquals(e.y().bytes(), a.y().bytes());
+  }
+
+  @Test
+  public void testFp() {
+    BigInteger[] edges = {BigInteger.ZERO, BigInteger.ONE, P.subtract(BigInteger.ONE)};
+    for (int i = 0; i < 2000; i++) {
+      BigInteger a = i < edges.length ? edges[i] : randomFp();
+      BigInteger b = i < edges.length ? P.subtract(BigInteger.ONE) : randomFp();
+      Fp fa = Fp.create(a);
+      Fp fb = Fp.create(b);
+      MontFp ma = MontFp.create(a);
+      MontFp mb = MontFp.create(b);
+
+      Assert.assertEquals(a, ma.toBigInteger());
+      Assert.assertEquals(fa.add(fb).v, ma.add(mb).toBigInteger());
+      Assert.assertEquals(fa.sub(fb).v, ma.sub(mb).toBigInteger());
+      Assert.assertEquals(fa.mul(fb).v, ma.mul(mb).toBigInteger());
+      Assert.assertEquals(fa.squared().v, ma.squared().toBigInteger());
+      Assert.assertEquals(fa.negate().v, ma.negate().toBigInteger());
+      Assert.assertArrayEquals(fa.bytes(), ma.bytes());
+      if (!fa.isZero()) {
+        Assert.assertEquals(fa.inverse().v, ma.inverse().toBigInteger());
+      }
+    }
+  }
+
+  @Test
+  public void testTower() {
+    for (int i = 0; i < 20; i++) {
+      Fp2 a = randomFp2();
+      Fp2 b = randomFp2();
+      MontFp2 ma = MontFp2.from(a);
+      MontFp2 mb = MontFp2.from(b);
+      Assert.assertEquals(MontFp2.from(a.mul(b)), ma.mul(mb));
+      Assert.assertEquals(MontFp2.from(a.squared()), ma.squared());
+      Assert.assertEquals(MontFp2.from(a.inverse()), ma.inverse());
+      Assert.assertEquals(MontFp2.from(a.mulByNonResidue()), ma.mulByNonResidue());
+      Assert.assertEquals(MontFp2.from(a.frobeniusMap(1)), ma.frobeniusMap(1));
+
+      Fp6 c = randomFp6();
+      Fp6 d = randomFp6();
+      Assert.assertEquals(MontFp6.from(c.mul(d)), MontFp6.from(c).mul(MontFp6.from(d)));
+      Assert.assertEquals(MontFp6.from(c.squared()), MontFp6.from(c).squared());
+      Assert.assertEquals(MontFp6.from(c.inverse()), MontFp6.from(c).inverse());
+
+      Fp12 e = randomFp12();
+      Fp12 f = randomFp12();
+      MontFp12 me = MontFp12.from(e);
+      MontFp12 mf = MontFp12.from(f);
+      Assert.assertEquals(MontFp12.from(e.mul(f)), me.mul(mf));
+      Assert.assertEquals(MontFp12.from(e.squared()), me.squared());
+      Assert.assertEquals(MontFp12.from(e.inverse()), me.inverse());
+      Assert.assertEquals(MontFp12.from(e.cyclotomicSquared()), me.cyclotomicSquared());
+      Assert.assertEquals(MontFp12.from(e.mulBy024(a, b, a.add(b))),
+          me.mulBy024(ma, mb, ma.add(mb)));
+      for (int power = 1; power < 4; power++) {
+        Assert.assertEquals(MontFp12.from(e.frobeniusMap(power)), me.frobeniusMap(power));
+      }
+    }
+
+    Fp12 e = randomFp12();
+    Assert.assertEquals(MontFp12.from(PairingCheck.finalExponentiation(e)),
+        MontPairingCheck.finalExponentiation(MontFp12.from(e)));
+  }
+
+  @Test
+  public void testG1() {
+    BN128<Fp> g1 = g1();
+    MontBN128G1 mg1 = MontBN128G1.create(word(BigInteger.ONE), word(BigInteger.valueOf(2)));
+    BigInteger[] edges = {BigInteger.ZERO, BigInteger.ONE, R.subtract(BigInteger.ONE), R};
+
+    for (int i = 0; i < 20; i++) {
+      BigInteger s = i < edges.length ? edges[i] : new BigInteger(256, random);
+      assertSamePoint(g1.mul(s), mg1.mul(s));
+
+      BN128<Fp> p = g1.mul(s).toEthNotation();
+      BN128<Fp> q = g1.mul(BigInteger.valueOf(i)).toEthNotation();
+      BN128<Fp> sum = BN128Fp.create(word(p.x().v), word(p.y().v))
+          .add(BN128Fp.create(word(q.x().v), word(q.y().v)));
+      BN128<MontFp> montSum = MontBN128G1.create(word(p.x().v), word(p.y().v))
+          .add(MontBN128G1.create(word(q.x().v), word(q.y().v)));
+      assertSamePoint(sum, montSum);
+    }
+
+    Assert.assertNull(MontBN128G1.create(word(BigInteger.ONE), word(BigInteger.valueOf(3))));
+    Assert.assertNull(MontBN128G1.create(word(P.add(BigInteger.ONE)), word(BigInteger.valueOf(2))));
+    Assert.assertTrue(MontBN128G1.create(word(BigInteger.ZERO), word(BigInteger.ZERO)).isZero());
+  }
+
+  @Test
+  public void testG2Subgroup() {
+    Assert.assertNotNull(MontBN128G2.create(word(G2_XA), word(G2_XB), word(G2_YA), word(G2_YB)));
+
+    // on the twist, but not in the subgroup of order r
+    byte[] xa = word(BigInteger.ZERO);
+    byte[] xb = word(BigInteger.ONE);
+    byte[] ya = word(new BigInteger(
+        "5857410223677516958241855868975604786906559121396168184066542210254491971240"));
+    byte[] yb = word(new BigInteger(
+        "3499505209057624827709920819629410982529044040404494099368353913743455207650"));
+    Assert.assertNotNull(BN128Fp2.create(xa, xb, ya, yb));
+    Assert.assertNull(BN128G2.create(xa, xb, ya, yb));
+    Assert.assertNull(MontBN128G2.create(xa, xb, ya, yb));
+
+    // off the twist
+    Assert.assertNull(MontBN128G2.create(xa, xb, yb, ya));
+  }
+
+  @Test
+  public void testPairing() {
+    BN128<Fp> g1 = g1();
+    BN128G2 g2 = g2();
+
+    for (int i = 0; i < 4; i++) {
+      // e(a * G1, b * G2) * e(-ab * G1, G2) == 1, broken by flipping the sign for odd i
+      BigInteger a = new BigInteger(250, random);
+      BigInteger b = new BigInteger(250, random);
+      BN128<Fp> p1 = g1.mul(a).toEthNotation();
+      BN128<Fp2> q1 = g2.mul(b).toEthNotation();
+      BN128<Fp> p2 = g1.mul(a.multiply(b).mod(R)).toEthNotation();
+      BigInteger p2y = i % 2 == 0 ? P.subtract(p2.y().v) : p2.y().v;
+
+      byte[][] g1s = {word(p1.x().v), word(p1.y().v), word(p2.x().v), word(p2y)};
+      byte[][] q1s = {word(q1.x().a.v), word(q1.x().b.v), word(q1.y().a.v), word(q1.y().b.v)};
+
+      PairingCheck check = PairingCheck.create();
+      check.addPair(BN128G1.create(g1s[0], g1s[1]), BN128G2.create(q1s[0], q1s[1], q1s[2], q1s[3]));
+      check.addPair(BN128G1.create(g1s[2], g1s[3]), g2);
+      check.run();
+
+      MontPairingCheck montCheck = MontPairingCheck.create();
+      montCheck.addPair(MontBN128G1.create(g1s[0], g1s[1]),
+          MontBN128G2.create(q1s[0], q1s[1], q1s[2], q1s[3]));
+      montCheck.addPair(MontBN128G1.create(g1s[2], g1s[3]),
+          MontBN128G2.create(word(G2_XA), word(G2_XB), word(G2_YA), word(G2_YB)));
+      montCheck.run();
+
+      Assert.assertEquals(MontFp12.from(check.product), montCheck.product);
+      Assert.assertEquals(i % 2 == 0 ? 1 : 0, montCheck.result());
+    }
+
+    MontPairingCheck empty = MontPairingCheck.create();
+    empty.addPair(MontBN128G1.ZERO,
+        MontBN128G2.create(word(G2_XA), word(G2_XB), word(G2_YA), word(G2_YB)));
+    empty.run();
+    Assert.assertEquals(1, empty.result());
+  }
+
+  @Ignore
+  @Test
+  public void benchmarkPairing() {
+    BN128<Fp> p = g1().toAffine();
+    byte[] x = word(p.x().v);
+    byte[] y = word(p.y().v);
+    int rounds = 20;
+
+    long start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      PairingCheck check = PairingCheck.create();
+      for (int k = 0; k < 4; k++) {
+        check.addPair(BN128G1.create(x, y), g2());
+      }
+      check.run();
+    }
+    long reference = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      MontPairingCheck check = MontPairingCheck.create();
+      for (int k = 0; k < 4; k++) {
+        check.addPair(MontBN128G1.create(x, y),
+            MontBN128G2.create(word(G2_XA), word(G2_XB), word(G2_YA), word(G2_YB)));
+      }
+      check.run();
+    }
+    long mont = System.nanoTime() - start;
+
+    logger.info("4-pair pairing check, reference: {} ms/op, montgomery: {} ms/op",
+        reference / rounds / 1_000_000, mont / rounds / 1_000_000);
+  }
+}
@@ -0,0 +1,56 @@
+package org.tron.common.runtime.vm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+import org.tron.common.runtime.vm.program.ProgramPrecompile;
+
+@Slf4j
+public class ProgramPrecompileTest {
+
+  // PUSH1 0x5b PUSH1 0x05 JUMP JUMPDEST PUSH1 0x01 ADD STOP
+  private static final byte[] CODE = Hex.decode("605b6005565b60010100");
+
+  @Test
+  public void testJumpDest() {
+    ProgramPrecompile precompile = ProgramPrecompile.compile(CODE);
+    // 0x5b at pc 1 is push data, not a JUMPDEST
+    Assert.assertFalse(precompile.hasJumpDest(1));
+    Assert.assertTrue(precompile.hasJumpDest(5));
+    Assert.assertFalse(precompile.hasJumpDest(-1));
+    Assert.assertFalse(precompile.hasJumpDest(CODE.length));
+  }
+
+  @Test
+  public void testDecodedOps() {
+    ProgramPrecompile precompile = ProgramPrecompile.compile(CODE);
+    for (int pc = 0; pc < CODE.length; pc++) {
+      Assert.assertEquals(OpCode.code(CODE[pc]), precompile.getOpCode(pc));
+    }
+  }
+
+  @Test
+  public void testBasicBlocks() {
+    ProgramPrecompile precompile = ProgramPrecompile.compile(CODE);
+    Assert.assertEquals(2, precompile.getBlockCount());
+    Assert.assertEquals(0, precompile.getBlockStart(4));
+    Assert.assertEquals(5, precompile.getBlockStart(9));
+    // PUSH1 + PUSH1 + JUMP
+    Assert.assertEquals(3 + 3 + 8, precompile.getBlockStaticEnergy(0));
+    // JUMPDEST + PUSH1 + ADD + STOP
+    Assert.assertEquals(1 + 3 + 3, precompile.getBlockStaticEnergy(6));
+  }
+
+  @Test
+  public void testCache() {
+    byte[] codeAddress = Hex.decode("41548794500882809695a8a687866e76d4271a1abc");
+    ProgramPrecompile first = ProgramPrecompile.getOrCompile(codeAddress, CODE);
+    ProgramPrecompile second = ProgramPrecompile.getOrCompile(codeAddress, CODE);
+    Assert.assertSame(first, second);
+    Assert.assertNotSame(first, ProgramPrecompile.getOrCompile(codeAddress,
+        Hex.decode("6001600101")));
+    Assert.assertNotSame(ProgramPrecompile.getOrCompile(null, CODE),
+        ProgramPrecompile.getOrCompile(null, CODE));
+  }
+}
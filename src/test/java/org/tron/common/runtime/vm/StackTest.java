@@ -0,0 +1,63 @@
+package org.tron.common.runtime.vm;
+
+import java.util.EmptyStackException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.runtime.vm.program.Stack;
+
+public class StackTest {
+
+  @Test
+  public void testPushPop() {
+    Stack stack = new Stack();
+    stack.push(new DataWord(1));
+    stack.push(new DataWord(2));
+    Assert.assertEquals(2, stack.size());
+    Assert.assertEquals(new DataWord(2), stack.peek());
+    Assert.assertEquals(new DataWord(1), stack.get(0));
+    Assert.assertEquals(new DataWord(2), stack.pop());
+    Assert.assertEquals(new DataWord(1), stack.pop());
+    Assert.assertTrue(stack.isEmpty());
+  }
+
+  @Test(expected = EmptyStackException.class)
+  public void testPopEmpty() {
+    new Stack().pop();
+  }
+
+  @Test
+  public void testDupCopiesWord() {
+    Stack stack = new Stack();
+    stack.push(new DataWord(7));
+    stack.push(new DataWord(8));
+    stack.dup(2);
+    Assert.assertEquals(3, stack.size());
+    Assert.assertEquals(new DataWord(7), stack.peek());
+    Assert.assertNotSame(stack.get(0), stack.peek());
+
+    // words are mutated in place by the VM, the duplicate must not alias the original
+    stack.peek().add(new DataWord(1));
+    Assert.assertEquals(new DataWord(7), stack.get(0));
+  }
+
+  @Test
+  public void testSwap() {
+    Stack stack = new Stack();
+    stack.push(new DataWord(1));
+    stack.push(new DataWord(2));
+    stack.push(new DataWord(3));
+    stack.swap(stack.size() - 1, stack.size() - 3);
+    Assert.assertEquals(new DataWord(1), stack.peek());
+    Assert.assertEquals(new DataWord(3), stack.get(0));
+  }
+
+  @Test
+  public void testFullCapacity() {
+    Stack stack = new Stack();
+    for (int i = 0; i < Stack.MAX_SIZE; i++) {
+      stack.push(new DataWord(i));
+    }
+    Assert.assertEquals(Stack.MAX_SIZE, stack.size());
+    Assert.assertEquals(new DataWord(Stack.MAX_SIZE - 1), stack.pop());
+  }
+}
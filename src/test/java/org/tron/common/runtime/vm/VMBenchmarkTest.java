@@ -0,0 +1,83 @@
+package org.tron.common.runtime.vm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+import org.tron.common.runtime.vm.program.InternalTransaction;
+import org.tron.common.runtime.vm.program.Program;
+import org.tron.common.runtime.vm.program.invoke.ProgramInvokeMockImpl;
+import org.tron.core.config.args.Args;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Throughput of the interpreter loop on the instruction mixes solidity code is made of. Each
+ * workload counts down from 10000 in a JUMPI loop.
+ */
+@Slf4j
+@Ignore
+public class VMBenchmarkTest {
+
+  private static final int WARM_UP_ROUNDS = 200;
+  private static final int ROUNDS = 1000;
+
+  // loop: PUSH1 1 SWAP1 SUB DUP1 PUSH1 3 JUMPI
+  private static final String ARITHMETIC = "6127105b600190038060035700";
+
+  // loop: DUP1 PUSH1 0 MSTORE PUSH1 0 MLOAD POP + counter
+  private static final String MEMORY = "6127105b8060005260005150600190038060035700";
+
+  // loop: DUP1 PUSH1 0 MSTORE PUSH1 32 PUSH1 0 SHA3 POP + counter
+  private static final String SHA3 = "6127105b80600052602060002050600190038060035700";
+
+  @BeforeClass
+  public static void init() {
+    Args.getInstance().setDebug(true);
+  }
+
+  @Test
+  public void arithmetic() {
+    benchmark("arithmetic", Hex.decode(ARITHMETIC));
+  }
+
+  @Test
+  public void memory() {
+    benchmark("memory", Hex.decode(MEMORY));
+  }
+
+  @Test
+  public void sha3() {
+    benchmark("sha3", Hex.decode(SHA3));
+  }
+
+  private void benchmark(String name, byte[] code) {
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      run(code);
+    }
+    long steps = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      steps += run(code);
+    }
+    long cost = System.nanoTime() - start;
+    logger.info("{}: {} ops in {} ms, {} ops/s", name, steps, cost / 1_000_000,
+        steps * 1_000_000_000L / cost);
+  }
+
+  private long run(byte[] code) {
+    ProgramInvokeMockImpl invoke = new ProgramInvokeMockImpl();
+    invoke.setEnergyLimit(Long.MAX_VALUE / 2);
+    Program program = new Program(code, invoke,
+        new InternalTransaction(Transaction.getDefaultInstance()));
+    VM vm = new VM();
+    long steps = 0;
+    while (!program.isStopped()) {
+      vm.step(program);
+      steps++;
+    }
+    Assert.assertNull(program.getResult().getException());
+    return steps;
+  }
+}
@@ -0,0 +1,143 @@
+package org.tron.common.runtime.vm.program;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.crypto.Hash;
+import org.tron.common.runtime.vm.DataWord;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.StorageRowCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.Manager;
+import org.tron.core.db.StorageRowStore;
+import org.tron.core.db.common.WrappedByteArray;
+import org.tron.core.db2.core.ISession;
+
+public class ProgramStorageTest {
+
+  private static String dbPath = "output_ProgramStorage_test";
+  private static TronApplicationContext context;
+  private static StorageRowStore store;
+
+  private static final byte[] ADDRESS = Hex.decode("41548794500882809695a8a687866e76d4271a1abc");
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new TronApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    store = context.getBean(StorageRowStore.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Test
+  public void absentKeyTest() {
+    DataWord key = new DataWord(1);
+    Storage storage = new Storage(ADDRESS, store);
+    Assert.assertNull(storage.getValue(key));
+
+    // the slot is known to be empty, a row written since is not read again
+    Storage other = new Storage(ADDRESS, store);
+    other.put(key, new DataWord(2));
+    other.commit();
+    Assert.assertNull(storage.getValue(key));
+    Assert.assertEquals(new DataWord(2), new Storage(ADDRESS, store).getValue(key));
+
+    // a slot put after being read empty holds the value put
+    DataWord empty = new DataWord(3);
+    Assert.assertNull(storage.getValue(empty));
+    storage.put(empty, new DataWord(4));
+    Assert.assertEquals(new DataWord(4), storage.getValue(empty));
+  }
+
+  @Test
+  public void commitTest() {
+    DataWord key = new DataWord(10);
+    Storage storage = new Storage(ADDRESS, store);
+    storage.put(key, new DataWord(11));
+    // nothing is written before the commit
+    Assert.assertNull(new Storage(ADDRESS, store).getValue(key));
+    storage.commit();
+
+    Storage written = new Storage(ADDRESS, store);
+    Assert.assertEquals(new DataWord(11), written.getValue(key));
+
+    // a zero value deletes the row
+    written.put(key, new DataWord(0));
+    written.commit();
+    Assert.assertNull(new Storage(ADDRESS, store).getValue(key));
+  }
+
+  @Test
+  public void batchTest() {
+    Manager dbManager = context.getBean(Manager.class);
+    byte[] created = Hex.decode("01".concat(Hex.toHexString(new byte[31])));
+    byte[] kept = Hex.decode("02".concat(Hex.toHexString(new byte[31])));
+    store.put(kept, new StorageRowCapsule(kept, new DataWord(1).getData()));
+
+    try (ISession session = dbManager.getRevokingStore().buildSession()) {
+      Map<byte[], StorageRowCapsule> rows = new HashMap<>();
+      rows.put(created, new StorageRowCapsule(created, new DataWord(2).getData()));
+      rows.put(kept, null);
+      store.updateByBatch(rows);
+
+      Map<WrappedByteArray, StorageRowCapsule> found = store.getAll(Arrays.asList(created, kept));
+      Assert.assertEquals(1, found.size());
+      StorageRowCapsule row = found.get(WrappedByteArray.of(created));
+      Assert.assertEquals(new DataWord(2), row.getValue());
+      Assert.assertArrayEquals(created, row.getRowKey());
+      session.revoke();
+    }
+
+    // the batch is revoked as one change
+    Map<WrappedByteArray, StorageRowCapsule> found = store.getAll(Arrays.asList(created, kept));
+    Assert.assertEquals(1, found.size());
+    Assert.assertEquals(new DataWord(1), found.get(WrappedByteArray.of(kept)).getValue());
+  }
+
+  @Test
+  public void prefetchTest() {
+    DataWord key = new DataWord(20);
+    DataWord other = new DataWord(21);
+    Storage storage = new Storage(ADDRESS, store);
+    storage.put(key, new DataWord(22));
+    storage.put(other, new DataWord(23));
+    storage.commit();
+
+    Storage reader = new Storage(ADDRESS, store);
+    Assert.assertEquals(new DataWord(22), reader.getValue(key));
+    Assert.assertEquals(new DataWord(23), reader.getValue(other));
+    reader.commit();
+
+    // the slots the last execution read come with the first read
+    Storage prefetched = new Storage(ADDRESS, store);
+    Assert.assertEquals(new DataWord(22), prefetched.getValue(key));
+    store.delete(compose(other));
+    Assert.assertEquals(new DataWord(23), prefetched.getValue(other));
+    Assert.assertNull(new Storage(ADDRESS, store).getValue(other));
+  }
+
+  private static byte[] compose(DataWord key) {
+    byte[] rowKey = new byte[32];
+    System.arraycopy(Hash.sha3(ADDRESS), 0, rowKey, 0, 16);
+    System.arraycopy(key.getData(), 16, rowKey, 16, 16);
+    return rowKey;
+  }
+}
@@ -23,10 +23,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
@@ -128,6 +131,34 @@ public class LevelDbDataSourceImplTest {
     dataSource.closeDB();
   }
 
+  @Test
+  public void testBulkLoad() {
+    LevelDbDataSourceImpl dataSource = new LevelDbDataSourceImpl(
+        Args.getInstance().getOutputDirectory(), "test_bulkLoad");
+    dataSource.initDB();
+    dataSource.resetDb();
+    dataSource.putData(ByteArray.fromLong(-1), value1);
+
+    List<Map.Entry<byte[], byte[]>> rows = new ArrayList<>();
+    for (long i = 0; i < 10_000; i++) {
+      rows.add(Maps.immutableEntry(ByteArray.fromLong(i), ByteArray.fromLong(i * 2)));
+    }
+    rows.add(Maps.immutableEntry(ByteArray.fromLong(-1), null));
+
+    BulkLoadStats stats = dataSource.bulkLoad(rows.iterator(), 16 * 1024, false);
+    assertEquals(10_001, stats.getRows());
+    assertEquals(10_000 * 16 + 8, stats.getBytes());
+    assertEquals(10, stats.getBatches());
+    assertEquals(10_000, dataSource.allKeys().size());
+    assertNull(dataSource.getData(ByteArray.fromLong(-1)));
+    assertEquals(2 * 9_999, ByteArray.toLong(dataSource.getData(ByteArray.fromLong(9_999))));
+
+    assertEquals(0, dataSource.bulkLoad(new ArrayList<Map.Entry<byte[], byte[]>>().iterator())
+        .getRows());
+    dataSource.resetDb();
+    dataSource.closeDB();
+  }
+
   @Test
   public void testdeleteData() {
     LevelDbDataSourceImpl dataSource = new LevelDbDataSourceImpl(
@@ -0,0 +1,106 @@
+package org.tron.common.utils;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class ModExpUtilTest {
+
+  private static final BigInteger RSA_EXPONENT = BigInteger.valueOf(65537);
+
+  // result of the precompile before ModExpUtil
+  private static byte[] legacyModExp(BigInteger base, BigInteger exp, BigInteger mod, int modLen) {
+    byte[] res = ByteUtil.stripLeadingZeroes(base.modPow(exp, mod).toByteArray());
+    if (res.length < modLen) {
+      byte[] adjRes = new byte[modLen];
+      System.arraycopy(res, 0, adjRes, modLen - res.length, res.length);
+      return adjRes;
+    }
+    return res;
+  }
+
+  @Test
+  public void testSameAsModPow() {
+    Random random = new Random(0);
+    BigInteger[] specials = {BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(2),
+        BigInteger.valueOf(3), RSA_EXPONENT, BigInteger.ONE.shiftLeft(64)};
+
+    for (int i = 0; i < 2000; i++) {
+      int modLen = 1 + random.nextInt(64);
+      BigInteger mod = new BigInteger(8 * modLen, random);
+      if (mod.signum() == 0) {
+        continue;
+      }
+      BigInteger base = random.nextInt(4) == 0 ? specials[random.nextInt(specials.length)]
+          : new BigInteger(8 * (1 + random.nextInt(80)), random);
+      BigInteger exp = random.nextInt(2) == 0 ? specials[random.nextInt(specials.length)]
+          : new BigInteger(8 * random.nextInt(40), random);
+      if (random.nextInt(10) == 0) {
+        mod = random.nextBoolean() ? BigInteger.ONE
+            : BigInteger.ONE.shiftLeft(random.nextInt(8 * modLen));
+      }
+
+      Assert.assertArrayEquals(legacyModExp(base, exp, mod, modLen),
+          ModExpUtil.modExp(base, exp, mod, modLen));
+    }
+  }
+
+  @Test
+  public void testRsaVerification() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    KeyPair pair = generator.generateKeyPair();
+    BigInteger n = ((RSAPublicKey) pair.getPublic()).getModulus();
+    BigInteger d = ((RSAPrivateKey) pair.getPrivate()).getPrivateExponent();
+
+    BigInteger message = new BigInteger(2000, new Random(1));
+    BigInteger signature = message.modPow(d, n);
+
+    byte[] recovered = ModExpUtil.modExp(signature, RSA_EXPONENT, n, 256);
+    Assert.assertEquals(256, recovered.length);
+    Assert.assertEquals(message, new BigInteger(1, recovered));
+  }
+
+  @Ignore
+  @Test
+  public void benchmarkRsaVerification() throws Exception {
+    for (int bits : new int[]{2048, 4096}) {
+      KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+      generator.initialize(bits);
+      KeyPair pair = generator.generateKeyPair();
+      BigInteger n = ((RSAPublicKey) pair.getPublic()).getModulus();
+      BigInteger d = ((RSAPrivateKey) pair.getPrivate()).getPrivateExponent();
+      BigInteger signature = new BigInteger(bits - 8, new Random(bits)).modPow(d, n);
+      int modLen = bits / 8;
+      int rounds = 20_000;
+
+      for (int i = 0; i < rounds; i++) {
+        legacyModExp(signature, RSA_EXPONENT, n, modLen);
+        ModExpUtil.modExp(signature, RSA_EXPONENT, n, modLen);
+      }
+
+      long start = System.nanoTime();
+      for (int i = 0; i < rounds; i++) {
+        legacyModExp(signature, RSA_EXPONENT, n, modLen);
+      }
+      long legacy = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < rounds; i++) {
+        ModExpUtil.modExp(signature, RSA_EXPONENT, n, modLen);
+      }
+      long current = System.nanoTime() - start;
+
+      logger.info("RSA-{} verification, legacy: {} ns/op, current: {} ns/op", bits,
+          legacy / rounds, current / rounds);
+    }
+  }
+}
@@ -1,6 +1,10 @@
 package org.tron.common.utils;
 
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
 import java.util.Arrays;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 import org.testng.Assert;
@@ -50,4 +54,35 @@ public class Sha256HashTest {
     Assert.assertEquals(70000, countAll.get());
     Assert.assertEquals(0, countFailed.get());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testHashOverloads() throws Exception {
+    Random random = new Random(0);
+    for (int length : new int[]{0, 1, 55, 56, 64, 1000, 5000}) {
+      byte[] input = new byte[length];
+      random.nextBytes(input);
+      byte[] expected = MessageDigest.getInstance("SHA-256").digest(input);
+      int split = length / 3;
+
+      Assert.assertEquals(Sha256Hash.hash(input), expected);
+      Assert.assertEquals(Sha256Hash.hash(Arrays.copyOfRange(input, 0, split),
+          Arrays.copyOfRange(input, split, length)), expected);
+
+      ByteString rope = ByteString.copyFrom(input, 0, split)
+          .concat(ByteString.copyFrom(input, split, length - split));
+      Assert.assertEquals(Sha256Hash.hash(rope), expected);
+      Assert.assertEquals(Sha256Hash.of(rope.substring(0, length)).getBytes(), expected);
+
+      ByteBuffer heap = ByteBuffer.wrap(input);
+      Assert.assertEquals(Sha256Hash.hash(heap), expected);
+      Assert.assertFalse(heap.hasRemaining());
+      ByteBuffer direct = ByteBuffer.allocateDirect(length + 2);
+      direct.put((byte) 1).put(input).flip();
+      direct.get();
+      Assert.assertEquals(Sha256Hash.hash(direct), expected);
+
+      Assert.assertEquals(Sha256Hash.hashTwice(input),
+          MessageDigest.getInstance("SHA-256").digest(expected));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package org.tron.core.capsule;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.crypto.ECKey;
+import org.tron.core.exception.ValidateSignatureException;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+public class TransactionCapsuleTest {
+
+  private static Transaction signedTransfer(ECKey owner, long amount) {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(owner.getAddress()))
+        .setToAddress(ByteString.copyFrom(new ECKey().getAddress()))
+        .setAmount(amount)
+        .build();
+    TransactionCapsule trx = new TransactionCapsule(contract, ContractType.TransferContract);
+    trx.sign(owner.getPrivKeyBytes());
+    return trx.getInstance();
+  }
+
+  @Test
+  public void testValidateSignatureAcrossCapsules() throws Exception {
+    ECKey owner = new ECKey();
+    Transaction transaction = signedTransfer(owner, 1);
+
+    // a fresh capsule for every path the transaction travels through
+    Assert.assertTrue(new TransactionCapsule(transaction).validateSignature());
+    Assert.assertTrue(new TransactionCapsule(transaction.toByteArray()).validateSignature());
+  }
+
+  @Test(expected = ValidateSignatureException.class)
+  public void testSignatureOfOtherKey() throws Exception {
+    ECKey owner = new ECKey();
+    Transaction transaction = signedTransfer(owner, 2);
+    Assert.assertTrue(new TransactionCapsule(transaction).validateSignature());
+
+    TransactionCapsule forged = new TransactionCapsule(transaction.toBuilder()
+        .clearSignature()
+        .build());
+    forged.sign(new ECKey().getPrivKeyBytes());
+    forged.validateSignature();
+  }
+
+  @Test
+  public void testValidateSignatures() throws Exception {
+    List<TransactionCapsule> batch = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      batch.add(new TransactionCapsule(signedTransfer(new ECKey(), 10 + i)));
+    }
+    TransactionCapsule.validateSignatures(batch);
+    // a verified capsule skips recovery altogether
+    batch.get(0).setVerified(false);
+    Assert.assertTrue(batch.get(0).validateSignature());
+  }
+
+  @Test
+  public void testValidateSignaturesFindsCulprit() throws Exception {
+    List<TransactionCapsule> batch = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      batch.add(new TransactionCapsule(signedTransfer(new ECKey(), 20 + i)));
+    }
+    TransactionCapsule forged = new TransactionCapsule(batch.get(6).getInstance().toBuilder()
+        .clearSignature()
+        .build());
+    forged.sign(new ECKey().getPrivKeyBytes());
+    batch.set(6, forged);
+
+    try {
+      TransactionCapsule.validateSignatures(batch);
+      Assert.fail("forged signature accepted");
+    } catch (ValidateSignatureException e) {
+      Assert.assertEquals("sig error", e.getMessage());
+    }
+    Assert.assertTrue(batch.get(5).validateSignature());
+  }
+}
@@ -0,0 +1,189 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.AddressTransactionStore.Page;
+import org.tron.core.db2.core.ISession;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+public class AddressTransactionStoreTest {
+
+  private static String dbPath = "output_AddressTransactionStore_test";
+  private static TronApplicationContext context;
+  private static Manager dbManager;
+  private static AddressTransactionStore addressTransactionStore;
+
+  private static final byte[] OWNER_ADDRESS = ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc");
+  private static final byte[] TO_ADDRESS = ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc");
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new TronApplicationContext(DefaultConfig.class);
+  }
+
+  /**
+   * Index 5 blocks of 2 transfers, amounts 1 to 10 in chain order.
+   */
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    addressTransactionStore = context.getBean(AddressTransactionStore.class);
+    addressTransactionStore.setEnabled(true);
+
+    BlockCapsule parent = dbManager.getGenesisBlock();
+    long amount = 1;
+    for (int i = 1; i <= 5; i++) {
+      BlockCapsule block = new BlockCapsule(i, parent.getBlockId(), i * 3000L,
+          ByteString.copyFrom(TO_ADDRESS));
+      for (int j = 0; j < 2; j++) {
+        TransactionCapsule transaction = transfer(amount++);
+        block.addTransaction(transaction);
+        dbManager.getTransactionStore()
+            .put(transaction.getTransactionId().getBytes(), transaction);
+      }
+      addressTransactionStore.put(block);
+      parent = block;
+    }
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static TransactionCapsule transfer(long amount) {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(OWNER_ADDRESS))
+        .setToAddress(ByteString.copyFrom(TO_ADDRESS))
+        .setAmount(amount)
+        .build();
+    return new TransactionCapsule(contract, ContractType.TransferContract);
+  }
+
+  private static List<Long> amounts(Page page) {
+    return page.getTransactions().stream()
+        .map(transaction -> {
+          try {
+            return transaction.getInstance().getRawData().getContract(0).getParameter()
+                .unpack(TransferContract.class).getAmount();
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        })
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void pageTest() {
+    Page page = addressTransactionStore.getTransactions(OWNER_ADDRESS, false, false, null, 4);
+    Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L), amounts(page));
+
+    page = addressTransactionStore.getTransactions(OWNER_ADDRESS, false, false,
+        page.getCursor(), 4);
+    Assert.assertEquals(Arrays.asList(5L, 6L, 7L, 8L), amounts(page));
+
+    page = addressTransactionStore.getTransactions(OWNER_ADDRESS, false, false,
+        page.getCursor(), 4);
+    Assert.assertEquals(Arrays.asList(9L, 10L), amounts(page));
+    Assert.assertEquals(0, page.getCursor().length);
+
+    page = addressTransactionStore.getTransactions(TO_ADDRESS, true, true, null, 3);
+    Assert.assertEquals(Arrays.asList(10L, 9L, 8L), amounts(page));
+    page = addressTransactionStore.getTransactions(TO_ADDRESS, true, true, page.getCursor(), 3);
+    Assert.assertEquals(Arrays.asList(7L, 6L, 5L), amounts(page));
+
+    // nothing was sent by the receiver
+    page = addressTransactionStore.getTransactions(TO_ADDRESS, false, false, null, 3);
+    Assert.assertTrue(page.getTransactions().isEmpty());
+
+    Assert.assertEquals(3,
+        addressTransactionStore.getTransactions(OWNER_ADDRESS, false, 7, 5).size());
+  }
+
+  @Test
+  public void revokeTest() {
+    BlockCapsule block = new BlockCapsule(6, dbManager.getGenesisBlock().getBlockId(), 18000L,
+        ByteString.copyFrom(TO_ADDRESS));
+    TransactionCapsule transaction = transfer(11);
+    block.addTransaction(transaction);
+    dbManager.getTransactionStore().put(transaction.getTransactionId().getBytes(), transaction);
+
+    try (ISession session = dbManager.getRevokingStore().buildSession()) {
+      addressTransactionStore.put(block);
+      Assert.assertEquals(11, addressTransactionStore
+          .getTransactions(OWNER_ADDRESS, false, true, null, 20).getTransactions().size());
+      session.revoke();
+    }
+    Assert.assertEquals(10, addressTransactionStore
+        .getTransactions(OWNER_ADDRESS, false, true, null, 20).getTransactions().size());
+  }
+
+  @Test
+  public void indexBlocksTest() {
+    byte[] owner = ByteArray.fromHexString(
+        Wallet.getAddressPreFixString() + "0000000000000000000000000000000000000001");
+    byte[] to = ByteArray.fromHexString(
+        Wallet.getAddressPreFixString() + "0000000000000000000000000000000000000002");
+    BlockIndexStore blockIndexStore = context.getBean(BlockIndexStore.class);
+    BlockCapsule parent = dbManager.getGenesisBlock();
+    for (int i = 1; i <= 2; i++) {
+      BlockCapsule block = new BlockCapsule(i, parent.getBlockId(), i * 3000L,
+          ByteString.copyFrom(TO_ADDRESS));
+      TransferContract contract = TransferContract.newBuilder()
+          .setOwnerAddress(ByteString.copyFrom(owner))
+          .setToAddress(ByteString.copyFrom(to))
+          .setAmount(i)
+          .build();
+      block.addTransaction(new TransactionCapsule(contract, ContractType.TransferContract));
+      dbManager.getBlockStore().put(block.getBlockId().getBytes(), block);
+      blockIndexStore.put(block.getBlockId());
+      parent = block;
+    }
+
+    long headNum = dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber();
+    dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(2);
+    try {
+      // the blocks were applied before the index
+      Assert.assertFalse(addressTransactionStore.isComplete());
+      addressTransactionStore.indexBlocks();
+      Assert.assertTrue(addressTransactionStore.isComplete());
+      Assert.assertEquals(2, addressTransactionStore
+          .getTransactions(owner, false, false, null, 10).getTransactions().size());
+      Assert.assertEquals(2, addressTransactionStore
+          .getTransactions(to, true, false, null, 10).getTransactions().size());
+
+      // a pruned block can't be indexed
+      blockIndexStore.delete(ByteArray.fromLong(1));
+      addressTransactionStore.indexBlocks();
+      Assert.assertFalse(addressTransactionStore.isComplete());
+    } finally {
+      dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(headNum);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidCursorTest() {
+    addressTransactionStore.getTransactions(OWNER_ADDRESS, false, false, new byte[3], 4);
+  }
+}
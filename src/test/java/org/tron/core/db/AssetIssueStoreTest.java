@@ -0,0 +1,118 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.AssetIssueCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db2.core.ISession;
+import org.tron.protos.Contract.AssetIssueContract;
+
+public class AssetIssueStoreTest {
+
+  private static String dbPath = "output_AssetIssueStore_test";
+  private static TronApplicationContext context;
+  private static Manager dbManager;
+  private static AssetIssueStore assetIssueStore;
+
+  private static final byte[] OWNER_ADDRESS = ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc");
+  private static final byte[] OTHER_ADDRESS = ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc");
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new TronApplicationContext(DefaultConfig.class);
+  }
+
+  /**
+   * Init asset issues in an order that is not the one of their names.
+   */
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    assetIssueStore = dbManager.getAssetIssueStore();
+    put("abd", 0, OWNER_ADDRESS);
+    put("abc", 1, OTHER_ADDRESS);
+    put("abc[", 0, OTHER_ADDRESS);
+    put("abc", 0, OWNER_ADDRESS);
+    put("ab", 0, OTHER_ADDRESS);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static AssetIssueCapsule put(String name, long order, byte[] owner) {
+    AssetIssueCapsule assetIssue = new AssetIssueCapsule(AssetIssueContract.newBuilder()
+        .setName(ByteString.copyFromUtf8(name))
+        .setOwnerAddress(ByteString.copyFrom(owner))
+        .build());
+    assetIssue.setOrder(order);
+    assetIssueStore.put(assetIssue.createDbKey(), assetIssue);
+    return assetIssue;
+  }
+
+  private static List<String> keys(List<AssetIssueCapsule> assetIssues) {
+    return assetIssues.stream()
+        .map(assetIssue -> new String(assetIssue.createDbKey()))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void paginatedTest() {
+    Assert.assertEquals(Arrays.asList("ab", "abc", "abc_1", "abc[", "abd"),
+        keys(assetIssueStore.getAssetIssuesPaginated(0, 10)));
+    Assert.assertEquals(Arrays.asList("abc_1", "abc["),
+        keys(assetIssueStore.getAssetIssuesPaginated(2, 2)));
+    Assert.assertNull(assetIssueStore.getAssetIssuesPaginated(5, 2));
+
+    Assert.assertEquals(Arrays.asList("ab", "abc"),
+        keys(assetIssueStore.getAssetIssuesAfter(null, 2)));
+    Assert.assertEquals(Arrays.asList("abc_1", "abc["),
+        keys(assetIssueStore.getAssetIssuesAfter("abc".getBytes(), 2)));
+    Assert.assertEquals(Arrays.asList("abd"),
+        keys(assetIssueStore.getAssetIssuesAfter("abc[".getBytes(), 2)));
+  }
+
+  @Test
+  public void ownerTest() {
+    Assert.assertEquals(Arrays.asList("abc", "abd"),
+        keys(assetIssueStore.getAssetIssuesByOwner(OWNER_ADDRESS)));
+    Assert.assertEquals(Arrays.asList("ab", "abc[", "abc_1"),
+        keys(assetIssueStore.getAssetIssuesByOwner(OTHER_ADDRESS)));
+  }
+
+  @Test
+  public void revokeTest() {
+    byte[] owner = ByteArray.fromHexString(
+        Wallet.getAddressPreFixString() + "e1a17255ccf15d6b12dcc074ca1152477ccf9b84");
+    try (ISession session = dbManager.getRevokingStore().buildSession()) {
+      put("revoked", 0, owner);
+      Assert.assertEquals(1, assetIssueStore.getAssetIssuesByOwner(owner).size());
+      session.revoke();
+    }
+    Assert.assertTrue(assetIssueStore.getAssetIssuesByOwner(owner).isEmpty());
+    Assert.assertFalse(keys(assetIssueStore.getAssetIssuesPaginated(0, 10)).contains("revoked"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownCursorTest() {
+    assetIssueStore.getAssetIssuesAfter("unknown".getBytes(), 2);
+  }
+}
@@ -0,0 +1,204 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.api.GrpcAPI.LogEntry;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.utils.Bloom;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransactionInfoCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db2.core.ISession;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Contract.TriggerSmartContract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.Protocol.TransactionInfo.Log;
+
+public class LogIndexStoreTest {
+
+  private static String dbPath = "output_LogIndexStore_test";
+  private static TronApplicationContext context;
+  private static Manager dbManager;
+  private static LogIndexStore logIndexStore;
+
+  private static final byte[] OWNER_ADDRESS = ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc");
+  private static final ByteString CONTRACT_A = ByteString.copyFrom(ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc"));
+  private static final ByteString CONTRACT_B = ByteString.copyFrom(ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "e1a17255ccf15d6b12dcc074ca1152477ccf9b84"));
+
+  private static final ByteString TOPIC_1 = topic(1);
+  private static final ByteString TOPIC_2 = topic(2);
+  private static final ByteString TOPIC_X = topic(3);
+  private static final ByteString TOPIC_Y = topic(4);
+
+  private static int nonce;
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new TronApplicationContext(DefaultConfig.class);
+  }
+
+  /**
+   * Block 1 logs A (1, X), block 2 logs B (1), block 3 has no log, block 4 logs A (2) then
+   * A (1, Y) in its second transaction.
+   */
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    logIndexStore = dbManager.getLogIndexStore();
+    logIndexStore.setEnabled(true);
+
+    put(block(1, trigger(CONTRACT_A, TOPIC_1, TOPIC_X)));
+    put(block(2, trigger(CONTRACT_B, TOPIC_1)));
+    put(block(3, transfer()));
+    put(block(4, trigger(CONTRACT_A, TOPIC_2), trigger(CONTRACT_A, TOPIC_1, TOPIC_Y)));
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static ByteString topic(int value) {
+    byte[] topic = new byte[32];
+    topic[31] = (byte) value;
+    return ByteString.copyFrom(topic);
+  }
+
+  private static BlockCapsule block(long num, TransactionCapsule... transactions) {
+    BlockCapsule block = new BlockCapsule(num, dbManager.getGenesisBlock().getBlockId(),
+        num * 3000L, ByteString.copyFrom(OWNER_ADDRESS));
+    Arrays.stream(transactions).forEach(block::addTransaction);
+    return block;
+  }
+
+  private static void put(BlockCapsule block) {
+    dbManager.getBlockStore().put(block.getBlockId().getBytes(), block);
+    context.getBean(BlockIndexStore.class).put(block.getBlockId());
+    logIndexStore.put(block);
+  }
+
+  private static TransactionCapsule transfer() {
+    return new TransactionCapsule(TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(OWNER_ADDRESS))
+        .setToAddress(CONTRACT_A)
+        .setAmount(++nonce)
+        .build(), ContractType.TransferContract);
+  }
+
+  // a call of the contract logging the topics, from the 20 bytes of its VM address
+  private static TransactionCapsule trigger(ByteString contract, ByteString... topics) {
+    TransactionCapsule transaction = new TransactionCapsule(TriggerSmartContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(OWNER_ADDRESS))
+        .setContractAddress(contract)
+        .setCallValue(++nonce)
+        .build(), ContractType.TriggerSmartContract);
+    TransactionInfoCapsule info = new TransactionInfoCapsule();
+    info.setId(transaction.getTransactionId().getBytes());
+    info.addAllLog(Collections.singletonList(Log.newBuilder()
+        .setAddress(contract.substring(1))
+        .addAllTopics(Arrays.asList(topics))
+        .build()));
+    dbManager.getTransactionHistoryStore().put(transaction.getTransactionId().getBytes(), info);
+    return transaction;
+  }
+
+  private static List<String> positions(List<LogEntry> logs) {
+    return logs.stream()
+        .map(log -> log.getBlockNumber() + "." + log.getTransactionIndex() + "."
+            + log.getLogIndex())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void topicTest() {
+    Assert.assertEquals(Arrays.asList("1.0.0", "4.1.0"), positions(logIndexStore
+        .getLogs(0, 10, Arrays.asList(CONTRACT_A), Arrays.asList(TOPIC_1), 10)));
+    Assert.assertEquals(Arrays.asList("1.0.0", "2.0.0", "4.1.0"), positions(logIndexStore
+        .getLogs(0, 10, Arrays.asList(CONTRACT_A, CONTRACT_B), Arrays.asList(TOPIC_1), 10)));
+    Assert.assertEquals(Arrays.asList("4.1.0"), positions(logIndexStore
+        .getLogs(0, 10, Arrays.asList(CONTRACT_A), Arrays.asList(TOPIC_1, TOPIC_Y), 10)));
+    Assert.assertEquals(Arrays.asList("1.0.0"), positions(logIndexStore
+        .getLogs(0, 10, Arrays.asList(CONTRACT_A), Arrays.asList(TOPIC_1), 1)));
+    Assert.assertTrue(logIndexStore
+        .getLogs(2, 3, Arrays.asList(CONTRACT_A), Arrays.asList(TOPIC_1), 10).isEmpty());
+  }
+
+  @Test
+  public void bloomTest() {
+    Assert.assertEquals(Arrays.asList("1.0.0", "2.0.0", "4.1.0"), positions(logIndexStore
+        .getLogs(0, 10, Collections.emptyList(), Arrays.asList(TOPIC_1), 10)));
+    Assert.assertEquals(Arrays.asList("1.0.0"), positions(logIndexStore
+        .getLogs(0, 10, Arrays.asList(CONTRACT_A), Arrays.asList(ByteString.EMPTY, TOPIC_X), 10)));
+    Assert.assertEquals(Arrays.asList("1.0.0", "4.0.0", "4.1.0"), positions(logIndexStore
+        .getLogs(0, 10, Arrays.asList(CONTRACT_A), Collections.emptyList(), 10)));
+    Assert.assertEquals(Arrays.asList("1.0.0", "2.0.0"), positions(logIndexStore
+        .getLogs(0, 10, Collections.emptyList(), Collections.emptyList(), 2)));
+    Assert.assertEquals(Arrays.asList("4.0.0", "4.1.0"), positions(logIndexStore
+        .getLogs(3, 4, Collections.emptyList(), Collections.emptyList(), 10)));
+
+    Bloom bloom = new Bloom();
+    bloom.add(TOPIC_1.toByteArray());
+    Assert.assertTrue(bloom.mayContain(TOPIC_1.toByteArray()));
+    Assert.assertFalse(bloom.mayContain(TOPIC_2.toByteArray()));
+  }
+
+  @Test
+  public void cursorTest() {
+    // the logs of a block are paged past
+    List<LogEntry> logs = logIndexStore
+        .getLogs(4, 4, Collections.emptyList(), Collections.emptyList(), 1);
+    Assert.assertEquals(Arrays.asList("4.0.0"), positions(logs));
+    logs = logIndexStore.getLogs(4, 4, Collections.emptyList(), Collections.emptyList(),
+        LogIndexStore.getCursor(logs.get(0)), 1);
+    Assert.assertEquals(Arrays.asList("4.1.0"), positions(logs));
+    Assert.assertTrue(logIndexStore.getLogs(4, 4, Collections.emptyList(),
+        Collections.emptyList(), LogIndexStore.getCursor(logs.get(0)), 1).isEmpty());
+
+    logs = logIndexStore.getLogs(0, 10, Arrays.asList(CONTRACT_A), Arrays.asList(TOPIC_1), 1);
+    Assert.assertEquals(Arrays.asList("1.0.0"), positions(logs));
+    Assert.assertEquals(Arrays.asList("4.1.0"), positions(logIndexStore.getLogs(0, 10,
+        Arrays.asList(CONTRACT_A), Arrays.asList(TOPIC_1), LogIndexStore.getCursor(logs.get(0)),
+        10)));
+
+    try {
+      logIndexStore.getLogs(0, 10, Collections.emptyList(), Collections.emptyList(),
+          new byte[3], 10);
+      Assert.fail("took an invalid cursor");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void revokeTest() {
+    try (ISession session = dbManager.getRevokingStore().buildSession()) {
+      put(block(5, trigger(CONTRACT_B, TOPIC_2)));
+      Assert.assertEquals(1, logIndexStore
+          .getLogs(5, 5, Arrays.asList(CONTRACT_B), Arrays.asList(TOPIC_2), 10).size());
+      session.revoke();
+    }
+    Assert.assertTrue(logIndexStore
+        .getLogs(5, 5, Arrays.asList(CONTRACT_B), Arrays.asList(TOPIC_2), 10).isEmpty());
+    Assert.assertTrue(logIndexStore
+        .getLogs(5, 5, Collections.emptyList(), Collections.emptyList(), 10).isEmpty());
+  }
+}
@@ -0,0 +1,55 @@
+package org.tron.core.db;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.core.db.ResponseCache.Key;
+import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.BlockHeader;
+import org.tron.protos.Protocol.BlockHeader.raw;
+
+public class ResponseCacheTest {
+
+  private static Block block(long num) {
+    return Block.newBuilder()
+        .setBlockHeader(BlockHeader.newBuilder().setRawData(raw.newBuilder().setNumber(num)))
+        .build();
+  }
+
+  @Test
+  public void generationTest() {
+    ResponseCache cache = new ResponseCache();
+    AtomicInteger builds = new AtomicInteger();
+
+    Block first = cache.get(Key.NOW_BLOCK, () -> block(builds.incrementAndGet()));
+    Assert.assertSame(first, cache.get(Key.NOW_BLOCK, () -> block(builds.incrementAndGet())));
+    Assert.assertEquals(1, builds.get());
+
+    cache.invalidate();
+    Block second = cache.get(Key.NOW_BLOCK, () -> block(builds.incrementAndGet()));
+    Assert.assertEquals(2, second.getBlockHeader().getRawData().getNumber());
+    Assert.assertSame(second, cache.get(Key.NOW_BLOCK, () -> block(builds.incrementAndGet())));
+
+    // null responses are built again
+    Assert.assertNull(cache.get(Key.WITNESSES, () -> null));
+    Assert.assertEquals(3, cache.get(Key.WITNESSES, () -> block(3))
+        .getBlockHeader().getRawData().getNumber());
+  }
+
+  @Test
+  public void jsonTest() {
+    ResponseCache cache = new ResponseCache();
+    AtomicInteger prints = new AtomicInteger();
+    Block cached = cache.get(Key.NOW_BLOCK, () -> block(1));
+
+    byte[] json = cache.getJson(Key.NOW_BLOCK, cached,
+        message -> String.valueOf(prints.incrementAndGet()));
+    Assert.assertSame(json, cache.getJson(Key.NOW_BLOCK, cached,
+        message -> String.valueOf(prints.incrementAndGet())));
+    Assert.assertEquals(1, prints.get());
+
+    // an equal message that is not the cached one is printed every time
+    cache.getJson(Key.NOW_BLOCK, block(1), message -> String.valueOf(prints.incrementAndGet()));
+    Assert.assertEquals(2, prints.get());
+  }
+}
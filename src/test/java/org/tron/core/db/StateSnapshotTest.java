@@ -0,0 +1,126 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+public class StateSnapshotTest {
+
+  private static String dbPath = "output_StateSnapshot_test";
+  private static File snapshot = new File("output_StateSnapshot_test.snapshot");
+  private static File copy = new File("output_StateSnapshot_test.copy");
+  private static long headNum;
+  private static byte[] transactionId;
+
+  private static final String OWNER_ADDRESS =
+      Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc";
+  private static final String WITNESS_ADDRESS =
+      Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc";
+
+  /**
+   * Init a block with a transaction after the genesis state and close the databases, snapshots
+   * are taken of a stopped node.
+   */
+  @BeforeClass
+  public static void init() {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    TronApplicationContext context = new TronApplicationContext(DefaultConfig.class);
+    Manager dbManager = context.getBean(Manager.class);
+    BlockCapsule block = new BlockCapsule(1, dbManager.getGenesisBlock().getBlockId(), 1000L,
+        ByteString.copyFrom(ByteArray.fromHexString(WITNESS_ADDRESS)));
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(ByteArray.fromHexString(OWNER_ADDRESS)))
+        .setToAddress(ByteString.copyFrom(ByteArray.fromHexString(WITNESS_ADDRESS)))
+        .setAmount(1)
+        .build();
+    TransactionCapsule transaction =
+        new TransactionCapsule(contract, ContractType.TransferContract);
+    block.addTransaction(transaction);
+    transactionId = transaction.getTransactionId().getBytes();
+    dbManager.getBlockStore().put(block.getBlockId().getBytes(), block);
+    context.getBean(BlockIndexStore.class).put(block.getBlockId());
+    dbManager.getTransactionStore().put(transactionId, transaction);
+    dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(1);
+    headNum = 1;
+    dbManager.closeAllStore();
+    context.destroy();
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+    snapshot.delete();
+    copy.delete();
+  }
+
+  private static void deleteDatabase() {
+    FileUtil.deleteDir(new File(Args.getInstance().getOutputDirectory()));
+  }
+
+  @Test
+  public void exportImportTest() throws IOException {
+    Sha256Hash hash = StateSnapshot.exportTo(snapshot);
+    deleteDatabase();
+
+    Assert.assertEquals(headNum, StateSnapshot.importFrom(snapshot, hash.toString()));
+    Assert.assertFalse(StateSnapshot.isImportIncomplete());
+    // transactions that may not have expired are kept for the duplicate check
+    LevelDbDataSourceImpl transactions = new LevelDbDataSourceImpl(
+        Args.getInstance().getOutputDirectoryByDbName("trans"), "trans");
+    transactions.initDB();
+    Assert.assertNotNull(transactions.getData(transactionId));
+    transactions.closeDB();
+    // the same state exports to the same file
+    Assert.assertEquals(hash, StateSnapshot.exportTo(copy));
+
+    try {
+      StateSnapshot.importFrom(snapshot, "");
+      Assert.fail("imported into a database that is not empty");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains("is not empty"));
+    }
+
+    deleteDatabase();
+    try {
+      StateSnapshot.importFrom(snapshot, Sha256Hash.ZERO_HASH.toString());
+      Assert.fail("imported a snapshot of another manifest hash");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains("manifest hash"));
+    }
+    // the chunks are written, the node must not start on them
+    Assert.assertTrue(StateSnapshot.isImportIncomplete());
+
+    deleteDatabase();
+    try (RandomAccessFile file = new RandomAccessFile(copy, "rw")) {
+      file.seek(file.length() / 2);
+      int b = file.read();
+      file.seek(file.length() / 2);
+      file.write(b ^ 0xff);
+    }
+    try {
+      StateSnapshot.importFrom(copy, "");
+      Assert.fail("imported a corrupted snapshot");
+    } catch (IOException e) {
+      // the damaged chunk or manifest is found
+    }
+  }
+}
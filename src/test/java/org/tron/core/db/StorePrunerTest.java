@@ -0,0 +1,129 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransactionInfoCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+public class StorePrunerTest {
+
+  private static String dbPath = "output_StorePruner_test";
+  private static TronApplicationContext context;
+  private static Manager dbManager;
+  private static StorePruner storePruner;
+
+  private static final String OWNER_ADDRESS =
+      Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc";
+  private static final String WITNESS_ADDRESS =
+      Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc";
+
+  private static final List<BlockCapsule> blocks = new ArrayList<>();
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath, "-w"}, Constant.TEST_CONF);
+    context = new TronApplicationContext(DefaultConfig.class);
+  }
+
+  /**
+   * Init a chain of 10 blocks, the first 4 more than a day before the last one.
+   */
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    storePruner = context.getBean(StorePruner.class);
+
+    BlockCapsule parent = dbManager.getGenesisBlock();
+    for (int i = 1; i <= 10; i++) {
+      long when = i <= 4 ? i * 1000L : Constant.MAXIMUM_TIME_UNTIL_EXPIRATION + i * 1000L;
+      BlockCapsule block = new BlockCapsule(i, parent.getBlockId(), when,
+          ByteString.copyFrom(ByteArray.fromHexString(WITNESS_ADDRESS)));
+      TransferContract contract = TransferContract.newBuilder()
+          .setOwnerAddress(ByteString.copyFrom(ByteArray.fromHexString(OWNER_ADDRESS)))
+          .setToAddress(ByteString.copyFrom(ByteArray.fromHexString(WITNESS_ADDRESS)))
+          .setAmount(i)
+          .build();
+      TransactionCapsule transaction =
+          new TransactionCapsule(contract, ContractType.TransferContract);
+      block.addTransaction(transaction);
+
+      byte[] id = transaction.getTransactionId().getBytes();
+      dbManager.getBlockStore().put(block.getBlockId().getBytes(), block);
+      context.getBean(BlockIndexStore.class).put(block.getBlockId());
+      dbManager.getTransactionStore().put(id, transaction);
+      dbManager.getTransactionHistoryStore().put(id, new TransactionInfoCapsule());
+      blocks.add(block);
+      parent = block;
+    }
+    dbManager.getDynamicPropertiesStore().saveLatestSolidifiedBlockNum(10);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static boolean hasBlock(int num) {
+    return dbManager.getBlockStore().has(blocks.get(num - 1).getBlockId().getBytes())
+        || context.getBean(BlockIndexStore.class).has(ByteArray.fromLong(num));
+  }
+
+  private static byte[] transactionId(int num) {
+    return blocks.get(num - 1).getTransactions().get(0).getTransactionId().getBytes();
+  }
+
+  @Test
+  public void pruneTest() {
+    storePruner.setBlockRetain(3);
+    storePruner.setTransactionHistoryRetain(5);
+    storePruner.setTransactionExpired(true);
+
+    // nothing the revoking layers may still hold is pruned
+    int depth = dbManager.getRevokingStore().size();
+    dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(depth + 2);
+    storePruner.prune();
+    for (int i = 1; i <= 10; i++) {
+      Assert.assertEquals(i > 2, hasBlock(i));
+      Assert.assertEquals(i > 2, dbManager.getTransactionStore().has(transactionId(i)));
+      Assert.assertEquals(i > 2, dbManager.getTransactionHistoryStore().has(transactionId(i)));
+    }
+
+    dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(depth + 10);
+    storePruner.prune();
+
+    // blocks wait for the expired transactions of blocks 1 to 4
+    for (int i = 1; i <= 10; i++) {
+      Assert.assertEquals(i > 4, hasBlock(i));
+      Assert.assertEquals(i > 4, dbManager.getTransactionStore().has(transactionId(i)));
+      Assert.assertEquals(i > 4, dbManager.getTransactionHistoryStore().has(transactionId(i)));
+    }
+    Assert.assertTrue(dbManager.getBlockStore()
+        .has(dbManager.getGenesisBlock().getBlockId().getBytes()));
+
+    storePruner.setTransactionHistoryRetain(0);
+    storePruner.setTransactionExpired(false);
+    storePruner.prune();
+    for (int i = 1; i <= 10; i++) {
+      Assert.assertEquals(i > 6, hasBlock(i));
+    }
+    Assert.assertTrue(dbManager.getTransactionStore().has(transactionId(5)));
+    Assert.assertTrue(dbManager.getTransactionHistoryStore().has(transactionId(6)));
+  }
+}
@@ -1,5 +1,6 @@
 package org.tron.core.db;
 
+import com.google.common.collect.Streams;
 import com.google.protobuf.ByteString;
 import java.io.File;
 import java.util.Random;
@@ -12,10 +13,13 @@ import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.FileUtil;
 import org.tron.core.Constant;
 import org.tron.core.Wallet;
+import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.config.DefaultConfig;
 import org.tron.core.config.args.Args;
+import org.tron.core.db2.core.ISession;
 import org.tron.core.exception.BadItemException;
 import org.tron.protos.Contract.AccountCreateContract;
 import org.tron.protos.Contract.TransferContract;
@@ -221,6 +225,94 @@ public class TransactionStoreTest {
     }
   }
 
+  /**
+   * put a block transaction in compact mode and get it back.
+   */
+  @Test
+  public void compactTransactionTest() throws BadItemException {
+    BlockCapsule block = new BlockCapsule(100, Sha256Hash.ZERO_HASH, 0,
+        ByteString.copyFrom(ByteArray.fromHexString(WITNESS_ADDRESS)));
+    block.addTransaction(new TransactionCapsule(getWitnessContract(OWNER_ADDRESS, URL)));
+    block.addTransaction(new TransactionCapsule(getContract(AMOUNT, OWNER_ADDRESS, TO_ADDRESS),
+        dbManager.getAccountStore()));
+    dbManager.getBlockStore().put(block.getBlockId().getBytes(), block);
+    context.getBean(BlockIndexStore.class).put(block.getBlockId());
+
+    TransactionCapsule transactionCapsule = block.getTransactions().get(1);
+    byte[] key = transactionCapsule.getTransactionId().getBytes();
+    transactionStore.setCompact(true);
+    try {
+      transactionStore.put(key, transactionCapsule, block, 1);
+    } finally {
+      transactionStore.setCompact(false);
+    }
+
+    Assert.assertTrue(transactionStore.has(key));
+    Assert.assertTrue(transactionStore.revokingDB.getUnchecked(key).length
+        < transactionCapsule.getData().length);
+    Assert.assertEquals(transactionCapsule.getInstance(),
+        transactionStore.get(key).getInstance());
+    Assert.assertEquals(transactionCapsule.getInstance(),
+        transactionStore.getUnchecked(key).getInstance());
+  }
+
+  /**
+   * locate the transactions of a block not stored yet, more than the recent transactions kept.
+   */
+  @Test
+  public void compactPendingBlockTest() throws BadItemException {
+    BlockCapsule block = new BlockCapsule(200, Sha256Hash.ZERO_HASH, 0,
+        ByteString.copyFrom(ByteArray.fromHexString(WITNESS_ADDRESS)));
+    int count = TransactionStore.RECENT_TRANSACTIONS_SIZE + 1;
+    for (int i = 0; i < count; i++) {
+      block.addTransaction(new TransactionCapsule(getContract(i + 1, OWNER_ADDRESS, TO_ADDRESS),
+          dbManager.getAccountStore()));
+    }
+
+    transactionStore.setCompact(true);
+    try {
+      for (int i = 0; i < count; i++) {
+        TransactionCapsule transactionCapsule = block.getTransactions().get(i);
+        transactionStore.put(transactionCapsule.getTransactionId().getBytes(),
+            transactionCapsule, block, i);
+      }
+    } finally {
+      transactionStore.setCompact(false);
+    }
+
+    for (int i : new int[]{0, count - 1}) {
+      TransactionCapsule transactionCapsule = block.getTransactions().get(i);
+      Assert.assertEquals(transactionCapsule.getInstance(), transactionStore
+          .get(transactionCapsule.getTransactionId().getBytes()).getInstance());
+    }
+  }
+
+  @Test
+  public void totalTransactionsTest() {
+    long total = transactionStore.getTotalTransactions();
+    Assert.assertEquals(Streams.stream(transactionStore.iterator()).count(), total);
+
+    byte[] key = randomBytes(32);
+    TransactionCapsule transactionCapsule = new TransactionCapsule(
+        getContract(AMOUNT, OWNER_ADDRESS, TO_ADDRESS), dbManager.getAccountStore());
+    transactionStore.put(key, transactionCapsule);
+    transactionStore.put(key, transactionCapsule);
+    Assert.assertEquals(total + 1, transactionStore.getTotalTransactions());
+
+    // the count is revoked with the rows
+    try (ISession session = dbManager.getRevokingStore().buildSession()) {
+      transactionStore.put(randomBytes(32), transactionCapsule);
+      Assert.assertEquals(total + 2, transactionStore.getTotalTransactions());
+      session.revoke();
+    }
+    Assert.assertEquals(total + 1, transactionStore.getTotalTransactions());
+
+    transactionStore.delete(key);
+    transactionStore.delete(key);
+    Assert.assertEquals(total, transactionStore.getTotalTransactions());
+    Assert.assertEquals(Streams.stream(transactionStore.iterator()).count(), total);
+  }
+
   @AfterClass
   public static void destroy() {
     Args.clearParam();
@@ -0,0 +1,232 @@
+package org.tron.core.event;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.api.GrpcAPI.BlockEvent;
+import org.tron.api.GrpcAPI.BlockEvent.Type;
+import org.tron.api.GrpcAPI.BlockEventFilter;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransactionInfoCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.Manager;
+import org.tron.core.event.BlockEventBus.Subscription;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Contract.TriggerSmartContract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.Protocol.TransactionInfo.Log;
+
+public class BlockEventBusTest {
+
+  private static String dbPath = "output_BlockEventBus_test";
+  private static TronApplicationContext context;
+  private static Manager dbManager;
+  private static BlockEventBus blockEventBus;
+
+  private static final byte[] OWNER_ADDRESS = ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc");
+  private static final byte[] TO_ADDRESS = ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc");
+  private static final byte[] CONTRACT_ADDRESS = ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "e1a17255ccf15d6b12dcc074ca1152477ccf9b84");
+  private static final ByteString TOPIC = ByteString.copyFrom(new byte[32]);
+
+  private Subscription subscription;
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new TronApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    blockEventBus = dbManager.getBlockEventBus();
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @After
+  public void cancel() {
+    if (subscription != null) {
+      subscription.cancel();
+    }
+  }
+
+  /**
+   * Keeps the events it's sent, ready unless told otherwise.
+   */
+  private static class TestSink implements BlockEventBus.Sink {
+
+    private final BlockingQueue<BlockEvent> events = new LinkedBlockingQueue<>();
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private final boolean ready;
+    private volatile String error;
+
+    private TestSink(boolean ready) {
+      this.ready = ready;
+    }
+
+    @Override
+    public boolean isReady() {
+      return ready;
+    }
+
+    @Override
+    public void send(BlockEvent event) {
+      events.add(event);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close(String error) {
+      this.error = error;
+      closed.countDown();
+    }
+
+    private BlockEvent next() throws InterruptedException {
+      BlockEvent event = events.poll(5, TimeUnit.SECONDS);
+      Assert.assertNotNull(event);
+      return event;
+    }
+  }
+
+  private static BlockCapsule block(long num, TransactionCapsule... transactions) {
+    BlockCapsule block = new BlockCapsule(num, dbManager.getGenesisBlock().getBlockId(),
+        num * 3000L, ByteString.copyFrom(TO_ADDRESS));
+    Arrays.stream(transactions).forEach(block::addTransaction);
+    return block;
+  }
+
+  private static TransactionCapsule transfer(byte[] owner, byte[] to) {
+    return new TransactionCapsule(TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(owner))
+        .setToAddress(ByteString.copyFrom(to))
+        .setAmount(1)
+        .build(), ContractType.TransferContract);
+  }
+
+  private static TransactionCapsule trigger(ByteString topic) {
+    TransactionCapsule transaction = new TransactionCapsule(TriggerSmartContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(OWNER_ADDRESS))
+        .setContractAddress(ByteString.copyFrom(CONTRACT_ADDRESS))
+        .build(), ContractType.TriggerSmartContract);
+    TransactionInfoCapsule info = new TransactionInfoCapsule();
+    info.setId(transaction.getTransactionId().getBytes());
+    // logs carry the address without its prefix
+    info.addAllLog(Arrays.asList(Log.newBuilder()
+        .setAddress(ByteString.copyFrom(CONTRACT_ADDRESS, 1, 20))
+        .addTopics(topic)
+        .build()));
+    dbManager.getTransactionHistoryStore().put(transaction.getTransactionId().getBytes(), info);
+    return transaction;
+  }
+
+  @Test
+  public void addressTest() throws InterruptedException {
+    TestSink sink = new TestSink(true);
+    subscription = blockEventBus.subscribe(BlockEventFilter.newBuilder()
+        .addAddress(ByteString.copyFrom(TO_ADDRESS))
+        .setMatchedOnly(true)
+        .build(), sink);
+
+    blockEventBus.blockApplied(block(1, transfer(TO_ADDRESS, OWNER_ADDRESS)));
+    blockEventBus.blockApplied(block(2, transfer(OWNER_ADDRESS, CONTRACT_ADDRESS)));
+    blockEventBus.blockRemoved(block(3, transfer(OWNER_ADDRESS, TO_ADDRESS),
+        transfer(OWNER_ADDRESS, CONTRACT_ADDRESS)));
+
+    BlockEvent event = sink.next();
+    Assert.assertEquals(Type.APPLIED, event.getType());
+    Assert.assertEquals(1, event.getNum());
+    Assert.assertEquals(1, event.getTransactionsCount());
+
+    // the block without a transaction of the address is skipped
+    event = sink.next();
+    Assert.assertEquals(Type.REMOVED, event.getType());
+    Assert.assertEquals(3, event.getNum());
+    Assert.assertEquals(1, event.getTransactionsCount());
+    Assert.assertEquals(1, event.getTransactionInfoCount());
+  }
+
+  @Test
+  public void logTest() throws InterruptedException {
+    TestSink sink = new TestSink(true);
+    subscription = blockEventBus.subscribe(BlockEventFilter.newBuilder()
+        .addContractAddress(ByteString.copyFrom(CONTRACT_ADDRESS))
+        .addTopic(TOPIC)
+        .build(), sink);
+
+    TransactionCapsule matching = trigger(TOPIC);
+    blockEventBus.blockApplied(block(4, trigger(ByteString.copyFrom(new byte[]{1})), matching,
+        transfer(OWNER_ADDRESS, TO_ADDRESS)));
+    blockEventBus.blockApplied(block(5));
+
+    BlockEvent event = sink.next();
+    Assert.assertEquals(1, event.getTransactionsCount());
+    Assert.assertEquals(matching.getInstance(), event.getTransactions(0));
+    Assert.assertEquals(TOPIC, event.getTransactionInfo(0).getLog(0).getTopics(0));
+
+    // blocks without a match are sent when not only the matching ones are asked for
+    event = sink.next();
+    Assert.assertEquals(5, event.getNum());
+    Assert.assertEquals(0, event.getTransactionsCount());
+  }
+
+  @Test
+  public void removedTest() throws InterruptedException {
+    TestSink sink = new TestSink(true);
+    subscription = blockEventBus.subscribe(BlockEventFilter.newBuilder()
+        .addTopic(TOPIC)
+        .setMatchedOnly(true)
+        .build(), sink);
+
+    // the infos of an erased block are read before the erase revokes them
+    TransactionCapsule matching = trigger(TOPIC);
+    blockEventBus.blockRemoved(block(6, matching));
+    dbManager.getTransactionHistoryStore().delete(matching.getTransactionId().getBytes());
+
+    BlockEvent event = sink.next();
+    Assert.assertEquals(Type.REMOVED, event.getType());
+    Assert.assertEquals(TOPIC, event.getTransactionInfo(0).getLog(0).getTopics(0));
+  }
+
+  @Test
+  public void overflowTest() throws InterruptedException {
+    TestSink sink = new TestSink(false);
+    int count = blockEventBus.getSubscriptionCount();
+    subscription = blockEventBus.subscribe(BlockEventFilter.getDefaultInstance(), sink);
+    Assert.assertEquals(count + 1, blockEventBus.getSubscriptionCount());
+
+    for (int i = 0; i <= 256; i++) {
+      blockEventBus.blockApplied(block(i + 1));
+    }
+    Assert.assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+    Assert.assertNotNull(sink.error);
+    Assert.assertTrue(sink.events.isEmpty());
+    Assert.assertEquals(count, blockEventBus.getSubscriptionCount());
+  }
+}
@@ -0,0 +1,291 @@
+package org.tron.core.services;
+
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.api.GrpcAPI.BlockStreamRequest;
+import org.tron.api.GrpcAPI.RawBlock;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.BlockIndexStore;
+import org.tron.core.db.Manager;
+
+public class BlockStreamerTest {
+
+  private static String dbPath = "output_BlockStreamer_test";
+  private static TronApplicationContext context;
+  private static Manager dbManager;
+  private static BlockIndexStore blockIndexStore;
+  private static ScheduledExecutorService scheduler;
+
+  private static final ByteString WITNESS_ADDRESS = ByteString.copyFrom(ByteArray.fromHexString(
+      Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc"));
+
+  private static final List<BlockCapsule> blocks = new ArrayList<>();
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new TronApplicationContext(DefaultConfig.class);
+  }
+
+  /**
+   * Init a chain of 6 blocks after the genesis block, the head at block 3.
+   */
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    blockIndexStore = context.getBean(BlockIndexStore.class);
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    BlockCapsule parent = dbManager.getGenesisBlock();
+    blocks.add(parent);
+    for (int i = 1; i <= 6; i++) {
+      BlockCapsule block = new BlockCapsule(i, parent.getBlockId(), i * 3000L, WITNESS_ADDRESS);
+      dbManager.getBlockStore().put(block.getBlockId().getBytes(), block);
+      blockIndexStore.put(block.getBlockId());
+      blocks.add(block);
+      parent = block;
+    }
+    dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(3);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    scheduler.shutdownNow();
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  /**
+   * Takes the blocks while fewer than the ready limit were sent.
+   */
+  private static class TestObserver extends ServerCallStreamObserver<RawBlock> {
+
+    private final List<RawBlock> blocks = new ArrayList<>();
+    private volatile int readyLimit = Integer.MAX_VALUE;
+    private volatile boolean cancelled;
+    private volatile boolean completed;
+    private volatile Throwable error;
+    private Runnable onReadyHandler;
+    private Runnable onCancelHandler;
+
+    @Override
+    public synchronized boolean isReady() {
+      return blocks.size() < readyLimit;
+    }
+
+    @Override
+    public void setOnReadyHandler(Runnable onReadyHandler) {
+      this.onReadyHandler = onReadyHandler;
+    }
+
+    @Override
+    public void disableAutoInboundFlowControl() {
+    }
+
+    @Override
+    public void request(int count) {
+    }
+
+    @Override
+    public void setMessageCompression(boolean enable) {
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    @Override
+    public void setOnCancelHandler(Runnable onCancelHandler) {
+      this.onCancelHandler = onCancelHandler;
+    }
+
+    @Override
+    public void setCompression(String compression) {
+    }
+
+    @Override
+    public synchronized void onNext(RawBlock value) {
+      blocks.add(value);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      error = t;
+    }
+
+    @Override
+    public void onCompleted() {
+      completed = true;
+    }
+
+    private synchronized List<Long> getNums() {
+      List<Long> nums = new ArrayList<>();
+      blocks.forEach(block -> nums.add(block.getNum()));
+      return nums;
+    }
+  }
+
+  private static TestObserver stream(BlockStreamRequest request) {
+    TestObserver observer = new TestObserver();
+    BlockStreamer.start(dbManager, request, observer, scheduler);
+    return observer;
+  }
+
+  private static void setHead(int num) {
+    dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(num);
+  }
+
+  private static void await(TestObserver observer, int count) throws InterruptedException {
+    for (int i = 0; i < 50 && observer.getNums().size() < count; i++) {
+      TimeUnit.MILLISECONDS.sleep(100);
+    }
+  }
+
+  @Test
+  public void rangeTest() {
+    TestObserver observer = stream(BlockStreamRequest.newBuilder()
+        .setStartNum(1)
+        .setEndNum(3)
+        .build());
+    Assert.assertTrue(observer.completed);
+    Assert.assertEquals(2, observer.getNums().size());
+    Assert.assertEquals(1, observer.getNums().get(0).longValue());
+    Assert.assertEquals(2, observer.getNums().get(1).longValue());
+    // sent as stored
+    Assert.assertArrayEquals(blocks.get(1).getData(),
+        observer.blocks.get(0).getBlock().toByteArray());
+
+    // past the end of the range
+    observer = stream(BlockStreamRequest.newBuilder().setStartNum(5).setEndNum(5).build());
+    Assert.assertTrue(observer.completed);
+    Assert.assertTrue(observer.getNums().isEmpty());
+
+    observer = stream(BlockStreamRequest.newBuilder().setStartNum(-1).build());
+    Assert.assertEquals(Status.Code.INVALID_ARGUMENT,
+        Status.fromThrowable(observer.error).getCode());
+  }
+
+  @Test
+  public void readyTest() {
+    TestObserver observer = new TestObserver();
+    observer.readyLimit = 1;
+    BlockStreamer.start(dbManager, BlockStreamRequest.newBuilder().setEndNum(4).build(),
+        observer, scheduler);
+    // nothing more is sent until the transport is ready again
+    Assert.assertEquals(1, observer.getNums().size());
+    Assert.assertFalse(observer.completed);
+
+    observer.readyLimit = 3;
+    observer.onReadyHandler.run();
+    Assert.assertEquals(3, observer.getNums().size());
+    Assert.assertFalse(observer.completed);
+
+    observer.readyLimit = Integer.MAX_VALUE;
+    observer.onReadyHandler.run();
+    Assert.assertEquals(4, observer.getNums().size());
+    Assert.assertTrue(observer.completed);
+  }
+
+  @Test
+  public void followTest() throws Exception {
+    TestObserver observer = stream(BlockStreamRequest.newBuilder()
+        .setStartNum(2)
+        .setFollow(true)
+        .build());
+    // waits at the head
+    Assert.assertEquals(2, observer.getNums().size());
+    Assert.assertFalse(observer.completed);
+
+    try {
+      setHead(4);
+      await(observer, 3);
+      Assert.assertEquals(3, observer.getNums().size());
+      Assert.assertEquals(4, observer.getNums().get(2).longValue());
+
+      // nothing is sent once the client cancelled
+      observer.cancelled = true;
+      observer.onCancelHandler.run();
+      setHead(5);
+      TimeUnit.MILLISECONDS.sleep(1000);
+      Assert.assertEquals(3, observer.getNums().size());
+      Assert.assertFalse(observer.completed);
+      Assert.assertNull(observer.error);
+    } finally {
+      setHead(3);
+    }
+  }
+
+  @Test
+  public void forkTest() {
+    TestObserver observer = new TestObserver();
+    observer.readyLimit = 1;
+    BlockStreamer.start(dbManager, BlockStreamRequest.newBuilder().setStartNum(1).setEndNum(3)
+        .build(), observer, scheduler);
+    Assert.assertEquals(1, observer.getNums().size());
+
+    // block 1 is switched to another fork before block 2 is sent
+    BlockCapsule fork = new BlockCapsule(1, blocks.get(0).getBlockId(), 1000L, WITNESS_ADDRESS);
+    dbManager.getBlockStore().put(fork.getBlockId().getBytes(), fork);
+    blockIndexStore.put(fork.getBlockId());
+    try {
+      observer.readyLimit = Integer.MAX_VALUE;
+      observer.onReadyHandler.run();
+      Assert.assertEquals(1, observer.getNums().size());
+      Assert.assertEquals(Status.Code.ABORTED, Status.fromThrowable(observer.error).getCode());
+    } finally {
+      blockIndexStore.put(blocks.get(1).getBlockId());
+    }
+
+    // the solidified blocks don't change
+    dbManager.getDynamicPropertiesStore().saveLatestSolidifiedBlockNum(3);
+    observer = stream(BlockStreamRequest.newBuilder().setStartNum(1).setSolidified(true)
+        .build());
+    Assert.assertEquals(3, observer.getNums().size());
+    Assert.assertTrue(observer.completed);
+  }
+
+  @Test
+  public void limitTest() {
+    int maxStreams = Args.getInstance().getRpcMaxBlockStreams();
+    int count = BlockStreamer.getStreamCount();
+    Args.getInstance().setRpcMaxBlockStreams(count + 1);
+    try {
+      TestObserver following = stream(BlockStreamRequest.newBuilder().setFollow(true).build());
+      Assert.assertNull(following.error);
+      Assert.assertEquals(count + 1, BlockStreamer.getStreamCount());
+
+      TestObserver rejected = stream(BlockStreamRequest.newBuilder().setEndNum(2).build());
+      Assert.assertEquals(Status.Code.RESOURCE_EXHAUSTED,
+          Status.fromThrowable(rejected.error).getCode());
+
+      // a cancelled stream is counted off
+      following.cancelled = true;
+      following.onCancelHandler.run();
+      Assert.assertEquals(count, BlockStreamer.getStreamCount());
+      TestObserver observer = stream(BlockStreamRequest.newBuilder().setEndNum(2).build());
+      Assert.assertTrue(observer.completed);
+      Assert.assertEquals(count, BlockStreamer.getStreamCount());
+    } finally {
+      Args.getInstance().setRpcMaxBlockStreams(maxStreams);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package org.tron.core.services;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.api.GrpcAPI.TransactionExtention;
+import org.tron.api.WalletGrpc;
+import org.tron.api.WalletGrpc.WalletFutureStub;
+import org.tron.api.WalletGrpc.WalletImplBase;
+import org.tron.core.services.RpcCallScheduler.CostClass;
+import org.tron.protos.Contract.TriggerSmartContract;
+import org.tron.protos.Protocol.Account;
+
+public class RpcCallSchedulerTest {
+
+  private ExecutorService executor;
+  private RpcCallScheduler scheduler;
+  private Server server;
+  private ManagedChannel channel;
+
+  private final CountDownLatch triggered = new CountDownLatch(1);
+  private final CountDownLatch finish = new CountDownLatch(1);
+
+  /**
+   * Triggers wait until told to finish, the account is returned at once.
+   */
+  private class TestWallet extends WalletImplBase {
+
+    @Override
+    public void getAccount(Account request, StreamObserver<Account> responseObserver) {
+      responseObserver.onNext(request);
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void triggerContract(TriggerSmartContract request,
+        StreamObserver<TransactionExtention> responseObserver) {
+      triggered.countDown();
+      try {
+        finish.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      responseObserver.onNext(TransactionExtention.getDefaultInstance());
+      responseObserver.onCompleted();
+    }
+  }
+
+  @Before
+  public void init() throws IOException {
+    executor = Executors.newFixedThreadPool(4);
+    // one heavy call at once and one waiting
+    scheduler = new RpcCallScheduler(executor, 4, 1, 1, 0);
+    server = InProcessServerBuilder.forName("RpcCallSchedulerTest")
+        .executor(executor)
+        .addService(ServerInterceptors.intercept(new TestWallet(), scheduler))
+        .build()
+        .start();
+    channel = InProcessChannelBuilder.forName("RpcCallSchedulerTest").build();
+  }
+
+  @After
+  public void destroy() {
+    finish.countDown();
+    channel.shutdownNow();
+    server.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void bulkheadTest() throws Exception {
+    WalletFutureStub stub = WalletGrpc.newFutureStub(channel);
+    ListenableFuture<TransactionExtention> running =
+        stub.triggerContract(TriggerSmartContract.getDefaultInstance());
+    Assert.assertTrue(triggered.await(5, TimeUnit.SECONDS));
+
+    ListenableFuture<TransactionExtention> second =
+        stub.triggerContract(TriggerSmartContract.getDefaultInstance());
+    ListenableFuture<TransactionExtention> third =
+        stub.triggerContract(TriggerSmartContract.getDefaultInstance());
+
+    // light calls don't wait for the heavy ones
+    Account account = Account.newBuilder().setBalance(1).build();
+    Assert.assertEquals(account, WalletGrpc.newBlockingStub(channel).getAccount(account));
+
+    // one of them is parked, the other rejected
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!second.isDone() && !third.isDone() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    ListenableFuture<TransactionExtention> rejected = second.isDone() ? second : third;
+    ListenableFuture<TransactionExtention> parked = second.isDone() ? third : second;
+    try {
+      rejected.get();
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(e).getCode());
+    }
+    Assert.assertFalse(parked.isDone());
+
+    finish.countDown();
+    running.get(5, TimeUnit.SECONDS);
+    parked.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void adaptTest() {
+    RpcCallScheduler.Bulkhead bulkhead = scheduler.getBulkhead(CostClass.LIGHT);
+    for (int i = 0; i < 100; i++) {
+      bulkhead.adapt(1000, 4);
+    }
+    Assert.assertEquals(4, scheduler.getLimit(CostClass.LIGHT));
+
+    for (int i = 0; i < 100; i++) {
+      bulkhead.adapt(5000, 4);
+    }
+    Assert.assertEquals(3, scheduler.getLimit(CostClass.LIGHT));
+
+    // back to the usual latency, the limit is reached again and raised
+    for (int i = 0; i < 100; i++) {
+      bulkhead.adapt(1000, 3);
+    }
+    Assert.assertEquals(4, scheduler.getLimit(CostClass.LIGHT));
+
+    Assert.assertEquals(CostClass.HEAVY,
+        RpcCallScheduler.getCostClass("protocol.Wallet/TriggerContract"));
+    Assert.assertEquals(CostClass.LIGHT,
+        RpcCallScheduler.getCostClass("protocol.Wallet/BroadcastTransaction"));
+  }
+}
@@ -0,0 +1,102 @@
+package org.tron.core.services.http;
+
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestBodyFilterTest {
+
+  private Server server;
+  private int port;
+
+  /**
+   * Answers with the body it read, as the API servlets read it.
+   */
+  private static class EchoServlet extends HttpServlet {
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+      response.getOutputStream().write(Util.getRequestBody(request)
+          .getBytes(StandardCharsets.ISO_8859_1));
+    }
+  }
+
+  @Before
+  public void init() throws Exception {
+    server = new Server(0);
+    ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    ServletHolder holder = new ServletHolder(new EchoServlet());
+    holder.setAsyncSupported(true);
+    context.addServlet(holder, "/echo");
+    FilterHolder filter = new FilterHolder(new RequestBodyFilter(16, 1000));
+    filter.setAsyncSupported(true);
+    context.addFilter(filter, "/*", EnumSet.of(DispatcherType.REQUEST));
+    server.setHandler(context);
+    server.start();
+    port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+  }
+
+  @After
+  public void destroy() throws Exception {
+    server.stop();
+  }
+
+  private HttpURLConnection post(byte[] body, boolean chunked) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(
+        "http://127.0.0.1:" + port + "/echo").openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    if (chunked) {
+      connection.setChunkedStreamingMode(4);
+    }
+    try (OutputStream output = connection.getOutputStream()) {
+      output.write(body);
+    } catch (IOException e) {
+      // the server may refuse the body before it's all sent
+    }
+    return connection;
+  }
+
+  private static String read(HttpURLConnection connection) throws IOException {
+    try (InputStream input = connection.getInputStream()) {
+      return new String(ByteStreams.toByteArray(input), StandardCharsets.ISO_8859_1);
+    }
+  }
+
+  @Test
+  public void bodyTest() throws IOException {
+    // lines are kept as they were sent
+    String body = "{\"a\":\r\n1}\n";
+    Assert.assertEquals(body, read(post(body.getBytes(StandardCharsets.ISO_8859_1), false)));
+    Assert.assertEquals(body, read(post(body.getBytes(StandardCharsets.ISO_8859_1), true)));
+  }
+
+  @Test
+  public void maxSizeTest() throws IOException {
+    byte[] body = new byte[17];
+    Assert.assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+        post(body, false).getResponseCode());
+    Assert.assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+        post(body, true).getResponseCode());
+  }
+}
@@ -0,0 +1,68 @@
+package org.tron.core.services.http;
+
+import com.alibaba.fastjson.JSONObject;
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+public class UtilTest {
+
+  private static final String OWNER_ADDRESS =
+      Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc";
+  private static final String TO_ADDRESS =
+      Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc";
+
+  private static Transaction transfer() {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(ByteArray.fromHexString(OWNER_ADDRESS)))
+        .setToAddress(ByteString.copyFrom(ByteArray.fromHexString(TO_ADDRESS)))
+        .setAmount(100)
+        .build();
+    return new TransactionCapsule(contract, ContractType.TransferContract).getInstance();
+  }
+
+  @Test
+  public void printTransactionTest() {
+    Transaction transaction = transfer();
+    JSONObject json = JSONObject.parseObject(Util.printTransaction(transaction));
+
+    Assert.assertEquals(ByteArray.toHexString(
+        Sha256Hash.hash(transaction.getRawData().toByteArray())), json.getString("txID"));
+    JSONObject contract = json.getJSONObject("raw_data").getJSONArray("contract")
+        .getJSONObject(0);
+    Assert.assertEquals("TransferContract", contract.getString("type"));
+    JSONObject value = contract.getJSONObject("parameter").getJSONObject("value");
+    Assert.assertEquals(100, value.getLongValue("amount"));
+    Assert.assertEquals(OWNER_ADDRESS, value.getString("owner_address"));
+    Assert.assertEquals("type.googleapis.com/protocol.TransferContract",
+        contract.getJSONObject("parameter").getString("type_url"));
+
+    // the printed transaction reads back as the same one
+    Assert.assertEquals(transaction, Util.packTransaction(json.toJSONString()));
+  }
+
+  @Test
+  public void printBlockTest() {
+    BlockCapsule block = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 0,
+        ByteString.copyFrom(ByteArray.fromHexString(TO_ADDRESS)));
+    block.addTransaction(new TransactionCapsule(transfer()));
+    JSONObject json = JSONObject.parseObject(Util.printBlock(block.getInstance()));
+
+    Assert.assertEquals(ByteArray.toHexString(block.getBlockId().getBytes()),
+        json.getString("blockID"));
+    JSONObject transaction = json.getJSONArray("transactions").getJSONObject(0);
+    Assert.assertEquals(block.getTransactions().get(0).getTransactionId().toString(),
+        transaction.getString("txID"));
+    Assert.assertEquals(100, transaction.getJSONObject("raw_data").getJSONArray("contract")
+        .getJSONObject(0).getJSONObject("parameter").getJSONObject("value")
+        .getLongValue("amount"));
+  }
+}